@@ -14,10 +14,20 @@
 */
 package es.osoco.logging;
 
+import es.osoco.logging.helper.MessageFormatHelper;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Supplier;
 
 /**
  * Provides logging.
+ * <p>Besides plain messages, each level accepts message patterns via the {@code *f} methods,
+ * such as {@code infof("Order {} shipped to {}", orderId, address)}.
+ * The patterns are formatted only if the level is enabled, so they don't need
+ * any {@code isInfoEnabled()}-like guard.</p>
+ * <p>Messages expensive to build can be provided as {@link Supplier}s instead,
+ * such as {@code debug(() -> order.toJson())}. They are built only if the level is enabled.</p>
  */
 public interface Logging {
 
@@ -49,6 +59,110 @@ public interface Logging {
      */
     void error(@NonNull String category, @NonNull String msg, @NonNull Throwable error);
 
+    /**
+     * Logs an "error" message built from given pattern, replacing its {@code {}} placeholder.
+     * The message is formatted only if the "error" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg the argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void errorf(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isErrorEnabled()) {
+            errorf(pattern, new Object[] { arg });
+        }
+    }
+
+    /**
+     * Logs an "error" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "error" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void errorf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isErrorEnabled()) {
+            errorf(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    /**
+     * Logs an "error" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "error" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument.
+     * @param arg3 the third argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void errorf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isErrorEnabled()) {
+            errorf(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    /**
+     * Logs an "error" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "error" level is enabled.
+     * @param pattern the message pattern.
+     * @param args the arguments (if the last one is a {@link Throwable}, it's logged as the error).
+     */
+    default void errorf(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isErrorEnabled()) {
+            @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+            @Nullable final Throwable error = helper.retrieveError(args);
+
+            if (error == null) {
+                error(helper.format(pattern, args));
+            } else {
+                error(helper.format(pattern, args), error);
+            }
+        }
+    }
+
+    /**
+     * Logs an "error" message, built only if the "error" level is enabled.
+     * @param msg the message supplier.
+     */
+    default void error(@NonNull final Supplier<String> msg) {
+        if (isErrorEnabled()) {
+            error(msg.get());
+        }
+    }
+
+    /**
+     * Logs an "error" message in given category, built only if the "error" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     */
+    default void error(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isErrorEnabled(category)) {
+            error(category, msg.get());
+        }
+    }
+
+    /**
+     * Logs an "error" error, whose message is built only if the "error" level is enabled.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void error(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isErrorEnabled()) {
+            error(msg.get(), error);
+        }
+    }
+
+    /**
+     * Logs an "error" error in given category, whose message is built only if the "error" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void error(
+        @NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isErrorEnabled(category)) {
+            error(category, msg.get(), error);
+        }
+    }
+
     /**
      * Enables or disables the "error" level.
      * @param flag the flag.
@@ -103,6 +217,110 @@ public interface Logging {
      */
     void warn(@NonNull String category, @NonNull String msg, @NonNull Throwable error);
 
+    /**
+     * Logs a "warn" message built from given pattern, replacing its {@code {}} placeholder.
+     * The message is formatted only if the "warn" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg the argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void warnf(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isWarnEnabled()) {
+            warnf(pattern, new Object[] { arg });
+        }
+    }
+
+    /**
+     * Logs a "warn" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "warn" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void warnf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isWarnEnabled()) {
+            warnf(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    /**
+     * Logs a "warn" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "warn" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument.
+     * @param arg3 the third argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void warnf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isWarnEnabled()) {
+            warnf(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    /**
+     * Logs a "warn" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "warn" level is enabled.
+     * @param pattern the message pattern.
+     * @param args the arguments (if the last one is a {@link Throwable}, it's logged as the error).
+     */
+    default void warnf(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isWarnEnabled()) {
+            @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+            @Nullable final Throwable error = helper.retrieveError(args);
+
+            if (error == null) {
+                warn(helper.format(pattern, args));
+            } else {
+                warn(helper.format(pattern, args), error);
+            }
+        }
+    }
+
+    /**
+     * Logs a "warn" message, built only if the "warn" level is enabled.
+     * @param msg the message supplier.
+     */
+    default void warn(@NonNull final Supplier<String> msg) {
+        if (isWarnEnabled()) {
+            warn(msg.get());
+        }
+    }
+
+    /**
+     * Logs a "warn" message in given category, built only if the "warn" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     */
+    default void warn(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isWarnEnabled(category)) {
+            warn(category, msg.get());
+        }
+    }
+
+    /**
+     * Logs a "warn" error, whose message is built only if the "warn" level is enabled.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void warn(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isWarnEnabled()) {
+            warn(msg.get(), error);
+        }
+    }
+
+    /**
+     * Logs a "warn" error in given category, whose message is built only if the "warn" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void warn(
+        @NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isWarnEnabled(category)) {
+            warn(category, msg.get(), error);
+        }
+    }
+
     /**
      * Enables or disables the "warn" level.
      * @param flag the flag.
@@ -157,6 +375,110 @@ public interface Logging {
      */
     void info(@NonNull String category, @NonNull String msg, @NonNull Throwable error);
 
+    /**
+     * Logs an "info" message built from given pattern, replacing its {@code {}} placeholder.
+     * The message is formatted only if the "info" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg the argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void infof(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isInfoEnabled()) {
+            infof(pattern, new Object[] { arg });
+        }
+    }
+
+    /**
+     * Logs an "info" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "info" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void infof(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isInfoEnabled()) {
+            infof(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    /**
+     * Logs an "info" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "info" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument.
+     * @param arg3 the third argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void infof(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isInfoEnabled()) {
+            infof(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    /**
+     * Logs an "info" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "info" level is enabled.
+     * @param pattern the message pattern.
+     * @param args the arguments (if the last one is a {@link Throwable}, it's logged as the error).
+     */
+    default void infof(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isInfoEnabled()) {
+            @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+            @Nullable final Throwable error = helper.retrieveError(args);
+
+            if (error == null) {
+                info(helper.format(pattern, args));
+            } else {
+                info(helper.format(pattern, args), error);
+            }
+        }
+    }
+
+    /**
+     * Logs an "info" message, built only if the "info" level is enabled.
+     * @param msg the message supplier.
+     */
+    default void info(@NonNull final Supplier<String> msg) {
+        if (isInfoEnabled()) {
+            info(msg.get());
+        }
+    }
+
+    /**
+     * Logs an "info" message in given category, built only if the "info" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     */
+    default void info(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isInfoEnabled(category)) {
+            info(category, msg.get());
+        }
+    }
+
+    /**
+     * Logs an "info" error, whose message is built only if the "info" level is enabled.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void info(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isInfoEnabled()) {
+            info(msg.get(), error);
+        }
+    }
+
+    /**
+     * Logs an "info" error in given category, whose message is built only if the "info" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void info(
+        @NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isInfoEnabled(category)) {
+            info(category, msg.get(), error);
+        }
+    }
+
     /**
      * Enables or disables the "info" level.
      * @param flag the flag.
@@ -211,6 +533,110 @@ public interface Logging {
      */
     void debug(@NonNull String category, @NonNull String msg, @NonNull Throwable error);
 
+    /**
+     * Logs a "debug" message built from given pattern, replacing its {@code {}} placeholder.
+     * The message is formatted only if the "debug" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg the argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void debugf(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isDebugEnabled()) {
+            debugf(pattern, new Object[] { arg });
+        }
+    }
+
+    /**
+     * Logs a "debug" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "debug" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void debugf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isDebugEnabled()) {
+            debugf(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    /**
+     * Logs a "debug" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "debug" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument.
+     * @param arg3 the third argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void debugf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isDebugEnabled()) {
+            debugf(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    /**
+     * Logs a "debug" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "debug" level is enabled.
+     * @param pattern the message pattern.
+     * @param args the arguments (if the last one is a {@link Throwable}, it's logged as the error).
+     */
+    default void debugf(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isDebugEnabled()) {
+            @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+            @Nullable final Throwable error = helper.retrieveError(args);
+
+            if (error == null) {
+                debug(helper.format(pattern, args));
+            } else {
+                debug(helper.format(pattern, args), error);
+            }
+        }
+    }
+
+    /**
+     * Logs a "debug" message, built only if the "debug" level is enabled.
+     * @param msg the message supplier.
+     */
+    default void debug(@NonNull final Supplier<String> msg) {
+        if (isDebugEnabled()) {
+            debug(msg.get());
+        }
+    }
+
+    /**
+     * Logs a "debug" message in given category, built only if the "debug" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     */
+    default void debug(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isDebugEnabled(category)) {
+            debug(category, msg.get());
+        }
+    }
+
+    /**
+     * Logs a "debug" error, whose message is built only if the "debug" level is enabled.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void debug(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isDebugEnabled()) {
+            debug(msg.get(), error);
+        }
+    }
+
+    /**
+     * Logs a "debug" error in given category, whose message is built only if the "debug" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void debug(
+        @NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isDebugEnabled(category)) {
+            debug(category, msg.get(), error);
+        }
+    }
+
     /**
      * Enables or disables the "debug" level.
      * @param flag the flag.
@@ -265,6 +691,110 @@ public interface Logging {
      */
     void trace(@NonNull String category, @NonNull String msg, @NonNull Throwable error);
 
+    /**
+     * Logs a "trace" message built from given pattern, replacing its {@code {}} placeholder.
+     * The message is formatted only if the "trace" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg the argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void tracef(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isTraceEnabled()) {
+            tracef(pattern, new Object[] { arg });
+        }
+    }
+
+    /**
+     * Logs a "trace" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "trace" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void tracef(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isTraceEnabled()) {
+            tracef(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    /**
+     * Logs a "trace" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "trace" level is enabled.
+     * @param pattern the message pattern.
+     * @param arg1 the first argument.
+     * @param arg2 the second argument.
+     * @param arg3 the third argument (if it's a {@link Throwable}, it's logged as the error).
+     */
+    default void tracef(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isTraceEnabled()) {
+            tracef(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    /**
+     * Logs a "trace" message built from given pattern, replacing its {@code {}} placeholders.
+     * The message is formatted only if the "trace" level is enabled.
+     * @param pattern the message pattern.
+     * @param args the arguments (if the last one is a {@link Throwable}, it's logged as the error).
+     */
+    default void tracef(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isTraceEnabled()) {
+            @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+            @Nullable final Throwable error = helper.retrieveError(args);
+
+            if (error == null) {
+                trace(helper.format(pattern, args));
+            } else {
+                trace(helper.format(pattern, args), error);
+            }
+        }
+    }
+
+    /**
+     * Logs a "trace" message, built only if the "trace" level is enabled.
+     * @param msg the message supplier.
+     */
+    default void trace(@NonNull final Supplier<String> msg) {
+        if (isTraceEnabled()) {
+            trace(msg.get());
+        }
+    }
+
+    /**
+     * Logs a "trace" message in given category, built only if the "trace" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     */
+    default void trace(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isTraceEnabled(category)) {
+            trace(category, msg.get());
+        }
+    }
+
+    /**
+     * Logs a "trace" error, whose message is built only if the "trace" level is enabled.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void trace(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isTraceEnabled()) {
+            trace(msg.get(), error);
+        }
+    }
+
+    /**
+     * Logs a "trace" error in given category, whose message is built only if the "trace" level is enabled.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param error the error.
+     */
+    default void trace(
+        @NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isTraceEnabled(category)) {
+            trace(category, msg.get(), error);
+        }
+    }
+
     /**
      * Enables or disables the "trace" level.
      * @param flag the flag.
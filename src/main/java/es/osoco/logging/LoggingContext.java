@@ -38,4 +38,14 @@ public interface LoggingContext {
      * @param <T> the value type.
      */
     <T> void put(@NonNull final String key, @Nullable final T value);
+
+    /**
+     * Retrieves a copy of the values visible to the current thread, so that they can be read later
+     * from any other thread. Contexts not bound to threads can return themselves.
+     * @return such copy.
+     */
+    @NonNull
+    default LoggingContext snapshot() {
+        return this;
+    }
 }
@@ -18,18 +18,39 @@ import es.osoco.logging.adapter.LoggingAdapter;
 import es.osoco.logging.adapter.LoggingAdapterBuilder;
 import es.osoco.logging.adapter.LoggingAdapterBuilderRegistry;
 import es.osoco.logging.config.LoggingConfigurationRegistry;
+import es.osoco.logging.impl.CategoryLogging;
 import es.osoco.logging.impl.CompositeLogging;
+import es.osoco.logging.impl.FanOutCompositeLogging;
+import es.osoco.logging.impl.LoggingLanes;
 import es.osoco.logging.preferences.LoggingPrefs;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Knows how to provide {@link Logging} instances. Use this to create them.
+ * <p>Knows how to provide {@link Logging} instances. Use this to create them.</p>
+ * <p>Callers sharing the same preferred and fallback keys share the same {@link CompositeLogging},
+ * until the {@link LoggingAdapterBuilderRegistry} changes. Each composite retains its adapters in the registry,
+ * so that they stay open for as long as the composite is in use.</p>
  */
 public class LoggingFactory {
 
+    /**
+     * The composites created so far, per registry generation, and preferred and fallback keys.
+     */
+    @NonNull
+    private final ConcurrentMap<List<Object>, CompositeLogging> composites = new ConcurrentHashMap<>();
+
+    /**
+     * The registry generation the composites were created with.
+     */
+    private volatile long compositesGeneration = -1;
+
     /**
      * Singleton container to avoid double-check locking.
      */
@@ -57,6 +78,32 @@ public class LoggingFactory {
         return createLogging(LoggingPrefs.getInstance(), LoggingAdapterBuilderRegistry.getInstance());
     }
 
+    /**
+     * Creates a {@link Logging} instance bound to given category.
+     * It caches whether each level is enabled for the category, so it's meant to be kept,
+     * for instance in a static field.
+     * @param category the category.
+     * @return such instance.
+     */
+    @NonNull
+    public Logging createLogging(@NonNull final String category) {
+        ensureLoggingConfigurationRegistryInitialized();
+        return
+            new CategoryLogging(
+                category, createCompositeLogging(LoggingPrefs.getInstance(), LoggingAdapterBuilderRegistry.getInstance()));
+    }
+
+    /**
+     * Creates a {@link Logging} instance bound to the category of given class.
+     * @param clazz the class.
+     * @return such instance.
+     * @see #createLogging(String)
+     */
+    @NonNull
+    public Logging createLogging(@NonNull final Class<?> clazz) {
+        return createLogging(clazz.getName());
+    }
+
     /**
      * Ensures the {@link LoggingConfigurationRegistry} is initialized already.
      */
@@ -71,13 +118,86 @@ public class LoggingFactory {
      * @return such instance.
      */
     protected Logging createLogging(
+        @NonNull final LoggingPrefs prefs, @NonNull final LoggingAdapterBuilderRegistry registry) {
+        return createCompositeLogging(prefs, registry);
+    }
+
+    /**
+     * Creates the {@link CompositeLogging} instance.
+     * @param prefs the {@link LoggingPrefs} instance.
+     * @param registry the {@link LoggingAdapterBuilderRegistry} instance.
+     * @return such instance.
+     */
+    @NonNull
+    protected CompositeLogging createCompositeLogging(
         @NonNull final LoggingPrefs prefs, @NonNull final LoggingAdapterBuilderRegistry registry) {
         @NonNull final String[] preferred = prefs.myPreferredLogging();
         @NonNull final String[] fallback = prefs.myFallbackLogging();
+        @Nullable CompositeLogging result = null;
+
+        // the registry may change while building, in which case the composite is discarded
+        while (result == null) {
+            final long generation = registry.getGeneration();
+
+            if (generation != this.compositesGeneration) {
+                this.compositesGeneration = generation;
+                this.composites.keySet().removeIf(key -> !key.get(0).equals(generation));
+            }
+
+            @NonNull final CompositeLogging composite =
+                this.composites.computeIfAbsent(
+                    Arrays.asList(generation, Arrays.asList(preferred.clone()), Arrays.asList(fallback.clone())),
+                    keys -> buildCompositeLogging(preferred, fallback, registry));
+
+            if (registry.getGeneration() == generation) {
+                result = composite;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Discards the cached {@link CompositeLogging} instances, and the adapters they use.
+     */
+    public void invalidate() {
+        this.composites.clear();
+        LoggingAdapterBuilderRegistry.getInstance().invalidate();
+        LoggingLanes.getInstance().clear();
+    }
+
+    /**
+     * Builds a new {@link CompositeLogging} instance, which fans out to its preferred adapters
+     * if {@link LoggingLanes#isFanOutEnabled()}.
+     * @param preferred the preferred keys.
+     * @param fallback the fallback keys.
+     * @param registry the {@link LoggingAdapterBuilderRegistry} instance.
+     * @return such instance.
+     */
+    @NonNull
+    protected CompositeLogging buildCompositeLogging(
+        @NonNull final String[] preferred,
+        @NonNull final String[] fallback,
+        @NonNull final LoggingAdapterBuilderRegistry registry) {
         final List<LoggingAdapterBuilder<?, ?>> preferredBuilders = toBuilders(preferred, registry);
         final List<LoggingAdapterBuilder<?, ?>> fallbackBuilders = toBuilders(fallback, registry);
 
-        return new CompositeLogging(toAdapters(preferredBuilders), toAdapters(fallbackBuilders));
+        final List<LoggingAdapter> preferredAdapters = toAdapters(preferredBuilders, registry);
+        final List<LoggingAdapter> fallbackAdapters = toAdapters(fallbackBuilders, registry);
+
+        @NonNull final CompositeLogging result =
+            LoggingLanes.getInstance().isFanOutEnabled()
+            ? new FanOutCompositeLogging(preferredAdapters, fallbackAdapters)
+            : new CompositeLogging(preferredAdapters, fallbackAdapters);
+
+        for (@NonNull final LoggingAdapter adapter : preferredAdapters) {
+            registry.retain(adapter, result);
+        }
+        for (@NonNull final LoggingAdapter adapter : fallbackAdapters) {
+            registry.retain(adapter, result);
+        }
+
+        return result;
     }
 
     /**
@@ -102,15 +222,27 @@ public class LoggingFactory {
     }
 
     /**
-     * Requests given builders to build {@link LoggingAdapter}s.
+     * Retrieves the {@link LoggingAdapter}s of given builders.
      * @param builders the builders.
-     * @return the adapters just built.
+     * @return the adapters.
      */
     protected List<LoggingAdapter> toAdapters(final List<LoggingAdapterBuilder<?, ?>> builders) {
+        return toAdapters(builders, LoggingAdapterBuilderRegistry.getInstance());
+    }
+
+    /**
+     * Retrieves the {@link LoggingAdapter}s of given builders, building them only if the registry
+     * doesn't have them already.
+     * @param builders the builders.
+     * @param registry the builder registry.
+     * @return the adapters.
+     */
+    protected List<LoggingAdapter> toAdapters(
+        final List<LoggingAdapterBuilder<?, ?>> builders, final LoggingAdapterBuilderRegistry registry) {
         final List<LoggingAdapter> result = new ArrayList<>(builders.size());
 
         for (LoggingAdapterBuilder<?, ?> builder : builders) {
-            final LoggingAdapter adapter = builder.build();
+            final LoggingAdapter adapter = registry.getAdapter(builder);
 
             if (adapter != null) {
                 result.add(adapter);
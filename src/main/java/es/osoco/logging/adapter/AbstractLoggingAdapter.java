@@ -16,13 +16,16 @@ package es.osoco.logging.adapter;
 
 import es.osoco.logging.LoggingContext;
 import es.osoco.logging.config.LoggingConfiguration;
+import es.osoco.logging.config.LoggingLevelTracker;
+import es.osoco.logging.helper.CallerCategoryHelper;
+import es.osoco.logging.helper.MessageFormatHelper;
 import es.osoco.logging.impl.ThreadLocalLoggingContext;
-import me.nallar.whocalled.WhoCalled;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -38,6 +41,20 @@ import lombok.ToString;
 public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     implements LoggingAdapter<LC> {
 
+    /**
+     * Whether each adapter class overrides {@link #retrieveDefaultCategory()} or {@link #validCategory(String)}.
+     */
+    @NonNull
+    private static final ClassValue<Boolean> CUSTOMIZED_DEFAULT_CATEGORY =
+        new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(@NonNull final Class<?> type) {
+                return
+                    declaresBelowBase(type, "retrieveDefaultCategory")
+                    || declaresBelowBase(type, "validCategory", String.class);
+            }
+        };
+
     /**
      * The logging context.
      */
@@ -52,57 +69,38 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     /**
      * Whether "error" is enabled.
      */
-    private boolean errorEnabled;
-
-    /**
-     * Whether "error" is enabled for a given category.
-     */
-    private Map<String, Boolean> errorEnabledForCategory = new HashMap<>();
+    private volatile boolean errorEnabled;
 
     /**
      * Whether "warn" is enabled.
      */
-    private boolean warnEnabled;
-
-    /**
-     * Whether "warn" is enabled for a given category.
-     */
-    private Map<String, Boolean> warnEnabledForCategory = new HashMap<>();
+    private volatile boolean warnEnabled;
 
     /**
      * Whether "info" is enabled.
      */
-    private boolean infoEnabled;
-
-    /**
-     * Whether "info" is enabled for a given category.
-     */
-    private Map<String, Boolean> infoEnabledForCategory = new HashMap<>();
+    private volatile boolean infoEnabled;
 
     /**
      * Whether "debug" is enabled;
      */
-    private boolean debugEnabled;
-
-    /**
-     * Whether "debug" is enabled for a given category.
-     */
-    private Map<String, Boolean> debugEnabledForCategory = new HashMap<>();
+    private volatile boolean debugEnabled;
 
     /**
      * Whether "trace" is enabled;
      */
-    private boolean traceEnabled;
+    private volatile boolean traceEnabled;
 
     /**
-     * Whether "trace" is enabled for a given category.
+     * The levels set explicitly for categories, and the categories below them.
      */
-    private Map<String, Boolean> traceEnabledForCategory = new HashMap<>();
+    @NonNull
+    private final CategoryLevelRegistry categoryLevels = new CategoryLevelRegistry();
 
     /**
      * Whether the log levels have been customized explicitly.
      */
-    private boolean levelsCustomized;
+    private volatile boolean levelsCustomized;
 
     /**
      * Creates a new {@link LoggingAdapter} with given configuration.
@@ -199,6 +197,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     @SuppressWarnings("unused")
     public void setErrorEnabled(final boolean flag) {
         this.errorEnabled = flag;
+        notifyLevelsChanged();
     }
 
     @Override
@@ -209,22 +208,13 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     @Override
     @SuppressWarnings("unused")
     public void setErrorEnabled(@NonNull final String category, final boolean flag) {
-        this.errorEnabledForCategory.put(category, flag);
+        this.categoryLevels.set(category, LogLevel.ERROR, flag);
+        notifyLevelsChanged();
     }
 
     @Override
     public boolean isErrorEnabled(@NonNull final String category) {
-        final boolean result;
-
-        @Nullable final Boolean categoryEnabled = this.errorEnabledForCategory.get(category);
-
-        if (categoryEnabled == null) {
-            result = isErrorEnabled();
-        } else {
-            result = categoryEnabled;
-        }
-
-        return result;
+        return isEnabled(LogLevel.ERROR, category);
     }
 
     /**
@@ -244,12 +234,14 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     @SuppressWarnings("unused")
     public void setWarnEnabled(final boolean flag) {
         this.warnEnabled = flag;
+        notifyLevelsChanged();
     }
 
     @Override
     @SuppressWarnings("unused")
     public void setWarnEnabled(@NonNull final String category, final boolean flag) {
-        this.warnEnabledForCategory.put(category, flag);
+        this.categoryLevels.set(category, LogLevel.WARN, flag);
+        notifyLevelsChanged();
     }
 
     @Override
@@ -259,17 +251,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
 
     @Override
     public boolean isWarnEnabled(@NonNull final String category) {
-        final boolean result;
-
-        @Nullable final Boolean categoryEnabled = this.warnEnabledForCategory.get(category);
-
-        if (categoryEnabled == null) {
-            result = isWarnEnabled();
-        } else {
-            result = categoryEnabled;
-        }
-
-        return result;
+        return isEnabled(LogLevel.WARN, category);
     }
 
     /**
@@ -290,12 +272,14 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     @Override
     public void setInfoEnabled(final boolean flag) {
         this.infoEnabled = flag;
+        notifyLevelsChanged();
     }
 
     @Override
     @SuppressWarnings("unused")
     public void setInfoEnabled(@NonNull final String category, final boolean flag) {
-        this.infoEnabledForCategory.put(category, flag);
+        this.categoryLevels.set(category, LogLevel.INFO, flag);
+        notifyLevelsChanged();
     }
 
     @Override
@@ -305,17 +289,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
 
     @Override
     public boolean isInfoEnabled(@NonNull final String category) {
-        final boolean result;
-
-        @Nullable final Boolean categoryEnabled = this.infoEnabledForCategory.get(category);
-
-        if (categoryEnabled == null) {
-            result = isInfoEnabled();
-        } else {
-            result = categoryEnabled;
-        }
-
-        return result;
+        return isEnabled(LogLevel.INFO, category);
     }
 
     /**
@@ -336,12 +310,14 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     @Override
     public void setDebugEnabled(final boolean flag) {
         this.debugEnabled = flag;
+        notifyLevelsChanged();
     }
 
     @Override
     @SuppressWarnings("unused")
     public void setDebugEnabled(@NonNull final String category, final boolean flag) {
-        this.debugEnabledForCategory.put(category, flag);
+        this.categoryLevels.set(category, LogLevel.DEBUG, flag);
+        notifyLevelsChanged();
     }
 
     @Override
@@ -351,17 +327,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
 
     @Override
     public boolean isDebugEnabled(@NonNull final String category) {
-        final boolean result;
-
-        @Nullable final Boolean categoryEnabled = this.debugEnabledForCategory.get(category);
-
-        if (categoryEnabled == null) {
-            result = isDebugEnabled();
-        } else {
-            result = categoryEnabled;
-        }
-
-        return result;
+        return isEnabled(LogLevel.DEBUG, category);
     }
 
     /**
@@ -382,12 +348,14 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
     @Override
     public void setTraceEnabled(final boolean flag) {
         this.traceEnabled = flag;
+        notifyLevelsChanged();
     }
 
     @Override
     @SuppressWarnings("unused")
     public void setTraceEnabled(@NonNull final String category, final boolean flag) {
-        this.traceEnabledForCategory.put(category, flag);
+        this.categoryLevels.set(category, LogLevel.TRACE, flag);
+        notifyLevelsChanged();
     }
 
     @Override
@@ -397,17 +365,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
 
     @Override
     public boolean isTraceEnabled(@NonNull final String category) {
-        final boolean result;
-
-        @Nullable final Boolean categoryEnabled = this.traceEnabledForCategory.get(category);
-
-        if (categoryEnabled == null) {
-            result = isTraceEnabled();
-        } else {
-            result = categoryEnabled;
-        }
-
-        return result;
+        return isEnabled(LogLevel.TRACE, category);
     }
 
     /**
@@ -426,6 +384,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
      */
     protected void setLevelsCustomized(final boolean flag) {
         this.levelsCustomized = flag;
+        notifyLevelsChanged();
     }
 
     /**
@@ -442,19 +401,63 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
      */
     @Nullable
     protected String retrieveDefaultCategory() {
-        @Nullable String result = null;
+        return CallerCategoryHelper.getInstance().retrieveCallerCategory(this::validCategory);
+    }
 
-        for (int i=1; ; i++) {
+    /**
+     * Checks whether this adapter resolves the default category by itself, overriding
+     * {@link #retrieveDefaultCategory()} or {@link #validCategory(String)}.
+     * Otherwise, the default category of each {@link LogEvent} is resolved once for all adapters.
+     * @return {@code true} in such case.
+     */
+    protected boolean customizesDefaultCategory() {
+        return CUSTOMIZED_DEFAULT_CATEGORY.get(getClass());
+    }
+
+    /**
+     * Checks whether any class from given one up to, but not including, this one declares given method.
+     * @param type the class.
+     * @param name the method name.
+     * @param parameterTypes the method parameter types.
+     * @return {@code true} in such case.
+     */
+    protected static boolean declaresBelowBase(
+        @NonNull final Class<?> type, @NonNull final String name, @NonNull final Class<?>... parameterTypes) {
+        boolean result = false;
+
+        for (@Nullable Class<?> current = type;
+             current != null && current != AbstractLoggingAdapter.class && !result;
+             current = current.getSuperclass()) {
             try {
-                @NonNull final String aux = WhoCalled.$.getCallingClass(i).getName();
-                if (validCategory(aux)) {
-                    result = aux;
-                    break;
-                }
-            } catch (@NonNull final Throwable throwable) {
-                break;
+                current.getDeclaredMethod(name, parameterTypes);
+                result = true;
+            } catch (@NonNull final NoSuchMethodException notDeclared) {
+                // look it up in the superclass.
             }
         }
+
+        return result;
+    }
+
+    /**
+     * Makes given event carry the default category as resolved by this adapter, if it
+     * {@link #customizesDefaultCategory() customizes it}. It must be called from the logging thread.
+     * @param event the event.
+     * @return either the same event, or a new one whose explicit category is the default one.
+     */
+    @NonNull
+    protected LogEvent withDefaultCategory(@NonNull final LogEvent event) {
+        @NonNull final LogEvent result;
+
+        if (event.getExplicitCategory() != null || !customizesDefaultCategory()) {
+            result = event;
+        } else {
+            result =
+                new LogEvent()
+                    .populate(
+                        event.getLevel(), retrieveDefaultCategory(), event.getMessage(), event.getError(), event.getContext());
+        }
+
         return result;
     }
 
@@ -464,7 +467,7 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
      * @return {@code true} if the category is valid; {@code false} otherwise.
      */
     protected boolean validCategory(@NonNull final String category) {
-        return (!category.startsWith("es.osoco.logging") && !category.startsWith("org.codehaus.groovy"));
+        return CallerCategoryHelper.getInstance().isValidCategory(category);
     }
 
     @Override
@@ -495,6 +498,80 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
         }
     }
 
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isErrorEnabled()) {
+            logErrorFormatted(pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isErrorEnabled()) {
+            logErrorFormatted(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void errorf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isErrorEnabled()) {
+            logErrorFormatted(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isErrorEnabled()) {
+            logErrorFormatted(pattern, args);
+        }
+    }
+
+    /**
+     * Formats and logs an "error" message in the default category.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logErrorFormatted(@NonNull final String pattern, @Nullable final Object[] args) {
+        @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+        @NonNull final String msg = helper.format(pattern, args);
+        @Nullable final Throwable error = helper.retrieveError(args);
+
+        if (error == null) {
+            logError(retrieveDefaultCategory(), msg);
+        } else {
+            logError(retrieveDefaultCategory(), msg, error);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final Supplier<String> msg) {
+        if (isErrorEnabled()) {
+            logError(retrieveDefaultCategory(), msg.get());
+        }
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isErrorEnabled(category)) {
+            logError(category, msg.get());
+        }
+    }
+
+    @Override
+    public void error(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isErrorEnabled()) {
+            logError(retrieveDefaultCategory(), msg.get(), error);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isErrorEnabled(category)) {
+            logError(category, msg.get(), error);
+        }
+    }
+
     /**
      * Logs an "error" message in given category.
      * @param category the category.
@@ -538,6 +615,80 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
         }
     }
 
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isWarnEnabled()) {
+            logWarnFormatted(pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isWarnEnabled()) {
+            logWarnFormatted(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void warnf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isWarnEnabled()) {
+            logWarnFormatted(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isWarnEnabled()) {
+            logWarnFormatted(pattern, args);
+        }
+    }
+
+    /**
+     * Formats and logs a "warn" message in the default category.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logWarnFormatted(@NonNull final String pattern, @Nullable final Object[] args) {
+        @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+        @NonNull final String msg = helper.format(pattern, args);
+        @Nullable final Throwable error = helper.retrieveError(args);
+
+        if (error == null) {
+            logWarn(retrieveDefaultCategory(), msg);
+        } else {
+            logWarn(retrieveDefaultCategory(), msg, error);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final Supplier<String> msg) {
+        if (isWarnEnabled()) {
+            logWarn(retrieveDefaultCategory(), msg.get());
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isWarnEnabled(category)) {
+            logWarn(category, msg.get());
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isWarnEnabled()) {
+            logWarn(retrieveDefaultCategory(), msg.get(), error);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isWarnEnabled(category)) {
+            logWarn(category, msg.get(), error);
+        }
+    }
+
     /**
      * Logs a "warn" message in given category.
      * @param category the category.
@@ -581,6 +732,80 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
         }
     }
 
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isInfoEnabled()) {
+            logInfoFormatted(pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isInfoEnabled()) {
+            logInfoFormatted(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void infof(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isInfoEnabled()) {
+            logInfoFormatted(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isInfoEnabled()) {
+            logInfoFormatted(pattern, args);
+        }
+    }
+
+    /**
+     * Formats and logs an "info" message in the default category.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logInfoFormatted(@NonNull final String pattern, @Nullable final Object[] args) {
+        @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+        @NonNull final String msg = helper.format(pattern, args);
+        @Nullable final Throwable error = helper.retrieveError(args);
+
+        if (error == null) {
+            logInfo(retrieveDefaultCategory(), msg);
+        } else {
+            logInfo(retrieveDefaultCategory(), msg, error);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final Supplier<String> msg) {
+        if (isInfoEnabled()) {
+            logInfo(retrieveDefaultCategory(), msg.get());
+        }
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isInfoEnabled(category)) {
+            logInfo(category, msg.get());
+        }
+    }
+
+    @Override
+    public void info(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isInfoEnabled()) {
+            logInfo(retrieveDefaultCategory(), msg.get(), error);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isInfoEnabled(category)) {
+            logInfo(category, msg.get(), error);
+        }
+    }
+
     /**
      * Logs an "info" message in given category.
      * @param category the category.
@@ -624,6 +849,80 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
         }
     }
 
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isDebugEnabled()) {
+            logDebugFormatted(pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isDebugEnabled()) {
+            logDebugFormatted(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void debugf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isDebugEnabled()) {
+            logDebugFormatted(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isDebugEnabled()) {
+            logDebugFormatted(pattern, args);
+        }
+    }
+
+    /**
+     * Formats and logs a "debug" message in the default category.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logDebugFormatted(@NonNull final String pattern, @Nullable final Object[] args) {
+        @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+        @NonNull final String msg = helper.format(pattern, args);
+        @Nullable final Throwable error = helper.retrieveError(args);
+
+        if (error == null) {
+            logDebug(retrieveDefaultCategory(), msg);
+        } else {
+            logDebug(retrieveDefaultCategory(), msg, error);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final Supplier<String> msg) {
+        if (isDebugEnabled()) {
+            logDebug(retrieveDefaultCategory(), msg.get());
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isDebugEnabled(category)) {
+            logDebug(category, msg.get());
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isDebugEnabled()) {
+            logDebug(retrieveDefaultCategory(), msg.get(), error);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isDebugEnabled(category)) {
+            logDebug(category, msg.get(), error);
+        }
+    }
+
     /**
      * Logs a "debug" message in given category.
      * @param category the category.
@@ -667,6 +966,80 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
         }
     }
 
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object arg) {
+        if (isTraceEnabled()) {
+            logTraceFormatted(pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if (isTraceEnabled()) {
+            logTraceFormatted(pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void tracef(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if (isTraceEnabled()) {
+            logTraceFormatted(pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object... args) {
+        if (isTraceEnabled()) {
+            logTraceFormatted(pattern, args);
+        }
+    }
+
+    /**
+     * Formats and logs a "trace" message in the default category.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logTraceFormatted(@NonNull final String pattern, @Nullable final Object[] args) {
+        @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+        @NonNull final String msg = helper.format(pattern, args);
+        @Nullable final Throwable error = helper.retrieveError(args);
+
+        if (error == null) {
+            logTrace(retrieveDefaultCategory(), msg);
+        } else {
+            logTrace(retrieveDefaultCategory(), msg, error);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final Supplier<String> msg) {
+        if (isTraceEnabled()) {
+            logTrace(retrieveDefaultCategory(), msg.get());
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        if (isTraceEnabled(category)) {
+            logTrace(category, msg.get());
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isTraceEnabled()) {
+            logTrace(retrieveDefaultCategory(), msg.get(), error);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if (isTraceEnabled(category)) {
+            logTrace(category, msg.get(), error);
+        }
+    }
+
     /**
      * Logs a "trace" message in given category.
      * @param category the category.
@@ -682,6 +1055,203 @@ public abstract class AbstractLoggingAdapter<LC extends LoggingConfiguration>
      */
     protected abstract void logTrace(@Nullable String category, @NonNull String msg, @NonNull Throwable error);
 
+    /**
+     * Announces a change in the levels of this adapter, so that cached levels get resolved again.
+     */
+    protected void notifyLevelsChanged() {
+        LoggingLevelTracker.getInstance().levelsChanged();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void log(@NonNull final LogEvent event) {
+        if (isEnabled(event)) {
+            logEvent(withDefaultCategory(event));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The level is not checked again: the event goes straight to {@link #logEvent(LogEvent)}.
+     */
+    @Override
+    public void logEnabled(@NonNull final LogEvent event) {
+        logEvent(withDefaultCategory(event));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The enabled events are handed over together to {@link #logEvents(List)}.
+     */
+    @Override
+    public void logBatch(@NonNull final List<LogEvent> events) {
+        @NonNull final List<LogEvent> enabled = new ArrayList<>(events.size());
+
+        for (@NonNull final LogEvent event : events) {
+            if (isEnabled(event)) {
+                enabled.add(withDefaultCategory(event));
+            }
+        }
+
+        if (!enabled.isEmpty()) {
+            logEvents(enabled);
+        }
+    }
+
+    /**
+     * Checks whether given event should be logged, based on its level and explicit category.
+     * @param event the event.
+     * @return {@code true} if it's enabled, {@code false} otherwise.
+     */
+    protected boolean isEnabled(@NonNull final LogEvent event) {
+        @Nullable final String category = event.getExplicitCategory();
+
+        return (category == null) ? isEnabled(event.getLevel()) : isEnabled(event.getLevel(), category);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEnabled(@NonNull final LogLevel level) {
+        final boolean result;
+
+        switch (level) {
+            case ERROR:
+                result = isErrorEnabled();
+                break;
+            case WARN:
+                result = isWarnEnabled();
+                break;
+            case INFO:
+                result = isInfoEnabled();
+                break;
+            case DEBUG:
+                result = isDebugEnabled();
+                break;
+            default:
+                result = isTraceEnabled();
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEnabled(@NonNull final LogLevel level, @NonNull final String category) {
+        final boolean result;
+
+        final int mask = this.categoryLevels.resolve(category);
+
+        if (CategoryLevelRegistry.isSet(mask, level)) {
+            result = CategoryLevelRegistry.isEnabled(mask, level);
+        } else {
+            result = isEnabled(level);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given level could be enabled at all, either globally or for any category.
+     * Used by {@link LoggingLevelSwitches}.
+     * @param level the level.
+     * @return {@code true} in such case.
+     */
+    protected boolean mayBeEnabledAnywhere(@NonNull final LogLevel level) {
+        final boolean result;
+
+        final boolean customized = getLevelsCustomized();
+        @NonNull final LoggingConfiguration conf = getLoggingConfiguration();
+
+        switch (level) {
+            case ERROR:
+                result = isErrorEnabled(customized, conf);
+                break;
+            case WARN:
+                result = isWarnEnabled(customized, conf);
+                break;
+            case INFO:
+                result = isInfoEnabled(customized, conf);
+                break;
+            case DEBUG:
+                result = isDebugEnabled(customized, conf);
+                break;
+            default:
+                result = isTraceEnabled(customized, conf);
+                break;
+        }
+
+        return result || this.categoryLevels.isEnabledAnywhere(level);
+    }
+
+    /**
+     * Logs given events, already known to be enabled.
+     * By default, it logs them one by one via {@link #logEvent(LogEvent)}.
+     * Override me if the destination can take several events at once.
+     * @param events the events.
+     */
+    protected void logEvents(@NonNull final List<LogEvent> events) {
+        for (@NonNull final LogEvent event : events) {
+            logEvent(event);
+        }
+    }
+
+    /**
+     * Logs given event, already known to be enabled.
+     * By default, it delegates on the per-level methods.
+     * Override me to take advantage of the information the event already resolved.
+     * @param event the event.
+     */
+    protected void logEvent(@NonNull final LogEvent event) {
+        @Nullable final String category = event.getCategory();
+        @NonNull final String msg = event.getMessage();
+        @Nullable final Throwable error = event.getError();
+
+        switch (event.getLevel()) {
+            case ERROR:
+                if (error == null) {
+                    logError(category, msg);
+                } else {
+                    logError(category, msg, error);
+                }
+                break;
+            case WARN:
+                if (error == null) {
+                    logWarn(category, msg);
+                } else {
+                    logWarn(category, msg, error);
+                }
+                break;
+            case INFO:
+                if (error == null) {
+                    logInfo(category, msg);
+                } else {
+                    logInfo(category, msg, error);
+                }
+                break;
+            case DEBUG:
+                if (error == null) {
+                    logDebug(category, msg);
+                } else {
+                    logDebug(category, msg, error);
+                }
+                break;
+            default:
+                if (error == null) {
+                    logTrace(category, msg);
+                } else {
+                    logTrace(category, msg, error);
+                }
+                break;
+        }
+    }
+
     /**
      * Builds a message prefix based on given category.
      * @param category the category.
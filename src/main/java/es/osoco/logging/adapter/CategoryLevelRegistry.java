@@ -0,0 +1,253 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>Keeps the log levels enabled or disabled explicitly for categories.</p>
+ * <p>Categories are hierarchical: a level set for {@code com.acme} applies to {@code com.acme.orders}
+ * as well, unless {@code com.acme.orders} sets it explicitly.</p>
+ * <p>Settings are kept in an immutable prefix tree, replaced as a whole on every change,
+ * so reads never lock. The levels of each category are resolved once per tree.</p>
+ */
+@ToString(of = "root")
+@EqualsAndHashCode(of = "root")
+public class CategoryLevelRegistry {
+
+    /**
+     * The maximum number of categories whose levels are remembered.
+     */
+    public static final int MAX_RESOLVED_CATEGORIES = 4096;
+
+    /**
+     * The bits telling which levels are set, within a resolved mask.
+     */
+    protected static final int SET_SHIFT = LogLevel.values().length;
+
+    /**
+     * The resolved mask meaning no level is set.
+     */
+    public static final int UNSET = 0;
+
+    /**
+     * The current tree.
+     */
+    @NonNull
+    private volatile Node root = Node.EMPTY;
+
+    /**
+     * The levels resolved for each category, within the current tree.
+     */
+    @NonNull
+    private volatile ConcurrentHashMap<String, Integer> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Enables or disables given level for given category, and the categories below it.
+     * @param category the category.
+     * @param level the level.
+     * @param flag whether to enable or disable it.
+     */
+    public synchronized void set(@NonNull final String category, @NonNull final LogLevel level, final boolean flag) {
+        this.root = this.root.with(category, 0, level, flag);
+        this.resolved = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resolves the levels of given category.
+     * Use {@link #isSet(int, LogLevel)} and {@link #isEnabled(int, LogLevel)} to check them.
+     * @param category the category.
+     * @return the resolved mask.
+     */
+    public int resolve(@NonNull final String category) {
+        final int result;
+
+        @NonNull final ConcurrentHashMap<String, Integer> cache = this.resolved;
+        @NonNull final Node tree = this.root;
+
+        @Nullable final Integer cached = cache.get(category);
+
+        if (cached != null) {
+            result = cached;
+        } else if (tree == Node.EMPTY) {
+            result = UNSET;
+        } else {
+            result = tree.resolve(category);
+
+            if (cache.size() < MAX_RESOLVED_CATEGORIES) {
+                cache.putIfAbsent(category, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given level is enabled for any category.
+     * @param level the level.
+     * @return {@code true} in such case.
+     */
+    public boolean isEnabledAnywhere(@NonNull final LogLevel level) {
+        return (this.root.enabledBelow & (1 << level.ordinal())) != 0;
+    }
+
+    /**
+     * Checks whether given level is set explicitly in given resolved mask.
+     * @param mask the mask, as returned by {@link #resolve(String)}.
+     * @param level the level.
+     * @return {@code true} in such case.
+     */
+    public static boolean isSet(final int mask, @NonNull final LogLevel level) {
+        return (mask & (1 << (level.ordinal() + SET_SHIFT))) != 0;
+    }
+
+    /**
+     * Checks whether given level is enabled in given resolved mask.
+     * Only meaningful if {@link #isSet(int, LogLevel)}.
+     * @param mask the mask, as returned by {@link #resolve(String)}.
+     * @param level the level.
+     * @return {@code true} in such case.
+     */
+    public static boolean isEnabled(final int mask, @NonNull final LogLevel level) {
+        return (mask & (1 << level.ordinal())) != 0;
+    }
+
+    /**
+     * A node of the tree, for one segment of the category. Never modified once built.
+     */
+    @ToString
+    @EqualsAndHashCode
+    protected static final class Node {
+
+        /**
+         * The empty tree.
+         */
+        @NonNull
+        protected static final Node EMPTY = new Node(0, 0, Collections.emptyMap());
+
+        /**
+         * The bits of the levels set explicitly.
+         */
+        private final int set;
+
+        /**
+         * The bits of the levels enabled, among those set.
+         */
+        private final int enabled;
+
+        /**
+         * The nodes below, per segment.
+         */
+        @NonNull
+        private final Map<String, Node> children;
+
+        /**
+         * The bits of the levels enabled in this node, or any below it.
+         */
+        private final int enabledBelow;
+
+        /**
+         * Creates a new node.
+         * @param set the bits of the levels set explicitly.
+         * @param enabled the bits of the levels enabled.
+         * @param children the nodes below.
+         */
+        protected Node(final int set, final int enabled, @NonNull final Map<String, Node> children) {
+            this.set = set;
+            this.enabled = enabled;
+            this.children = children;
+
+            int below = enabled;
+            for (@NonNull final Node child : children.values()) {
+                below |= child.enabledBelow;
+            }
+            this.enabledBelow = below;
+        }
+
+        /**
+         * Builds a copy of this node, with given level set for given category.
+         * @param category the category.
+         * @param start where the segment of this node's child starts.
+         * @param level the level.
+         * @param flag whether the level is enabled.
+         * @return the new node.
+         */
+        @NonNull
+        protected Node with(
+            @NonNull final String category, final int start, @NonNull final LogLevel level, final boolean flag) {
+            @NonNull final Node result;
+
+            if (start > category.length()) {
+                final int bit = 1 << level.ordinal();
+                result = new Node(this.set | bit, flag ? (this.enabled | bit) : (this.enabled & ~bit), this.children);
+            } else {
+                final int end = segmentEnd(category, start);
+                @NonNull final String segment = category.substring(start, end);
+                @Nullable final Node child = this.children.get(segment);
+                @NonNull final Map<String, Node> newChildren = new HashMap<>(this.children);
+                newChildren.put(segment, (child == null ? EMPTY : child).with(category, end + 1, level, flag));
+                result = new Node(this.set, this.enabled, newChildren);
+            }
+
+            return result;
+        }
+
+        /**
+         * Resolves the levels of given category, taking the deepest setting of each level.
+         * @param category the category.
+         * @return the resolved mask.
+         */
+        protected int resolve(@NonNull final String category) {
+            int set = this.set;
+            int enabled = this.enabled;
+            @Nullable Node node = this;
+            int start = 0;
+
+            while (node != null && start <= category.length()) {
+                final int end = segmentEnd(category, start);
+                node = node.children.get(category.substring(start, end));
+
+                if (node != null) {
+                    enabled = (enabled & ~node.set) | node.enabled;
+                    set |= node.set;
+                }
+                start = end + 1;
+            }
+
+            return (set << SET_SHIFT) | enabled;
+        }
+
+        /**
+         * Finds where the segment starting at given position ends.
+         * @param category the category.
+         * @param start the start of the segment.
+         * @return the position of the next dot, or the length of the category.
+         */
+        protected static int segmentEnd(@NonNull final String category, final int start) {
+            final int dot = category.indexOf('.', start);
+
+            return (dot < 0) ? category.length() : dot;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter;
+
+import es.osoco.logging.LoggingContext;
+import es.osoco.logging.config.LoggingConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>Base class for adapters decorating another {@link LoggingAdapter}, to change how events reach it.</p>
+ * <p>The levels, and the logging context, are those of the decorated adapter. All events end up
+ * in {@link #logEvent(LogEvent)}.</p>
+ * @param <LC> the {@link LoggingConfiguration} type.
+ */
+@ToString(of = "delegate", callSuper = false)
+@EqualsAndHashCode(of = "delegate", callSuper = false)
+public abstract class DelegatingLoggingAdapter<LC extends LoggingConfiguration>
+    extends AbstractLoggingAdapter<LC> {
+
+    /**
+     * The events populated by each thread, before handing them over.
+     */
+    @NonNull
+    private static final ThreadLocal<LogEvent> SCRATCH_EVENTS = ThreadLocal.withInitial(LogEvent::new);
+
+    /**
+     * The decorated adapter.
+     */
+    @NonNull
+    private final LoggingAdapter<LC> delegate;
+
+    /**
+     * The hook closing this adapter when the JVM shuts down, if any.
+     */
+    @Nullable
+    private Thread shutdownHook;
+
+    /**
+     * Creates a new adapter decorating given one.
+     * @param delegate the decorated adapter.
+     */
+    protected DelegatingLoggingAdapter(@NonNull final LoggingAdapter<LC> delegate) {
+        super(delegate.getLoggingConfiguration());
+        this.delegate = delegate;
+    }
+
+    /**
+     * Closes this adapter when the JVM shuts down, unless closed before.
+     */
+    public synchronized void closeOnShutdown() {
+        if (this.shutdownHook == null) {
+            this.shutdownHook = new Thread(this::close);
+            Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+        }
+    }
+
+    /**
+     * Forgets the shutdown hook, if any, since it's closed already.
+     * The decorated adapter is left as is.
+     */
+    @Override
+    public synchronized void close() {
+        @Nullable final Thread hook = this.shutdownHook;
+
+        if (hook != null) {
+            this.shutdownHook = null;
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (@NonNull final IllegalStateException shuttingDown) {
+                // the hook is running, or about to
+            }
+        }
+    }
+
+    /**
+     * Retrieves the decorated adapter.
+     * @return such adapter.
+     */
+    @NonNull
+    public LoggingAdapter<LC> getDelegate() {
+        return this.delegate;
+    }
+
+    @Override
+    @NonNull
+    public LoggingContext getLoggingContext() {
+        return this.delegate.getLoggingContext();
+    }
+
+    @Override
+    public boolean isEnabled(@NonNull final LogLevel level) {
+        return this.delegate.isEnabled(level);
+    }
+
+    @Override
+    public boolean isEnabled(@NonNull final LogLevel level, @NonNull final String category) {
+        return this.delegate.isEnabled(level, category);
+    }
+
+    /**
+     * The decorated adapter answers this by itself, if it's an {@link AbstractLoggingAdapter}.
+     * Otherwise, or while this adapter is being built, it could log any level.
+     * @param level the level.
+     * @return {@code true} unless the decorated adapter is an {@link AbstractLoggingAdapter}.
+     */
+    @Override
+    protected boolean mayBeEnabledAnywhere(@NonNull final LogLevel level) {
+        @Nullable final LoggingAdapter<LC> aux = this.delegate;
+
+        return !(aux instanceof AbstractLoggingAdapter);
+    }
+
+    /**
+     * The decorated adapter decides, if it's an {@link AbstractLoggingAdapter}.
+     * @return {@code true} if the decorated adapter customizes the default category.
+     */
+    @Override
+    protected boolean customizesDefaultCategory() {
+        @Nullable final LoggingAdapter<LC> aux = this.delegate;
+
+        return aux instanceof AbstractLoggingAdapter && ((AbstractLoggingAdapter<LC>) aux).customizesDefaultCategory();
+    }
+
+    /**
+     * The default category is the one the decorated adapter would use, if it's an {@link AbstractLoggingAdapter}.
+     * @return such category.
+     */
+    @Override
+    @Nullable
+    protected String retrieveDefaultCategory() {
+        @Nullable final LoggingAdapter<LC> aux = this.delegate;
+
+        return
+            (aux instanceof AbstractLoggingAdapter)
+            ? ((AbstractLoggingAdapter<LC>) aux).retrieveDefaultCategory()
+            : super.retrieveDefaultCategory();
+    }
+
+    @Override
+    public void setErrorEnabled(final boolean flag) {
+        this.delegate.setErrorEnabled(flag);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return this.delegate.isErrorEnabled();
+    }
+
+    @Override
+    public void setErrorEnabled(@NonNull final String category, final boolean flag) {
+        this.delegate.setErrorEnabled(category, flag);
+    }
+
+    @Override
+    public boolean isErrorEnabled(@NonNull final String category) {
+        return this.delegate.isErrorEnabled(category);
+    }
+
+    @Override
+    public void setWarnEnabled(final boolean flag) {
+        this.delegate.setWarnEnabled(flag);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return this.delegate.isWarnEnabled();
+    }
+
+    @Override
+    public void setWarnEnabled(@NonNull final String category, final boolean flag) {
+        this.delegate.setWarnEnabled(category, flag);
+    }
+
+    @Override
+    public boolean isWarnEnabled(@NonNull final String category) {
+        return this.delegate.isWarnEnabled(category);
+    }
+
+    @Override
+    public void setInfoEnabled(final boolean flag) {
+        this.delegate.setInfoEnabled(flag);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return this.delegate.isInfoEnabled();
+    }
+
+    @Override
+    public void setInfoEnabled(@NonNull final String category, final boolean flag) {
+        this.delegate.setInfoEnabled(category, flag);
+    }
+
+    @Override
+    public boolean isInfoEnabled(@NonNull final String category) {
+        return this.delegate.isInfoEnabled(category);
+    }
+
+    @Override
+    public void setDebugEnabled(final boolean flag) {
+        this.delegate.setDebugEnabled(flag);
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return this.delegate.isDebugEnabled();
+    }
+
+    @Override
+    public void setDebugEnabled(@NonNull final String category, final boolean flag) {
+        this.delegate.setDebugEnabled(category, flag);
+    }
+
+    @Override
+    public boolean isDebugEnabled(@NonNull final String category) {
+        return this.delegate.isDebugEnabled(category);
+    }
+
+    @Override
+    public void setTraceEnabled(final boolean flag) {
+        this.delegate.setTraceEnabled(flag);
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return this.delegate.isTraceEnabled();
+    }
+
+    @Override
+    public void setTraceEnabled(@NonNull final String category, final boolean flag) {
+        this.delegate.setTraceEnabled(category, flag);
+    }
+
+    @Override
+    public boolean isTraceEnabled(@NonNull final String category) {
+        return this.delegate.isTraceEnabled(category);
+    }
+
+    /**
+     * Hands given event over. It's reused once this method returns.
+     * @param event the event.
+     */
+    @Override
+    protected abstract void logEvent(@NonNull final LogEvent event);
+
+    @Override
+    protected void logError(@Nullable final String category, @NonNull final String msg) {
+        logEvent(LogLevel.ERROR, category, msg, null);
+    }
+
+    @Override
+    protected void logError(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        logEvent(LogLevel.ERROR, category, msg, error);
+    }
+
+    @Override
+    protected void logWarn(@Nullable final String category, @NonNull final String msg) {
+        logEvent(LogLevel.WARN, category, msg, null);
+    }
+
+    @Override
+    protected void logWarn(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        logEvent(LogLevel.WARN, category, msg, error);
+    }
+
+    @Override
+    protected void logInfo(@Nullable final String category, @NonNull final String msg) {
+        logEvent(LogLevel.INFO, category, msg, null);
+    }
+
+    @Override
+    protected void logInfo(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        logEvent(LogLevel.INFO, category, msg, error);
+    }
+
+    @Override
+    protected void logDebug(@Nullable final String category, @NonNull final String msg) {
+        logEvent(LogLevel.DEBUG, category, msg, null);
+    }
+
+    @Override
+    protected void logDebug(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        logEvent(LogLevel.DEBUG, category, msg, error);
+    }
+
+    @Override
+    protected void logTrace(@Nullable final String category, @NonNull final String msg) {
+        logEvent(LogLevel.TRACE, category, msg, null);
+    }
+
+    @Override
+    protected void logTrace(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        logEvent(LogLevel.TRACE, category, msg, error);
+    }
+
+    /**
+     * Hands a new event with given information over.
+     * @param level the level.
+     * @param category the category.
+     * @param msg the message.
+     * @param error the error, if any.
+     */
+    protected void logEvent(
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String msg,
+        @Nullable final Throwable error) {
+        @NonNull final LogEvent event = SCRATCH_EVENTS.get();
+
+        try {
+            logEvent(event.populate(level, category, msg, error, getLoggingContext()));
+        } finally {
+            event.clear();
+        }
+    }
+}
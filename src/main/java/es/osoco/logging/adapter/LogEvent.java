@@ -0,0 +1,329 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter;
+
+import es.osoco.logging.LoggingContext;
+import es.osoco.logging.helper.CallerCategoryHelper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import lombok.ToString;
+
+/**
+ * A single logging call, as delivered to {@link LoggingAdapter}s.
+ * Instances are mutable and may get reused for later calls, by ring buffers and batchers for instance, so
+ * adapters must not keep references to them once {@link LoggingAdapter#log(LogEvent)} returns.
+ * Use {@link #copy()} to retain one.
+ * Everything not provided by the caller (the default category, the date, the thread name, ...)
+ * is computed lazily, only once, and only if some adapter asks for it.
+ */
+@ToString(of = { "level", "explicitCategory", "message", "error", "timestamp" })
+public class LogEvent {
+
+    /**
+     * The level.
+     */
+    @NonNull
+    private LogLevel level = LogLevel.INFO;
+
+    /**
+     * The category provided by the caller, if any.
+     */
+    @Nullable
+    private String explicitCategory;
+
+    /**
+     * The category actually used: either the explicit one, or the default one.
+     */
+    @Nullable
+    private String category;
+
+    /**
+     * Whether the category has been resolved already.
+     */
+    private boolean categoryResolved;
+
+    /**
+     * The category prefix, built once.
+     */
+    @Nullable
+    private String categoryPrefix;
+
+    /**
+     * The message.
+     */
+    @NonNull
+    private String message = "";
+
+    /**
+     * The error, if any.
+     */
+    @Nullable
+    private Throwable error;
+
+    /**
+     * The creation time, in milliseconds since the epoch, or zero if not retrieved yet.
+     */
+    private long timestamp;
+
+    /**
+     * The creation time as local date, built once.
+     */
+    @Nullable
+    private LocalDateTime localDateTime;
+
+    /**
+     * The logging thread. It's not kept in copies.
+     */
+    @Nullable
+    private Thread thread;
+
+    /**
+     * The name of the logging thread, retrieved once.
+     */
+    @Nullable
+    private String threadName;
+
+    /**
+     * The logging context.
+     */
+    @Nullable
+    private LoggingContext context;
+
+    /**
+     * Fills this event with the information of a new logging call, made by the current thread.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
+     * @param message the message.
+     * @param error the error, if any.
+     * @param context the logging context.
+     * @return this same instance.
+     */
+    @NonNull
+    public LogEvent populate(
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String message,
+        @Nullable final Throwable error,
+        @Nullable final LoggingContext context) {
+        this.level = level;
+        this.explicitCategory = category;
+        this.category = category;
+        this.categoryResolved = (category != null);
+        this.categoryPrefix = null;
+        this.message = message;
+        this.error = error;
+        this.timestamp = 0;
+        this.localDateTime = null;
+        this.thread = Thread.currentThread();
+        this.threadName = null;
+        this.context = context;
+        return this;
+    }
+
+    /**
+     * Drops the references to the information of the latest logging call.
+     */
+    public void clear() {
+        this.explicitCategory = null;
+        this.category = null;
+        this.categoryResolved = false;
+        this.categoryPrefix = null;
+        this.message = "";
+        this.error = null;
+        this.localDateTime = null;
+        this.thread = null;
+        this.threadName = null;
+        this.context = null;
+    }
+
+    /**
+     * Retrieves the level.
+     * @return such level.
+     */
+    @NonNull
+    public LogLevel getLevel() {
+        return this.level;
+    }
+
+    /**
+     * Retrieves the category provided by the caller.
+     * @return such category, or {@code null} if the caller didn't provide any.
+     */
+    @Nullable
+    public String getExplicitCategory() {
+        return this.explicitCategory;
+    }
+
+    /**
+     * Retrieves the category: the explicit one, or the default one otherwise.
+     * The default one is resolved only the first time, so this method must be called first
+     * from the logging thread. Adapters customizing the default category resolve it by themselves
+     * instead: see {@link AbstractLoggingAdapter#withDefaultCategory(LogEvent)}.
+     * @return such category.
+     */
+    @Nullable
+    public String getCategory() {
+        if (!this.categoryResolved) {
+            this.category = CallerCategoryHelper.getInstance().retrieveCallerCategory();
+            this.categoryResolved = true;
+        }
+        return this.category;
+    }
+
+    /**
+     * Checks whether the category is known already, either because it's explicit or because it's been resolved.
+     * @return {@code true} in such case.
+     */
+    public boolean isCategoryResolved() {
+        return this.categoryResolved;
+    }
+
+    /**
+     * Retrieves the category prefix, as in "[category]:".
+     * @return such prefix, or an empty string if there's no category.
+     */
+    @NonNull
+    public String getCategoryPrefix() {
+        @Nullable String result = this.categoryPrefix;
+
+        if (result == null) {
+            @Nullable final String aux = getCategory();
+            if (aux == null) {
+                result = "";
+            } else {
+                result = "[" + aux + "]:";
+            }
+            this.categoryPrefix = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the message.
+     * @return such message.
+     */
+    @NonNull
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Retrieves the error.
+     * @return such error, or {@code null} if there's none.
+     */
+    @Nullable
+    public Throwable getError() {
+        return this.error;
+    }
+
+    /**
+     * Retrieves the creation time. The clock is read the first time, so this method must be called first
+     * from the logging thread.
+     * @return such time, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        long result = this.timestamp;
+
+        if (result == 0) {
+            result = System.currentTimeMillis();
+            this.timestamp = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the creation time, in the default time zone.
+     * @return such time.
+     */
+    @NonNull
+    public LocalDateTime getLocalDateTime() {
+        @Nullable LocalDateTime result = this.localDateTime;
+
+        if (result == null) {
+            result = LocalDateTime.ofInstant(Instant.ofEpochMilli(getTimestamp()), ZoneId.systemDefault());
+            this.localDateTime = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the name of the logging thread.
+     * @return such name.
+     */
+    @Nullable
+    public String getThreadName() {
+        @Nullable String result = this.threadName;
+
+        if (result == null && this.thread != null) {
+            result = this.thread.getName();
+            this.threadName = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the logging context.
+     * @return such context.
+     */
+    @Nullable
+    public LoggingContext getContext() {
+        return this.context;
+    }
+
+    /**
+     * Copies this event so that it can be kept once the logging call finishes, or processed
+     * by another thread. It must be called from the logging thread.
+     * @return the copy, with the category resolved and the context values snapshotted.
+     */
+    @NonNull
+    public LogEvent copy() {
+        return new LogEvent().copyFrom(this);
+    }
+
+    /**
+     * Overwrites this event with a copy of given one, so that it can be processed by another thread.
+     * It must be called from the thread logging the source event.
+     * @param source the event to copy.
+     * @return this same instance, with the category resolved and the context values snapshotted.
+     */
+    @NonNull
+    public LogEvent copyFrom(@NonNull final LogEvent source) {
+        @Nullable final LoggingContext sourceContext = source.context;
+
+        this.level = source.level;
+        this.explicitCategory = source.explicitCategory;
+        this.category = source.getCategory();
+        this.categoryResolved = true;
+        this.categoryPrefix = source.categoryPrefix;
+        this.message = source.message;
+        this.error = source.error;
+        this.timestamp = source.getTimestamp();
+        this.localDateTime = source.localDateTime;
+        this.thread = null;
+        this.threadName = source.getThreadName();
+        this.context = (sourceContext == null) ? null : sourceContext.snapshot();
+
+        return this;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * The log levels, from the most to the least severe.
+ */
+public enum LogLevel {
+    /**
+     * The "error" level.
+     */
+    ERROR,
+
+    /**
+     * The "warn" level.
+     */
+    WARN,
+
+    /**
+     * The "info" level.
+     */
+    INFO,
+
+    /**
+     * The "debug" level.
+     */
+    DEBUG,
+
+    /**
+     * The "trace" level.
+     */
+    TRACE;
+
+    /**
+     * Retrieves the level name in lower case, as used in the {@link es.osoco.logging.Logging} methods.
+     * @return such name.
+     */
+    @NonNull
+    public String getMethodName() {
+        return name().toLowerCase();
+    }
+}
@@ -16,6 +16,10 @@ package es.osoco.logging.adapter;
 
 import es.osoco.logging.Logging;
 import es.osoco.logging.config.LoggingConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
 
 /**
  * Interface for all {@link Logging} adapters.
@@ -28,4 +32,176 @@ public interface LoggingAdapter<LC extends LoggingConfiguration>
      * @return such configuration.
      */
     LC getLoggingConfiguration();
+
+    /**
+     * Checks whether given level is enabled.
+     * @param level the level.
+     * @return {@code true} if it's enabled, {@code false} otherwise.
+     */
+    default boolean isEnabled(@NonNull final LogLevel level) {
+        final boolean result;
+
+        switch (level) {
+            case ERROR:
+                result = isErrorEnabled();
+                break;
+            case WARN:
+                result = isWarnEnabled();
+                break;
+            case INFO:
+                result = isInfoEnabled();
+                break;
+            case DEBUG:
+                result = isDebugEnabled();
+                break;
+            default:
+                result = isTraceEnabled();
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given level is enabled for given category.
+     * @param level the level.
+     * @param category the category.
+     * @return {@code true} if it's enabled, {@code false} otherwise.
+     */
+    default boolean isEnabled(@NonNull final LogLevel level, @NonNull final String category) {
+        final boolean result;
+
+        switch (level) {
+            case ERROR:
+                result = isErrorEnabled(category);
+                break;
+            case WARN:
+                result = isWarnEnabled(category);
+                break;
+            case INFO:
+                result = isInfoEnabled(category);
+                break;
+            case DEBUG:
+                result = isDebugEnabled(category);
+                break;
+            default:
+                result = isTraceEnabled(category);
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Logs given event, if its level is enabled for its category.
+     * The event is reused once this method returns, so it cannot be retained without
+     * calling {@link LogEvent#copy()}.
+     * By default, it delegates on the per-level methods, which check the level by themselves.
+     * @param event the event.
+     */
+    default void log(@NonNull final LogEvent event) {
+        @Nullable final String category = event.getExplicitCategory();
+        @NonNull final String msg = event.getMessage();
+        @Nullable final Throwable error = event.getError();
+
+        switch (event.getLevel()) {
+            case ERROR:
+                if (category == null) {
+                    if (error == null) {
+                        error(msg);
+                    } else {
+                        error(msg, error);
+                    }
+                } else if (error == null) {
+                    error(category, msg);
+                } else {
+                    error(category, msg, error);
+                }
+                break;
+            case WARN:
+                if (category == null) {
+                    if (error == null) {
+                        warn(msg);
+                    } else {
+                        warn(msg, error);
+                    }
+                } else if (error == null) {
+                    warn(category, msg);
+                } else {
+                    warn(category, msg, error);
+                }
+                break;
+            case INFO:
+                if (category == null) {
+                    if (error == null) {
+                        info(msg);
+                    } else {
+                        info(msg, error);
+                    }
+                } else if (error == null) {
+                    info(category, msg);
+                } else {
+                    info(category, msg, error);
+                }
+                break;
+            case DEBUG:
+                if (category == null) {
+                    if (error == null) {
+                        debug(msg);
+                    } else {
+                        debug(msg, error);
+                    }
+                } else if (error == null) {
+                    debug(category, msg);
+                } else {
+                    debug(category, msg, error);
+                }
+                break;
+            default:
+                if (category == null) {
+                    if (error == null) {
+                        trace(msg);
+                    } else {
+                        trace(msg, error);
+                    }
+                } else if (error == null) {
+                    trace(category, msg);
+                } else {
+                    trace(category, msg, error);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Logs given event, whose level callers already know to be enabled for its category,
+     * as answered by {@link #isEnabled(LogLevel)} or {@link #isEnabled(LogLevel, String)}.
+     * It spares checking the level twice. By default, it delegates on {@link #log(LogEvent)}.
+     * As with {@link #log(LogEvent)}, the event is reused once this method returns.
+     * @param event the event.
+     */
+    default void logEnabled(@NonNull final LogEvent event) {
+        log(event);
+    }
+
+    /**
+     * Logs given events, in order, skipping those whose level is not enabled for their category.
+     * Adapters able to ingest several events at once should override it; by default,
+     * each event is logged on its own. As with {@link #log(LogEvent)}, events are reused
+     * once this method returns.
+     * @param events the events.
+     */
+    default void logBatch(@NonNull final List<LogEvent> events) {
+        for (@NonNull final LogEvent event : events) {
+            log(event);
+        }
+    }
+
+    /**
+     * Delivers the pending events, and releases whatever the adapter holds, such as threads or connections,
+     * once nobody uses it anymore. Adapters decorating others don't close them.
+     * It does nothing by default.
+     */
+    default void close() {
+    }
 }
@@ -14,22 +14,70 @@
 */
 package es.osoco.logging.adapter;
 
+import es.osoco.logging.adapter.async.AsyncLoggingAdapterDecorator;
+import es.osoco.logging.adapter.batch.BatchingLoggingAdapterDecorator;
 import es.osoco.logging.config.LoggingConfiguration;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.HashMap;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Registry for {@link LoggingAdapterBuilder}s.
+ * <p>Registry for {@link LoggingAdapterBuilder}s.</p>
+ * <p>It also keeps the adapters built by each builder, so that they are built only once.
+ * Registering a new builder for a key discards the adapter built by the previous one.</p>
+ * <p>Discarded adapters are closed once the users {@link #retain(LoggingAdapter, Object) retaining} them,
+ * such as the composites logging through them, are garbage collected. Adapters nobody retains are closed
+ * right away. While some discarded adapter is still retained, a daemon thread waits for its users
+ * to be collected, so that closing it doesn't depend on later calls to the registry.</p>
  */
 @SuppressWarnings("unused")
 public class LoggingAdapterBuilderRegistry {
     /**
      * The underlying logging configuration map.
      */
-    private Map<String, ? extends LoggingAdapterBuilder<?, ?>> map = new HashMap<>();
+    private Map<String, ? extends LoggingAdapterBuilder<?, ?>> map = new ConcurrentHashMap<>();
+
+    /**
+     * The adapters built so far, per registry key.
+     */
+    @NonNull
+    private final ConcurrentMap<String, BuiltAdapter> adapters = new ConcurrentHashMap<>();
+
+    /**
+     * The adapters discarded so far, until nobody uses them.
+     */
+    @NonNull
+    private final List<BuiltAdapter> retired = new ArrayList<>();
+
+    /**
+     * Where the references to the users get enqueued once they're garbage collected.
+     */
+    @NonNull
+    private final ReferenceQueue<Object> collectedUsers = new ReferenceQueue<>();
+
+    /**
+     * The thread closing the retired adapters as their users get collected, if any is running.
+     * Guarded by {@link #retired}.
+     */
+    @Nullable
+    private Thread reaper;
+
+    /**
+     * Increases whenever a builder is registered, or the adapters are discarded.
+     */
+    @NonNull
+    private final AtomicLong generation = new AtomicLong();
 
     /**
      * Singleton implementation to avoid double-check locking.
@@ -49,7 +97,7 @@ public class LoggingAdapterBuilderRegistry {
      * @param builder the builder.
      */
     protected void registerBuilder(final LoggingAdapterBuilder<?, ?> builder) {
-        immutableGetMap().put(builder.getRegistryKey(), builder);
+        put(builder.getRegistryKey(), builder);
     }
 
     /**
@@ -92,5 +140,310 @@ public class LoggingAdapterBuilderRegistry {
     @SuppressWarnings("unchecked")
     public <T extends LoggingAdapterBuilder> void put(@NonNull final String key, @NonNull final T builder) {
         immutableGetMap().put(key, builder);
+        invalidate(key);
+    }
+
+    /**
+     * Retrieves the adapter built by given builder, building it the first time.
+     * The adapter is discarded once another builder is registered with the same key.
+     * Adapters are built outside the map's locks, since building them can take long, or even log.
+     * Should several threads build one at the same time, the first one to store it wins,
+     * and the others close theirs.
+     * @param builder the builder.
+     * @return the adapter, or {@code null} if the builder couldn't build it.
+     */
+    @Nullable
+    public LoggingAdapter getAdapter(@NonNull final LoggingAdapterBuilder<?, ?> builder) {
+        @NonNull final String key = builder.getRegistryKey();
+
+        @Nullable BuiltAdapter result = this.adapters.get(key);
+
+        while (result == null || result.getBuilder() != builder) {
+            @NonNull final BuiltAdapter built =
+                new BuiltAdapter(builder, registerInLevelSwitches(decorate(key, builder.build())));
+
+            if (result == null) {
+                result = this.adapters.putIfAbsent(key, built);
+                if (result == null) {
+                    result = built;
+                }
+            } else if (this.adapters.replace(key, result, built)) {
+                retire(Collections.singletonList(result));
+                result = built;
+            } else {
+                result = this.adapters.get(key);
+            }
+
+            if (result != built && built.getAdapter() != null) {
+                close(built.getAdapter());
+            }
+        }
+
+        return result.getAdapter();
+    }
+
+    /**
+     * Decorates a newly built adapter, for instance to receive batches, or to log asynchronously.
+     * @param key the registry key.
+     * @param adapter the adapter.
+     * @return the decorated adapter.
+     */
+    @Nullable
+    protected LoggingAdapter<?> decorate(@NonNull final String key, @Nullable final LoggingAdapter<?> adapter) {
+        return decorateAsync(key, decorateInBatches(key, adapter));
+    }
+
+    /**
+     * Decorates given adapter, if it's meant to receive batches.
+     * @param key the registry key.
+     * @param adapter the adapter.
+     * @return the decorated adapter, or the same one.
+     */
+    @Nullable
+    protected LoggingAdapter<?> decorateInBatches(@NonNull final String key, @Nullable final LoggingAdapter<?> adapter) {
+        return BatchingLoggingAdapterDecorator.getInstance().decorate(key, adapter);
+    }
+
+    /**
+     * Decorates given adapter, if it's meant to log asynchronously.
+     * @param key the registry key.
+     * @param adapter the adapter.
+     * @return the decorated adapter, or the same one.
+     */
+    @Nullable
+    protected LoggingAdapter<?> decorateAsync(@NonNull final String key, @Nullable final LoggingAdapter<?> adapter) {
+        return AsyncLoggingAdapterDecorator.getInstance().decorate(key, adapter);
+    }
+
+    /**
+     * Registers a newly built adapter in {@link LoggingLevelSwitches}, now that it's fully built.
+     * @param adapter the adapter.
+     * @return the same adapter.
+     */
+    @Nullable
+    protected LoggingAdapter registerInLevelSwitches(@Nullable final LoggingAdapter adapter) {
+        if (adapter != null) {
+            LoggingLevelSwitches.getInstance().register(adapter);
+        }
+
+        return adapter;
+    }
+
+    /**
+     * Discards the adapter built for given key, if any.
+     * @param key the key.
+     */
+    public void invalidate(@NonNull final String key) {
+        @Nullable final BuiltAdapter removed = this.adapters.remove(key);
+        this.generation.incrementAndGet();
+        retire((removed == null) ? Collections.emptyList() : Collections.singletonList(removed));
+    }
+
+    /**
+     * Discards all adapters built so far.
+     */
+    public void invalidate() {
+        @NonNull final List<BuiltAdapter> removed = new ArrayList<>();
+
+        for (@NonNull final String key : this.adapters.keySet()) {
+            @Nullable final BuiltAdapter builtAdapter = this.adapters.remove(key);
+            if (builtAdapter != null) {
+                removed.add(builtAdapter);
+            }
+        }
+        this.generation.incrementAndGet();
+        retire(removed);
+    }
+
+    /**
+     * Keeps given adapter open, even if discarded, for as long as given user is not garbage collected.
+     * @param adapter the adapter, as built by this registry.
+     * @param user who uses it, such as a composite logging.
+     * @return {@code false} if the adapter is not known to this registry, or closed already.
+     */
+    public boolean retain(@NonNull final LoggingAdapter adapter, @NonNull final Object user) {
+        boolean result = false;
+
+        synchronized (this.retired) {
+            for (@NonNull final BuiltAdapter builtAdapter : this.adapters.values()) {
+                if (!result && builtAdapter.getAdapter() == adapter) {
+                    builtAdapter.addUser(user, this.collectedUsers);
+                    result = true;
+                }
+            }
+            for (int index = 0; index < this.retired.size() && !result; index++) {
+                if (this.retired.get(index).getAdapter() == adapter) {
+                    this.retired.get(index).addUser(user, this.collectedUsers);
+                    result = true;
+                }
+            }
+        }
+        retire(Collections.emptyList());
+
+        return result;
+    }
+
+    /**
+     * Keeps given discarded adapters until nobody uses them, and closes those whose users are gone,
+     * including the ones discarded before.
+     * @param removed the adapters just discarded, if any.
+     */
+    protected void retire(@NonNull final Collection<BuiltAdapter> removed) {
+        @NonNull final List<LoggingAdapter> unused = new ArrayList<>();
+
+        synchronized (this.retired) {
+            this.retired.addAll(removed);
+
+            while (this.collectedUsers.poll() != null) {
+                // the users are checked below anyway
+            }
+
+            @NonNull final Iterator<BuiltAdapter> iterator = this.retired.iterator();
+            while (iterator.hasNext()) {
+                @NonNull final BuiltAdapter builtAdapter = iterator.next();
+                if (!builtAdapter.isUsed()) {
+                    iterator.remove();
+                    if (builtAdapter.getAdapter() != null) {
+                        unused.add(builtAdapter.getAdapter());
+                    }
+                }
+            }
+
+            if (!this.retired.isEmpty() && this.reaper == null) {
+                this.reaper = new Thread(this::reapRetired, "logging-adapter-reaper");
+                this.reaper.setDaemon(true);
+                this.reaper.start();
+            }
+        }
+
+        for (@NonNull final LoggingAdapter adapter : unused) {
+            close(adapter);
+        }
+    }
+
+    /**
+     * Waits for the users of the retired adapters to be garbage collected, and closes the adapters
+     * nobody uses any longer. It returns once none is left, or if interrupted.
+     */
+    protected void reapRetired() {
+        boolean pending = true;
+
+        while (pending) {
+            try {
+                this.collectedUsers.remove();
+            } catch (@NonNull final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                pending = false;
+            }
+
+            retire(Collections.emptyList());
+
+            synchronized (this.retired) {
+                if (!pending || this.retired.isEmpty()) {
+                    this.reaper = null;
+                    pending = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes given adapter, and the ones it decorates, outermost first.
+     * @param adapter the adapter.
+     */
+    protected void close(@NonNull final LoggingAdapter adapter) {
+        @Nullable LoggingAdapter current = adapter;
+
+        while (current != null) {
+            try {
+                current.close();
+            } catch (@NonNull final RuntimeException cannotClose) {
+                // the rest get closed anyway
+            }
+            current =
+                (current instanceof DelegatingLoggingAdapter)
+                ? ((DelegatingLoggingAdapter<?>) current).getDelegate()
+                : null;
+        }
+    }
+
+    /**
+     * Retrieves the generation, which increases whenever builders or adapters change.
+     * Anyone keeping adapters around can compare it to find out whether they're still current.
+     * @return such generation.
+     */
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
+    /**
+     * An adapter, and the builder which built it.
+     */
+    protected static final class BuiltAdapter {
+        /**
+         * The builder.
+         */
+        @NonNull
+        private final LoggingAdapterBuilder<?, ?> builder;
+
+        /**
+         * The adapter.
+         */
+        @Nullable
+        private final LoggingAdapter adapter;
+
+        /**
+         * Who uses the adapter, weakly referenced.
+         */
+        @NonNull
+        private final List<WeakReference<Object>> users = new ArrayList<>();
+
+        /**
+         * Remembers given adapter, built by given builder.
+         * @param builder the builder.
+         * @param adapter the adapter.
+         */
+        protected BuiltAdapter(
+            @NonNull final LoggingAdapterBuilder<?, ?> builder, @Nullable final LoggingAdapter adapter) {
+            this.builder = builder;
+            this.adapter = adapter;
+        }
+
+        /**
+         * Retrieves the builder.
+         * @return such builder.
+         */
+        @NonNull
+        public LoggingAdapterBuilder<?, ?> getBuilder() {
+            return this.builder;
+        }
+
+        /**
+         * Retrieves the adapter.
+         * @return such adapter.
+         */
+        @Nullable
+        public LoggingAdapter getAdapter() {
+            return this.adapter;
+        }
+
+        /**
+         * Adds a user of the adapter.
+         * @param user the user.
+         * @param queue where the reference to the user gets enqueued once it's garbage collected.
+         */
+        protected synchronized void addUser(@NonNull final Object user, @NonNull final ReferenceQueue<Object> queue) {
+            this.users.add(new WeakReference<>(user, queue));
+        }
+
+        /**
+         * Checks whether any user of the adapter is still alive, forgetting the rest.
+         * @return {@code true} in such case.
+         */
+        protected synchronized boolean isUsed() {
+            this.users.removeIf(user -> user.get() == null);
+
+            return !this.users.isEmpty();
+        }
     }
 }
@@ -0,0 +1,365 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter;
+
+import es.osoco.logging.config.LoggingLevelListener;
+import es.osoco.logging.config.LoggingLevelTracker;
+import es.osoco.logging.helper.EnvironmentHelper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>Knows, for each log level, whether any adapter could log it at all.</p>
+ * <p>Each answer is the target of a {@link MutableCallSite} invoked through a {@code static final} handle,
+ * so the JIT compiles it as a constant. When levels change, the affected call sites get a new target,
+ * and the code relying on the old one is deoptimized. This way, checking a level disabled everywhere
+ * costs nothing in compiled code, for as long as levels don't change.</p>
+ * <p>Only {@link es.osoco.logging.impl.CompositeLogging composites} rely on the answers, to skip their
+ * registered adapters altogether. Adapters answer for themselves, registered or not.</p>
+ * <p>It's disabled unless either "logging.level.switches" property or "LOGGING_LEVEL_SWITCHES"
+ * environment variable is set to "true". When disabled, or no adapter is registered, every level could
+ * be logged.</p>
+ */
+public class LoggingLevelSwitches
+    implements LoggingLevelListener {
+
+    /**
+     * The property to enable or disable the level switches.
+     */
+    @NonNull
+    public static final String LOGGING_LEVEL_SWITCHES_PROPERTY = "logging.level.switches";
+
+    /**
+     * The environment variable to enable or disable the level switches.
+     */
+    @NonNull
+    public static final String LOGGING_LEVEL_SWITCHES_ENVVAR = "LOGGING_LEVEL_SWITCHES";
+
+    /**
+     * Whether the level switches are enabled by default.
+     */
+    public static final boolean DEFAULT_LOGGING_LEVEL_SWITCHES = false;
+
+    /**
+     * Whether the level switches are enabled. Read once.
+     */
+    protected static final boolean ENABLED =
+        EnvironmentHelper.getInstance().retrieveBooleanFromSystemPropertyOrEnvironmentVariableOrElse(
+            LOGGING_LEVEL_SWITCHES_PROPERTY, LOGGING_LEVEL_SWITCHES_ENVVAR, DEFAULT_LOGGING_LEVEL_SWITCHES);
+
+    /**
+     * The mask with all levels.
+     */
+    protected static final int ALL_LEVELS = (1 << LogLevel.values().length) - 1;
+
+    /**
+     * The call sites, one per level.
+     */
+    @NonNull
+    private static final MutableCallSite[] SITES = createSites();
+
+    /**
+     * Whether "error" could be logged.
+     */
+    @NonNull
+    private static final MethodHandle ERROR = SITES[LogLevel.ERROR.ordinal()].dynamicInvoker();
+
+    /**
+     * Whether "warn" could be logged.
+     */
+    @NonNull
+    private static final MethodHandle WARN = SITES[LogLevel.WARN.ordinal()].dynamicInvoker();
+
+    /**
+     * Whether "info" could be logged.
+     */
+    @NonNull
+    private static final MethodHandle INFO = SITES[LogLevel.INFO.ordinal()].dynamicInvoker();
+
+    /**
+     * Whether "debug" could be logged.
+     */
+    @NonNull
+    private static final MethodHandle DEBUG = SITES[LogLevel.DEBUG.ordinal()].dynamicInvoker();
+
+    /**
+     * Whether "trace" could be logged.
+     */
+    @NonNull
+    private static final MethodHandle TRACE = SITES[LogLevel.TRACE.ordinal()].dynamicInvoker();
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class LoggingLevelSwitchesSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final LoggingLevelSwitches SINGLETON = new LoggingLevelSwitches();
+    }
+
+    /**
+     * The adapters. They are weakly referenced, and compared by identity, since their
+     * equality depends on their levels.
+     */
+    @NonNull
+    private final List<WeakReference<LoggingAdapter>> adapters = new ArrayList<>();
+
+    /**
+     * The levels any adapter could log, as published in the call sites.
+     */
+    private int published = ALL_LEVELS;
+
+    /**
+     * Creates the instance, and registers it in the {@link LoggingLevelTracker}.
+     */
+    protected LoggingLevelSwitches() {
+        if (ENABLED) {
+            LoggingLevelTracker.getInstance().addListener(this);
+        }
+    }
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static LoggingLevelSwitches getInstance() {
+        return LoggingLevelSwitchesSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Checks whether the level switches are enabled.
+     * @return {@code true} in such case.
+     */
+    public static boolean isSwitchesEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Checks whether any adapter could log given level, for any category.
+     * If not, the level is disabled, period.
+     * @param level the level.
+     * @return {@code false} if no adapter would log it.
+     */
+    public static boolean mayBeEnabled(@NonNull final LogLevel level) {
+        final boolean result;
+
+        switch (level) {
+            case ERROR:
+                result = invoke(ERROR);
+                break;
+            case WARN:
+                result = invoke(WARN);
+                break;
+            case INFO:
+                result = invoke(INFO);
+                break;
+            case DEBUG:
+                result = invoke(DEBUG);
+                break;
+            default:
+                result = invoke(TRACE);
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Registers given adapter, so that its levels are taken into account.
+     * Adapters other than {@link AbstractLoggingAdapter}s are assumed to log every level.
+     * Registering a {@link DelegatingLoggingAdapter} registers the adapters it decorates as well.
+     * Adapters are meant to be registered once built, before anyone checks their levels.
+     * @param adapter the adapter.
+     */
+    public void register(@NonNull final LoggingAdapter adapter) {
+        if (ENABLED) {
+            track(adapter);
+        }
+    }
+
+    /**
+     * Keeps track of given adapter, and the ones it decorates, regardless of whether the switches are enabled.
+     * @param adapter the adapter.
+     */
+    protected void track(@NonNull final LoggingAdapter adapter) {
+        synchronized (this.adapters) {
+            @Nullable LoggingAdapter current = adapter;
+
+            while (current != null) {
+                if (!isTracked(current)) {
+                    this.adapters.add(new WeakReference<>(current));
+                }
+                current =
+                    (current instanceof DelegatingLoggingAdapter)
+                    ? ((DelegatingLoggingAdapter<?>) current).getDelegate()
+                    : null;
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Checks whether given adapter, this very instance, is tracked already.
+     * @param adapter the adapter.
+     * @return {@code true} in such case.
+     */
+    protected boolean isTracked(@NonNull final LoggingAdapter adapter) {
+        boolean result = false;
+
+        synchronized (this.adapters) {
+            for (int index = 0; index < this.adapters.size() && !result; index++) {
+                result = this.adapters.get(index).get() == adapter;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the adapters still alive, forgetting the rest.
+     * @return such adapters.
+     */
+    @NonNull
+    protected List<LoggingAdapter> retrieveAdapters() {
+        @NonNull final List<LoggingAdapter> result = new ArrayList<>();
+
+        synchronized (this.adapters) {
+            @NonNull final Iterator<WeakReference<LoggingAdapter>> iterator = this.adapters.iterator();
+            while (iterator.hasNext()) {
+                @Nullable final LoggingAdapter adapter = iterator.next().get();
+                if (adapter == null) {
+                    iterator.remove();
+                } else {
+                    result.add(adapter);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void levelsChanged() {
+        refresh();
+    }
+
+    /**
+     * Finds out which levels any adapter could log, and updates the call sites whose answer changed.
+     */
+    protected synchronized void refresh() {
+        @NonNull final List<LoggingAdapter> copy = retrieveAdapters();
+
+        // with no adapter to go by, nothing can be ruled out
+        int levels = copy.isEmpty() ? ALL_LEVELS : 0;
+
+        for (int index = 0; index < copy.size() && levels != ALL_LEVELS; index++) {
+            levels |= retrieveLevels(copy.get(index));
+        }
+
+        publish(levels);
+    }
+
+    /**
+     * Retrieves the levels given adapter could log.
+     * @param adapter the adapter.
+     * @return such levels.
+     */
+    protected int retrieveLevels(@NonNull final LoggingAdapter adapter) {
+        int result = ALL_LEVELS;
+
+        if (adapter instanceof AbstractLoggingAdapter) {
+            try {
+                result = 0;
+                for (@NonNull final LogLevel level : LogLevel.values()) {
+                    if (((AbstractLoggingAdapter<?>) adapter).mayBeEnabledAnywhere(level)) {
+                        result |= 1 << level.ordinal();
+                    }
+                }
+            } catch (@NonNull final RuntimeException incompleteAdapter) {
+                result = ALL_LEVELS;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Updates the call sites whose answer changed.
+     * @param levels the levels any adapter could log.
+     */
+    protected void publish(final int levels) {
+        @NonNull final List<MutableCallSite> changed = new ArrayList<>(SITES.length);
+
+        for (@NonNull final LogLevel level : LogLevel.values()) {
+            final int bit = 1 << level.ordinal();
+            if ((levels & bit) != (this.published & bit)) {
+                @NonNull final MutableCallSite site = SITES[level.ordinal()];
+                site.setTarget(MethodHandles.constant(boolean.class, (levels & bit) != 0));
+                changed.add(site);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            MutableCallSite.syncAll(changed.toArray(new MutableCallSite[0]));
+        }
+
+        this.published = levels;
+    }
+
+    /**
+     * Creates the call sites, all of them answering {@code true}.
+     * @return such call sites.
+     */
+    @NonNull
+    protected static MutableCallSite[] createSites() {
+        @NonNull final MutableCallSite[] result = new MutableCallSite[LogLevel.values().length];
+
+        for (int index = 0; index < result.length; index++) {
+            result[index] = new MutableCallSite(MethodType.methodType(boolean.class));
+            result[index].setTarget(MethodHandles.constant(boolean.class, true));
+        }
+
+        return result;
+    }
+
+    /**
+     * Invokes given handle.
+     * @param handle the handle.
+     * @return its answer.
+     */
+    protected static boolean invoke(@NonNull final MethodHandle handle) {
+        boolean result;
+
+        try {
+            result = (boolean) handle.invokeExact();
+        } catch (@NonNull final Throwable cannotHappen) {
+            result = true;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,369 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async;
+
+import es.osoco.logging.adapter.DelegatingLoggingAdapter;
+import es.osoco.logging.adapter.LogEvent;
+import es.osoco.logging.adapter.LogLevel;
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.config.LoggingConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>Decorates a {@link LoggingAdapter} so that it logs from a background thread.</p>
+ * <p>Logging threads check the levels, resolve whatever depends on them (the category, the timestamp,
+ * the context), and copy the event into a {@link LogEventRingBuffer}. A dedicated daemon thread drains
+ * the buffer into the decorated adapter. If the buffer is full, the {@link OverflowPolicy} decides
+ * whether logging threads wait, or which events get discarded.</p>
+ * <p>Discarded events are counted, and reported periodically by a "warn" event in the
+ * {@link #SUMMARY_CATEGORY} category.</p>
+ * <p>The levels are those of the decorated adapter.</p>
+ * @param <LC> the {@link LoggingConfiguration} type.
+ */
+@ToString(of = { "waitStrategy", "overflowPolicy" }, callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class AsyncLoggingAdapter<LC extends LoggingConfiguration>
+    extends DelegatingLoggingAdapter<LC> {
+
+    /**
+     * The longest the pending events are waited for when closing, in milliseconds.
+     */
+    public static final long CLOSE_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * The default interval between reports of discarded events, in milliseconds.
+     */
+    public static final long DEFAULT_SUMMARY_INTERVAL_MILLIS = 10000L;
+
+    /**
+     * The category of the reports of discarded events.
+     */
+    @NonNull
+    public static final String SUMMARY_CATEGORY = AsyncLoggingAdapter.class.getName();
+
+    /**
+     * How many events the consumer delivers between checks of whether a report is due.
+     */
+    protected static final int SUMMARY_CHECK_EVENTS = 256;
+
+    /**
+     * The spare events each thread gives in exchange of the events it discards.
+     */
+    @NonNull
+    private static final ThreadLocal<LogEvent> SPARE_EVENTS = ThreadLocal.withInitial(LogEvent::new);
+
+    /**
+     * The buffer.
+     */
+    @NonNull
+    private final LogEventRingBuffer ringBuffer;
+
+    /**
+     * How to wait for the buffer.
+     */
+    @NonNull
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * What to do when the buffer is full.
+     */
+    @NonNull
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The discarded events.
+     */
+    @NonNull
+    private final DroppedEventCounter droppedEvents = new DroppedEventCounter();
+
+    /**
+     * The interval between reports of discarded events, in nanoseconds.
+     */
+    private final long summaryIntervalNanos;
+
+    /**
+     * The consumer thread.
+     */
+    @NonNull
+    private final Thread consumer;
+
+    /**
+     * Whether the consumer is parked, waiting for events.
+     */
+    private volatile boolean consumerParked;
+
+    /**
+     * Whether the consumer keeps waiting for new events.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Whether the consumer has delivered the pending events and finished, once closed.
+     */
+    private volatile boolean drained;
+
+    /**
+     * How many events the decorated adapter failed to log.
+     */
+    @NonNull
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a new adapter whose logging threads wait when the buffer is full, and starts its consumer thread.
+     * @param delegate the decorated adapter.
+     * @param capacity the capacity of the buffer.
+     * @param waitStrategy how to wait for the buffer.
+     */
+    public AsyncLoggingAdapter(
+        @NonNull final LoggingAdapter<LC> delegate, final int capacity, @NonNull final WaitStrategy waitStrategy) {
+        this(delegate, capacity, waitStrategy, OverflowPolicy.BLOCK, DEFAULT_SUMMARY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a new adapter, and starts its consumer thread.
+     * @param delegate the decorated adapter.
+     * @param capacity the capacity of the buffer.
+     * @param waitStrategy how to wait for the buffer.
+     * @param overflowPolicy what to do when the buffer is full.
+     * @param summaryIntervalMillis the interval between reports of discarded events, in milliseconds.
+     */
+    public AsyncLoggingAdapter(
+        @NonNull final LoggingAdapter<LC> delegate,
+        final int capacity,
+        @NonNull final WaitStrategy waitStrategy,
+        @NonNull final OverflowPolicy overflowPolicy,
+        final long summaryIntervalMillis) {
+        super(delegate);
+        this.ringBuffer = new LogEventRingBuffer(capacity);
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.summaryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(summaryIntervalMillis);
+        this.consumer = new Thread(this::consume, "java-logging-async-" + delegate.getClass().getSimpleName());
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Retrieves the buffer.
+     * @return such buffer.
+     */
+    @NonNull
+    protected LogEventRingBuffer getRingBuffer() {
+        return this.ringBuffer;
+    }
+
+    /**
+     * Retrieves the wait strategy.
+     * @return such strategy.
+     */
+    @NonNull
+    public WaitStrategy getWaitStrategy() {
+        return this.waitStrategy;
+    }
+
+    /**
+     * Retrieves the overflow policy.
+     * @return such policy.
+     */
+    @NonNull
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * Retrieves the counter of discarded events.
+     * @return such counter.
+     */
+    @NonNull
+    public DroppedEventCounter getDroppedEvents() {
+        return this.droppedEvents;
+    }
+
+    /**
+     * Retrieves how many events the decorated adapter failed to log.
+     * @return such number.
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    @Override
+    protected void logEvent(@NonNull final LogEvent event) {
+        enqueue(event);
+    }
+
+    /**
+     * Copies given event into the buffer, according to the overflow policy, and wakes the consumer up.
+     * Once closed, events are delivered right away instead, as soon as the consumer has delivered the pending
+     * ones. Until then, they're discarded, so that they don't overtake the pending ones.
+     * @param event the event.
+     */
+    protected void enqueue(@NonNull final LogEvent event) {
+        if (this.drained) {
+            deliver(event);
+        } else if (!this.running) {
+            drop(event);
+        } else if (!this.overflowPolicy.accepts(event.getLevel(), this.ringBuffer.size(), this.ringBuffer.getCapacity())) {
+            drop(event);
+        } else {
+            int attempt = 0;
+            boolean offered = this.ringBuffer.offer(event);
+
+            while (!offered) {
+                switch (this.overflowPolicy) {
+                    case BLOCK:
+                        this.waitStrategy.idle(attempt++);
+                        offered = this.ringBuffer.offer(event);
+                        break;
+                    case DROP_NEW:
+                        drop(event);
+                        offered = true;
+                        break;
+                    default:
+                        dropOldest();
+                        offered = this.ringBuffer.offer(event);
+                        break;
+                }
+            }
+
+            if (this.consumerParked) {
+                LockSupport.unpark(this.consumer);
+            }
+        }
+    }
+
+    /**
+     * Discards the oldest event in the buffer, if any.
+     */
+    protected void dropOldest() {
+        @Nullable final LogEvent oldest = this.ringBuffer.poll(SPARE_EVENTS.get());
+
+        if (oldest != null) {
+            drop(oldest);
+            oldest.clear();
+            SPARE_EVENTS.set(oldest);
+        }
+    }
+
+    /**
+     * Counts given event as discarded, in its category.
+     * New events are discarded from the thread logging them, so their category can still be resolved;
+     * copying them into the buffer would have resolved it anyway. The buffered ones have it already.
+     * @param event the event.
+     */
+    protected void drop(@NonNull final LogEvent event) {
+        this.droppedEvents.record(event.getLevel(), event.getCategory());
+    }
+
+    /**
+     * Drains the buffer into the decorated adapter, until closed.
+     */
+    protected void consume() {
+        int attempt = 0;
+        int delivered = 0;
+        long nextSummary = System.nanoTime() + this.summaryIntervalNanos;
+
+        @NonNull LogEvent spare = new LogEvent();
+
+        while (this.running || !this.ringBuffer.isEmpty()) {
+            @Nullable final LogEvent event = this.ringBuffer.poll(spare);
+
+            if (event == null) {
+                if (this.waitStrategy.isParking(attempt)) {
+                    this.consumerParked = true;
+                    if (this.ringBuffer.isEmpty() && this.running) {
+                        this.waitStrategy.idle(attempt);
+                    }
+                    this.consumerParked = false;
+                } else {
+                    this.waitStrategy.idle(attempt);
+                }
+                attempt++;
+            } else {
+                try {
+                    deliver(event);
+                } finally {
+                    event.clear();
+                    spare = event;
+                }
+                attempt = 0;
+                delivered++;
+            }
+
+            if ((event == null || delivered % SUMMARY_CHECK_EVENTS == 0) && System.nanoTime() - nextSummary >= 0) {
+                reportDroppedEvents(spare);
+                nextSummary = System.nanoTime() + this.summaryIntervalNanos;
+            }
+        }
+
+        this.drained = true;
+        reportDroppedEvents(spare);
+    }
+
+    /**
+     * Delivers a "warn" event summarizing the events discarded since the latest report, if any.
+     * @param event an empty event to use.
+     */
+    protected void reportDroppedEvents(@NonNull final LogEvent event) {
+        @Nullable final String summary = this.droppedEvents.report();
+
+        if (summary != null) {
+            try {
+                deliver(event.populate(LogLevel.WARN, SUMMARY_CATEGORY, summary, null, null));
+            } finally {
+                event.clear();
+            }
+        }
+    }
+
+    /**
+     * Delivers given event to the decorated adapter. Whatever it throws is counted as a failure,
+     * so that the consumer thread keeps going.
+     * @param event the event.
+     */
+    protected void deliver(@NonNull final LogEvent event) {
+        try {
+            getDelegate().log(event);
+        } catch (@NonNull final Throwable error) {
+            this.failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting events, and waits for the pending ones to be delivered.
+     * Events logged afterwards get delivered by the logging thread, once the consumer is done;
+     * those logged while it's still delivering the pending ones are discarded.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.consumer);
+
+        try {
+            this.consumer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (@NonNull final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        super.close();
+    }
+}
@@ -0,0 +1,252 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async;
+
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.config.LoggingConfiguration;
+import es.osoco.logging.helper.EnvironmentHelper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * <p>Decides which adapters log asynchronously, and decorates them accordingly.</p>
+ * <p>Adapters log asynchronously if their registry key is listed, comma-separated, in either
+ * "logging.async.adapters" property or "LOGGING_ASYNC_ADAPTERS" environment variable.
+ * "logging.async.capacity" / "LOGGING_ASYNC_CAPACITY" sets the size of their buffers,
+ * and "logging.async.wait.strategy" / "LOGGING_ASYNC_WAIT_STRATEGY" how they wait for them:
+ * "spin", "yield" or "park".</p>
+ * <p>"logging.async.overflow.policy" / "LOGGING_ASYNC_OVERFLOW_POLICY" tells what to do when a buffer is full:
+ * "block", "drop-new", "drop-oldest" or "drop-by-priority"; and "logging.async.drop.summary.interval" /
+ * "LOGGING_ASYNC_DROP_SUMMARY_INTERVAL" how often discarded events are reported, in milliseconds.</p>
+ */
+public class AsyncLoggingAdapterDecorator {
+
+    /**
+     * The property with the keys of the adapters to log asynchronously.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_ADAPTERS_PROPERTY = "logging.async.adapters";
+
+    /**
+     * The environment variable with the keys of the adapters to log asynchronously.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_ADAPTERS_ENVVAR = "LOGGING_ASYNC_ADAPTERS";
+
+    /**
+     * No adapter logs asynchronously by default.
+     */
+    @NonNull
+    public static final String[] DEFAULT_LOGGING_ASYNC_ADAPTERS = new String[0];
+
+    /**
+     * The property with the capacity of the buffers.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_CAPACITY_PROPERTY = "logging.async.capacity";
+
+    /**
+     * The environment variable with the capacity of the buffers.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_CAPACITY_ENVVAR = "LOGGING_ASYNC_CAPACITY";
+
+    /**
+     * The default capacity of the buffers.
+     */
+    public static final int DEFAULT_LOGGING_ASYNC_CAPACITY = 8192;
+
+    /**
+     * The property with the wait strategy.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_WAIT_STRATEGY_PROPERTY = "logging.async.wait.strategy";
+
+    /**
+     * The environment variable with the wait strategy.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_WAIT_STRATEGY_ENVVAR = "LOGGING_ASYNC_WAIT_STRATEGY";
+
+    /**
+     * The default wait strategy.
+     */
+    @NonNull
+    public static final WaitStrategy DEFAULT_LOGGING_ASYNC_WAIT_STRATEGY = WaitStrategy.PARK;
+
+    /**
+     * The property with the overflow policy.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_OVERFLOW_POLICY_PROPERTY = "logging.async.overflow.policy";
+
+    /**
+     * The environment variable with the overflow policy.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_OVERFLOW_POLICY_ENVVAR = "LOGGING_ASYNC_OVERFLOW_POLICY";
+
+    /**
+     * The default overflow policy. Logging threads never wait.
+     */
+    @NonNull
+    public static final OverflowPolicy DEFAULT_LOGGING_ASYNC_OVERFLOW_POLICY = OverflowPolicy.DROP_BY_PRIORITY;
+
+    /**
+     * The property with the interval between reports of discarded events.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_DROP_SUMMARY_INTERVAL_PROPERTY = "logging.async.drop.summary.interval";
+
+    /**
+     * The environment variable with the interval between reports of discarded events.
+     */
+    @NonNull
+    public static final String LOGGING_ASYNC_DROP_SUMMARY_INTERVAL_ENVVAR = "LOGGING_ASYNC_DROP_SUMMARY_INTERVAL";
+
+    /**
+     * The default interval between reports of discarded events, in milliseconds.
+     */
+    public static final int DEFAULT_LOGGING_ASYNC_DROP_SUMMARY_INTERVAL =
+        (int) AsyncLoggingAdapter.DEFAULT_SUMMARY_INTERVAL_MILLIS;
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class AsyncLoggingAdapterDecoratorSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final AsyncLoggingAdapterDecorator SINGLETON = new AsyncLoggingAdapterDecorator();
+    }
+
+    /**
+     * Default constructor to avoid public instantiation.
+     */
+    protected AsyncLoggingAdapterDecorator() {
+    }
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static AsyncLoggingAdapterDecorator getInstance() {
+        return AsyncLoggingAdapterDecoratorSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Decorates given adapter, if it's meant to log asynchronously.
+     * The decorated adapter delivers its pending events when the JVM shuts down.
+     * @param key the registry key of the adapter.
+     * @param adapter the adapter.
+     * @param <LC> the {@link LoggingConfiguration} type.
+     * @return the decorated adapter, or the same one.
+     */
+    @Nullable
+    public <LC extends LoggingConfiguration> LoggingAdapter<LC> decorate(
+        @NonNull final String key, @Nullable final LoggingAdapter<LC> adapter) {
+        @Nullable final LoggingAdapter<LC> result;
+
+        if (adapter != null && isAsync(key)) {
+            @NonNull final AsyncLoggingAdapter<LC> asyncAdapter =
+                new AsyncLoggingAdapter<>(
+                    adapter,
+                    retrieveCapacity(),
+                    retrieveWaitStrategy(),
+                    retrieveOverflowPolicy(),
+                    retrieveDropSummaryInterval());
+            asyncAdapter.closeOnShutdown();
+            result = asyncAdapter;
+        } else {
+            result = adapter;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the adapter with given key is meant to log asynchronously.
+     * @param key the key.
+     * @return {@code true} in such case.
+     */
+    public boolean isAsync(@NonNull final String key) {
+        boolean result = false;
+
+        for (@NonNull final String candidate
+            : EnvironmentHelper.getInstance().retrieveStringArrayFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_ASYNC_ADAPTERS_PROPERTY, LOGGING_ASYNC_ADAPTERS_ENVVAR, DEFAULT_LOGGING_ASYNC_ADAPTERS)) {
+            if (key.equals(candidate.trim())) {
+                result = true;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the capacity of the buffers.
+     * @return such capacity.
+     */
+    public int retrieveCapacity() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_ASYNC_CAPACITY_PROPERTY, LOGGING_ASYNC_CAPACITY_ENVVAR, DEFAULT_LOGGING_ASYNC_CAPACITY);
+    }
+
+    /**
+     * Retrieves the wait strategy.
+     * @return such strategy.
+     */
+    @NonNull
+    public WaitStrategy retrieveWaitStrategy() {
+        return
+            WaitStrategy.fromValue(
+                EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                    LOGGING_ASYNC_WAIT_STRATEGY_PROPERTY,
+                    LOGGING_ASYNC_WAIT_STRATEGY_ENVVAR,
+                    DEFAULT_LOGGING_ASYNC_WAIT_STRATEGY.getValue()),
+                DEFAULT_LOGGING_ASYNC_WAIT_STRATEGY);
+    }
+
+    /**
+     * Retrieves the overflow policy.
+     * @return such policy.
+     */
+    @NonNull
+    public OverflowPolicy retrieveOverflowPolicy() {
+        return
+            OverflowPolicy.fromValue(
+                EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                    LOGGING_ASYNC_OVERFLOW_POLICY_PROPERTY,
+                    LOGGING_ASYNC_OVERFLOW_POLICY_ENVVAR,
+                    DEFAULT_LOGGING_ASYNC_OVERFLOW_POLICY.getValue()),
+                DEFAULT_LOGGING_ASYNC_OVERFLOW_POLICY);
+    }
+
+    /**
+     * Retrieves the interval between reports of discarded events.
+     * @return such interval, in milliseconds.
+     */
+    public int retrieveDropSummaryInterval() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_ASYNC_DROP_SUMMARY_INTERVAL_PROPERTY,
+                LOGGING_ASYNC_DROP_SUMMARY_INTERVAL_ENVVAR,
+                DEFAULT_LOGGING_ASYNC_DROP_SUMMARY_INTERVAL);
+    }
+}
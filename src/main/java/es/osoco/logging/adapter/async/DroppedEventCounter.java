@@ -0,0 +1,147 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async;
+
+import es.osoco.logging.adapter.LogLevel;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the events discarded, per level and category, until they're reported.
+ * Only the first {@link #MAX_CATEGORIES} categories are counted separately, so that it
+ * cannot grow unbounded.
+ */
+public class DroppedEventCounter {
+
+    /**
+     * The maximum number of categories counted separately.
+     */
+    public static final int MAX_CATEGORIES = 256;
+
+    /**
+     * The category of events without category.
+     */
+    @NonNull
+    public static final String NO_CATEGORY = "(none)";
+
+    /**
+     * The category of events whose category is not counted separately.
+     */
+    @NonNull
+    public static final String OTHER_CATEGORIES = "(other)";
+
+    /**
+     * The counts, per category, and per level within each category.
+     */
+    @NonNull
+    private final ConcurrentHashMap<String, AtomicLongArray> counts = new ConcurrentHashMap<>();
+
+    /**
+     * The count of all events dropped since the latest report.
+     */
+    @NonNull
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * The count of all events dropped ever.
+     */
+    @NonNull
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Counts a dropped event.
+     * @param level its level.
+     * @param category its category, if known.
+     */
+    public void record(@NonNull final LogLevel level, @Nullable final String category) {
+        @NonNull final String key = (category == null) ? NO_CATEGORY : category;
+
+        @Nullable AtomicLongArray aux = this.counts.get(key);
+
+        if (aux == null) {
+            if (this.counts.size() < MAX_CATEGORIES) {
+                aux = this.counts.computeIfAbsent(key, k -> new AtomicLongArray(LogLevel.values().length));
+            } else {
+                aux = this.counts.computeIfAbsent(
+                    OTHER_CATEGORIES, k -> new AtomicLongArray(LogLevel.values().length));
+            }
+        }
+
+        aux.incrementAndGet(level.ordinal());
+        this.pending.incrementAndGet();
+        this.total.incrementAndGet();
+    }
+
+    /**
+     * Retrieves how many events have been dropped ever.
+     * @return such number.
+     */
+    public long getTotal() {
+        return this.total.get();
+    }
+
+    /**
+     * Retrieves how many events of given level and category have been dropped since the latest report.
+     * @param level the level.
+     * @param category the category.
+     * @return such number.
+     */
+    public long getPending(@NonNull final LogLevel level, @NonNull final String category) {
+        @Nullable final AtomicLongArray aux = this.counts.get(category);
+
+        return (aux == null) ? 0 : aux.get(level.ordinal());
+    }
+
+    /**
+     * Builds a summary of the events dropped since the latest report, and resets the counts.
+     * @return such summary, or {@code null} if no event has been dropped.
+     */
+    @Nullable
+    public String report() {
+        @Nullable String result = null;
+
+        final long dropped = this.pending.getAndSet(0);
+
+        if (dropped > 0) {
+            @NonNull final Map<String, String> perCategory = new TreeMap<>();
+
+            for (final Map.Entry<String, AtomicLongArray> entry : this.counts.entrySet()) {
+                @NonNull final StringBuilder levels = new StringBuilder();
+                for (@NonNull final LogLevel level : LogLevel.values()) {
+                    final long count = entry.getValue().getAndSet(level.ordinal(), 0);
+                    if (count > 0) {
+                        levels.append(levels.length() == 0 ? "" : ", ")
+                            .append(level.getMethodName()).append('=').append(count);
+                    }
+                }
+                if (levels.length() > 0) {
+                    perCategory.put(entry.getKey(), levels.toString());
+                }
+            }
+
+            @NonNull final StringBuilder builder = new StringBuilder("Dropped ").append(dropped).append(" log events:");
+            perCategory.forEach((category, levels) -> builder.append(' ').append(category).append(" (").append(levels).append(')'));
+            result = builder.toString();
+        }
+
+        return result;
+    }
+}
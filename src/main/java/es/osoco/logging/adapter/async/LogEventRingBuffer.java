@@ -0,0 +1,221 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async;
+
+import es.osoco.logging.adapter.LogEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A bounded, lock-free queue of {@link LogEvent}s, for many producers and consumers.</p>
+ * <p>The events are allocated upfront, one per slot, and reused: producers copy their events into them,
+ * and consumers swap them with spare ones. Each slot has a sequence number telling whether it's free
+ * for the producer claiming a given position, or ready for the consumer claiming it.
+ * Besides the actual consumer, producers can also consume to discard the oldest events.
+ * Slots whose copy failed are published cleared and marked as discarded, and consumers skip them.</p>
+ */
+public class LogEventRingBuffer {
+
+    /**
+     * The smallest capacity. With a single slot, the sequence number of a slot ready for the consumer would
+     * be the same as the one of a slot free for the next producer.
+     */
+    public static final int MIN_CAPACITY = 2;
+
+    /**
+     * The slots.
+     */
+    @NonNull
+    private final LogEvent[] slots;
+
+    /**
+     * The sequence number of each slot.
+     */
+    @NonNull
+    private final AtomicLongArray sequences;
+
+    /**
+     * Whether each slot was published without an event, because copying it failed.
+     * Written before publishing the slot, and read after claiming it, so its sequence number guards it.
+     */
+    @NonNull
+    private final boolean[] discarded;
+
+    /**
+     * The mask to find the slot of a position.
+     */
+    private final int mask;
+
+    /**
+     * The next position to claim, by any producer.
+     */
+    @NonNull
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The next position to read, by any consumer.
+     */
+    @NonNull
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates a new ring buffer.
+     * @param requestedCapacity the minimum capacity. It's rounded up to a power of two, and to {@link #MIN_CAPACITY}.
+     */
+    public LogEventRingBuffer(final int requestedCapacity) {
+        final int capacity = toPowerOfTwo(Math.max(MIN_CAPACITY, requestedCapacity));
+
+        this.slots = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.discarded = new boolean[capacity];
+        this.mask = capacity - 1;
+
+        for (int index = 0; index < capacity; index++) {
+            this.slots[index] = new LogEvent();
+            this.sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Retrieves the capacity.
+     * @return such capacity.
+     */
+    public int getCapacity() {
+        return this.slots.length;
+    }
+
+    /**
+     * Retrieves how many events are waiting to be consumed. It's just an estimation.
+     * @return such number.
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(this.slots.length, this.tail.get() - this.head.get()));
+    }
+
+    /**
+     * Checks whether no events are waiting to be consumed.
+     * @return {@code true} in such case.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Copies given event into a free slot, and makes it available to the consumer.
+     * It must be called from the thread logging the event.
+     * If copying the event fails, the slot is published empty, for consumers to skip it, and the error is thrown.
+     * @param event the event.
+     * @return {@code false} if the buffer is full.
+     */
+    public boolean offer(@NonNull final LogEvent event) {
+        boolean result = false;
+        boolean done = false;
+
+        long position = this.tail.get();
+
+        while (!done) {
+            final int index = (int) position & this.mask;
+            final long difference = this.sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    boolean copied = false;
+                    try {
+                        this.slots[index].copyFrom(event);
+                        copied = true;
+                    } finally {
+                        if (!copied) {
+                            this.slots[index].clear();
+                            this.discarded[index] = true;
+                        }
+                        this.sequences.lazySet(index, position + 1);
+                    }
+                    result = true;
+                    done = true;
+                } else {
+                    position = this.tail.get();
+                }
+            } else if (difference < 0) {
+                done = true;
+            } else {
+                position = this.tail.get();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the oldest event. It's not copied: the spare event takes its place in the buffer instead.
+     * @param spare an empty event, to take the place of the oldest one.
+     * @return the oldest event, to be cleared once processed, and reused as spare event;
+     * or {@code null} if there's none, so the spare event is still available.
+     */
+    @Nullable
+    public LogEvent poll(@NonNull final LogEvent spare) {
+        @Nullable LogEvent result = null;
+        boolean done = false;
+
+        long position = this.head.get();
+
+        while (!done) {
+            final int index = (int) position & this.mask;
+            final long difference = this.sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    if (this.discarded[index]) {
+                        this.discarded[index] = false;
+                        this.sequences.lazySet(index, position + this.slots.length);
+                        position = this.head.get();
+                    } else {
+                        result = this.slots[index];
+                        this.slots[index] = spare;
+                        this.sequences.lazySet(index, position + this.slots.length);
+                        done = true;
+                    }
+                } else {
+                    position = this.head.get();
+                }
+            } else if (difference < 0) {
+                done = true;
+            } else {
+                position = this.head.get();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Rounds given capacity up to a power of two.
+     * @param capacity the capacity.
+     * @return the power of two.
+     */
+    protected static int toPowerOfTwo(final int capacity) {
+        final int result;
+
+        if (capacity <= 1) {
+            result = 1;
+        } else {
+            result = Integer.highestOneBit(capacity - 1) << 1;
+        }
+
+        return result;
+    }
+}
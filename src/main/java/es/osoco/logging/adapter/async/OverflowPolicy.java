@@ -0,0 +1,120 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async;
+
+import es.osoco.logging.adapter.LogLevel;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * What to do with new events when a buffer is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Logging threads wait until there's room. Nothing is lost, but a slow adapter slows logging threads down.
+     */
+    BLOCK("block"),
+
+    /**
+     * New events are discarded.
+     */
+    DROP_NEW("drop-new"),
+
+    /**
+     * The oldest events are discarded to make room for the new ones.
+     */
+    DROP_OLDEST("drop-oldest"),
+
+    /**
+     * Less severe events are discarded first: "debug" and "trace" events are discarded once the buffer
+     * is half full, and "info" ones once it's three quarters full. That leaves room for "warn" and
+     * "error" events, which discard the oldest events if the buffer is full nonetheless.
+     */
+    DROP_BY_PRIORITY("drop-by-priority");
+
+    /**
+     * The value of the property or environment variable.
+     */
+    @NonNull
+    private final String value;
+
+    /**
+     * Creates a new policy.
+     * @param value the value of the property or environment variable.
+     */
+    OverflowPolicy(@NonNull final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of the property or environment variable.
+     * @return such value.
+     */
+    @NonNull
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * Checks whether a new event of given level is accepted, according to how full the buffer is.
+     * Accepted events may still need to wait or discard others if the buffer is full.
+     * @param level the level of the new event.
+     * @param size how many events are in the buffer.
+     * @param capacity the capacity of the buffer.
+     * @return {@code true} in such case.
+     */
+    public boolean accepts(@NonNull final LogLevel level, final int size, final int capacity) {
+        final boolean result;
+
+        if (this == DROP_BY_PRIORITY) {
+            switch (level) {
+                case ERROR:
+                case WARN:
+                    result = true;
+                    break;
+                case INFO:
+                    result = size < capacity - (capacity >> 2);
+                    break;
+                default:
+                    result = size < (capacity >> 1);
+                    break;
+            }
+        } else {
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the policy matching given value.
+     * @param value the value.
+     * @param defaultValue the policy to use if the value doesn't match any.
+     * @return the matching policy.
+     */
+    @NonNull
+    public static OverflowPolicy fromValue(@Nullable final String value, @NonNull final OverflowPolicy defaultValue) {
+        @NonNull OverflowPolicy result = defaultValue;
+
+        for (@NonNull final OverflowPolicy candidate : values()) {
+            if (candidate.getValue().equalsIgnoreCase(value)) {
+                result = candidate;
+                break;
+            }
+        }
+
+        return result;
+    }
+}
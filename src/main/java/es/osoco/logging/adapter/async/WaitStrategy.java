@@ -0,0 +1,141 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How threads wait for the {@link LogEventRingBuffer}: the consumer, for new events,
+ * and the producers, for free slots.
+ */
+public enum WaitStrategy {
+    /**
+     * Busy-spinning. The lowest latency, at the cost of a whole CPU core.
+     */
+    SPIN("spin") {
+        @Override
+        public void idle(final int attempt) {
+            // just check again
+        }
+    },
+
+    /**
+     * Spinning a bit, then yielding the CPU to other threads.
+     */
+    YIELD("yield") {
+        @Override
+        public void idle(final int attempt) {
+            if (attempt >= SPIN_ATTEMPTS) {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Spinning a bit, then yielding, then parking the thread until it gets woken up.
+     * The consumer barely uses any CPU while idle.
+     */
+    PARK("park") {
+        @Override
+        public void idle(final int attempt) {
+            if (isParking(attempt)) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if (attempt >= SPIN_ATTEMPTS) {
+                Thread.yield();
+            }
+        }
+
+        @Override
+        public boolean isParking(final int attempt) {
+            return attempt >= SPIN_ATTEMPTS + YIELD_ATTEMPTS;
+        }
+    };
+
+    /**
+     * How many attempts spin before yielding.
+     */
+    protected static final int SPIN_ATTEMPTS = 100;
+
+    /**
+     * How many attempts yield before parking.
+     */
+    protected static final int YIELD_ATTEMPTS = 100;
+
+    /**
+     * The longest a parked thread waits before checking again, in nanoseconds.
+     */
+    protected static final long PARK_NANOS = 1_000_000L;
+
+    /**
+     * The value of the property or environment variable.
+     */
+    @NonNull
+    private final String value;
+
+    /**
+     * Creates a new strategy.
+     * @param value the value of the property or environment variable.
+     */
+    WaitStrategy(@NonNull final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of the property or environment variable.
+     * @return such value.
+     */
+    @NonNull
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * Waits a bit, before checking again.
+     * @param attempt how many times the thread has waited already.
+     */
+    public abstract void idle(int attempt);
+
+    /**
+     * Checks whether given attempt parks the thread, so that it needs to be woken up.
+     * @param attempt how many times the thread has waited already.
+     * @return {@code true} in such case.
+     */
+    public boolean isParking(final int attempt) {
+        return false;
+    }
+
+    /**
+     * Retrieves the strategy matching given value.
+     * @param value the value.
+     * @param defaultValue the strategy to use if the value doesn't match any.
+     * @return the matching strategy.
+     */
+    @NonNull
+    public static WaitStrategy fromValue(@Nullable final String value, @NonNull final WaitStrategy defaultValue) {
+        @NonNull WaitStrategy result = defaultValue;
+
+        for (@NonNull final WaitStrategy candidate : values()) {
+            if (candidate.getValue().equalsIgnoreCase(value)) {
+                result = candidate;
+                break;
+            }
+        }
+
+        return result;
+    }
+}
@@ -16,6 +16,7 @@ package es.osoco.logging.adapter.awslambda;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import es.osoco.logging.adapter.AbstractLoggingAdapter;
+import es.osoco.logging.adapter.LogEvent;
 import es.osoco.logging.adapter.LoggingAdapter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -61,6 +62,20 @@ public class AwsLambdaLoggingAdapter
         logger.log(toString(error));
     }
 
+    /**
+     * Logs given event using the {@link LambdaLogger}, reusing its category prefix.
+     * @param event the event.
+     */
+    @Override
+    protected void logEvent(@NonNull final LogEvent event) {
+        @NonNull final LambdaLogger logger = getLoggingConfiguration().getLambdaLogger();
+        logger.log(event.getCategoryPrefix() + event.getMessage());
+        @Nullable final Throwable error = event.getError();
+        if (error != null) {
+            logger.log(toString(error));
+        }
+    }
+
     @Override
     public void logError(@Nullable final String category, @NonNull final String msg) {
         log(category, msg);
@@ -0,0 +1,150 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.batch;
+
+import es.osoco.logging.adapter.DelegatingLoggingAdapter;
+import es.osoco.logging.adapter.LogEvent;
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.config.LoggingConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>Decorates a {@link LoggingAdapter} so that it receives the events in batches, via
+ * {@link LoggingAdapter#logBatch(List)}.</p>
+ * <p>Events are collected by a {@link LogEventBatcher}, which flushes them once they are a number of events,
+ * once their estimated size reaches a number of bytes, or once the oldest one has lingered long
+ * enough.</p>
+ * <p>Adapters without batch support get the events one by one, as usual.</p>
+ * <p>The levels are those of the decorated adapter.</p>
+ * @param <LC> the {@link LoggingConfiguration} type.
+ */
+@ToString(of = "batcher", callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class BatchingLoggingAdapter<LC extends LoggingConfiguration>
+    extends DelegatingLoggingAdapter<LC> {
+
+    /**
+     * The batcher.
+     */
+    @NonNull
+    private final LogEventBatcher batcher;
+
+    /**
+     * How many events the decorated adapter failed to log, one by one.
+     */
+    @NonNull
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a new adapter.
+     * @param delegate the decorated adapter.
+     * @param maxEvents the most events a batch holds.
+     * @param maxBytes the estimated size which makes a batch flush, in bytes.
+     * @param lingerMillis how long the oldest event of a batch waits, at most, in milliseconds.
+     */
+    public BatchingLoggingAdapter(
+        @NonNull final LoggingAdapter<LC> delegate, final int maxEvents, final long maxBytes, final long lingerMillis) {
+        super(delegate);
+        this.batcher = new LogEventBatcher(maxEvents, maxBytes, lingerMillis, delegate::logBatch);
+    }
+
+    /**
+     * Retrieves the batcher.
+     * @return such batcher.
+     */
+    @NonNull
+    protected LogEventBatcher getBatcher() {
+        return this.batcher;
+    }
+
+    /**
+     * Retrieves the most events a batch holds.
+     * @return such number.
+     */
+    public int getMaxEvents() {
+        return this.batcher.getMaxEvents();
+    }
+
+    /**
+     * Retrieves the estimated size which makes a batch flush.
+     * @return such size, in bytes.
+     */
+    public long getMaxBytes() {
+        return this.batcher.getMaxBytes();
+    }
+
+    /**
+     * Retrieves how long the oldest event of a batch waits, at most.
+     * @return such time, in milliseconds.
+     */
+    public long getLingerMillis() {
+        return this.batcher.getLingerMillis();
+    }
+
+    /**
+     * Retrieves how many events the decorated adapter failed to log.
+     * @return such number.
+     */
+    public long getFailures() {
+        return this.failures.get() + this.batcher.getFailures();
+    }
+
+    /**
+     * Adds given event to the current batch, flushing it if it's due.
+     * Once closed, events are delivered right away instead.
+     * @param event the event.
+     */
+    @Override
+    protected void logEvent(@NonNull final LogEvent event) {
+        if (!this.batcher.add(event)) {
+            deliver(event);
+        }
+    }
+
+    /**
+     * Delivers the current batch, if not empty.
+     */
+    public void flush() {
+        this.batcher.flush();
+    }
+
+    /**
+     * Delivers given event to the decorated adapter.
+     * @param event the event.
+     */
+    protected void deliver(@NonNull final LogEvent event) {
+        try {
+            getDelegate().log(event);
+        } catch (@NonNull final RuntimeException error) {
+            this.failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops batching, and delivers the pending events.
+     * Events logged afterwards get delivered by the logging thread.
+     */
+    @Override
+    public void close() {
+        this.batcher.close();
+        super.close();
+    }
+}
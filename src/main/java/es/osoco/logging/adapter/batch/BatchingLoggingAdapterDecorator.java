@@ -0,0 +1,202 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.batch;
+
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.config.LoggingConfiguration;
+import es.osoco.logging.helper.EnvironmentHelper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * <p>Decides which adapters receive the events in batches, and decorates them accordingly.</p>
+ * <p>Adapters receive batches if their registry key is listed, comma-separated, in either
+ * "logging.batch.adapters" property or "LOGGING_BATCH_ADAPTERS" environment variable.
+ * Batches are flushed once they hold "logging.batch.max.events" / "LOGGING_BATCH_MAX_EVENTS" events,
+ * once their estimated size reaches "logging.batch.max.bytes" / "LOGGING_BATCH_MAX_BYTES" bytes, or
+ * once their oldest event has waited "logging.batch.linger" / "LOGGING_BATCH_LINGER" milliseconds.</p>
+ */
+public class BatchingLoggingAdapterDecorator {
+
+    /**
+     * The property with the keys of the adapters to receive batches.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_ADAPTERS_PROPERTY = "logging.batch.adapters";
+
+    /**
+     * The environment variable with the keys of the adapters to receive batches.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_ADAPTERS_ENVVAR = "LOGGING_BATCH_ADAPTERS";
+
+    /**
+     * No adapter receives batches by default.
+     */
+    @NonNull
+    public static final String[] DEFAULT_LOGGING_BATCH_ADAPTERS = new String[0];
+
+    /**
+     * The property with the most events a batch holds.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_MAX_EVENTS_PROPERTY = "logging.batch.max.events";
+
+    /**
+     * The environment variable with the most events a batch holds.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_MAX_EVENTS_ENVVAR = "LOGGING_BATCH_MAX_EVENTS";
+
+    /**
+     * The default most events a batch holds.
+     */
+    public static final int DEFAULT_LOGGING_BATCH_MAX_EVENTS = 512;
+
+    /**
+     * The property with the estimated size which makes a batch flush.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_MAX_BYTES_PROPERTY = "logging.batch.max.bytes";
+
+    /**
+     * The environment variable with the estimated size which makes a batch flush.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_MAX_BYTES_ENVVAR = "LOGGING_BATCH_MAX_BYTES";
+
+    /**
+     * The default estimated size which makes a batch flush, in bytes.
+     */
+    public static final int DEFAULT_LOGGING_BATCH_MAX_BYTES = 1024 * 1024;
+
+    /**
+     * The property with how long the oldest event of a batch waits.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_LINGER_PROPERTY = "logging.batch.linger";
+
+    /**
+     * The environment variable with how long the oldest event of a batch waits.
+     */
+    @NonNull
+    public static final String LOGGING_BATCH_LINGER_ENVVAR = "LOGGING_BATCH_LINGER";
+
+    /**
+     * The default time the oldest event of a batch waits, in milliseconds.
+     */
+    public static final int DEFAULT_LOGGING_BATCH_LINGER = 200;
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class BatchingLoggingAdapterDecoratorSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final BatchingLoggingAdapterDecorator SINGLETON = new BatchingLoggingAdapterDecorator();
+    }
+
+    /**
+     * Default constructor to avoid public instantiation.
+     */
+    protected BatchingLoggingAdapterDecorator() {
+    }
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static BatchingLoggingAdapterDecorator getInstance() {
+        return BatchingLoggingAdapterDecoratorSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Decorates given adapter, if it's meant to receive batches.
+     * The decorated adapter flushes its pending events when the JVM shuts down.
+     * @param key the registry key of the adapter.
+     * @param adapter the adapter.
+     * @param <LC> the {@link LoggingConfiguration} type.
+     * @return the decorated adapter, or the same one.
+     */
+    @Nullable
+    public <LC extends LoggingConfiguration> LoggingAdapter<LC> decorate(
+        @NonNull final String key, @Nullable final LoggingAdapter<LC> adapter) {
+        @Nullable final LoggingAdapter<LC> result;
+
+        if (adapter != null && isBatching(key)) {
+            @NonNull final BatchingLoggingAdapter<LC> batchingAdapter =
+                new BatchingLoggingAdapter<>(adapter, retrieveMaxEvents(), retrieveMaxBytes(), retrieveLinger());
+            batchingAdapter.closeOnShutdown();
+            result = batchingAdapter;
+        } else {
+            result = adapter;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the adapter with given key is meant to receive batches.
+     * @param key the key.
+     * @return {@code true} in such case.
+     */
+    public boolean isBatching(@NonNull final String key) {
+        boolean result = false;
+
+        for (@NonNull final String candidate
+            : EnvironmentHelper.getInstance().retrieveStringArrayFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_BATCH_ADAPTERS_PROPERTY, LOGGING_BATCH_ADAPTERS_ENVVAR, DEFAULT_LOGGING_BATCH_ADAPTERS)) {
+            if (key.equals(candidate.trim())) {
+                result = true;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the most events a batch holds.
+     * @return such number.
+     */
+    public int retrieveMaxEvents() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_BATCH_MAX_EVENTS_PROPERTY, LOGGING_BATCH_MAX_EVENTS_ENVVAR, DEFAULT_LOGGING_BATCH_MAX_EVENTS);
+    }
+
+    /**
+     * Retrieves the estimated size which makes a batch flush.
+     * @return such size, in bytes.
+     */
+    public int retrieveMaxBytes() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_BATCH_MAX_BYTES_PROPERTY, LOGGING_BATCH_MAX_BYTES_ENVVAR, DEFAULT_LOGGING_BATCH_MAX_BYTES);
+    }
+
+    /**
+     * Retrieves how long the oldest event of a batch waits.
+     * @return such time, in milliseconds.
+     */
+    public int retrieveLinger() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_BATCH_LINGER_PROPERTY, LOGGING_BATCH_LINGER_ENVVAR, DEFAULT_LOGGING_BATCH_LINGER);
+    }
+}
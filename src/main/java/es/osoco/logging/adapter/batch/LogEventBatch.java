@@ -0,0 +1,142 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.batch;
+
+import es.osoco.logging.adapter.LogEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>A reusable batch of {@link LogEvent}s, with room for a fixed number of them.</p>
+ * <p>Events are copied into preallocated slots, so filling and clearing a batch allocates nothing
+ * but what the events themselves snapshot. It's not thread-safe.</p>
+ */
+public class LogEventBatch {
+
+    /**
+     * The slots.
+     */
+    @NonNull
+    private final LogEvent[] events;
+
+    /**
+     * How many slots are in use.
+     */
+    private int size;
+
+    /**
+     * The estimated size of the events, in bytes.
+     */
+    private long bytes;
+
+    /**
+     * When the first event was added, as given by {@link System#nanoTime()}.
+     */
+    private long firstNanos;
+
+    /**
+     * Creates a new empty batch.
+     * @param capacity how many events it can hold.
+     */
+    public LogEventBatch(final int capacity) {
+        this.events = new LogEvent[Math.max(1, capacity)];
+        for (int index = 0; index < this.events.length; index++) {
+            this.events[index] = new LogEvent();
+        }
+    }
+
+    /**
+     * Copies given event into the batch. It must be called from the thread logging it.
+     * @param event the event.
+     * @param eventBytes the estimated size of the event, in bytes.
+     * @return {@code false} if the batch was already full.
+     */
+    public boolean add(@NonNull final LogEvent event, final long eventBytes) {
+        final boolean result = this.size < this.events.length;
+
+        if (result) {
+            if (this.size == 0) {
+                this.firstNanos = System.nanoTime();
+            }
+            this.events[this.size++].copyFrom(event);
+            this.bytes += eventBytes;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the events in the batch, in order. The view is valid until the batch is cleared.
+     * @return such events.
+     */
+    @NonNull
+    public List<LogEvent> asList() {
+        return Arrays.asList(this.events).subList(0, this.size);
+    }
+
+    /**
+     * Retrieves how many events it holds.
+     * @return such number.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Retrieves how many events it can hold.
+     * @return such number.
+     */
+    public int getCapacity() {
+        return this.events.length;
+    }
+
+    /**
+     * Checks whether it can hold any other event.
+     * @return {@code true} in such case.
+     */
+    public boolean isFull() {
+        return this.size == this.events.length;
+    }
+
+    /**
+     * Retrieves the estimated size of its events.
+     * @return such size, in bytes.
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Retrieves how long its oldest event has been waiting.
+     * @param nowNanos the current {@link System#nanoTime()}.
+     * @return such time, in nanoseconds, or zero if it's empty.
+     */
+    public long getAgeNanos(final long nowNanos) {
+        return (this.size == 0) ? 0L : nowNanos - this.firstNanos;
+    }
+
+    /**
+     * Empties the batch, releasing the references its events held.
+     */
+    public void clear() {
+        for (int index = 0; index < this.size; index++) {
+            this.events[index].clear();
+        }
+        this.size = 0;
+        this.bytes = 0L;
+    }
+}
@@ -0,0 +1,429 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.batch;
+
+import es.osoco.logging.adapter.LogEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import lombok.ToString;
+
+/**
+ * <p>Collects events into {@link LogEventBatch}es, and hands them over to a flusher once they hold a number
+ * of events, once their estimated size reaches a number of bytes, or once their oldest event has lingered
+ * long enough.</p>
+ * <p>Whoever fills a batch flushes it, unless flushing in the background: then the batcher's own flush thread
+ * flushes full ones, and logging threads only help when the next batch fills up too. Lingering batches are
+ * always flushed by that thread. A shared daemon timer just finds out which batches linger, so that a slow
+ * flusher delays no other batcher. The flush thread exists only while there's something to flush.
+ * Batches are flushed one at a time, in order. While one is being flushed, the next one keeps filling up.</p>
+ */
+@ToString(of = { "maxEvents", "maxBytes", "lingerNanos" })
+public class LogEventBatcher {
+
+    /**
+     * The estimated size of an event besides its category and message, in bytes.
+     */
+    public static final int EVENT_OVERHEAD_BYTES = 64;
+
+    /**
+     * The estimated size of the stack trace of an error, in bytes.
+     */
+    public static final int ERROR_BYTES = 2048;
+
+    /**
+     * How long an idle flush thread is kept, in seconds.
+     */
+    public static final long FLUSH_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Whether the current thread flushes on behalf of a batcher, rather than of a logging thread.
+     */
+    @NonNull
+    private static final ThreadLocal<Boolean> FLUSHING_ON_BEHALF = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class LingerTimerSingletonContainer {
+        /**
+         * The thread finding out which batches linger, shared by all batchers.
+         */
+        @NonNull
+        public static final ScheduledExecutorService SINGLETON =
+            Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    @NonNull final Thread result = new Thread(runnable, "java-logging-batch-linger");
+                    result.setDaemon(true);
+                    return result;
+                });
+    }
+
+    /**
+     * The most events a batch holds.
+     */
+    private final int maxEvents;
+
+    /**
+     * The estimated size which makes a batch flush, in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * How long the oldest event of a batch waits, at most, in nanoseconds.
+     */
+    private final long lingerNanos;
+
+    /**
+     * Who receives the batches.
+     */
+    @NonNull
+    private final Consumer<List<LogEvent>> flusher;
+
+    /**
+     * Whether full batches are flushed by the flush thread.
+     */
+    private final boolean backgroundFlush;
+
+    /**
+     * The thread flushing in the background, started on demand.
+     */
+    @NonNull
+    private final ExecutorService flushThread;
+
+    /**
+     * Whether the flush thread has been asked to flush.
+     */
+    @NonNull
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    /**
+     * Guards {@link #current}, {@link #spare} and {@link #closed}.
+     */
+    @NonNull
+    private final Object lock = new Object();
+
+    /**
+     * Serializes the flushes, so that batches arrive in order.
+     */
+    @NonNull
+    private final Object flushLock = new Object();
+
+    /**
+     * The batch being filled.
+     */
+    @NonNull
+    private LogEventBatch current;
+
+    /**
+     * The batch being flushed, or ready to replace the current one.
+     */
+    @NonNull
+    private LogEventBatch spare;
+
+    /**
+     * Whether it stopped accepting events.
+     */
+    private boolean closed;
+
+    /**
+     * The periodic check for lingering batches.
+     */
+    @NonNull
+    private final ScheduledFuture<?> lingerTask;
+
+    /**
+     * How many events the flusher failed to take.
+     */
+    @NonNull
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a new batcher.
+     * @param maxEvents the most events a batch holds.
+     * @param maxBytes the estimated size which makes a batch flush, in bytes.
+     * @param lingerMillis how long the oldest event of a batch waits, at most, in milliseconds.
+     * @param flusher who receives the batches. The events are reused once it returns.
+     */
+    public LogEventBatcher(
+        final int maxEvents,
+        final long maxBytes,
+        final long lingerMillis,
+        @NonNull final Consumer<List<LogEvent>> flusher) {
+        this(maxEvents, maxBytes, lingerMillis, flusher, false);
+    }
+
+    /**
+     * Creates a new batcher.
+     * @param maxEvents the most events a batch holds.
+     * @param maxBytes the estimated size which makes a batch flush, in bytes.
+     * @param lingerMillis how long the oldest event of a batch waits, at most, in milliseconds.
+     * @param flusher who receives the batches. The events are reused once it returns.
+     * @param backgroundFlush whether full batches are flushed by the flush thread.
+     */
+    public LogEventBatcher(
+        final int maxEvents,
+        final long maxBytes,
+        final long lingerMillis,
+        @NonNull final Consumer<List<LogEvent>> flusher,
+        final boolean backgroundFlush) {
+        this.backgroundFlush = backgroundFlush;
+        this.maxEvents = Math.max(1, maxEvents);
+        this.maxBytes = maxBytes;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, lingerMillis));
+        this.flusher = flusher;
+        this.current = new LogEventBatch(this.maxEvents);
+        this.spare = new LogEventBatch(this.maxEvents);
+        this.flushThread = createFlushThread();
+        final long period = Math.max(1L, lingerMillis / 2);
+        this.lingerTask =
+            LingerTimerSingletonContainer.SINGLETON.scheduleWithFixedDelay(
+                this::checkLingering, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the executor flushing in the background, whose only thread is started when needed,
+     * and stopped once idle.
+     * @return such executor.
+     */
+    @NonNull
+    protected ExecutorService createFlushThread() {
+        return
+            new ThreadPoolExecutor(
+                0,
+                1,
+                FLUSH_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    @NonNull final Thread result = new Thread(runnable, "java-logging-batch-flush");
+                    result.setDaemon(true);
+                    return result;
+                });
+    }
+
+    /**
+     * Retrieves the most events a batch holds.
+     * @return such number.
+     */
+    public int getMaxEvents() {
+        return this.maxEvents;
+    }
+
+    /**
+     * Retrieves the estimated size which makes a batch flush.
+     * @return such size, in bytes.
+     */
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * Retrieves how long the oldest event of a batch waits, at most.
+     * @return such time, in milliseconds.
+     */
+    public long getLingerMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.lingerNanos);
+    }
+
+    /**
+     * Retrieves how many events the flusher failed to take.
+     * @return such number.
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    /**
+     * Copies given event into the current batch, flushing it if it's due, or asking for it to be
+     * flushed in the background.
+     * It must be called from the thread logging the event.
+     * @param event the event.
+     * @return {@code false} if closed, in which case the caller is in charge of the event.
+     */
+    public boolean add(@NonNull final LogEvent event) {
+        // resolved outside the lock, since it may walk the stack
+        event.getCategoryPrefix();
+        final long eventBytes = estimateBytes(event);
+
+        boolean added = false;
+        boolean closed = false;
+
+        while (!added && !closed) {
+            final boolean due;
+
+            synchronized (this.lock) {
+                closed = this.closed;
+                added = !closed && this.current.add(event, eventBytes);
+                due = this.current.isFull() || this.current.getBytes() >= this.maxBytes;
+            }
+
+            if (due) {
+                if (added && this.backgroundFlush) {
+                    requestFlush();
+                } else {
+                    flush();
+                }
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * Asks the flush thread to flush the current batch, unless already asked.
+     * Once closed, the pending events are flushed by {@link #close()} instead.
+     */
+    protected void requestFlush() {
+        if (this.flushRequested.compareAndSet(false, true)) {
+            try {
+                this.flushThread.execute(
+                    () -> {
+                        this.flushRequested.set(false);
+                        flushOnBehalf(this::flushIfDue);
+                    });
+            } catch (@NonNull final RejectedExecutionException closed) {
+                this.flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Flushes the current batch if it's full, big enough, or lingering. It might have been flushed already
+     * by a logging thread which found it full.
+     */
+    protected void flushIfDue() {
+        synchronized (this.flushLock) {
+            final boolean due;
+
+            synchronized (this.lock) {
+                due = this.current.isFull() || this.current.getBytes() >= this.maxBytes || isLingering();
+            }
+
+            if (due) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the oldest event of the current batch has waited long enough.
+     * It must be called while holding {@link #lock}.
+     * @return {@code true} in such case.
+     */
+    protected boolean isLingering() {
+        return this.current.getSize() > 0 && this.current.getAgeNanos(System.nanoTime()) >= this.lingerNanos;
+    }
+
+    /**
+     * Estimates the size of given event once logged. Override me if necessary.
+     * @param event the event.
+     * @return such size, in bytes.
+     */
+    protected long estimateBytes(@NonNull final LogEvent event) {
+        return
+            EVENT_OVERHEAD_BYTES
+            + event.getCategoryPrefix().length()
+            + event.getMessage().length()
+            + ((event.getError() == null) ? 0 : ERROR_BYTES);
+    }
+
+    /**
+     * Hands the current batch over to the flusher, if not empty.
+     */
+    public void flush() {
+        synchronized (this.flushLock) {
+            @NonNull final LogEventBatch batch;
+
+            synchronized (this.lock) {
+                batch = this.current;
+                this.current = this.spare;
+                this.spare = batch;
+            }
+
+            if (batch.getSize() > 0) {
+                try {
+                    this.flusher.accept(batch.asList());
+                } catch (@NonNull final RuntimeException error) {
+                    this.failures.addAndGet(batch.getSize());
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks the flush thread to flush the current batch if its oldest event has waited long enough.
+     * It runs on the shared timer, so it never flushes by itself.
+     */
+    protected void checkLingering() {
+        final boolean due;
+
+        synchronized (this.lock) {
+            due = isLingering();
+        }
+
+        if (due) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Stops accepting events, and flushes the pending ones.
+     */
+    public void close() {
+        synchronized (this.lock) {
+            this.closed = true;
+        }
+        this.lingerTask.cancel(false);
+        this.flushThread.shutdown();
+        flushOnBehalf(this::flush);
+    }
+
+    /**
+     * Runs given flush on behalf of the batcher, so that the flusher knows it may wait.
+     * @param flush the flush.
+     */
+    protected void flushOnBehalf(@NonNull final Runnable flush) {
+        FLUSHING_ON_BEHALF.set(Boolean.TRUE);
+        try {
+            flush.run();
+        } finally {
+            FLUSHING_ON_BEHALF.set(Boolean.FALSE);
+        }
+    }
+
+    /**
+     * Checks whether the current thread flushes on behalf of a batcher, either from its flush thread,
+     * or while closing it. Flushers may wait then, unlike when a logging thread flushes.
+     * @return {@code true} in such case.
+     */
+    public static boolean isFlushingOnBehalf() {
+        return FLUSHING_ON_BEHALF.get();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import es.osoco.logging.adapter.LogEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Lets ElasticSearch generate the ids of the documents. It's the fastest way to index them,
+ * since ElasticSearch does not need to check whether a document with the same id exists already.
+ */
+public class AutoGeneratedDocumentIdStrategy
+    implements DocumentIdStrategy {
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class AutoGeneratedDocumentIdStrategySingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final AutoGeneratedDocumentIdStrategy SINGLETON = new AutoGeneratedDocumentIdStrategy();
+    }
+
+    /**
+     * Default constructor to avoid public instantiation.
+     */
+    protected AutoGeneratedDocumentIdStrategy() {
+    }
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static AutoGeneratedDocumentIdStrategy getInstance() {
+        return AutoGeneratedDocumentIdStrategySingletonContainer.SINGLETON;
+    }
+
+    @Override
+    @Nullable
+    public String buildDocumentId(@NonNull final LogEvent event) {
+        return null;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "auto";
+    }
+}
@@ -0,0 +1,270 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>The outcome of a {@code _bulk} request: which items failed, and why.</p>
+ * <p>Responses are parsed as a stream, keeping only the failed items. If the response says there are no
+ * errors before listing the items, as ElasticSearch does, the items are not read at all.</p>
+ */
+@EqualsAndHashCode
+@ToString
+public class BulkResponse {
+
+    /**
+     * The outcome of bulk requests whose items all succeeded.
+     */
+    @NonNull
+    public static final BulkResponse NO_ERRORS = new BulkResponse(false, Collections.emptyList());
+
+    /**
+     * Whether any item failed.
+     */
+    private final boolean errors;
+
+    /**
+     * The failed items, in order.
+     */
+    @NonNull
+    private final List<ItemFailure> failures;
+
+    /**
+     * Creates a new instance.
+     * @param errors whether any item failed.
+     * @param failures the failed items, in order.
+     */
+    public BulkResponse(final boolean errors, @NonNull final List<ItemFailure> failures) {
+        this.errors = errors;
+        this.failures = failures;
+    }
+
+    /**
+     * Parses a {@code _bulk} response.
+     * @param content the response body, in UTF-8. It's not closed.
+     * @return the outcome.
+     * @throws IOException if the body cannot be read, or is not a {@code _bulk} response.
+     */
+    @NonNull
+    public static BulkResponse parse(@NonNull final InputStream content)
+        throws IOException {
+        @Nullable BulkResponse result = null;
+
+        @NonNull final JsonReader reader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        @NonNull final List<ItemFailure> failures = new ArrayList<>();
+        boolean errors = false;
+
+        reader.beginObject();
+
+        while (result == null && reader.hasNext()) {
+            @NonNull final String name = reader.nextName();
+
+            if ("errors".equals(name)) {
+                errors = reader.nextBoolean();
+                if (!errors) {
+                    result = NO_ERRORS;
+                }
+            } else if ("items".equals(name)) {
+                readItems(reader, failures);
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        if (result == null) {
+            result = (errors || !failures.isEmpty()) ? new BulkResponse(true, failures) : NO_ERRORS;
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the items of a {@code _bulk} response, collecting the failed ones.
+     * @param reader the reader, positioned at the items.
+     * @param failures where the failed items are collected.
+     * @throws IOException if the items cannot be read.
+     */
+    protected static void readItems(@NonNull final JsonReader reader, @NonNull final List<ItemFailure> failures)
+        throws IOException {
+        int item = 0;
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            int status = 0;
+            @Nullable String error = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                reader.nextName();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    @NonNull final String name = reader.nextName();
+
+                    if ("status".equals(name)) {
+                        status = reader.nextInt();
+                    } else if ("error".equals(name)) {
+                        error = readError(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+
+            if (status >= 300 || error != null) {
+                failures.add(new ItemFailure(item, status, error));
+            }
+            item++;
+        }
+
+        reader.endArray();
+    }
+
+    /**
+     * Reads the error of an item, as {@code type: reason}.
+     * @param reader the reader, positioned at the error.
+     * @return the error, or {@code null} if it's {@code null}.
+     * @throws IOException if the error cannot be read.
+     */
+    @Nullable
+    protected static String readError(@NonNull final JsonReader reader)
+        throws IOException {
+        @Nullable String result = null;
+
+        @NonNull final JsonToken token = reader.peek();
+
+        if (token == JsonToken.BEGIN_OBJECT) {
+            @Nullable String type = null;
+            @Nullable String reason = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                @NonNull final String name = reader.nextName();
+
+                if ("type".equals(name) && reader.peek() == JsonToken.STRING) {
+                    type = reader.nextString();
+                } else if ("reason".equals(name) && reader.peek() == JsonToken.STRING) {
+                    reason = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            result = (type == null) ? reason : (reason == null) ? type : type + ": " + reason;
+        } else if (token == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            result = reader.nextString();
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether any item failed.
+     * @return {@code true} in such case.
+     */
+    public boolean hasErrors() {
+        return this.errors;
+    }
+
+    /**
+     * Retrieves the failed items.
+     * @return such items, in order.
+     */
+    @NonNull
+    public List<ItemFailure> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * A failed item of a {@code _bulk} request.
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static class ItemFailure {
+
+        /**
+         * The position of the item in the request.
+         */
+        private final int item;
+
+        /**
+         * The status code of the item.
+         */
+        private final int status;
+
+        /**
+         * The error, if any.
+         */
+        @Nullable
+        private final String error;
+
+        /**
+         * Creates a new instance.
+         * @param item the position of the item in the request.
+         * @param status the status code of the item.
+         * @param error the error, if any.
+         */
+        public ItemFailure(final int item, final int status, @Nullable final String error) {
+            this.item = item;
+            this.status = status;
+            this.error = error;
+        }
+
+        /**
+         * Retrieves the position of the item in the request.
+         * @return such position.
+         */
+        public int getItem() {
+            return this.item;
+        }
+
+        /**
+         * Retrieves the status code of the item.
+         * @return such code.
+         */
+        public int getStatus() {
+            return this.status;
+        }
+
+        /**
+         * Retrieves the error.
+         * @return such error, if any.
+         */
+        @Nullable
+        public String getError() {
+            return this.error;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Receives the documents ElasticSearch rejected for good, such as those not matching the mapping of their index.
+ */
+public interface DeadLetterSink {
+
+    /**
+     * Takes a rejected document.
+     * Implementations are called concurrently, from the threads receiving the responses, so they should be quick.
+     * @param action the action line of the document, in JSON.
+     * @param document the document, in JSON.
+     * @param status the status code ElasticSearch rejected it with.
+     * @param error why it was rejected, if known.
+     */
+    void accept(@NonNull String action, @NonNull String document, int status, @Nullable String error);
+}
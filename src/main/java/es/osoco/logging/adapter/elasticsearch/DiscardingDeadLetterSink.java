@@ -0,0 +1,63 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Discards the rejected documents. Their status is still reported as the latest error of the adapter.
+ */
+public class DiscardingDeadLetterSink
+    implements DeadLetterSink {
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class DiscardingDeadLetterSinkSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final DiscardingDeadLetterSink SINGLETON = new DiscardingDeadLetterSink();
+    }
+
+    /**
+     * Default constructor to avoid public instantiation.
+     */
+    protected DiscardingDeadLetterSink() {
+    }
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static DiscardingDeadLetterSink getInstance() {
+        return DiscardingDeadLetterSinkSingletonContainer.SINGLETON;
+    }
+
+    @Override
+    public void accept(
+        @NonNull final String action, @NonNull final String document, final int status, @Nullable final String error) {
+        // discarded
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "discard";
+    }
+}
@@ -0,0 +1,34 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import es.osoco.logging.adapter.LogEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Decides the id of the document each event is indexed as.
+ */
+public interface DocumentIdStrategy {
+
+    /**
+     * Builds the id of the document of given event.
+     * Implementations are called concurrently.
+     * @param event the event.
+     * @return the id, or {@code null} to let ElasticSearch generate it.
+     */
+    @Nullable
+    String buildDocumentId(@NonNull LogEvent event);
+}
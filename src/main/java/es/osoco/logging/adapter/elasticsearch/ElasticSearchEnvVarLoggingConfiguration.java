@@ -21,6 +21,9 @@ import es.osoco.logging.helper.EnvironmentHelper;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -79,6 +82,241 @@ public class ElasticSearchEnvVarLoggingConfiguration
      */
     public static final String DEFAULT_ELASTICSEARCH_SCHEME = "http";
 
+    /**
+     * The property with the most documents in a single bulk request: "elasticsearch.bulk.max.documents".
+     */
+    public static final String ELASTICSEARCH_BULK_MAX_DOCUMENTS_PROPERTY = "elasticsearch.bulk.max.documents";
+
+    /**
+     * The environment variable with the most documents in a single bulk request: "ELASTICSEARCH_BULK_MAX_DOCUMENTS".
+     */
+    public static final String ELASTICSEARCH_BULK_MAX_DOCUMENTS_ENVVAR = "ELASTICSEARCH_BULK_MAX_DOCUMENTS";
+
+    /**
+     * The property with the estimated size which makes a bulk request be sent: "elasticsearch.bulk.max.bytes".
+     */
+    public static final String ELASTICSEARCH_BULK_MAX_BYTES_PROPERTY = "elasticsearch.bulk.max.bytes";
+
+    /**
+     * The environment variable with the estimated size which makes a bulk request be sent:
+     * "ELASTICSEARCH_BULK_MAX_BYTES".
+     */
+    public static final String ELASTICSEARCH_BULK_MAX_BYTES_ENVVAR = "ELASTICSEARCH_BULK_MAX_BYTES";
+
+    /**
+     * The property with how long a document waits for its bulk request: "elasticsearch.bulk.linger".
+     */
+    public static final String ELASTICSEARCH_BULK_LINGER_PROPERTY = "elasticsearch.bulk.linger";
+
+    /**
+     * The environment variable with how long a document waits for its bulk request: "ELASTICSEARCH_BULK_LINGER".
+     */
+    public static final String ELASTICSEARCH_BULK_LINGER_ENVVAR = "ELASTICSEARCH_BULK_LINGER";
+
+    /**
+     * The property with the most bulk requests awaiting their response at the same time:
+     * "elasticsearch.max.in.flight.requests".
+     */
+    public static final String ELASTICSEARCH_MAX_IN_FLIGHT_REQUESTS_PROPERTY = "elasticsearch.max.in.flight.requests";
+
+    /**
+     * The environment variable with the most bulk requests awaiting their response at the same time:
+     * "ELASTICSEARCH_MAX_IN_FLIGHT_REQUESTS".
+     */
+    public static final String ELASTICSEARCH_MAX_IN_FLIGHT_REQUESTS_ENVVAR = "ELASTICSEARCH_MAX_IN_FLIGHT_REQUESTS";
+
+    /**
+     * The property with how the ids of the documents are built, either "auto" or "sequential":
+     * "elasticsearch.document.ids".
+     */
+    public static final String ELASTICSEARCH_DOCUMENT_IDS_PROPERTY = "elasticsearch.document.ids";
+
+    /**
+     * The environment variable with how the ids of the documents are built, either "auto" or "sequential":
+     * "ELASTICSEARCH_DOCUMENT_IDS".
+     */
+    public static final String ELASTICSEARCH_DOCUMENT_IDS_ENVVAR = "ELASTICSEARCH_DOCUMENT_IDS";
+
+    /**
+     * ElasticSearch generates the ids of the documents by default.
+     */
+    public static final String DEFAULT_ELASTICSEARCH_DOCUMENT_IDS = "auto";
+
+    /**
+     * The value for sequential ids.
+     */
+    public static final String SEQUENTIAL_ELASTICSEARCH_DOCUMENT_IDS = "sequential";
+
+    /**
+     * The property with the node name of sequential ids: "elasticsearch.document.id.node".
+     */
+    public static final String ELASTICSEARCH_DOCUMENT_ID_NODE_PROPERTY = "elasticsearch.document.id.node";
+
+    /**
+     * The environment variable with the node name of sequential ids: "ELASTICSEARCH_DOCUMENT_ID_NODE".
+     */
+    public static final String ELASTICSEARCH_DOCUMENT_ID_NODE_ENVVAR = "ELASTICSEARCH_DOCUMENT_ID_NODE";
+
+    /**
+     * The property with the directory the failed bulk requests are spooled to: "elasticsearch.spool.directory".
+     */
+    public static final String ELASTICSEARCH_SPOOL_DIRECTORY_PROPERTY = "elasticsearch.spool.directory";
+
+    /**
+     * The environment variable with the directory the failed bulk requests are spooled to:
+     * "ELASTICSEARCH_SPOOL_DIRECTORY".
+     */
+    public static final String ELASTICSEARCH_SPOOL_DIRECTORY_ENVVAR = "ELASTICSEARCH_SPOOL_DIRECTORY";
+
+    /**
+     * The property with the most disk space the spool takes, in megabytes: "elasticsearch.spool.max.megabytes".
+     */
+    public static final String ELASTICSEARCH_SPOOL_MAX_MEGABYTES_PROPERTY = "elasticsearch.spool.max.megabytes";
+
+    /**
+     * The environment variable with the most disk space the spool takes, in megabytes:
+     * "ELASTICSEARCH_SPOOL_MAX_MEGABYTES".
+     */
+    public static final String ELASTICSEARCH_SPOOL_MAX_MEGABYTES_ENVVAR = "ELASTICSEARCH_SPOOL_MAX_MEGABYTES";
+
+    /**
+     * The property with the size of each spool segment, in megabytes: "elasticsearch.spool.segment.megabytes".
+     */
+    public static final String ELASTICSEARCH_SPOOL_SEGMENT_MEGABYTES_PROPERTY = "elasticsearch.spool.segment.megabytes";
+
+    /**
+     * The environment variable with the size of each spool segment, in megabytes:
+     * "ELASTICSEARCH_SPOOL_SEGMENT_MEGABYTES".
+     */
+    public static final String ELASTICSEARCH_SPOOL_SEGMENT_MEGABYTES_ENVVAR = "ELASTICSEARCH_SPOOL_SEGMENT_MEGABYTES";
+
+    /**
+     * The property with how the bodies of the requests are compressed, either "none", "gzip" or "deflate":
+     * "elasticsearch.compression".
+     */
+    public static final String ELASTICSEARCH_COMPRESSION_PROPERTY = "elasticsearch.compression";
+
+    /**
+     * The environment variable with how the bodies of the requests are compressed, either "none", "gzip" or
+     * "deflate": "ELASTICSEARCH_COMPRESSION".
+     */
+    public static final String ELASTICSEARCH_COMPRESSION_ENVVAR = "ELASTICSEARCH_COMPRESSION";
+
+    /**
+     * Bodies are not compressed by default.
+     */
+    public static final String DEFAULT_ELASTICSEARCH_COMPRESSION = "none";
+
+    /**
+     * The property with the smallest body which gets compressed, in bytes: "elasticsearch.compression.min.bytes".
+     */
+    public static final String ELASTICSEARCH_COMPRESSION_MIN_BYTES_PROPERTY = "elasticsearch.compression.min.bytes";
+
+    /**
+     * The environment variable with the smallest body which gets compressed, in bytes:
+     * "ELASTICSEARCH_COMPRESSION_MIN_BYTES".
+     */
+    public static final String ELASTICSEARCH_COMPRESSION_MIN_BYTES_ENVVAR = "ELASTICSEARCH_COMPRESSION_MIN_BYTES";
+
+    /**
+     * The property with the comma-separated nodes, as {@code [scheme://]host[:port]}: "elasticsearch.nodes".
+     */
+    public static final String ELASTICSEARCH_NODES_PROPERTY = "elasticsearch.nodes";
+
+    /**
+     * The environment variable with the comma-separated nodes, as {@code [scheme://]host[:port]}:
+     * "ELASTICSEARCH_NODES".
+     */
+    public static final String ELASTICSEARCH_NODES_ENVVAR = "ELASTICSEARCH_NODES";
+
+    /**
+     * The property with how requests are spread across the nodes, either "round_robin" or "least_in_flight":
+     * "elasticsearch.load.balancing".
+     */
+    public static final String ELASTICSEARCH_LOAD_BALANCING_PROPERTY = "elasticsearch.load.balancing";
+
+    /**
+     * The environment variable with how requests are spread across the nodes, either "round_robin" or
+     * "least_in_flight": "ELASTICSEARCH_LOAD_BALANCING".
+     */
+    public static final String ELASTICSEARCH_LOAD_BALANCING_ENVVAR = "ELASTICSEARCH_LOAD_BALANCING";
+
+    /**
+     * Requests are spread round-robin by default.
+     */
+    public static final String DEFAULT_ELASTICSEARCH_LOAD_BALANCING = "round_robin";
+
+    /**
+     * The property with the interval between discoveries of the nodes, in milliseconds:
+     * "elasticsearch.discovery.interval".
+     */
+    public static final String ELASTICSEARCH_DISCOVERY_INTERVAL_PROPERTY = "elasticsearch.discovery.interval";
+
+    /**
+     * The environment variable with the interval between discoveries of the nodes, in milliseconds:
+     * "ELASTICSEARCH_DISCOVERY_INTERVAL".
+     */
+    public static final String ELASTICSEARCH_DISCOVERY_INTERVAL_ENVVAR = "ELASTICSEARCH_DISCOVERY_INTERVAL";
+
+    /**
+     * The property with the most connections open to each node: "elasticsearch.max.connections.per.node".
+     */
+    public static final String ELASTICSEARCH_MAX_CONNECTIONS_PER_NODE_PROPERTY = "elasticsearch.max.connections.per.node";
+
+    /**
+     * The environment variable with the most connections open to each node: "ELASTICSEARCH_MAX_CONNECTIONS_PER_NODE".
+     */
+    public static final String ELASTICSEARCH_MAX_CONNECTIONS_PER_NODE_ENVVAR = "ELASTICSEARCH_MAX_CONNECTIONS_PER_NODE";
+
+    /**
+     * The property with the most attempts to index a document rejected temporarily:
+     * "elasticsearch.bulk.retry.max.attempts".
+     */
+    public static final String ELASTICSEARCH_BULK_RETRY_MAX_ATTEMPTS_PROPERTY = "elasticsearch.bulk.retry.max.attempts";
+
+    /**
+     * The environment variable with the most attempts to index a document rejected temporarily:
+     * "ELASTICSEARCH_BULK_RETRY_MAX_ATTEMPTS".
+     */
+    public static final String ELASTICSEARCH_BULK_RETRY_MAX_ATTEMPTS_ENVVAR = "ELASTICSEARCH_BULK_RETRY_MAX_ATTEMPTS";
+
+    /**
+     * The property with the wait before the first retry of the rejected documents, in milliseconds:
+     * "elasticsearch.bulk.retry.backoff".
+     */
+    public static final String ELASTICSEARCH_BULK_RETRY_BACKOFF_PROPERTY = "elasticsearch.bulk.retry.backoff";
+
+    /**
+     * The environment variable with the wait before the first retry of the rejected documents, in milliseconds:
+     * "ELASTICSEARCH_BULK_RETRY_BACKOFF".
+     */
+    public static final String ELASTICSEARCH_BULK_RETRY_BACKOFF_ENVVAR = "ELASTICSEARCH_BULK_RETRY_BACKOFF";
+
+    /**
+     * The property with where the documents rejected for good go: "elasticsearch.dead.letters".
+     */
+    public static final String ELASTICSEARCH_DEAD_LETTERS_PROPERTY = "elasticsearch.dead.letters";
+
+    /**
+     * The environment variable with where the documents rejected for good go: "ELASTICSEARCH_DEAD_LETTERS".
+     */
+    public static final String ELASTICSEARCH_DEAD_LETTERS_ENVVAR = "ELASTICSEARCH_DEAD_LETTERS";
+
+    /**
+     * Rejected documents are discarded by default.
+     */
+    public static final String DEFAULT_ELASTICSEARCH_DEAD_LETTERS = "discard";
+
+    /**
+     * Prints the rejected documents to the standard output.
+     */
+    public static final String STDOUT_ELASTICSEARCH_DEAD_LETTERS = "stdout";
+
+    /**
+     * Prints the rejected documents to the standard error.
+     */
+    public static final String STDERR_ELASTICSEARCH_DEAD_LETTERS = "stderr";
+
     /**
      * Creates an empty instance.
      */
@@ -117,6 +355,289 @@ public class ElasticSearchEnvVarLoggingConfiguration
                 ELASTICSEARCH_SCHEME_PROPERTY, ELASTICSEARCH_SCHEME_ENVVAR, DEFAULT_ELASTICSEARCH_SCHEME);
     }
 
+    /**
+     * Retrieves the most documents in a single bulk request.
+     * @return such number.
+     */
+    @Override
+    public int getBulkMaxDocuments() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_BULK_MAX_DOCUMENTS_PROPERTY, ELASTICSEARCH_BULK_MAX_DOCUMENTS_ENVVAR, DEFAULT_BULK_MAX_DOCUMENTS);
+    }
+
+    /**
+     * Retrieves the estimated size which makes a bulk request be sent.
+     * @return such size, in bytes.
+     */
+    @Override
+    public int getBulkMaxBytes() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_BULK_MAX_BYTES_PROPERTY, ELASTICSEARCH_BULK_MAX_BYTES_ENVVAR, DEFAULT_BULK_MAX_BYTES);
+    }
+
+    /**
+     * Retrieves how long a document waits for its bulk request.
+     * @return such time, in milliseconds.
+     */
+    @Override
+    public int getBulkLingerMillis() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_BULK_LINGER_PROPERTY, ELASTICSEARCH_BULK_LINGER_ENVVAR, DEFAULT_BULK_LINGER_MILLIS);
+    }
+
+    /**
+     * Retrieves the most bulk requests awaiting their response at the same time.
+     * @return such number.
+     */
+    @Override
+    public int getMaxInFlightRequests() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_MAX_IN_FLIGHT_REQUESTS_PROPERTY,
+                ELASTICSEARCH_MAX_IN_FLIGHT_REQUESTS_ENVVAR,
+                DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+    }
+
+    /**
+     * Builds a new {@link DocumentIdStrategy}, as specified. Sequential ids use a random node name
+     * unless one is specified.
+     * @return such strategy.
+     */
+    @Override
+    @NonNull
+    public DocumentIdStrategy getDocumentIdStrategy() {
+        @NonNull final DocumentIdStrategy result;
+
+        @NonNull final EnvironmentHelper helper = EnvironmentHelper.getInstance();
+        @Nullable final String ids =
+            helper.retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_DOCUMENT_IDS_PROPERTY, ELASTICSEARCH_DOCUMENT_IDS_ENVVAR, DEFAULT_ELASTICSEARCH_DOCUMENT_IDS);
+
+        if (SEQUENTIAL_ELASTICSEARCH_DOCUMENT_IDS.equalsIgnoreCase(ids)) {
+            @Nullable final String node =
+                helper.retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                    ELASTICSEARCH_DOCUMENT_ID_NODE_PROPERTY, ELASTICSEARCH_DOCUMENT_ID_NODE_ENVVAR, null);
+
+            result = (node == null) ? new SequentialDocumentIdStrategy() : new SequentialDocumentIdStrategy(node);
+        } else {
+            result = AutoGeneratedDocumentIdStrategy.getInstance();
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the directory the failed bulk requests are spooled to.
+     * @return such directory, or {@code null} if they are not spooled.
+     */
+    @Override
+    @Nullable
+    public String getSpoolDirectory() {
+        return
+            EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_SPOOL_DIRECTORY_PROPERTY, ELASTICSEARCH_SPOOL_DIRECTORY_ENVVAR, null);
+    }
+
+    /**
+     * Retrieves the most disk space the spool takes.
+     * @return such space, in megabytes.
+     */
+    @Override
+    public int getSpoolMaxMegabytes() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_SPOOL_MAX_MEGABYTES_PROPERTY, ELASTICSEARCH_SPOOL_MAX_MEGABYTES_ENVVAR, DEFAULT_SPOOL_MAX_MEGABYTES);
+    }
+
+    /**
+     * Retrieves the size of each spool segment.
+     * @return such size, in megabytes.
+     */
+    @Override
+    public int getSpoolSegmentMegabytes() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_SPOOL_SEGMENT_MEGABYTES_PROPERTY,
+                ELASTICSEARCH_SPOOL_SEGMENT_MEGABYTES_ENVVAR,
+                DEFAULT_SPOOL_SEGMENT_MEGABYTES);
+    }
+
+    /**
+     * Retrieves how the bodies of the requests are compressed.
+     * @return such {@link RequestCompression}.
+     */
+    @Override
+    @NonNull
+    public RequestCompression getCompression() {
+        return
+            RequestCompression.fromName(
+                EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                    ELASTICSEARCH_COMPRESSION_PROPERTY, ELASTICSEARCH_COMPRESSION_ENVVAR, DEFAULT_ELASTICSEARCH_COMPRESSION));
+    }
+
+    /**
+     * Retrieves the smallest body which gets compressed.
+     * @return such size, in bytes.
+     */
+    @Override
+    public int getCompressionMinBytes() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_COMPRESSION_MIN_BYTES_PROPERTY,
+                ELASTICSEARCH_COMPRESSION_MIN_BYTES_ENVVAR,
+                DEFAULT_COMPRESSION_MIN_BYTES);
+    }
+
+    /**
+     * Retrieves the nodes, or just the host if none is specified.
+     * @return such nodes.
+     */
+    @Override
+    @NonNull
+    public String[] getNodes() {
+        @Nullable final String[] nodes = getSpecifiedNodes();
+
+        return (nodes == null) ? new String[] { getHost() } : nodes;
+    }
+
+    /**
+     * Retrieves the nodes, if specified.
+     * @return such nodes, or {@code null} if none is specified.
+     */
+    @Nullable
+    protected String[] getSpecifiedNodes() {
+        @Nullable final String[] result;
+
+        @NonNull final List<String> nodes = new ArrayList<>();
+
+        for (@NonNull final String node
+            : EnvironmentHelper.getInstance().retrieveStringArrayFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_NODES_PROPERTY, ELASTICSEARCH_NODES_ENVVAR, new String[0])) {
+            if (!node.trim().isEmpty()) {
+                nodes.add(node.trim());
+            }
+        }
+
+        result = nodes.isEmpty() ? null : nodes.toArray(new String[nodes.size()]);
+
+        return result;
+    }
+
+    /**
+     * Retrieves how requests are spread across the nodes.
+     * @return such {@link LoadBalancing}.
+     */
+    @Override
+    @NonNull
+    public LoadBalancing getLoadBalancing() {
+        return
+            LoadBalancing.fromName(
+                EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                    ELASTICSEARCH_LOAD_BALANCING_PROPERTY,
+                    ELASTICSEARCH_LOAD_BALANCING_ENVVAR,
+                    DEFAULT_ELASTICSEARCH_LOAD_BALANCING));
+    }
+
+    /**
+     * Retrieves the interval between discoveries of the nodes.
+     * @return such interval, in milliseconds, or {@code 0} if they are not discovered.
+     */
+    @Override
+    public int getDiscoveryIntervalMillis() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_DISCOVERY_INTERVAL_PROPERTY,
+                ELASTICSEARCH_DISCOVERY_INTERVAL_ENVVAR,
+                DEFAULT_DISCOVERY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Retrieves the most connections open to each node.
+     * @return such number.
+     */
+    @Override
+    public int getMaxConnectionsPerNode() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_MAX_CONNECTIONS_PER_NODE_PROPERTY,
+                ELASTICSEARCH_MAX_CONNECTIONS_PER_NODE_ENVVAR,
+                DEFAULT_MAX_CONNECTIONS_PER_NODE);
+    }
+
+    /**
+     * Retrieves the most attempts to index a document rejected temporarily.
+     * @return such number.
+     */
+    @Override
+    public int getBulkRetryMaxAttempts() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_BULK_RETRY_MAX_ATTEMPTS_PROPERTY,
+                ELASTICSEARCH_BULK_RETRY_MAX_ATTEMPTS_ENVVAR,
+                DEFAULT_BULK_RETRY_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Retrieves the wait before the first retry of the rejected documents.
+     * @return such wait, in milliseconds.
+     */
+    @Override
+    public int getBulkRetryBackoffMillis() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_BULK_RETRY_BACKOFF_PROPERTY,
+                ELASTICSEARCH_BULK_RETRY_BACKOFF_ENVVAR,
+                DEFAULT_BULK_RETRY_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Builds the {@link DeadLetterSink}, as specified.
+     * @return such sink.
+     */
+    @Override
+    @NonNull
+    public DeadLetterSink getDeadLetterSink() {
+        @NonNull final DeadLetterSink result;
+
+        @Nullable final String deadLetters =
+            EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                ELASTICSEARCH_DEAD_LETTERS_PROPERTY, ELASTICSEARCH_DEAD_LETTERS_ENVVAR, DEFAULT_ELASTICSEARCH_DEAD_LETTERS);
+
+        if (STDOUT_ELASTICSEARCH_DEAD_LETTERS.equalsIgnoreCase(deadLetters)) {
+            result = new PrintStreamDeadLetterSink(System.out);
+        } else if (STDERR_ELASTICSEARCH_DEAD_LETTERS.equalsIgnoreCase(deadLetters)) {
+            result = new PrintStreamDeadLetterSink(System.err);
+        } else {
+            result = DiscardingDeadLetterSink.getInstance();
+        }
+
+        return result;
+    }
+
+    /**
+     * Extracts the host of given node.
+     * @param node the node, as {@code [scheme://]host[:port]}.
+     * @return its host.
+     */
+    @NonNull
+    protected static String hostOf(@NonNull final String node) {
+        @NonNull String result = node;
+
+        final int schemeEnd = result.indexOf("://");
+        if (schemeEnd >= 0) {
+            result = result.substring(schemeEnd + 3);
+        }
+        final int colon = result.lastIndexOf(':');
+        if (colon > result.lastIndexOf(']')) {
+            result = result.substring(0, colon);
+        }
+
+        return result;
+    }
+
     /**
      * Creates a logging configuration if the environment variables are set.
      * The @LoggingConfigurationProducer annotation ensures this method is found
@@ -130,7 +651,8 @@ public class ElasticSearchEnvVarLoggingConfiguration
         @Nullable final LoggingConfiguration result;
 
         @NonNull final String key = "ElasticSearch"; // Needs to match the @LoggingConfigurationProducer's key.
-        @Nullable final String host = getHost();
+        @Nullable final String[] nodes = getSpecifiedNodes();
+        @Nullable final String host = (getHost() == null && nodes != null) ? hostOf(nodes[0]) : getHost();
 
         if (host != null) {
             result = produceConfiguration(key, host, getPort(), getScheme());
@@ -142,7 +664,7 @@ public class ElasticSearchEnvVarLoggingConfiguration
     }
 
     /**
-     * Produces a new configuration.
+     * Produces a new configuration, with the rest of the settings of the environment.
      * @param key the registry key.
      * @param host the host.
      * @param port the port.
@@ -151,6 +673,28 @@ public class ElasticSearchEnvVarLoggingConfiguration
      */
     protected LoggingConfiguration produceConfiguration(
         @NonNull final String key, @NonNull final String host, final int port, @NonNull final String scheme) {
-        return new ElasticSearchLoggingConfigurationData(key, host, port, scheme);
+        return
+            new ElasticSearchLoggingConfigurationData(
+                key,
+                host,
+                port,
+                scheme,
+                getBulkMaxDocuments(),
+                getBulkMaxBytes(),
+                getBulkLingerMillis(),
+                getMaxInFlightRequests(),
+                getDocumentIdStrategy(),
+                getSpoolDirectory(),
+                getSpoolMaxMegabytes(),
+                getSpoolSegmentMegabytes(),
+                getCompression(),
+                getCompressionMinBytes(),
+                getSpecifiedNodes(),
+                getLoadBalancing(),
+                getDiscoveryIntervalMillis(),
+                getMaxConnectionsPerNode(),
+                getBulkRetryMaxAttempts(),
+                getBulkRetryBackoffMillis(),
+                getDeadLetterSink());
     }
 }
@@ -17,6 +17,7 @@ package es.osoco.logging.adapter.elasticsearch;
 import es.osoco.logging.adapter.AbstractLoggingConfiguration;
 import es.osoco.logging.config.LoggingConfiguration;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -26,6 +27,62 @@ import lombok.ToString;
  */
 public interface ElasticSearchLoggingConfiguration
     extends LoggingConfiguration {
+
+    /**
+     * The default number of documents sent in a single bulk request.
+     */
+    int DEFAULT_BULK_MAX_DOCUMENTS = 500;
+
+    /**
+     * The default estimated size of a bulk request, in bytes.
+     */
+    int DEFAULT_BULK_MAX_BYTES = 5 * 1024 * 1024;
+
+    /**
+     * The default time a document waits for its bulk request, in milliseconds.
+     */
+    int DEFAULT_BULK_LINGER_MILLIS = 1000;
+
+    /**
+     * The default number of bulk requests awaiting their response at the same time.
+     */
+    int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
+
+    /**
+     * The default most disk space the spool takes, in megabytes.
+     */
+    int DEFAULT_SPOOL_MAX_MEGABYTES = 256;
+
+    /**
+     * The default size of each spool segment, in megabytes.
+     */
+    int DEFAULT_SPOOL_SEGMENT_MEGABYTES = 16;
+
+    /**
+     * The default smallest body which gets compressed, in bytes.
+     */
+    int DEFAULT_COMPRESSION_MIN_BYTES = 1024;
+
+    /**
+     * The nodes are not discovered by default.
+     */
+    int DEFAULT_DISCOVERY_INTERVAL_MILLIS = 0;
+
+    /**
+     * The default most connections to each node.
+     */
+    int DEFAULT_MAX_CONNECTIONS_PER_NODE = 10;
+
+    /**
+     * The default most attempts to index a document ElasticSearch rejected temporarily.
+     */
+    int DEFAULT_BULK_RETRY_MAX_ATTEMPTS = 5;
+
+    /**
+     * The default wait before the first retry of the rejected documents, in milliseconds.
+     */
+    int DEFAULT_BULK_RETRY_BACKOFF_MILLIS = 100;
+
     /**
      * Retrieves the ElasticSearch host.
      * @return such host.
@@ -44,6 +101,150 @@ public interface ElasticSearchLoggingConfiguration
      */
     String getScheme();
 
+    /**
+     * Retrieves how many documents are sent in a single bulk request, at most.
+     * @return such number.
+     */
+    default int getBulkMaxDocuments() {
+        return DEFAULT_BULK_MAX_DOCUMENTS;
+    }
+
+    /**
+     * Retrieves the estimated size which makes a bulk request be sent.
+     * @return such size, in bytes.
+     */
+    default int getBulkMaxBytes() {
+        return DEFAULT_BULK_MAX_BYTES;
+    }
+
+    /**
+     * Retrieves how long a document waits for its bulk request, at most.
+     * @return such time, in milliseconds.
+     */
+    default int getBulkLingerMillis() {
+        return DEFAULT_BULK_LINGER_MILLIS;
+    }
+
+    /**
+     * Retrieves how many bulk requests await their response at the same time, at most.
+     * @return such number.
+     */
+    default int getMaxInFlightRequests() {
+        return DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+    }
+
+    /**
+     * Retrieves how the ids of the documents are built. By default, ElasticSearch generates them.
+     * @return such {@link DocumentIdStrategy}.
+     */
+    @NonNull
+    default DocumentIdStrategy getDocumentIdStrategy() {
+        return AutoGeneratedDocumentIdStrategy.getInstance();
+    }
+
+    /**
+     * Retrieves the directory the failed bulk requests are spooled to, until they can be sent.
+     * @return such directory, or {@code null} if they are not spooled.
+     */
+    @Nullable
+    default String getSpoolDirectory() {
+        return null;
+    }
+
+    /**
+     * Retrieves the most disk space the spool takes.
+     * @return such space, in megabytes.
+     */
+    default int getSpoolMaxMegabytes() {
+        return DEFAULT_SPOOL_MAX_MEGABYTES;
+    }
+
+    /**
+     * Retrieves the size of each spool segment.
+     * @return such size, in megabytes.
+     */
+    default int getSpoolSegmentMegabytes() {
+        return DEFAULT_SPOOL_SEGMENT_MEGABYTES;
+    }
+
+    /**
+     * Retrieves how the bodies of the requests are compressed. By default, they are not.
+     * @return such {@link RequestCompression}.
+     */
+    @NonNull
+    default RequestCompression getCompression() {
+        return RequestCompression.NONE;
+    }
+
+    /**
+     * Retrieves the smallest body which gets compressed.
+     * @return such size, in bytes.
+     */
+    default int getCompressionMinBytes() {
+        return DEFAULT_COMPRESSION_MIN_BYTES;
+    }
+
+    /**
+     * Retrieves the nodes requests are spread across, as {@code [scheme://]host[:port]}.
+     * The scheme and port default to {@link #getScheme()} and {@link #getPort()}.
+     * By default, it's just {@link #getHost()}.
+     * @return such nodes.
+     */
+    @NonNull
+    default String[] getNodes() {
+        return new String[] { getHost() };
+    }
+
+    /**
+     * Retrieves how requests are spread across the nodes.
+     * @return such {@link LoadBalancing}.
+     */
+    @NonNull
+    default LoadBalancing getLoadBalancing() {
+        return LoadBalancing.ROUND_ROBIN;
+    }
+
+    /**
+     * Retrieves the interval between discoveries of the nodes.
+     * @return such interval, in milliseconds, or {@code 0} if they are not discovered.
+     */
+    default int getDiscoveryIntervalMillis() {
+        return DEFAULT_DISCOVERY_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Retrieves the most connections open to each node.
+     * @return such number.
+     */
+    default int getMaxConnectionsPerNode() {
+        return DEFAULT_MAX_CONNECTIONS_PER_NODE;
+    }
+
+    /**
+     * Retrieves the most attempts to index a document ElasticSearch rejected temporarily, including the first one.
+     * @return such number.
+     */
+    default int getBulkRetryMaxAttempts() {
+        return DEFAULT_BULK_RETRY_MAX_ATTEMPTS;
+    }
+
+    /**
+     * Retrieves the wait before the first retry of the rejected documents. It doubles with each retry.
+     * @return such wait, in milliseconds.
+     */
+    default int getBulkRetryBackoffMillis() {
+        return DEFAULT_BULK_RETRY_BACKOFF_MILLIS;
+    }
+
+    /**
+     * Retrieves where the documents ElasticSearch rejected for good go.
+     * @return such {@link DeadLetterSink}.
+     */
+    @NonNull
+    default DeadLetterSink getDeadLetterSink() {
+        return DiscardingDeadLetterSink.getInstance();
+    }
+
     @ToString
     @EqualsAndHashCode(callSuper = true)
     class ElasticSearchLoggingConfigurationData
@@ -65,7 +266,94 @@ public interface ElasticSearchLoggingConfiguration
         private String scheme;
 
         /**
-         * Creates a new instance.
+         * The most documents in a single bulk request.
+         */
+        private int bulkMaxDocuments;
+
+        /**
+         * The estimated size which makes a bulk request be sent.
+         */
+        private int bulkMaxBytes;
+
+        /**
+         * How long a document waits for its bulk request, at most.
+         */
+        private int bulkLingerMillis;
+
+        /**
+         * The most bulk requests awaiting their response at the same time.
+         */
+        private int maxInFlightRequests;
+
+        /**
+         * How the ids of the documents are built.
+         */
+        private DocumentIdStrategy documentIdStrategy;
+
+        /**
+         * The directory the failed bulk requests are spooled to.
+         */
+        @Nullable
+        private String spoolDirectory;
+
+        /**
+         * The most disk space the spool takes, in megabytes.
+         */
+        private int spoolMaxMegabytes;
+
+        /**
+         * The size of each spool segment, in megabytes.
+         */
+        private int spoolSegmentMegabytes;
+
+        /**
+         * How the bodies of the requests are compressed.
+         */
+        private RequestCompression compression;
+
+        /**
+         * The smallest body which gets compressed, in bytes.
+         */
+        private int compressionMinBytes;
+
+        /**
+         * The nodes, or {@code null} for just the host.
+         */
+        @Nullable
+        private String[] nodes;
+
+        /**
+         * How requests are spread across the nodes.
+         */
+        private LoadBalancing loadBalancing;
+
+        /**
+         * The interval between discoveries of the nodes, in milliseconds.
+         */
+        private int discoveryIntervalMillis;
+
+        /**
+         * The most connections open to each node.
+         */
+        private int maxConnectionsPerNode;
+
+        /**
+         * The most attempts to index a document rejected temporarily.
+         */
+        private int bulkRetryMaxAttempts;
+
+        /**
+         * The wait before the first retry of the rejected documents, in milliseconds.
+         */
+        private int bulkRetryBackoffMillis;
+
+        /**
+         * Where the documents rejected for good go.
+         */
+        private DeadLetterSink deadLetterSink;
+
+        /**
+         * Creates a new instance, with the default bulk limits.
          * @param key the key.
          * @param host the host.
          * @param port the port.
@@ -73,10 +361,389 @@ public interface ElasticSearchLoggingConfiguration
          */
         public ElasticSearchLoggingConfigurationData(
             @NonNull final String key, @NonNull final String host, final int port, @NonNull final String scheme) {
+            this(key, host, port, scheme, DEFAULT_BULK_MAX_DOCUMENTS, DEFAULT_BULK_MAX_BYTES, DEFAULT_BULK_LINGER_MILLIS);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis) {
+            this(key, host, port, scheme, bulkMaxDocuments, bulkMaxBytes, bulkLingerMillis, DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests) {
+            this(
+                key,
+                host,
+                port,
+                scheme,
+                bulkMaxDocuments,
+                bulkMaxBytes,
+                bulkLingerMillis,
+                maxInFlightRequests,
+                AutoGeneratedDocumentIdStrategy.getInstance());
+        }
+
+        /**
+         * Creates a new instance.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         * @param documentIdStrategy how the ids of the documents are built.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests,
+            @NonNull final DocumentIdStrategy documentIdStrategy) {
+            this(
+                key,
+                host,
+                port,
+                scheme,
+                bulkMaxDocuments,
+                bulkMaxBytes,
+                bulkLingerMillis,
+                maxInFlightRequests,
+                documentIdStrategy,
+                null,
+                DEFAULT_SPOOL_MAX_MEGABYTES,
+                DEFAULT_SPOOL_SEGMENT_MEGABYTES);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         * @param documentIdStrategy how the ids of the documents are built.
+         * @param spoolDirectory the directory the failed bulk requests are spooled to, if any.
+         * @param spoolMaxMegabytes the most disk space the spool takes, in megabytes.
+         * @param spoolSegmentMegabytes the size of each spool segment, in megabytes.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests,
+            @NonNull final DocumentIdStrategy documentIdStrategy,
+            @Nullable final String spoolDirectory,
+            final int spoolMaxMegabytes,
+            final int spoolSegmentMegabytes) {
+            this(
+                key,
+                host,
+                port,
+                scheme,
+                bulkMaxDocuments,
+                bulkMaxBytes,
+                bulkLingerMillis,
+                maxInFlightRequests,
+                documentIdStrategy,
+                spoolDirectory,
+                spoolMaxMegabytes,
+                spoolSegmentMegabytes,
+                RequestCompression.NONE,
+                DEFAULT_COMPRESSION_MIN_BYTES);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         * @param documentIdStrategy how the ids of the documents are built.
+         * @param spoolDirectory the directory the failed bulk requests are spooled to, if any.
+         * @param spoolMaxMegabytes the most disk space the spool takes, in megabytes.
+         * @param spoolSegmentMegabytes the size of each spool segment, in megabytes.
+         * @param compression how the bodies of the requests are compressed.
+         * @param compressionMinBytes the smallest body which gets compressed, in bytes.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests,
+            @NonNull final DocumentIdStrategy documentIdStrategy,
+            @Nullable final String spoolDirectory,
+            final int spoolMaxMegabytes,
+            final int spoolSegmentMegabytes,
+            @NonNull final RequestCompression compression,
+            final int compressionMinBytes) {
+            this(
+                key,
+                host,
+                port,
+                scheme,
+                bulkMaxDocuments,
+                bulkMaxBytes,
+                bulkLingerMillis,
+                maxInFlightRequests,
+                documentIdStrategy,
+                spoolDirectory,
+                spoolMaxMegabytes,
+                spoolSegmentMegabytes,
+                compression,
+                compressionMinBytes,
+                null,
+                LoadBalancing.ROUND_ROBIN,
+                DEFAULT_DISCOVERY_INTERVAL_MILLIS);
+        }
+
+        /**
+         * Creates a new instance, with the default connection limit.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         * @param documentIdStrategy how the ids of the documents are built.
+         * @param spoolDirectory the directory the failed bulk requests are spooled to, if any.
+         * @param spoolMaxMegabytes the most disk space the spool takes, in megabytes.
+         * @param spoolSegmentMegabytes the size of each spool segment, in megabytes.
+         * @param compression how the bodies of the requests are compressed.
+         * @param compressionMinBytes the smallest body which gets compressed, in bytes.
+         * @param nodes the nodes, or {@code null} for just the host.
+         * @param loadBalancing how requests are spread across the nodes.
+         * @param discoveryIntervalMillis the interval between discoveries of the nodes, in milliseconds,
+         * or {@code 0} not to discover them.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests,
+            @NonNull final DocumentIdStrategy documentIdStrategy,
+            @Nullable final String spoolDirectory,
+            final int spoolMaxMegabytes,
+            final int spoolSegmentMegabytes,
+            @NonNull final RequestCompression compression,
+            final int compressionMinBytes,
+            @Nullable final String[] nodes,
+            @NonNull final LoadBalancing loadBalancing,
+            final int discoveryIntervalMillis) {
+            this(
+                key,
+                host,
+                port,
+                scheme,
+                bulkMaxDocuments,
+                bulkMaxBytes,
+                bulkLingerMillis,
+                maxInFlightRequests,
+                documentIdStrategy,
+                spoolDirectory,
+                spoolMaxMegabytes,
+                spoolSegmentMegabytes,
+                compression,
+                compressionMinBytes,
+                nodes,
+                loadBalancing,
+                discoveryIntervalMillis,
+                DEFAULT_MAX_CONNECTIONS_PER_NODE);
+        }
+
+        /**
+         * Creates a new instance, with the default retries, and discarding the rejected documents.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         * @param documentIdStrategy how the ids of the documents are built.
+         * @param spoolDirectory the directory the failed bulk requests are spooled to, if any.
+         * @param spoolMaxMegabytes the most disk space the spool takes, in megabytes.
+         * @param spoolSegmentMegabytes the size of each spool segment, in megabytes.
+         * @param compression how the bodies of the requests are compressed.
+         * @param compressionMinBytes the smallest body which gets compressed, in bytes.
+         * @param nodes the nodes, or {@code null} for just the host.
+         * @param loadBalancing how requests are spread across the nodes.
+         * @param discoveryIntervalMillis the interval between discoveries of the nodes, in milliseconds,
+         * or {@code 0} not to discover them.
+         * @param maxConnectionsPerNode the most connections open to each node.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests,
+            @NonNull final DocumentIdStrategy documentIdStrategy,
+            @Nullable final String spoolDirectory,
+            final int spoolMaxMegabytes,
+            final int spoolSegmentMegabytes,
+            @NonNull final RequestCompression compression,
+            final int compressionMinBytes,
+            @Nullable final String[] nodes,
+            @NonNull final LoadBalancing loadBalancing,
+            final int discoveryIntervalMillis,
+            final int maxConnectionsPerNode) {
+            this(
+                key,
+                host,
+                port,
+                scheme,
+                bulkMaxDocuments,
+                bulkMaxBytes,
+                bulkLingerMillis,
+                maxInFlightRequests,
+                documentIdStrategy,
+                spoolDirectory,
+                spoolMaxMegabytes,
+                spoolSegmentMegabytes,
+                compression,
+                compressionMinBytes,
+                nodes,
+                loadBalancing,
+                discoveryIntervalMillis,
+                maxConnectionsPerNode,
+                DEFAULT_BULK_RETRY_MAX_ATTEMPTS,
+                DEFAULT_BULK_RETRY_BACKOFF_MILLIS,
+                DiscardingDeadLetterSink.getInstance());
+        }
+
+        /**
+         * Creates a new instance.
+         * @param key the key.
+         * @param host the host.
+         * @param port the port.
+         * @param scheme the scheme.
+         * @param bulkMaxDocuments the most documents in a single bulk request.
+         * @param bulkMaxBytes the estimated size which makes a bulk request be sent, in bytes.
+         * @param bulkLingerMillis how long a document waits for its bulk request, at most, in milliseconds.
+         * @param maxInFlightRequests the most bulk requests awaiting their response at the same time.
+         * @param documentIdStrategy how the ids of the documents are built.
+         * @param spoolDirectory the directory the failed bulk requests are spooled to, if any.
+         * @param spoolMaxMegabytes the most disk space the spool takes, in megabytes.
+         * @param spoolSegmentMegabytes the size of each spool segment, in megabytes.
+         * @param compression how the bodies of the requests are compressed.
+         * @param compressionMinBytes the smallest body which gets compressed, in bytes.
+         * @param nodes the nodes, or {@code null} for just the host.
+         * @param loadBalancing how requests are spread across the nodes.
+         * @param discoveryIntervalMillis the interval between discoveries of the nodes, in milliseconds,
+         * or {@code 0} not to discover them.
+         * @param maxConnectionsPerNode the most connections open to each node.
+         * @param bulkRetryMaxAttempts the most attempts to index a document rejected temporarily.
+         * @param bulkRetryBackoffMillis the wait before the first retry of the rejected documents, in milliseconds.
+         * @param deadLetterSink where the documents rejected for good go.
+         */
+        public ElasticSearchLoggingConfigurationData(
+            @NonNull final String key,
+            @NonNull final String host,
+            final int port,
+            @NonNull final String scheme,
+            final int bulkMaxDocuments,
+            final int bulkMaxBytes,
+            final int bulkLingerMillis,
+            final int maxInFlightRequests,
+            @NonNull final DocumentIdStrategy documentIdStrategy,
+            @Nullable final String spoolDirectory,
+            final int spoolMaxMegabytes,
+            final int spoolSegmentMegabytes,
+            @NonNull final RequestCompression compression,
+            final int compressionMinBytes,
+            @Nullable final String[] nodes,
+            @NonNull final LoadBalancing loadBalancing,
+            final int discoveryIntervalMillis,
+            final int maxConnectionsPerNode,
+            final int bulkRetryMaxAttempts,
+            final int bulkRetryBackoffMillis,
+            @NonNull final DeadLetterSink deadLetterSink) {
             super(key);
             this.host = host;
             this.port = port;
             this.scheme = scheme;
+            this.bulkMaxDocuments = bulkMaxDocuments;
+            this.bulkMaxBytes = bulkMaxBytes;
+            this.bulkLingerMillis = bulkLingerMillis;
+            this.maxInFlightRequests = maxInFlightRequests;
+            this.documentIdStrategy = documentIdStrategy;
+            this.spoolDirectory = spoolDirectory;
+            this.spoolMaxMegabytes = spoolMaxMegabytes;
+            this.spoolSegmentMegabytes = spoolSegmentMegabytes;
+            this.compression = compression;
+            this.compressionMinBytes = compressionMinBytes;
+            this.nodes = nodes;
+            this.loadBalancing = loadBalancing;
+            this.discoveryIntervalMillis = discoveryIntervalMillis;
+            this.maxConnectionsPerNode = maxConnectionsPerNode;
+            this.bulkRetryMaxAttempts = bulkRetryMaxAttempts;
+            this.bulkRetryBackoffMillis = bulkRetryBackoffMillis;
+            this.deadLetterSink = deadLetterSink;
         }
 
         /**
@@ -146,5 +813,387 @@ public interface ElasticSearchLoggingConfiguration
         public String getScheme() {
             return scheme;
         }
+
+        /**
+         * Specifies the most documents in a single bulk request.
+         * @param bulkMaxDocuments such number.
+         */
+        protected final void immutableSetBulkMaxDocuments(final int bulkMaxDocuments) {
+            this.bulkMaxDocuments = bulkMaxDocuments;
+        }
+
+        /**
+         * Specifies the most documents in a single bulk request. Override me if necessary.
+         * @param bulkMaxDocuments such number.
+         */
+        @SuppressWarnings("unused")
+        protected void setBulkMaxDocuments(final int bulkMaxDocuments) {
+            immutableSetBulkMaxDocuments(bulkMaxDocuments);
+        }
+
+        @Override
+        public int getBulkMaxDocuments() {
+            return bulkMaxDocuments;
+        }
+
+        /**
+         * Specifies the estimated size which makes a bulk request be sent.
+         * @param bulkMaxBytes such size, in bytes.
+         */
+        protected final void immutableSetBulkMaxBytes(final int bulkMaxBytes) {
+            this.bulkMaxBytes = bulkMaxBytes;
+        }
+
+        /**
+         * Specifies the estimated size which makes a bulk request be sent. Override me if necessary.
+         * @param bulkMaxBytes such size, in bytes.
+         */
+        @SuppressWarnings("unused")
+        protected void setBulkMaxBytes(final int bulkMaxBytes) {
+            immutableSetBulkMaxBytes(bulkMaxBytes);
+        }
+
+        @Override
+        public int getBulkMaxBytes() {
+            return bulkMaxBytes;
+        }
+
+        /**
+         * Specifies how long a document waits for its bulk request, at most.
+         * @param bulkLingerMillis such time, in milliseconds.
+         */
+        protected final void immutableSetBulkLingerMillis(final int bulkLingerMillis) {
+            this.bulkLingerMillis = bulkLingerMillis;
+        }
+
+        /**
+         * Specifies how long a document waits for its bulk request, at most. Override me if necessary.
+         * @param bulkLingerMillis such time, in milliseconds.
+         */
+        @SuppressWarnings("unused")
+        protected void setBulkLingerMillis(final int bulkLingerMillis) {
+            immutableSetBulkLingerMillis(bulkLingerMillis);
+        }
+
+        @Override
+        public int getBulkLingerMillis() {
+            return bulkLingerMillis;
+        }
+
+        /**
+         * Specifies the most bulk requests awaiting their response at the same time.
+         * @param maxInFlightRequests such number.
+         */
+        protected final void immutableSetMaxInFlightRequests(final int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+        }
+
+        /**
+         * Specifies the most bulk requests awaiting their response at the same time. Override me if necessary.
+         * @param maxInFlightRequests such number.
+         */
+        @SuppressWarnings("unused")
+        protected void setMaxInFlightRequests(final int maxInFlightRequests) {
+            immutableSetMaxInFlightRequests(maxInFlightRequests);
+        }
+
+        @Override
+        public int getMaxInFlightRequests() {
+            return maxInFlightRequests;
+        }
+
+        /**
+         * Specifies how the ids of the documents are built.
+         * @param documentIdStrategy such {@link DocumentIdStrategy}.
+         */
+        protected final void immutableSetDocumentIdStrategy(@NonNull final DocumentIdStrategy documentIdStrategy) {
+            this.documentIdStrategy = documentIdStrategy;
+        }
+
+        /**
+         * Specifies how the ids of the documents are built. Override me if necessary.
+         * @param documentIdStrategy such {@link DocumentIdStrategy}.
+         */
+        @SuppressWarnings("unused")
+        protected void setDocumentIdStrategy(@NonNull final DocumentIdStrategy documentIdStrategy) {
+            immutableSetDocumentIdStrategy(documentIdStrategy);
+        }
+
+        @Override
+        @NonNull
+        public DocumentIdStrategy getDocumentIdStrategy() {
+            return documentIdStrategy;
+        }
+
+        /**
+         * Specifies the directory the failed bulk requests are spooled to.
+         * @param spoolDirectory such directory, or {@code null} not to spool them.
+         */
+        protected final void immutableSetSpoolDirectory(@Nullable final String spoolDirectory) {
+            this.spoolDirectory = spoolDirectory;
+        }
+
+        /**
+         * Specifies the directory the failed bulk requests are spooled to. Override me if necessary.
+         * @param spoolDirectory such directory, or {@code null} not to spool them.
+         */
+        @SuppressWarnings("unused")
+        protected void setSpoolDirectory(@Nullable final String spoolDirectory) {
+            immutableSetSpoolDirectory(spoolDirectory);
+        }
+
+        @Override
+        @Nullable
+        public String getSpoolDirectory() {
+            return spoolDirectory;
+        }
+
+        /**
+         * Specifies the most disk space the spool takes.
+         * @param spoolMaxMegabytes such space, in megabytes.
+         */
+        protected final void immutableSetSpoolMaxMegabytes(final int spoolMaxMegabytes) {
+            this.spoolMaxMegabytes = spoolMaxMegabytes;
+        }
+
+        /**
+         * Specifies the most disk space the spool takes. Override me if necessary.
+         * @param spoolMaxMegabytes such space, in megabytes.
+         */
+        @SuppressWarnings("unused")
+        protected void setSpoolMaxMegabytes(final int spoolMaxMegabytes) {
+            immutableSetSpoolMaxMegabytes(spoolMaxMegabytes);
+        }
+
+        @Override
+        public int getSpoolMaxMegabytes() {
+            return spoolMaxMegabytes;
+        }
+
+        /**
+         * Specifies the size of each spool segment.
+         * @param spoolSegmentMegabytes such size, in megabytes.
+         */
+        protected final void immutableSetSpoolSegmentMegabytes(final int spoolSegmentMegabytes) {
+            this.spoolSegmentMegabytes = spoolSegmentMegabytes;
+        }
+
+        /**
+         * Specifies the size of each spool segment. Override me if necessary.
+         * @param spoolSegmentMegabytes such size, in megabytes.
+         */
+        @SuppressWarnings("unused")
+        protected void setSpoolSegmentMegabytes(final int spoolSegmentMegabytes) {
+            immutableSetSpoolSegmentMegabytes(spoolSegmentMegabytes);
+        }
+
+        @Override
+        public int getSpoolSegmentMegabytes() {
+            return spoolSegmentMegabytes;
+        }
+
+        /**
+         * Specifies how the bodies of the requests are compressed.
+         * @param compression such {@link RequestCompression}.
+         */
+        protected final void immutableSetCompression(@NonNull final RequestCompression compression) {
+            this.compression = compression;
+        }
+
+        /**
+         * Specifies how the bodies of the requests are compressed. Override me if necessary.
+         * @param compression such {@link RequestCompression}.
+         */
+        @SuppressWarnings("unused")
+        protected void setCompression(@NonNull final RequestCompression compression) {
+            immutableSetCompression(compression);
+        }
+
+        @Override
+        @NonNull
+        public RequestCompression getCompression() {
+            return compression;
+        }
+
+        /**
+         * Specifies the smallest body which gets compressed.
+         * @param compressionMinBytes such size, in bytes.
+         */
+        protected final void immutableSetCompressionMinBytes(final int compressionMinBytes) {
+            this.compressionMinBytes = compressionMinBytes;
+        }
+
+        /**
+         * Specifies the smallest body which gets compressed. Override me if necessary.
+         * @param compressionMinBytes such size, in bytes.
+         */
+        @SuppressWarnings("unused")
+        protected void setCompressionMinBytes(final int compressionMinBytes) {
+            immutableSetCompressionMinBytes(compressionMinBytes);
+        }
+
+        @Override
+        public int getCompressionMinBytes() {
+            return compressionMinBytes;
+        }
+
+        /**
+         * Specifies the nodes requests are spread across.
+         * @param nodes such nodes, or {@code null} for just the host.
+         */
+        protected final void immutableSetNodes(@Nullable final String[] nodes) {
+            this.nodes = nodes;
+        }
+
+        /**
+         * Specifies the nodes requests are spread across. Override me if necessary.
+         * @param nodes such nodes, or {@code null} for just the host.
+         */
+        @SuppressWarnings("unused")
+        protected void setNodes(@Nullable final String[] nodes) {
+            immutableSetNodes(nodes);
+        }
+
+        @Override
+        @NonNull
+        public String[] getNodes() {
+            @Nullable final String[] result = nodes;
+
+            return (result == null) ? new String[] { getHost() } : result;
+        }
+
+        /**
+         * Specifies how requests are spread across the nodes.
+         * @param loadBalancing such {@link LoadBalancing}.
+         */
+        protected final void immutableSetLoadBalancing(@NonNull final LoadBalancing loadBalancing) {
+            this.loadBalancing = loadBalancing;
+        }
+
+        /**
+         * Specifies how requests are spread across the nodes. Override me if necessary.
+         * @param loadBalancing such {@link LoadBalancing}.
+         */
+        @SuppressWarnings("unused")
+        protected void setLoadBalancing(@NonNull final LoadBalancing loadBalancing) {
+            immutableSetLoadBalancing(loadBalancing);
+        }
+
+        @Override
+        @NonNull
+        public LoadBalancing getLoadBalancing() {
+            return loadBalancing;
+        }
+
+        /**
+         * Specifies the interval between discoveries of the nodes.
+         * @param discoveryIntervalMillis such interval, in milliseconds, or {@code 0} not to discover them.
+         */
+        protected final void immutableSetDiscoveryIntervalMillis(final int discoveryIntervalMillis) {
+            this.discoveryIntervalMillis = discoveryIntervalMillis;
+        }
+
+        /**
+         * Specifies the interval between discoveries of the nodes. Override me if necessary.
+         * @param discoveryIntervalMillis such interval, in milliseconds, or {@code 0} not to discover them.
+         */
+        @SuppressWarnings("unused")
+        protected void setDiscoveryIntervalMillis(final int discoveryIntervalMillis) {
+            immutableSetDiscoveryIntervalMillis(discoveryIntervalMillis);
+        }
+
+        @Override
+        public int getDiscoveryIntervalMillis() {
+            return discoveryIntervalMillis;
+        }
+
+        /**
+         * Specifies the most connections open to each node.
+         * @param maxConnectionsPerNode such number.
+         */
+        protected final void immutableSetMaxConnectionsPerNode(final int maxConnectionsPerNode) {
+            this.maxConnectionsPerNode = maxConnectionsPerNode;
+        }
+
+        /**
+         * Specifies the most connections open to each node. Override me if necessary.
+         * @param maxConnectionsPerNode such number.
+         */
+        @SuppressWarnings("unused")
+        protected void setMaxConnectionsPerNode(final int maxConnectionsPerNode) {
+            immutableSetMaxConnectionsPerNode(maxConnectionsPerNode);
+        }
+
+        @Override
+        public int getMaxConnectionsPerNode() {
+            return maxConnectionsPerNode;
+        }
+
+        /**
+         * Specifies the most attempts to index a document rejected temporarily.
+         * @param bulkRetryMaxAttempts such number.
+         */
+        protected final void immutableSetBulkRetryMaxAttempts(final int bulkRetryMaxAttempts) {
+            this.bulkRetryMaxAttempts = bulkRetryMaxAttempts;
+        }
+
+        /**
+         * Specifies the most attempts to index a document rejected temporarily. Override me if necessary.
+         * @param bulkRetryMaxAttempts such number.
+         */
+        @SuppressWarnings("unused")
+        protected void setBulkRetryMaxAttempts(final int bulkRetryMaxAttempts) {
+            immutableSetBulkRetryMaxAttempts(bulkRetryMaxAttempts);
+        }
+
+        @Override
+        public int getBulkRetryMaxAttempts() {
+            return bulkRetryMaxAttempts;
+        }
+
+        /**
+         * Specifies the wait before the first retry of the rejected documents.
+         * @param bulkRetryBackoffMillis such wait, in milliseconds.
+         */
+        protected final void immutableSetBulkRetryBackoffMillis(final int bulkRetryBackoffMillis) {
+            this.bulkRetryBackoffMillis = bulkRetryBackoffMillis;
+        }
+
+        /**
+         * Specifies the wait before the first retry of the rejected documents. Override me if necessary.
+         * @param bulkRetryBackoffMillis such wait, in milliseconds.
+         */
+        @SuppressWarnings("unused")
+        protected void setBulkRetryBackoffMillis(final int bulkRetryBackoffMillis) {
+            immutableSetBulkRetryBackoffMillis(bulkRetryBackoffMillis);
+        }
+
+        @Override
+        public int getBulkRetryBackoffMillis() {
+            return bulkRetryBackoffMillis;
+        }
+
+        /**
+         * Specifies where the documents rejected for good go.
+         * @param deadLetterSink such {@link DeadLetterSink}.
+         */
+        protected final void immutableSetDeadLetterSink(@NonNull final DeadLetterSink deadLetterSink) {
+            this.deadLetterSink = deadLetterSink;
+        }
+
+        /**
+         * Specifies where the documents rejected for good go. Override me if necessary.
+         * @param deadLetterSink such {@link DeadLetterSink}.
+         */
+        @SuppressWarnings("unused")
+        protected void setDeadLetterSink(@NonNull final DeadLetterSink deadLetterSink) {
+            immutableSetDeadLetterSink(deadLetterSink);
+        }
+
+        @Override
+        @NonNull
+        public DeadLetterSink getDeadLetterSink() {
+            return deadLetterSink;
+        }
     }
 }
@@ -16,41 +16,225 @@ package es.osoco.logging.adapter.elasticsearch;
 
 import es.osoco.logging.LoggingContext;
 import es.osoco.logging.adapter.AbstractLoggingAdapter;
+import es.osoco.logging.adapter.LogEvent;
+import es.osoco.logging.adapter.LogLevel;
+import es.osoco.logging.adapter.batch.LogEventBatcher;
+import es.osoco.logging.adapter.spool.DiskSpool;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.entity.ContentType;
-import org.apache.http.nio.entity.NStringEntity;
+import org.apache.http.nio.entity.NByteArrayEntity;
 import org.checkerframework.checker.nullness.qual.EnsuresNonNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.elasticsearch.client.Response;
-import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
 /**
- * {@link es.osoco.logging.adapter.LoggingAdapter} for ElasticSearch, based on a REST client.
+ * <p>{@link es.osoco.logging.adapter.LoggingAdapter} for ElasticSearch, based on REST clients.</p>
+ * <p>Requests are spread across the configured nodes by an {@link ElasticsearchNodePool}, which skips
+ * dead nodes, and optionally discovers them. Adapters with the same nodes share their pool, through the
+ * {@link ElasticsearchNodePoolRegistry}, which also flushes them when the process shuts down.</p>
+ * <p>Events are buffered by a {@link LogEventBatcher}, and indexed together through the {@code _bulk} API,
+ * within the limits of the {@link ElasticSearchLoggingConfiguration}. Batches received via
+ * {@link #logBatch(List)} are indexed right away.</p>
+ * <p>If a spool directory is configured, requests failing for reasons which may be temporary (the cluster
+ * being unreachable, overloaded, or failing) are appended to a {@link DiskSpool}, instead of being lost.
+ * While it holds requests, new ones are spooled as well, and a background thread sends them, in order,
+ * once the cluster is back. Requests the cluster rejects for good, such as malformed ones, are not
+ * retried.</p>
+ * <p>Responses are parsed as a stream, to find the documents rejected individually. Those rejected
+ * temporarily, because the cluster is too busy, are sent again on their own, after an exponential backoff
+ * with jitter, up to the configured attempts. The rest, such as those not matching the mapping, go to the
+ * configured {@link DeadLetterSink}.</p>
+ * <p>The ids of the documents are built by the configured {@link DocumentIdStrategy}, if at all.</p>
+ * <p>Request bodies are encoded straight into pooled {@link Utf8JsonBuffer}s, which are reused once
+ * their response arrives. Bodies reaching the configured size are compressed as well, if a
+ * {@link RequestCompression} is configured. Spooled bodies are kept uncompressed.</p>
+ * <p>Bulk requests are sent asynchronously. Logging threads just buffer the events, while full and lingering
+ * batches are sent from a background thread. Once too many requests await their response, that thread waits
+ * for one of them, for a while, but logging threads flushing by themselves don't. Requests which cannot be sent
+ * are spooled, if configured, or dropped otherwise: their documents go to the {@link DeadLetterSink}, and they're
+ * counted in {@link #getDroppedRequests()}. Failed requests are reported as {@code latestErrorCode}, both in the
+ * adapter's {@link LoggingContext} and through {@link #getLatestErrorCode()}.</p>
  */
-@EqualsAndHashCode(callSuper=false)
+@EqualsAndHashCode(
+    callSuper=false,
+    exclude={
+        "nodePool", "batcher", "inFlightRequests", "latestErrorCode", "buffers", "spool", "spoolReplayer", "replaying",
+        "shutdownTask", "deadLetterSink", "droppedRequests", "pendingRetries", "closed",
+        "spoolPending", "spoolHolding"
+    })
 @Getter
-@ToString
+@ToString(exclude = { "nodePool", "shutdownTask", "pendingRetries" })
 public class ElasticsearchLoggingAdapter
     extends AbstractLoggingAdapter<ElasticSearchLoggingConfiguration> {
 
     /**
-     * The REST client.
+     * The events populated by each thread, before buffering them.
      */
+    @NonNull
+    private static final ThreadLocal<LogEvent> SCRATCH_EVENTS = ThreadLocal.withInitial(LogEvent::new);
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class RetryTimerSingletonContainer {
+        /**
+         * The thread retrying the rejected documents, shared by all adapters.
+         */
+        @NonNull
+        public static final ScheduledExecutorService SINGLETON =
+            Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    @NonNull final Thread result = new Thread(runnable, "java-logging-elasticsearch-retry");
+                    result.setDaemon(true);
+                    return result;
+                });
+    }
+
+    /**
+     * The nodes, with their REST clients.
+     */
+    @Nullable
+    private ElasticsearchNodePool nodePool;
+
+    /**
+     * Buffers the events until they're indexed.
+     */
+    @NonNull
+    private final LogEventBatcher batcher;
+
+    /**
+     * How the ids of the documents are built.
+     */
+    @NonNull
+    private final DocumentIdStrategy documentIdStrategy;
+
+    /**
+     * How the bodies of the requests are compressed.
+     */
+    @NonNull
+    private final RequestCompression compression;
+
+    /**
+     * Where the documents rejected for good go.
+     */
+    @NonNull
+    private final DeadLetterSink deadLetterSink;
+
+    /**
+     * The smallest body which gets compressed, in bytes.
+     */
+    private final int compressionMinBytes;
+
+    /**
+     * The permits of the bulk requests awaiting their response.
+     */
+    @NonNull
+    private final Semaphore inFlightRequests;
+
+    /**
+     * The status code, or the exception, of the latest failed bulk request, if any.
+     */
+    @Nullable
+    private volatile Object latestErrorCode;
+
+    /**
+     * The released buffers, ready to be reused by new bulk requests.
+     */
+    @NonNull
+    private final Queue<Utf8JsonBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The failed bulk requests, until sent, if spooled.
+     */
+    @Nullable
+    private final DiskSpool spool;
+
+    /**
+     * The thread spooling and replaying the failed bulk requests, if spooled.
+     */
+    @Getter(AccessLevel.NONE)
     @Nullable
-    private RestClient restClient;
+    private final ScheduledExecutorService spoolReplayer;
+
+    /**
+     * Whether a spooled request is being replayed.
+     */
+    @Getter(AccessLevel.NONE)
+    @NonNull
+    private final AtomicBoolean replaying = new AtomicBoolean(false);
+
+    /**
+     * How many request bodies have been handed over to the spool thread, and are not appended yet.
+     */
+    @Getter(AccessLevel.NONE)
+    @NonNull
+    private final AtomicInteger spoolPending = new AtomicInteger();
+
+    /**
+     * Whether the spool held requests, last time the spool thread checked.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile boolean spoolHolding;
+
+    /**
+     * How many bulk requests have been dropped, since too many were in flight already, and there was no spool.
+     */
+    @Getter(AccessLevel.NONE)
+    @NonNull
+    private final AtomicLong droppedRequests = new AtomicLong();
+
+    /**
+     * The retries waiting for their backoff.
+     */
+    @Getter(AccessLevel.NONE)
+    @NonNull
+    private final Set<PendingRetry> pendingRetries = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * Whether it's been cleaned up.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile boolean closed;
+
+    /**
+     * What the registry runs when the process shuts down.
+     */
+    @Getter(AccessLevel.NONE)
+    @NonNull
+    private final Runnable shutdownTask = this::cleanup;
 
     /**
      * Creates a new {@link ElasticsearchLoggingAdapter} with given configuration.
@@ -58,50 +242,106 @@ public class ElasticsearchLoggingAdapter
      */
     public ElasticsearchLoggingAdapter(@NonNull final ElasticSearchLoggingConfiguration config) {
         super(config);
-        this.restClient = null;
+        this.nodePool = null;
+        this.documentIdStrategy = config.getDocumentIdStrategy();
+        this.compression = config.getCompression();
+        this.compressionMinBytes = config.getCompressionMinBytes();
+        this.deadLetterSink = config.getDeadLetterSink();
+        this.inFlightRequests = new Semaphore(Math.max(1, config.getMaxInFlightRequests()));
+        this.batcher =
+            new LogEventBatcher(
+                config.getBulkMaxDocuments(),
+                config.getBulkMaxBytes(),
+                config.getBulkLingerMillis(),
+                this::index,
+                true);
+        this.spool = openSpool(config);
+        this.spoolHolding = this.spool != null && !this.spool.isEmpty();
+        if (this.spool == null) {
+            this.spoolReplayer = null;
+        } else {
+            this.spoolReplayer =
+                Executors.newSingleThreadScheduledExecutor(
+                    runnable -> {
+                        @NonNull final Thread result = new Thread(runnable, "java-logging-elasticsearch-spool");
+                        result.setDaemon(true);
+                        return result;
+                    });
+            this.spoolReplayer.scheduleWithFixedDelay(
+                this::replaySpool, SPOOL_REPLAY_INTERVAL_MILLIS, SPOOL_REPLAY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens the spool, if configured.
+     * @param config the {@link ElasticSearchLoggingConfiguration}.
+     * @return the spool, or {@code null} if not configured, or if it cannot be opened.
+     */
+    @Nullable
+    protected DiskSpool openSpool(@NonNull final ElasticSearchLoggingConfiguration config) {
+        @Nullable DiskSpool result = null;
+
+        @Nullable final String directory = config.getSpoolDirectory();
+
+        if (directory != null) {
+            try {
+                result =
+                    new DiskSpool(
+                        Paths.get(directory),
+                        (int) Math.min(Integer.MAX_VALUE, config.getSpoolSegmentMegabytes() * MEGABYTE),
+                        config.getSpoolMaxMegabytes() * MEGABYTE);
+            } catch (@NonNull final IOException | RuntimeException cannotOpen) {
+                this.latestErrorCode = cannotOpen;
+            }
+        }
+
+        return result;
     }
 
     /**
-     * Specifies the Rest client.
-     * @param client such instance.
+     * Specifies the node pool.
+     * @param nodePool such instance.
      */
-    @EnsuresNonNull("restClient")
-    protected final void immutableSetRestClient(@NonNull final RestClient client) {
-        this.restClient = client;
+    @EnsuresNonNull("nodePool")
+    protected final void immutableSetNodePool(@NonNull final ElasticsearchNodePool nodePool) {
+        this.nodePool = nodePool;
     }
 
     /**
-     * Specifies the Rest client. Override me if necessary.
-     * @param client such instance.
+     * Specifies the node pool. Override me if necessary.
+     * @param nodePool such instance.
      */
     @SuppressWarnings("unused")
-    protected void setRestClient(@NonNull final RestClient client) {
-        immutableSetRestClient(client);
+    protected void setNodePool(@NonNull final ElasticsearchNodePool nodePool) {
+        immutableSetNodePool(nodePool);
     }
 
     /**
-     * Retrieves the Rest client.
+     * Retrieves the node pool.
      * @return such instance.
      */
     @Nullable
-    protected final RestClient immutableGetRestClient() {
-        return this.restClient;
+    protected final ElasticsearchNodePool immutableGetNodePool() {
+        return this.nodePool;
     }
 
     /**
-     * Retrieves the Rest client. Override me if necessary.
+     * Retrieves the node pool, building it the first time. Override me if necessary.
      * @return such instance.
+     * @throws IllegalStateException once cleaned up, instead of building a pool nobody would release.
      */
     @SuppressWarnings("unused")
     @NonNull
-    public RestClient getRestClient() {
-        final RestClient result;
+    public synchronized ElasticsearchNodePool getNodePool() {
+        final ElasticsearchNodePool result;
 
-        @Nullable final RestClient aux = immutableGetRestClient();
+        @Nullable final ElasticsearchNodePool aux = immutableGetNodePool();
 
-        if (aux == null) {
-            result = buildRestClient();
-            setRestClient(result);
+        if (this.closed) {
+            throw new IllegalStateException("The adapter is closed");
+        } else if (aux == null) {
+            result = buildNodePool();
+            setNodePool(result);
         } else {
             result = aux;
         }
@@ -110,200 +350,1354 @@ public class ElasticsearchLoggingAdapter
     }
 
     /**
-     * Builds the REST client.
-     * @return such {@link RestClient} instance.
+     * Acquires the node pool of the configured nodes from the {@link ElasticsearchNodePoolRegistry}, and
+     * registers {@link #cleanup()} to run when the process shuts down.
+     * @return such {@link ElasticsearchNodePool} instance.
      */
     @NonNull
-    protected RestClient buildRestClient() {
-        final RestClient result =
-            RestClient.builder(
-                new HttpHost(
-                    getLoggingConfiguration().getHost(),
-                    getLoggingConfiguration().getPort(),
-                    getLoggingConfiguration().getScheme()))
-                .build();
-        Runtime.getRuntime().addShutdownHook(new Thread(this::cleanup));
+    protected ElasticsearchNodePool buildNodePool() {
+        @NonNull final ElasticsearchNodePoolRegistry registry = ElasticsearchNodePoolRegistry.getInstance();
+
+        @NonNull final ElasticsearchNodePool result = registry.acquire(buildNodePoolKey());
+        registry.addShutdownTask(this.shutdownTask);
 
         return result;
     }
 
+    /**
+     * Builds the settings which identify the node pool, out of the configuration.
+     * @return such {@link ElasticsearchNodePoolRegistry.Key}.
+     */
+    protected ElasticsearchNodePoolRegistry.Key buildNodePoolKey() {
+        @NonNull final ElasticSearchLoggingConfiguration config = getLoggingConfiguration();
+        @NonNull final List<HttpHost> hosts = new ArrayList<>();
+
+        for (@NonNull final String node : config.getNodes()) {
+            hosts.add(ElasticsearchNodePool.parseHost(node, config.getPort(), config.getScheme()));
+        }
+
+        return
+            new ElasticsearchNodePoolRegistry.Key(
+                hosts, config.getLoadBalancing(), config.getDiscoveryIntervalMillis(), config.getMaxConnectionsPerNode());
+    }
+
+    /**
+     * Buffers given event until its bulk request is sent.
+     * @param event the event.
+     */
+    @Override
+    protected void logEvent(@NonNull final LogEvent event) {
+        if (!this.batcher.add(event)) {
+            index(Collections.singletonList(event));
+        }
+    }
+
+    /**
+     * Indexes given events with a single bulk request, after the events buffered so far.
+     * @param events the events.
+     */
+    @Override
+    protected void logEvents(@NonNull final List<LogEvent> events) {
+        this.batcher.flush();
+        index(events);
+    }
+
     @Override
     protected void logError(@Nullable final String category, @NonNull final String msg) {
-        logToElasticSearch(category, msg, null, getLoggingContext());
+        logEvent(LogLevel.ERROR, category, msg, null);
     }
 
     @Override
     protected void logError(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        logToElasticSearch(category, msg, error, getLoggingContext());
+        logEvent(LogLevel.ERROR, category, msg, error);
     }
 
     @Override
     protected void logWarn(@Nullable final String category, @NonNull final String msg) {
-        logToElasticSearch(category, msg, null, getLoggingContext());
+        logEvent(LogLevel.WARN, category, msg, null);
     }
 
     @Override
     protected void logWarn(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        logToElasticSearch(category, msg, error, getLoggingContext());
+        logEvent(LogLevel.WARN, category, msg, error);
     }
 
     @Override
     protected void logInfo(@Nullable final String category, @NonNull final String msg) {
-        logToElasticSearch(category, msg, null, getLoggingContext());
+        logEvent(LogLevel.INFO, category, msg, null);
     }
 
     @Override
     protected void logInfo(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        logToElasticSearch(category, msg, error, getLoggingContext());
+        logEvent(LogLevel.INFO, category, msg, error);
     }
 
     @Override
     protected void logDebug(@Nullable final String category, @NonNull final String msg) {
-        logToElasticSearch(category, msg, null, getLoggingContext());
+        logEvent(LogLevel.DEBUG, category, msg, null);
     }
 
     @Override
     protected void logDebug(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        logToElasticSearch(category, msg, error, getLoggingContext());
+        logEvent(LogLevel.DEBUG, category, msg, error);
     }
 
     @Override
     protected void logTrace(@Nullable final String category, @NonNull final String msg) {
-        logToElasticSearch(category, msg, null, getLoggingContext());
+        logEvent(LogLevel.TRACE, category, msg, null);
     }
 
     @Override
     protected void logTrace(@Nullable final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        logToElasticSearch(category, msg, error, getLoggingContext());
+        logEvent(LogLevel.TRACE, category, msg, error);
     }
 
     /**
-     * Logs given info to ElasticSearch.
+     * Buffers a new event with given information.
+     * @param level the level.
      * @param category the category.
      * @param msg the message.
-     * @param error the error (optional).
-     * @param ctx the {@link LoggingContext}.
+     * @param error the error, if any.
      */
-    protected void logToElasticSearch(
+    protected void logEvent(
+        @NonNull final LogLevel level,
         @Nullable final String category,
         @NonNull final String msg,
-        @Nullable final Throwable error,
-        @NonNull final LoggingContext ctx) {
-        @NonNull RestClient restClient = getRestClient();
+        @Nullable final Throwable error) {
+        @NonNull final LogEvent event = SCRATCH_EVENTS.get();
 
-        final long id = System.currentTimeMillis() / 1000;
+        try {
+            logEvent(event.populate(level, category, msg, error, getLoggingContext()));
+        } finally {
+            event.clear();
+        }
+    }
 
-        @Nullable final String application = ctx.get("application");
-        @Nullable final String event = ctx.get("event");
-        @Nullable final String useCase = ctx.get("useCase");
+    /**
+     * Indexes given events through the {@code _bulk} API. Events beyond the bulk limits of the
+     * {@link ElasticSearchLoggingConfiguration} are sent in further requests, so that the body of each
+     * request stays within them, however big the batch.
+     * The values of the context each event was logged with take precedence over the adapter's.
+     * @param events the events.
+     */
+    protected void index(@NonNull final List<LogEvent> events) {
+        @NonNull final LoggingContext adapterContext = getLoggingContext();
+        @NonNull final ElasticSearchLoggingConfiguration config = getLoggingConfiguration();
+        @NonNull Utf8JsonBuffer buffer = acquireBuffer();
 
-        @NonNull final LocalDateTime now = LocalDateTime.now();
+        final int count = events.size();
+        int indexed = 0;
+        int documents = 0;
 
-        @NonNull final StringBuilder data = new StringBuilder("{");
+        for (@NonNull final LogEvent event : events) {
+            @Nullable final LoggingContext eventContext = event.getContext();
 
-        boolean firstElement = true;
+            appendBulkItem(buffer, event, (eventContext == null) ? adapterContext : eventContext);
+            indexed++;
+            documents++;
 
-        if (category != null) {
-            data.append("\n    \"category\": \"");
-            data.append(category);
-            data.append("\"");
-            firstElement = false;
+            if (indexed < count
+                && (documents >= config.getBulkMaxDocuments() || buffer.size() >= config.getBulkMaxBytes())) {
+                send(buffer, adapterContext);
+                buffer = acquireBuffer();
+                documents = 0;
+            }
         }
-        if (event != null) {
-            if (!firstElement) {
-                data.append(",");
+
+        send(buffer, adapterContext);
+    }
+
+    /**
+     * Sends a bulk request with given body, without waiting for its response. If too many requests are
+     * in flight, it waits for one of them only when flushing on behalf of the {@link LogEventBatcher}.
+     * Otherwise, or if none completes in time, the body is spooled, if configured, or dropped.
+     * The buffer is released once the response arrives.
+     * @param buffer the request body.
+     * @param ctx the {@link LoggingContext} to report failures to.
+     */
+    protected void send(@NonNull final Utf8JsonBuffer buffer, @NonNull final LoggingContext ctx) {
+        @Nullable final DiskSpool spool = this.spool;
+
+        if (spool != null && isSpoolInUse()) {
+            spoolLater(spool, buffer);
+            onSpoolThread(this::replaySpool);
+        } else if (acquireInFlightPermit()) {
+            @Nullable final Utf8JsonBuffer compressed = compress(buffer.getBytes(), buffer.size());
+
+            sendBulkRequest(
+                buildEntity(buffer.getBytes(), buffer.size(), compressed),
+                new BulkResponseListener(ctx, buffer, compressed));
+        } else if (spool != null) {
+            spoolLater(spool, buffer);
+        } else {
+            dropRequest(buffer, ctx, TOO_MANY_REQUESTS, DROPPED_REQUEST_ERROR);
+        }
+    }
+
+    /**
+     * Takes the permit of a new bulk request. Only threads flushing on behalf of the {@link LogEventBatcher}
+     * wait for one, up to {@link #IN_FLIGHT_WAIT_MILLIS}.
+     * @return {@code true} if taken.
+     */
+    protected boolean acquireInFlightPermit() {
+        boolean result;
+
+        if (LogEventBatcher.isFlushingOnBehalf()) {
+            try {
+                result = this.inFlightRequests.tryAcquire(IN_FLIGHT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (@NonNull final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                result = this.inFlightRequests.tryAcquire();
             }
-            data.append("\n    \"events\" : \"");
-            data.append(escapeDoubleQuotes(event));
-            data.append("\"");
-            firstElement = false;
+        } else {
+            result = this.inFlightRequests.tryAcquire();
         }
 
-        if (useCase != null) {
-            if (!firstElement) {
-                data.append(",");
+        return result;
+    }
+
+    /**
+     * Drops a bulk request which cannot be sent: reports it, hands its documents over to the
+     * {@link DeadLetterSink}, and releases it.
+     * @param buffer the request body.
+     * @param ctx the {@link LoggingContext} to report failures to.
+     * @param status the status to report.
+     * @param error why it's dropped.
+     */
+    protected void dropRequest(
+        @NonNull final Utf8JsonBuffer buffer,
+        @NonNull final LoggingContext ctx,
+        final int status,
+        @NonNull final String error) {
+        this.droppedRequests.incrementAndGet();
+
+        try {
+            reportError(ctx, status);
+
+            @NonNull final byte[] data = buffer.getBytes();
+            final int length = buffer.size();
+            int position = 0;
+
+            while (position < length) {
+                final int actionEnd = endOfLine(data, position, length);
+                final int documentStart = Math.min(actionEnd + 1, length);
+                final int documentEnd = endOfLine(data, documentStart, length);
+
+                this.deadLetterSink.accept(
+                    new String(data, position, actionEnd - position, StandardCharsets.UTF_8),
+                    new String(data, documentStart, documentEnd - documentStart, StandardCharsets.UTF_8),
+                    status,
+                    error);
+                position = nextLine(data, documentStart, length);
             }
-            data.append("\n    \"useCase\" : \"");
-            data.append(escapeDoubleQuotes(useCase));
-            data.append("\"");
-            firstElement = false;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Retrieves how many bulk requests have been dropped, since too many were in flight already,
+     * and no spool was configured, or since the adapter was cleaned up before they were retried.
+     * @return such count.
+     */
+    public long getDroppedRequests() {
+        return this.droppedRequests.get();
+    }
+
+    /**
+     * Compresses given body, if configured, and big enough.
+     * @param data the body.
+     * @param length its length.
+     * @return a pooled buffer with the compressed body, or {@code null} if not compressed.
+     */
+    @Nullable
+    protected Utf8JsonBuffer compress(@NonNull final byte[] data, final int length) {
+        @Nullable Utf8JsonBuffer result = null;
+
+        if (this.compression != RequestCompression.NONE && length >= this.compressionMinBytes) {
+            result = acquireBuffer();
+            this.compression.compress(data, 0, length, result);
         }
 
-        if (!firstElement) {
-            data.append(",");
+        return result;
+    }
+
+    /**
+     * Builds the entity of a bulk request.
+     * @param data the body.
+     * @param length its length.
+     * @param compressed the compressed body, if compressed.
+     * @return the entity.
+     */
+    @NonNull
+    protected HttpEntity buildEntity(
+        @NonNull final byte[] data, final int length, @Nullable final Utf8JsonBuffer compressed) {
+        @NonNull final NByteArrayEntity result;
+
+        if (compressed == null) {
+            result = new NByteArrayEntity(data, 0, length, NDJSON);
+        } else {
+            result = new NByteArrayEntity(compressed.getBytes(), 0, compressed.size(), NDJSON);
+            result.setContentEncoding(this.compression.getContentEncoding());
         }
-        data.append("\n    \"application\": \"");
-        data.append(application);
-        data.append("\"");
 
-        data.append(",\n    \"message\": \"");
-        data.append(escapeDoubleQuotes(msg));
-        data.append("\",\n    \"timestamp\": \"");
-        data.append(TIMESTAMP_FORMATTER.format(now));
-        data.append("\"\n}");
+        return result;
+    }
 
-        if (error != null) {
-            data.append(",\n    \"error\": \"");
-            data.append(escapeDoubleQuotes(toString(error)));
-            data.append("\"\n}");
+    /**
+     * Performs a bulk request asynchronously. If it cannot even be performed, for instance once closed,
+     * the listener is notified of the failure right away, so that the permit and the body are released.
+     * @param entity the request body.
+     * @param listener who gets notified of the response.
+     */
+    protected void sendBulkRequest(@NonNull final HttpEntity entity, @NonNull final ResponseListener listener) {
+        try {
+            performBulkRequest(entity, listener);
+        } catch (@NonNull final RuntimeException cannotPerform) {
+            listener.onFailure(cannotPerform);
         }
+    }
+
+    /**
+     * Performs a bulk request asynchronously.
+     * @param entity the request body.
+     * @param listener who gets notified of the response.
+     */
+    protected void performBulkRequest(@NonNull final HttpEntity entity, @NonNull final ResponseListener listener) {
+        getNodePool().performRequestAsync("POST", "/_bulk", Collections.emptyMap(), entity, listener);
+    }
 
-        @NonNull final String content = data.toString();
+    /**
+     * Checks whether the spool holds requests, or is about to, without waiting for the spool thread,
+     * so that later requests queue behind them.
+     * @return {@code true} in such case.
+     */
+    protected boolean isSpoolInUse() {
+        return this.spoolPending.get() > 0 || this.spoolHolding;
+    }
 
-        @NonNull final HttpEntity entity =
-            new NStringEntity(content, ContentType.APPLICATION_JSON);
+    /**
+     * Hands given request body over to the spool thread, to append it to the spool.
+     * It counts as spooled from now on.
+     * @param spool the spool.
+     * @param buffer the request body.
+     */
+    protected void spoolLater(@NonNull final DiskSpool spool, @NonNull final Utf8JsonBuffer buffer) {
+        this.spoolPending.incrementAndGet();
+        onSpoolThread(
+            () -> {
+                try {
+                    spool(spool, buffer);
+                } finally {
+                    this.spoolPending.decrementAndGet();
+                }
+            });
+    }
 
+    /**
+     * Appends given request body to the spool, and releases it.
+     * @param spool the spool.
+     * @param buffer the request body.
+     */
+    protected void spool(@NonNull final DiskSpool spool, @NonNull final Utf8JsonBuffer buffer) {
         try {
-            @NonNull final Response indexResponse =
-                restClient.performRequest(
-                    "PUT",
-                    "/log-" + INDEX_FORMATTER.format(now) + "/" + application + "/" + id,
-                    Collections.emptyMap(),
-                    entity);
-
-            int statusCode = indexResponse.getStatusLine().getStatusCode();
-            if (statusCode >= 400) {
-                ctx.put("latestErrorCode", statusCode);
+            spool.append(buffer.getBytes(), 0, buffer.size());
+        } finally {
+            releaseBuffer(buffer);
+            this.spoolHolding = !spool.isEmpty();
+        }
+    }
+
+    /**
+     * Handles the body of a failed request: spools it if it can be retried, or releases it otherwise.
+     * @param buffer the request body.
+     * @param errorCode the status code, or the exception.
+     */
+    protected void requestFailed(@NonNull final Utf8JsonBuffer buffer, @NonNull final Object errorCode) {
+        @Nullable final DiskSpool spool = this.spool;
+
+        if (spool != null && !this.closed && isRetryable(errorCode)) {
+            spoolLater(spool, buffer);
+        } else {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Parses the response of a bulk request.
+     * @param response the response.
+     * @return the outcome. Responses which cannot be parsed are taken as successful.
+     */
+    @NonNull
+    protected BulkResponse parseBulkResponse(@NonNull final Response response) {
+        @NonNull BulkResponse result = BulkResponse.NO_ERRORS;
+
+        @Nullable final HttpEntity entity = response.getEntity();
+
+        if (entity != null) {
+            try (@NonNull final InputStream content = entity.getContent()) {
+                result = BulkResponse.parse(content);
+            } catch (@NonNull final IOException | RuntimeException cannotParse) {
+                this.latestErrorCode = cannotParse;
             }
-        } catch (final IOException ioException) {
-            ctx.put("latestErrorCode", ioException);
         }
+
+        return result;
     }
 
-    public void cleanup() {
-        @Nullable final RestClient restClient = getRestClient();
+    /**
+     * Sends the documents rejected for good to the {@link DeadLetterSink}, and collects those rejected
+     * temporarily, to be sent again.
+     * @param bulk the outcome of the request.
+     * @param data the request body.
+     * @param length its length.
+     * @param ctx the {@link LoggingContext} to report failures to.
+     * @return a pooled buffer with the bulk items to send again, or {@code null} if none.
+     */
+    @Nullable
+    protected Utf8JsonBuffer itemsFailed(
+        @NonNull final BulkResponse bulk,
+        @NonNull final byte[] data,
+        final int length,
+        @NonNull final LoggingContext ctx) {
+        @Nullable Utf8JsonBuffer result = null;
 
-        if (restClient != null) {
-            try {
-                restClient.close();
-                getLoggingContext().put("latestError", null);
-            } catch (final IOException ioException) {
-                getLoggingContext().put("latestError", ioException);
+        int item = 0;
+        int position = 0;
+
+        for (final BulkResponse.ItemFailure failure : bulk.getFailures()) {
+            while (item < failure.getItem() && position < length) {
+                position = nextLine(data, nextLine(data, position, length), length);
+                item++;
+            }
+
+            if (item == failure.getItem() && position < length) {
+                final int actionEnd = endOfLine(data, position, length);
+                final int documentStart = Math.min(actionEnd + 1, length);
+                final int documentEnd = endOfLine(data, documentStart, length);
+
+                if (isRetryableItem(failure.getStatus())) {
+                    if (result == null) {
+                        result = acquireBuffer();
+                    }
+                    result.write(data, position, nextLine(data, documentStart, length) - position);
+                } else {
+                    reportError(ctx, failure.getStatus());
+                    this.deadLetterSink.accept(
+                        new String(data, position, actionEnd - position, StandardCharsets.UTF_8),
+                        new String(data, documentStart, documentEnd - documentStart, StandardCharsets.UTF_8),
+                        failure.getStatus(),
+                        failure.getError());
+                }
             }
         }
 
-        setLoggingContext(null);
+        return result;
     }
 
     /**
-     * Escapes any double-quotes in given text.
-     * @param txt the text to escape.
-     * @return the resulting text.
+     * Finds the end of a line of a bulk request.
+     * @param data the request body.
+     * @param from where the line starts.
+     * @param length the length of the body.
+     * @return the position of its line feed, or the length if none.
      */
-    @NonNull
-    protected String escapeDoubleQuotes(@NonNull final String txt) {
-        final Matcher matcher = DOUBLE_QUOTES_ESCAPER.matcher(txt);
-        return matcher.replaceAll("\\\\\"");
+    protected static int endOfLine(@NonNull final byte[] data, final int from, final int length) {
+        int result = from;
+
+        while (result < length && data[result] != '\n') {
+            result++;
+        }
+
+        return result;
     }
 
-    @NonNull
-    public static final DateTimeFormatter INDEX_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    /**
+     * Finds the start of the next line of a bulk request.
+     * @param data the request body.
+     * @param from where the current line starts.
+     * @param length the length of the body.
+     * @return such position, or the length if none.
+     */
+    protected static int nextLine(@NonNull final byte[] data, final int from, final int length) {
+        return Math.min(endOfLine(data, from, length) + 1, length);
+    }
 
-    @NonNull
-    public static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    /**
+     * Checks whether a document rejected with given status may be indexed if sent again.
+     * Only documents rejected because the cluster is too busy are.
+     * @param statusCode the status code of the document.
+     * @return {@code true} in such case.
+     */
+    protected boolean isRetryableItem(final int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
 
-    @NonNull
-    protected static final Pattern DOUBLE_QUOTES_ESCAPER = Pattern.compile("\"");
+    /**
+     * Sends again the bulk items rejected temporarily, after a backoff. The permit of their request is released
+     * meanwhile, and taken again when resent. Once they run out of attempts, they're handled as a failed request.
+     * @param buffer the bulk items.
+     * @param ctx the {@link LoggingContext} to report failures to.
+     * @param attempt the attempts made so far.
+     * @param statusCode the status code the items were rejected with.
+     */
+    protected void retryItems(
+        @NonNull final Utf8JsonBuffer buffer, @NonNull final LoggingContext ctx, final int attempt, final int statusCode) {
+        this.inFlightRequests.release();
 
-    protected static int CURRENT_COUNT = 0;
-}
+        if (attempt >= getLoggingConfiguration().getBulkRetryMaxAttempts()) {
+            try {
+                reportError(ctx, statusCode);
+            } finally {
+                requestFailed(buffer, statusCode);
+            }
+        } else if (!scheduleRetry(buffer, ctx, attempt + 1, retryBackoffMillis(attempt))) {
+            resend(buffer, ctx, attempt + 1);
+        }
+    }
+
+    /**
+     * Schedules given retry, unless cleaned up already.
+     * @param buffer the request body.
+     * @param ctx the {@link LoggingContext} to report failures to.
+     * @param attempt the attempt.
+     * @param delayMillis the backoff, in milliseconds.
+     * @return {@code false} if it cannot be scheduled.
+     */
+    protected boolean scheduleRetry(
+        @NonNull final Utf8JsonBuffer buffer, @NonNull final LoggingContext ctx, final int attempt, final long delayMillis) {
+        boolean result = !this.closed;
+
+        if (result) {
+            @NonNull final PendingRetry retry = new PendingRetry(buffer, ctx, attempt);
+            this.pendingRetries.add(retry);
+            try {
+                retry.schedule(delayMillis);
+            } catch (@NonNull final RejectedExecutionException shutDown) {
+                this.pendingRetries.remove(retry);
+                result = false;
+            }
+            if (this.closed) {
+                // cleaned up meanwhile, which might have missed it
+                retry.fail();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the wait before given retry: it doubles with each attempt, up to
+     * {@link #MAX_BULK_RETRY_BACKOFF_MILLIS}, and a random half of it is taken off, so that
+     * adapters rejected at once do not retry at once.
+     * @param attempt the attempts made so far.
+     * @return the wait, in milliseconds.
+     */
+    protected long retryBackoffMillis(final int attempt) {
+        final long backoff =
+            Math.min(
+                MAX_BULK_RETRY_BACKOFF_MILLIS,
+                (long) getLoggingConfiguration().getBulkRetryBackoffMillis() << Math.min(attempt - 1, 30));
+        final long half = backoff / 2;
+
+        return backoff - half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * Sends a bulk request again, once it gets a permit. While too many requests are in flight, it's put off
+     * for another backoff, without waiting.
+     * @param buffer the request body.
+     * @param ctx the {@link LoggingContext} to report failures to.
+     * @param attempt the attempt.
+     */
+    protected void resend(@NonNull final Utf8JsonBuffer buffer, @NonNull final LoggingContext ctx, final int attempt) {
+        if (this.inFlightRequests.tryAcquire()) {
+            @Nullable final Utf8JsonBuffer compressed = compress(buffer.getBytes(), buffer.size());
+
+            sendBulkRequest(
+                buildEntity(buffer.getBytes(), buffer.size(), compressed),
+                new BulkResponseListener(ctx, buffer, compressed, attempt));
+        } else if (!scheduleRetry(buffer, ctx, attempt, retryBackoffMillis(attempt - 1))) {
+            dropRequest(buffer, ctx, TOO_MANY_REQUESTS, DROPPED_REQUEST_ERROR);
+        }
+    }
+
+    /**
+     * Retrieves the status code of the last document of given outcome rejected temporarily.
+     * @param bulk the outcome.
+     * @return such code, or {@code 0} if none.
+     */
+    protected int retryStatusOf(@NonNull final BulkResponse bulk) {
+        int result = 0;
+
+        for (final BulkResponse.ItemFailure failure : bulk.getFailures()) {
+            if (isRetryableItem(failure.getStatus())) {
+                result = failure.getStatus();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Sends the oldest spooled request, unless one is being sent already. Once sent, it's removed from the spool,
+     * and the next one is sent. While too many requests are in flight, it's left for the next attempt.
+     */
+    protected void replaySpool() {
+        @Nullable final DiskSpool spool = this.spool;
+        @Nullable final ScheduledExecutorService spoolReplayer = this.spoolReplayer;
+
+        if (spool != null
+            && spoolReplayer != null
+            && !spoolReplayer.isShutdown()
+            && this.replaying.compareAndSet(false, true)) {
+            @Nullable final byte[] request = spool.peek();
+
+            if (request == null || !this.inFlightRequests.tryAcquire()) {
+                this.replaying.set(false);
+            } else {
+                @Nullable final Utf8JsonBuffer compressed = compress(request, request.length);
+
+                sendBulkRequest(
+                    buildEntity(request, request.length, compressed),
+                    new ReplayResponseListener(spool, request, compressed));
+            }
+        }
+    }
+
+    /**
+     * Runs given task on the spool thread, or right away if it's shut down.
+     * @param task the task.
+     */
+    protected void onSpoolThread(@NonNull final Runnable task) {
+        @Nullable final ScheduledExecutorService spoolReplayer = this.spoolReplayer;
+
+        try {
+            if (spoolReplayer == null) {
+                task.run();
+            } else {
+                spoolReplayer.execute(task);
+            }
+        } catch (@NonNull final RejectedExecutionException shutDown) {
+            task.run();
+        }
+    }
+
+    /**
+     * Checks whether a request which failed with given error may succeed if retried.
+     * Only client errors other than timeouts and throttling are final.
+     * @param errorCode the status code, or the exception.
+     * @return {@code true} in such case.
+     */
+    protected boolean isRetryable(@NonNull final Object errorCode) {
+        final boolean result;
+
+        if (errorCode instanceof Integer) {
+            final int statusCode = (Integer) errorCode;
+            result = statusCode < 400 || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        } else {
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the status code of given failure, if any.
+     * @param exception the failure.
+     * @return the status code, or the exception itself.
+     */
+    @NonNull
+    protected static Object errorCodeOf(@NonNull final Exception exception) {
+        @NonNull final Object result;
+
+        if (exception instanceof ResponseException) {
+            result = ((ResponseException) exception).getResponse().getStatusLine().getStatusCode();
+        } else {
+            result = exception;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves an empty buffer, reusing a released one if possible.
+     * @return such buffer.
+     */
+    @NonNull
+    protected Utf8JsonBuffer acquireBuffer() {
+        @Nullable final Utf8JsonBuffer result = this.buffers.poll();
+
+        return (result == null) ? new Utf8JsonBuffer() : result;
+    }
+
+    /**
+     * Makes given buffer available for other requests, unless it grew beyond twice the bulk size.
+     * @param buffer the buffer, if any.
+     */
+    protected void releaseBuffer(@Nullable final Utf8JsonBuffer buffer) {
+        if (buffer != null && buffer.capacity() <= 2L * getLoggingConfiguration().getBulkMaxBytes()) {
+            buffer.clear();
+            this.buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Reports the failure of a bulk request.
+     * @param ctx the {@link LoggingContext}.
+     * @param errorCode the status code, or the exception.
+     */
+    protected void reportError(@NonNull final LoggingContext ctx, @NonNull final Object errorCode) {
+        this.latestErrorCode = errorCode;
+        ctx.put("latestErrorCode", errorCode);
+    }
+
+    /**
+     * Retrieves the status code, or the exception, of the latest failed bulk request.
+     * Unlike the {@link LoggingContext}, it does not depend on the thread which receives the response.
+     * @return such code, or {@code null} if none failed.
+     */
+    @Nullable
+    public Object getLatestErrorCode() {
+        return this.latestErrorCode;
+    }
+
+    /**
+     * Waits for the bulk requests in flight to get their response.
+     * @param timeoutMillis how long to wait, at most, in milliseconds.
+     * @return {@code true} if no request is in flight anymore.
+     */
+    public boolean awaitInFlightRequests(final long timeoutMillis) {
+        boolean result;
+
+        final int permits = Math.max(1, getLoggingConfiguration().getMaxInFlightRequests());
+
+        try {
+            result = this.inFlightRequests.tryAcquire(permits, timeoutMillis, TimeUnit.MILLISECONDS);
+            if (result) {
+                this.inFlightRequests.release(permits);
+            }
+        } catch (@NonNull final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            result = false;
+        }
+
+        return result;
+    }
+
+    /**
+     * Appends the action and document lines of given event to a bulk request.
+     * @param buffer the request body.
+     * @param event the event.
+     * @param ctx the {@link LoggingContext}.
+     */
+    protected void appendBulkItem(
+        @NonNull final Utf8JsonBuffer buffer, @NonNull final LogEvent event, @NonNull final LoggingContext ctx) {
+        @NonNull final LocalDateTime now = event.getLocalDateTime();
+        @Nullable final String application = ctx.get("application");
+
+        buffer.write(INDEX_ACTION_PREFIX);
+        appendIndexDate(buffer, now);
+        buffer.write(TYPE_FIELD);
+        buffer.writeString(String.valueOf(application));
+
+        @Nullable final String id = this.documentIdStrategy.buildDocumentId(event);
+
+        if (id != null) {
+            buffer.write(ID_FIELD);
+            buffer.writeString(id);
+        }
+        buffer.write(INDEX_ACTION_SUFFIX);
+
+        appendDocument(buffer, event.getCategory(), event.getMessage(), event.getError(), ctx, now);
+        buffer.write('\n');
+    }
+
+    /**
+     * Appends the document of given info, in a single line.
+     * @param buffer the request body.
+     * @param category the category.
+     * @param msg the message.
+     * @param error the error (optional).
+     * @param ctx the {@link LoggingContext}.
+     * @param now the time of the event, in the default time zone.
+     */
+    protected void appendDocument(
+        @NonNull final Utf8JsonBuffer buffer,
+        @Nullable final String category,
+        @NonNull final String msg,
+        @Nullable final Throwable error,
+        @NonNull final LoggingContext ctx,
+        @NonNull final LocalDateTime now) {
+        @Nullable final String application = ctx.get("application");
+        @Nullable final String event = ctx.get("event");
+        @Nullable final String useCase = ctx.get("useCase");
+
+        buffer.write('{');
+
+        if (category != null) {
+            buffer.write(CATEGORY_FIELD);
+            buffer.writeString(category);
+            buffer.write(',');
+        }
+        if (event != null) {
+            buffer.write(EVENTS_FIELD);
+            buffer.writeString(event);
+            buffer.write(',');
+        }
+        if (useCase != null) {
+            buffer.write(USE_CASE_FIELD);
+            buffer.writeString(useCase);
+            buffer.write(',');
+        }
+
+        buffer.write(APPLICATION_FIELD);
+        buffer.writeString(String.valueOf(application));
+        buffer.write(MESSAGE_FIELD);
+        buffer.writeString(msg);
+        buffer.write(TIMESTAMP_FIELD);
+        appendTimestamp(buffer, now);
+        buffer.write('"');
+
+        if (error != null) {
+            buffer.write(ERROR_FIELD);
+            appendError(buffer, error);
+        }
+
+        buffer.write('}');
+    }
+
+    /**
+     * Appends given error as a JSON string, with the same text as {@link #toString(Throwable)}, frame by frame,
+     * so that long stack traces are not built as a whole before being encoded.
+     * @param buffer the request body.
+     * @param error the error.
+     */
+    protected void appendError(@NonNull final Utf8JsonBuffer buffer, @NonNull final Throwable error) {
+        buffer.write('"');
+
+        @Nullable Throwable cause = error;
+
+        do {
+            for (@NonNull final StackTraceElement trace : cause.getStackTrace()) {
+                buffer.writeEscaped(trace.toString());
+                buffer.write(ESCAPED_LINE_FEED);
+            }
+            cause = cause.getCause();
+            if (cause != null) {
+                buffer.write(CAUSED_BY);
+            }
+        } while (cause != null);
+
+        buffer.write('"');
+    }
+
+    /**
+     * Appends the date of given time, as in {@link #INDEX_FORMATTER}.
+     * @param buffer the request body.
+     * @param now the time.
+     */
+    protected void appendIndexDate(@NonNull final Utf8JsonBuffer buffer, @NonNull final LocalDateTime now) {
+        if (now.getYear() < 0 || now.getYear() > 9999) {
+            buffer.write(Utf8JsonBuffer.ascii(INDEX_FORMATTER.format(now)));
+        } else {
+            buffer.writeDigits(now.getYear(), 4);
+            buffer.write('.');
+            buffer.writeDigits(now.getMonthValue(), 2);
+            buffer.write('.');
+            buffer.writeDigits(now.getDayOfMonth(), 2);
+        }
+    }
+
+    /**
+     * Appends given time, as in {@link #TIMESTAMP_FORMATTER}.
+     * @param buffer the request body.
+     * @param now the time.
+     */
+    protected void appendTimestamp(@NonNull final Utf8JsonBuffer buffer, @NonNull final LocalDateTime now) {
+        if (now.getYear() < 0 || now.getYear() > 9999) {
+            buffer.write(Utf8JsonBuffer.ascii(TIMESTAMP_FORMATTER.format(now)));
+        } else {
+            buffer.writeDigits(now.getYear(), 4);
+            buffer.write('-');
+            buffer.writeDigits(now.getMonthValue(), 2);
+            buffer.write('-');
+            buffer.writeDigits(now.getDayOfMonth(), 2);
+            buffer.write('T');
+            buffer.writeDigits(now.getHour(), 2);
+            buffer.write(':');
+            buffer.writeDigits(now.getMinute(), 2);
+            buffer.write(':');
+            buffer.writeDigits(now.getSecond(), 2);
+
+            int nanos = now.getNano();
+
+            if (nanos > 0) {
+                int digits = 9;
+                while (nanos % 10 == 0) {
+                    nanos /= 10;
+                    digits--;
+                }
+                buffer.write('.');
+                buffer.writeDigits(nanos, digits);
+            }
+        }
+    }
+
+    /**
+     * Indexes the buffered events, waits for the requests in flight, gives the pending retries up,
+     * and releases the node pool, which gets closed unless other adapters use it.
+     * Requests sent afterwards fail right away.
+     */
+    public void cleanup() {
+        this.batcher.close();
+        awaitInFlightRequests(CLOSE_TIMEOUT_MILLIS);
+        closeSpool();
+        this.closed = true;
+        for (@NonNull final PendingRetry retry : this.pendingRetries) {
+            retry.fail();
+        }
+
+        @Nullable final ElasticsearchNodePool nodePool;
+
+        synchronized (this) {
+            nodePool = immutableGetNodePool();
+            this.nodePool = null;
+        }
+
+        if (nodePool != null) {
+            @NonNull final ElasticsearchNodePoolRegistry registry = ElasticsearchNodePoolRegistry.getInstance();
+            registry.removeShutdownTask(this.shutdownTask);
+            try {
+                registry.release(nodePool);
+                getLoggingContext().put("latestError", null);
+            } catch (final IOException ioException) {
+                getLoggingContext().put("latestError", ioException);
+            }
+        }
+
+        setLoggingContext(null);
+    }
+
+    /**
+     * Cleans up, as when the process shuts down.
+     * @see #cleanup()
+     */
+    @Override
+    public void close() {
+        cleanup();
+    }
+
+    /**
+     * Stops replaying the spooled requests, once the pending ones are spooled, and closes the spool.
+     */
+    protected void closeSpool() {
+        @Nullable final ScheduledExecutorService spoolReplayer = this.spoolReplayer;
+        @Nullable final DiskSpool spool = this.spool;
+
+        if (spoolReplayer != null) {
+            spoolReplayer.shutdown();
+            try {
+                spoolReplayer.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (@NonNull final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    @NonNull
+    public static final DateTimeFormatter INDEX_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    @NonNull
+    public static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    @NonNull
+    protected static final byte[] INDEX_ACTION_PREFIX = Utf8JsonBuffer.ascii("{\"index\":{\"_index\":\"log-");
+
+    @NonNull
+    protected static final byte[] TYPE_FIELD = Utf8JsonBuffer.ascii("\",\"_type\":");
+
+    @NonNull
+    protected static final byte[] ID_FIELD = Utf8JsonBuffer.ascii(",\"_id\":");
+
+    @NonNull
+    protected static final byte[] INDEX_ACTION_SUFFIX = Utf8JsonBuffer.ascii("}}\n");
+
+    @NonNull
+    protected static final byte[] CATEGORY_FIELD = Utf8JsonBuffer.ascii("\"category\":");
+
+    @NonNull
+    protected static final byte[] EVENTS_FIELD = Utf8JsonBuffer.ascii("\"events\":");
+
+    @NonNull
+    protected static final byte[] USE_CASE_FIELD = Utf8JsonBuffer.ascii("\"useCase\":");
+
+    @NonNull
+    protected static final byte[] APPLICATION_FIELD = Utf8JsonBuffer.ascii("\"application\":");
+
+    @NonNull
+    protected static final byte[] MESSAGE_FIELD = Utf8JsonBuffer.ascii(",\"message\":");
+
+    @NonNull
+    protected static final byte[] TIMESTAMP_FIELD = Utf8JsonBuffer.ascii(",\"timestamp\":\"");
+
+    @NonNull
+    protected static final byte[] ERROR_FIELD = Utf8JsonBuffer.ascii(",\"error\":");
+
+    @NonNull
+    protected static final byte[] ESCAPED_LINE_FEED = Utf8JsonBuffer.ascii("\\n");
+
+    @NonNull
+    protected static final byte[] CAUSED_BY = Utf8JsonBuffer.ascii("Caused by:\\n");
+
+    /**
+     * The content type of bulk requests.
+     */
+    @NonNull
+    public static final ContentType NDJSON = ContentType.create("application/x-ndjson", StandardCharsets.UTF_8);
+
+    /**
+     * The longest the requests in flight are waited for when cleaning up, in milliseconds.
+     */
+    public static final long CLOSE_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * The interval between attempts to replay the spooled requests, in milliseconds.
+     */
+    public static final long SPOOL_REPLAY_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * The longest wait before retrying the rejected documents, in milliseconds.
+     */
+    public static final long MAX_BULK_RETRY_BACKOFF_MILLIS = 10000L;
+
+    /**
+     * How long the background thread waits for a request in flight to complete, at most, in milliseconds.
+     */
+    public static final long IN_FLIGHT_WAIT_MILLIS = 10000L;
+
+    /**
+     * The status the documents of dropped requests are handed over to the {@link DeadLetterSink} with.
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Why the documents of dropped requests are handed over to the {@link DeadLetterSink}.
+     */
+    @NonNull
+    public static final String DROPPED_REQUEST_ERROR = "too many bulk requests in flight";
+
+    /**
+     * The status the documents of retries given up on cleanup are handed over to the {@link DeadLetterSink} with.
+     */
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * Why the documents of retries given up on cleanup are handed over to the {@link DeadLetterSink}.
+     */
+    @NonNull
+    public static final String CLOSED_ERROR = "adapter closed before retrying";
+
+    /**
+     * The bytes in a megabyte.
+     */
+    protected static final long MEGABYTE = 1024L * 1024L;
+
+    protected static int CURRENT_COUNT = 0;
+
+    /**
+     * A retry waiting for its backoff, which can be given up if the adapter is cleaned up meanwhile.
+     */
+    protected class PendingRetry
+        implements Runnable {
+
+        /**
+         * The request body.
+         */
+        @NonNull
+        private final Utf8JsonBuffer buffer;
+
+        /**
+         * The {@link LoggingContext} to report failures to.
+         */
+        @NonNull
+        private final LoggingContext ctx;
+
+        /**
+         * The attempt.
+         */
+        private final int attempt;
+
+        /**
+         * The scheduled task, once scheduled.
+         */
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+
+        /**
+         * Creates a new retry.
+         * @param buffer the request body.
+         * @param ctx the {@link LoggingContext} to report failures to.
+         * @param attempt the attempt.
+         */
+        protected PendingRetry(
+            @NonNull final Utf8JsonBuffer buffer, @NonNull final LoggingContext ctx, final int attempt) {
+            this.buffer = buffer;
+            this.ctx = ctx;
+            this.attempt = attempt;
+        }
+
+        /**
+         * Schedules the retry in the shared retry timer.
+         * @param delayMillis the backoff, in milliseconds.
+         */
+        protected void schedule(final long delayMillis) {
+            this.future = RetryTimerSingletonContainer.SINGLETON.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (pendingRetries.remove(this)) {
+                resend(this.buffer, this.ctx, this.attempt);
+            }
+        }
+
+        /**
+         * Gives the retry up, unless it's running already: its documents go to the {@link DeadLetterSink}.
+         */
+        protected void fail() {
+            if (pendingRetries.remove(this)) {
+                @Nullable final ScheduledFuture<?> aux = this.future;
+                if (aux != null) {
+                    aux.cancel(false);
+                }
+                dropRequest(this.buffer, this.ctx, SERVICE_UNAVAILABLE, CLOSED_ERROR);
+            }
+        }
+    }
+
+    /**
+     * Releases the permit and the buffer of a bulk request once its response arrives, reporting failures,
+     * and retrying the documents rejected temporarily.
+     */
+    protected class BulkResponseListener
+        implements ResponseListener {
+
+        /**
+         * The {@link LoggingContext} to report failures to.
+         */
+        @NonNull
+        private final LoggingContext ctx;
+
+        /**
+         * The request body.
+         */
+        @NonNull
+        private final Utf8JsonBuffer buffer;
+
+        /**
+         * The compressed request body, if compressed.
+         */
+        @Nullable
+        private final Utf8JsonBuffer compressed;
+
+        /**
+         * The attempt, starting with {@code 1}.
+         */
+        private final int attempt;
+
+        /**
+         * Creates a new listener, for the first attempt.
+         * @param ctx the {@link LoggingContext} to report failures to.
+         * @param buffer the request body.
+         * @param compressed the compressed request body, if compressed.
+         */
+        protected BulkResponseListener(
+            @NonNull final LoggingContext ctx,
+            @NonNull final Utf8JsonBuffer buffer,
+            @Nullable final Utf8JsonBuffer compressed) {
+            this(ctx, buffer, compressed, 1);
+        }
+
+        /**
+         * Creates a new listener.
+         * @param ctx the {@link LoggingContext} to report failures to.
+         * @param buffer the request body.
+         * @param compressed the compressed request body, if compressed.
+         * @param attempt the attempt, starting with {@code 1}.
+         */
+        protected BulkResponseListener(
+            @NonNull final LoggingContext ctx,
+            @NonNull final Utf8JsonBuffer buffer,
+            @Nullable final Utf8JsonBuffer compressed,
+            final int attempt) {
+            this.ctx = ctx;
+            this.buffer = buffer;
+            this.compressed = compressed;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void onSuccess(@NonNull final Response response) {
+            final int statusCode = response.getStatusLine().getStatusCode();
+
+            if (statusCode >= 400) {
+                failed(statusCode);
+            } else {
+                releaseBuffer(this.compressed);
+
+                @NonNull final BulkResponse bulk = parseBulkResponse(response);
+                @Nullable Utf8JsonBuffer retry = null;
+
+                try {
+                    if (bulk.hasErrors()) {
+                        retry = itemsFailed(bulk, this.buffer.getBytes(), this.buffer.size(), this.ctx);
+                    }
+                } finally {
+                    releaseBuffer(this.buffer);
+                    if (retry == null) {
+                        inFlightRequests.release();
+                    } else {
+                        retryItems(retry, this.ctx, this.attempt, retryStatusOf(bulk));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(@NonNull final Exception exception) {
+            failed(errorCodeOf(exception));
+        }
+
+        /**
+         * Reports the failure, and spools the request if it can be retried.
+         * @param errorCode the status code, or the exception.
+         */
+        protected void failed(@NonNull final Object errorCode) {
+            inFlightRequests.release();
+            releaseBuffer(this.compressed);
+            try {
+                reportError(this.ctx, errorCode);
+            } finally {
+                requestFailed(this.buffer, errorCode);
+            }
+        }
+    }
+
+    /**
+     * Removes a replayed request from the spool once sent, and replays the next one.
+     * Requests which cannot succeed are removed as well. Documents rejected temporarily are spooled
+     * again, on their own.
+     */
+    protected class ReplayResponseListener
+        implements ResponseListener {
+
+        /**
+         * The spool.
+         */
+        @NonNull
+        private final DiskSpool spool;
+
+        /**
+         * The request body.
+         */
+        @NonNull
+        private final byte[] request;
+
+        /**
+         * The compressed request body, if compressed.
+         */
+        @Nullable
+        private final Utf8JsonBuffer compressed;
+
+        /**
+         * Creates a new listener.
+         * @param spool the spool.
+         * @param request the request body.
+         * @param compressed the compressed request body, if compressed.
+         */
+        protected ReplayResponseListener(
+            @NonNull final DiskSpool spool, @NonNull final byte[] request, @Nullable final Utf8JsonBuffer compressed) {
+            this.spool = spool;
+            this.request = request;
+            this.compressed = compressed;
+        }
+
+        @Override
+        public void onSuccess(@NonNull final Response response) {
+            final int statusCode = response.getStatusLine().getStatusCode();
+
+            if (statusCode >= 400) {
+                failed(statusCode);
+            } else {
+                inFlightRequests.release();
+
+                @NonNull final BulkResponse bulk = parseBulkResponse(response);
+                @Nullable Utf8JsonBuffer retry = null;
+
+                try {
+                    if (bulk.hasErrors()) {
+                        retry = itemsFailed(bulk, this.request, this.request.length, getLoggingContext());
+                    }
+                } finally {
+                    if (retry == null) {
+                        replayed(true);
+                    } else {
+                        @NonNull final Utf8JsonBuffer rejected = retry;
+                        spoolLater(this.spool, rejected);
+                        replayed(true, false);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(@NonNull final Exception exception) {
+            failed(errorCodeOf(exception));
+        }
+
+        /**
+         * Reports the failure. The request stays in the spool if it can be retried.
+         * @param errorCode the status code, or the exception.
+         */
+        protected void failed(@NonNull final Object errorCode) {
+            inFlightRequests.release();
+            try {
+                reportError(getLoggingContext(), errorCode);
+            } finally {
+                replayed(!isRetryable(errorCode));
+            }
+        }
+
+        /**
+         * Lets the next request be replayed, right away if this one is done with.
+         * @param done whether the request is done with, and can be removed.
+         */
+        protected void replayed(final boolean done) {
+            replayed(done, done);
+        }
+
+        /**
+         * Lets the next request be replayed.
+         * @param done whether the request is done with, and can be removed.
+         * @param next whether to replay the next request right away, instead of waiting for the next interval.
+         */
+        protected void replayed(final boolean done, final boolean next) {
+            releaseBuffer(this.compressed);
+            onSpoolThread(
+                () -> {
+                    if (done) {
+                        this.spool.remove();
+                        spoolHolding = !this.spool.isEmpty();
+                    }
+                    replaying.set(false);
+                    if (next) {
+                        replaySpool();
+                    }
+                });
+        }
+    }
+}
\ No newline at end of file
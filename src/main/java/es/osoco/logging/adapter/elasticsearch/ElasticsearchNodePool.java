@@ -0,0 +1,611 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.util.EntityUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.ToString;
+
+/**
+ * <p>The ElasticSearch nodes requests are spread across, each one with its own {@link RestClient}.</p>
+ * <p>Requests go to a live node, chosen as the {@link LoadBalancing} says. Nodes failing to respond, or
+ * responding they're unavailable, are marked as dead and skipped, and the request is retried on another
+ * live node. Dead nodes are retried once their backoff expires, which doubles with each consecutive failure,
+ * from {@link #MIN_DEAD_NODE_BACKOFF_MILLIS} to {@link #MAX_DEAD_NODE_BACKOFF_MILLIS}. If all nodes are dead,
+ * the one to be revived soonest is used.</p>
+ * <p>Optionally, the nodes are discovered periodically, by asking the cluster for the HTTP addresses of its
+ * nodes.</p>
+ */
+@ToString(of = { "loadBalancing", "maxConnectionsPerNode", "nodes" })
+public class ElasticsearchNodePool
+    implements Closeable {
+
+    /**
+     * The backoff of a node which has just failed, in milliseconds.
+     */
+    public static final long MIN_DEAD_NODE_BACKOFF_MILLIS = 1000L;
+
+    /**
+     * The longest backoff of a node, in milliseconds.
+     */
+    public static final long MAX_DEAD_NODE_BACKOFF_MILLIS = 60000L;
+
+    /**
+     * How long discarded nodes are kept before closing their client, in milliseconds.
+     */
+    public static final long DISCARDED_NODE_CLOSE_DELAY_MILLIS = 30000L;
+
+    /**
+     * The default most connections open to each node.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_NODE = 10;
+
+    /**
+     * How requests are spread.
+     */
+    @NonNull
+    private final LoadBalancing loadBalancing;
+
+    /**
+     * The scheme of the discovered nodes.
+     */
+    @NonNull
+    private final String scheme;
+
+    /**
+     * The most connections open to each node.
+     */
+    private final int maxConnectionsPerNode;
+
+    /**
+     * The nodes. The list is replaced, not modified.
+     */
+    @NonNull
+    private volatile List<Node> nodes;
+
+    /**
+     * The position of the next node, for round-robin.
+     */
+    @NonNull
+    private final AtomicInteger nextNode = new AtomicInteger();
+
+    /**
+     * The thread discovering the nodes, if they are discovered.
+     */
+    @Nullable
+    private final ScheduledExecutorService discoverer;
+
+    /**
+     * Creates a new pool, with the default connection limit.
+     * @param hosts the nodes, at least one.
+     * @param loadBalancing how requests are spread.
+     * @param discoveryIntervalMillis the interval between discoveries of the nodes, in milliseconds,
+     * or {@code 0} not to discover them.
+     */
+    public ElasticsearchNodePool(
+        @NonNull final List<HttpHost> hosts,
+        @NonNull final LoadBalancing loadBalancing,
+        final long discoveryIntervalMillis) {
+        this(hosts, loadBalancing, discoveryIntervalMillis, DEFAULT_MAX_CONNECTIONS_PER_NODE);
+    }
+
+    /**
+     * Creates a new pool.
+     * @param hosts the nodes, at least one.
+     * @param loadBalancing how requests are spread.
+     * @param discoveryIntervalMillis the interval between discoveries of the nodes, in milliseconds,
+     * or {@code 0} not to discover them.
+     * @param maxConnectionsPerNode the most connections open to each node.
+     */
+    public ElasticsearchNodePool(
+        @NonNull final List<HttpHost> hosts,
+        @NonNull final LoadBalancing loadBalancing,
+        final long discoveryIntervalMillis,
+        final int maxConnectionsPerNode) {
+        this.loadBalancing = loadBalancing;
+        this.scheme = hosts.get(0).getSchemeName();
+        this.maxConnectionsPerNode = maxConnectionsPerNode;
+
+        @NonNull final List<Node> initialNodes = new ArrayList<>(hosts.size());
+        for (@NonNull final HttpHost host : hosts) {
+            initialNodes.add(new Node(host, buildClient(host)));
+        }
+        this.nodes = Collections.unmodifiableList(initialNodes);
+
+        if (discoveryIntervalMillis > 0) {
+            this.discoverer =
+                Executors.newSingleThreadScheduledExecutor(
+                    runnable -> {
+                        @NonNull final Thread result = new Thread(runnable, "java-logging-elasticsearch-discovery");
+                        result.setDaemon(true);
+                        return result;
+                    });
+            this.discoverer.scheduleWithFixedDelay(
+                this::discover, discoveryIntervalMillis, discoveryIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.discoverer = null;
+        }
+    }
+
+    /**
+     * Parses given node address: {@code [scheme://]host[:port]}.
+     * @param node the address.
+     * @param defaultPort the port, if not specified.
+     * @param defaultScheme the scheme, if not specified.
+     * @return the {@link HttpHost}.
+     */
+    @NonNull
+    public static HttpHost parseHost(
+        @NonNull final String node, final int defaultPort, @NonNull final String defaultScheme) {
+        @NonNull final HttpHost host = HttpHost.create(node.trim());
+
+        return
+            new HttpHost(
+                host.getHostName(),
+                (host.getPort() < 0) ? defaultPort : host.getPort(),
+                node.contains("://") ? host.getSchemeName() : defaultScheme);
+    }
+
+    /**
+     * Builds the client of given node. Override me if necessary.
+     * @param host the node.
+     * @return the client.
+     */
+    @NonNull
+    protected RestClient buildClient(@NonNull final HttpHost host) {
+        return
+            RestClient.builder(host)
+                .setHttpClientConfigCallback(
+                    builder ->
+                        builder
+                            .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(1).build())
+                            .setMaxConnPerRoute(this.maxConnectionsPerNode)
+                            .setMaxConnTotal(this.maxConnectionsPerNode))
+                .build();
+    }
+
+    /**
+     * Retrieves the nodes.
+     * @return such nodes.
+     */
+    @NonNull
+    public List<Node> getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Retrieves how requests are spread.
+     * @return such {@link LoadBalancing}.
+     */
+    @NonNull
+    public LoadBalancing getLoadBalancing() {
+        return this.loadBalancing;
+    }
+
+    /**
+     * Retrieves the most connections open to each node.
+     * @return such number.
+     */
+    public int getMaxConnectionsPerNode() {
+        return this.maxConnectionsPerNode;
+    }
+
+    /**
+     * Chooses the node for the next request.
+     * @param excluded the nodes already tried.
+     * @return the node, or {@code null} if all live nodes are excluded.
+     */
+    @Nullable
+    protected Node select(@NonNull final List<Node> excluded) {
+        @Nullable Node result = null;
+
+        @NonNull final List<Node> current = this.nodes;
+        final int count = current.size();
+        final int start = Math.floorMod(this.nextNode.getAndIncrement(), count);
+        final long now = System.nanoTime();
+
+        for (int offset = 0; offset < count; offset++) {
+            @NonNull final Node node = current.get((start + offset) % count);
+
+            if (node.isAlive(now) && !excluded.contains(node)) {
+                if (result == null) {
+                    result = node;
+                    if (this.loadBalancing == LoadBalancing.ROUND_ROBIN) {
+                        break;
+                    }
+                } else if (node.getInFlightRequests() < result.getInFlightRequests()) {
+                    result = node;
+                }
+            }
+        }
+
+        if (result == null && excluded.isEmpty()) {
+            for (@NonNull final Node node : current) {
+                if (result == null || node.getDeadUntilNanos() - result.getDeadUntilNanos() < 0) {
+                    result = node;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Performs a request asynchronously, on a live node, retrying it on other live nodes if the node fails.
+     * The entity must be repeatable.
+     * @param method the HTTP method.
+     * @param endpoint the endpoint.
+     * @param params the query parameters.
+     * @param entity the body.
+     * @param listener who gets notified of the response.
+     */
+    public void performRequestAsync(
+        @NonNull final String method,
+        @NonNull final String endpoint,
+        @NonNull final Map<String, String> params,
+        @Nullable final HttpEntity entity,
+        @NonNull final ResponseListener listener) {
+        perform(method, endpoint, params, entity, listener, new ArrayList<>(1));
+    }
+
+    /**
+     * Performs a request asynchronously, on a live node not tried yet.
+     * @param method the HTTP method.
+     * @param endpoint the endpoint.
+     * @param params the query parameters.
+     * @param entity the body.
+     * @param listener who gets notified of the response.
+     * @param tried the nodes tried already.
+     */
+    protected void perform(
+        @NonNull final String method,
+        @NonNull final String endpoint,
+        @NonNull final Map<String, String> params,
+        @Nullable final HttpEntity entity,
+        @NonNull final ResponseListener listener,
+        @NonNull final List<Node> tried) {
+        @Nullable final Node node = select(tried);
+
+        if (node == null) {
+            listener.onFailure(new IOException("No live ElasticSearch node left to try " + method + " " + endpoint));
+        } else {
+            tried.add(node);
+            node.inFlightRequests.incrementAndGet();
+            node.getClient().performRequestAsync(
+                method,
+                endpoint,
+                params,
+                entity,
+                new ResponseListener() {
+                    @Override
+                    public void onSuccess(@NonNull final Response response) {
+                        node.inFlightRequests.decrementAndGet();
+                        node.markAlive();
+                        listener.onSuccess(response);
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull final Exception exception) {
+                        node.inFlightRequests.decrementAndGet();
+                        if (isNodeFailure(exception)) {
+                            node.markDead(System.nanoTime());
+                            if (tried.size() < nodes.size() && (entity == null || entity.isRepeatable())) {
+                                perform(method, endpoint, params, entity, listener, tried);
+                            } else {
+                                listener.onFailure(exception);
+                            }
+                        } else {
+                            node.markAlive();
+                            listener.onFailure(exception);
+                        }
+                    }
+                });
+        }
+    }
+
+    /**
+     * Checks whether given failure means the node is not available.
+     * @param exception the failure.
+     * @return {@code true} if it didn't respond, or responded with a 502, 503 or 504 status code.
+     */
+    protected boolean isNodeFailure(@NonNull final Exception exception) {
+        final boolean result;
+
+        if (exception instanceof ResponseException) {
+            final int statusCode = ((ResponseException) exception).getResponse().getStatusLine().getStatusCode();
+            result = statusCode == 502 || statusCode == 503 || statusCode == 504;
+        } else {
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Asks the cluster for the HTTP addresses of its nodes, and replaces the nodes with them.
+     */
+    public void discover() {
+        performRequestAsync(
+            "GET",
+            "/_nodes/http",
+            Collections.emptyMap(),
+            null,
+            new ResponseListener() {
+                @Override
+                public void onSuccess(@NonNull final Response response) {
+                    try {
+                        @NonNull final List<HttpHost> discovered = parseNodes(EntityUtils.toString(response.getEntity()));
+
+                        if (!discovered.isEmpty()) {
+                            updateNodes(discovered);
+                        }
+                    } catch (@NonNull final IOException | RuntimeException cannotParse) {
+                        // the current nodes are kept
+                    }
+                }
+
+                @Override
+                public void onFailure(@NonNull final Exception exception) {
+                    // the current nodes are kept
+                }
+            });
+    }
+
+    /**
+     * Parses the response of the nodes info API.
+     * @param json the response.
+     * @return the HTTP addresses of the nodes.
+     */
+    @NonNull
+    protected List<HttpHost> parseNodes(@NonNull final String json) {
+        @NonNull final List<HttpHost> result = new ArrayList<>();
+
+        @NonNull final JsonObject nodesInfo = new JsonParser().parse(json).getAsJsonObject().getAsJsonObject("nodes");
+
+        for (final Map.Entry<String, JsonElement> entry : nodesInfo.entrySet()) {
+            @Nullable final JsonObject http = entry.getValue().getAsJsonObject().getAsJsonObject("http");
+            @Nullable final JsonElement address = (http == null) ? null : http.get("publish_address");
+
+            if (address != null) {
+                @NonNull final String publishAddress = address.getAsString();
+                final int slash = publishAddress.indexOf('/');
+                final int colon = publishAddress.lastIndexOf(':');
+                final String host = (slash > 0) ? publishAddress.substring(0, slash) : publishAddress.substring(slash + 1, colon);
+
+                result.add(new HttpHost(host, Integer.parseInt(publishAddress.substring(colon + 1)), this.scheme));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the nodes, keeping those already known. The clients of the discarded ones are closed later.
+     * @param hosts the new nodes.
+     */
+    protected synchronized void updateNodes(@NonNull final List<HttpHost> hosts) {
+        @NonNull final List<Node> previous = this.nodes;
+        @NonNull final List<Node> updated = new ArrayList<>(hosts.size());
+
+        for (@NonNull final HttpHost host : hosts) {
+            @Nullable Node node = null;
+            for (@NonNull final Node candidate : previous) {
+                if (candidate.getHost().equals(host)) {
+                    node = candidate;
+                }
+            }
+            updated.add((node == null) ? new Node(host, buildClient(host)) : node);
+        }
+
+        this.nodes = Collections.unmodifiableList(updated);
+
+        for (@NonNull final Node node : previous) {
+            if (!updated.contains(node)) {
+                closeLater(node);
+            }
+        }
+    }
+
+    /**
+     * Closes the client of a discarded node, once its requests are likely done.
+     * @param node the node.
+     */
+    protected void closeLater(@NonNull final Node node) {
+        @Nullable final ScheduledExecutorService discoverer = this.discoverer;
+
+        if (discoverer == null) {
+            node.close();
+        } else {
+            discoverer.schedule(node::close, DISCARDED_NODE_CLOSE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops discovering nodes, and closes the clients.
+     * @throws IOException if a client cannot be closed.
+     */
+    @Override
+    public void close()
+        throws IOException {
+        @Nullable IOException error = null;
+
+        if (this.discoverer != null) {
+            this.discoverer.shutdownNow();
+        }
+
+        for (@NonNull final Node node : this.nodes) {
+            try {
+                node.getClient().close();
+            } catch (@NonNull final IOException cannotClose) {
+                error = cannotClose;
+            }
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * An ElasticSearch node, and its health.
+     */
+    @ToString(of = { "host", "inFlightRequests", "failures" })
+    public static class Node {
+
+        /**
+         * The address.
+         */
+        @NonNull
+        private final HttpHost host;
+
+        /**
+         * The client.
+         */
+        @NonNull
+        private final RestClient client;
+
+        /**
+         * The requests awaiting their response.
+         */
+        @NonNull
+        private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+        /**
+         * The consecutive failures.
+         */
+        @NonNull
+        private final AtomicInteger failures = new AtomicInteger();
+
+        /**
+         * When the node is retried, if dead, as in {@link System#nanoTime()}.
+         */
+        private volatile long deadUntilNanos;
+
+        /**
+         * Whether the node is dead.
+         */
+        private volatile boolean dead;
+
+        /**
+         * Creates a new node.
+         * @param host the address.
+         * @param client the client.
+         */
+        protected Node(@NonNull final HttpHost host, @NonNull final RestClient client) {
+            this.host = host;
+            this.client = client;
+        }
+
+        /**
+         * Retrieves the address.
+         * @return such address.
+         */
+        @NonNull
+        public HttpHost getHost() {
+            return this.host;
+        }
+
+        /**
+         * Retrieves the client.
+         * @return such client.
+         */
+        @NonNull
+        public RestClient getClient() {
+            return this.client;
+        }
+
+        /**
+         * Retrieves how many requests await their response.
+         * @return such number.
+         */
+        public int getInFlightRequests() {
+            return this.inFlightRequests.get();
+        }
+
+        /**
+         * Retrieves when the node is retried, if dead.
+         * @return such time, as in {@link System#nanoTime()}.
+         */
+        public long getDeadUntilNanos() {
+            return this.deadUntilNanos;
+        }
+
+        /**
+         * Checks whether the node can be used.
+         * @param now the current time, as in {@link System#nanoTime()}.
+         * @return {@code true} if it's alive, or its backoff has expired.
+         */
+        public boolean isAlive(final long now) {
+            return !this.dead || now - this.deadUntilNanos >= 0;
+        }
+
+        /**
+         * Marks the node as alive.
+         */
+        public void markAlive() {
+            if (this.dead) {
+                this.dead = false;
+                this.failures.set(0);
+            }
+        }
+
+        /**
+         * Marks the node as dead, doubling its backoff.
+         * @param now the current time, as in {@link System#nanoTime()}.
+         */
+        public void markDead(final long now) {
+            final int failures = Math.min(this.failures.incrementAndGet(), 31);
+            final long backoffMillis =
+                Math.min(MAX_DEAD_NODE_BACKOFF_MILLIS, MIN_DEAD_NODE_BACKOFF_MILLIS << (failures - 1));
+
+            this.deadUntilNanos = now + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+            this.dead = true;
+        }
+
+        /**
+         * Closes the client.
+         */
+        protected void close() {
+            try {
+                this.client.close();
+            } catch (@NonNull final IOException cannotClose) {
+                // nothing else to do
+            }
+        }
+    }
+}
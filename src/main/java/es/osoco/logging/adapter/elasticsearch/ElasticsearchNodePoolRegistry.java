@@ -0,0 +1,324 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.apache.http.HttpHost;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>Shares the {@link ElasticsearchNodePool}s across the adapters of the process, so that adapters with the
+ * same nodes and connection settings use the same clients, with their threads and connections.</p>
+ * <p>Pools are reference-counted: each {@link #acquire(Key)} must be followed by a
+ * {@link #release(ElasticsearchNodePool)}, and the pool is closed once nobody uses it.</p>
+ * <p>A single shutdown hook runs the shutdown tasks of the adapters, and then closes the pools still in use.</p>
+ */
+@ToString(of = "pools")
+public class ElasticsearchNodePoolRegistry {
+
+    /**
+     * The pools in use, with their references.
+     */
+    @NonNull
+    private final Map<Key, SharedNodePool> pools = new HashMap<>();
+
+    /**
+     * What to do when the process shuts down, before closing the pools.
+     */
+    @NonNull
+    private final Set<Runnable> shutdownTasks = new LinkedHashSet<>();
+
+    /**
+     * Whether the shutdown hook is registered already.
+     */
+    private boolean shutdownHookAdded;
+
+    /**
+     * Singleton implementation to avoid double-check locking.
+     */
+    protected static final class ElasticsearchNodePoolRegistrySingletonContainer {
+        @NonNull
+        public static final ElasticsearchNodePoolRegistry SINGLETON = new ElasticsearchNodePoolRegistry();
+    }
+
+    /**
+     * Default constructor to avoid public instantiation.
+     */
+    protected ElasticsearchNodePoolRegistry() {
+    }
+
+    /**
+     * Retrieves the {@code ElasticsearchNodePoolRegistry}.
+     * @return such instance.
+     */
+    @NonNull
+    public static ElasticsearchNodePoolRegistry getInstance() {
+        return ElasticsearchNodePoolRegistrySingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Retrieves the pool for given settings, building it if nobody uses it yet, and counts the new reference.
+     * @param key the settings.
+     * @return the pool.
+     */
+    @NonNull
+    public synchronized ElasticsearchNodePool acquire(@NonNull final Key key) {
+        @Nullable SharedNodePool shared = this.pools.get(key);
+
+        if (shared == null) {
+            shared = new SharedNodePool(buildNodePool(key));
+            this.pools.put(key, shared);
+            addShutdownHook();
+        }
+        shared.references++;
+
+        return shared.pool;
+    }
+
+    /**
+     * Discounts a reference to given pool, closing it if it was the last one.
+     * Pools not acquired from this registry are ignored.
+     * @param pool the pool.
+     * @throws IOException if the pool cannot be closed.
+     */
+    public void release(@NonNull final ElasticsearchNodePool pool)
+        throws IOException {
+        @Nullable ElasticsearchNodePool unused = null;
+
+        synchronized (this) {
+            final Iterator<SharedNodePool> iterator = this.pools.values().iterator();
+
+            while (iterator.hasNext()) {
+                @NonNull final SharedNodePool shared = iterator.next();
+
+                if (shared.pool == pool && --shared.references == 0) {
+                    iterator.remove();
+                    unused = pool;
+                }
+            }
+        }
+
+        if (unused != null) {
+            unused.close();
+        }
+    }
+
+    /**
+     * Retrieves how many references the pool for given settings has.
+     * @param key the settings.
+     * @return such number, or {@code 0} if there's no such pool.
+     */
+    public synchronized int getReferences(@NonNull final Key key) {
+        @Nullable final SharedNodePool shared = this.pools.get(key);
+
+        return (shared == null) ? 0 : shared.references;
+    }
+
+    /**
+     * Adds a task to run when the process shuts down, before the pools are closed.
+     * @param task the task.
+     */
+    public synchronized void addShutdownTask(@NonNull final Runnable task) {
+        this.shutdownTasks.add(task);
+        addShutdownHook();
+    }
+
+    /**
+     * Removes a shutdown task.
+     * @param task the task.
+     */
+    public synchronized void removeShutdownTask(@NonNull final Runnable task) {
+        this.shutdownTasks.remove(task);
+    }
+
+    /**
+     * Builds the pool for given settings. Override me if necessary.
+     * @param key the settings.
+     * @return the pool.
+     */
+    @NonNull
+    protected ElasticsearchNodePool buildNodePool(@NonNull final Key key) {
+        return
+            new ElasticsearchNodePool(
+                key.getHosts(), key.getLoadBalancing(), key.getDiscoveryIntervalMillis(), key.getMaxConnectionsPerNode());
+    }
+
+    /**
+     * Registers the shutdown hook, the first time.
+     */
+    protected synchronized void addShutdownHook() {
+        if (!this.shutdownHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "java-logging-elasticsearch-shutdown"));
+            this.shutdownHookAdded = true;
+        }
+    }
+
+    /**
+     * Runs the shutdown tasks, and closes the pools still in use.
+     */
+    protected void shutdown() {
+        @NonNull final List<Runnable> tasks;
+
+        synchronized (this) {
+            tasks = new ArrayList<>(this.shutdownTasks);
+            this.shutdownTasks.clear();
+        }
+
+        for (@NonNull final Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (@NonNull final RuntimeException taskFailed) {
+                // the rest of the tasks run anyway
+            }
+        }
+
+        @NonNull final List<SharedNodePool> remaining;
+
+        synchronized (this) {
+            remaining = new ArrayList<>(this.pools.values());
+            this.pools.clear();
+        }
+
+        for (@NonNull final SharedNodePool shared : remaining) {
+            try {
+                shared.pool.close();
+            } catch (@NonNull final IOException cannotClose) {
+                // nothing else to do
+            }
+        }
+    }
+
+    /**
+     * The settings which make two adapters share a pool.
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static class Key {
+
+        /**
+         * The nodes.
+         */
+        @NonNull
+        private final List<HttpHost> hosts;
+
+        /**
+         * How requests are spread.
+         */
+        @NonNull
+        private final LoadBalancing loadBalancing;
+
+        /**
+         * The interval between discoveries of the nodes, in milliseconds.
+         */
+        private final long discoveryIntervalMillis;
+
+        /**
+         * The most connections open to each node.
+         */
+        private final int maxConnectionsPerNode;
+
+        /**
+         * Creates a new key.
+         * @param hosts the nodes, at least one.
+         * @param loadBalancing how requests are spread.
+         * @param discoveryIntervalMillis the interval between discoveries of the nodes, in milliseconds,
+         * or {@code 0} not to discover them.
+         * @param maxConnectionsPerNode the most connections open to each node.
+         */
+        public Key(
+            @NonNull final List<HttpHost> hosts,
+            @NonNull final LoadBalancing loadBalancing,
+            final long discoveryIntervalMillis,
+            final int maxConnectionsPerNode) {
+            this.hosts = Collections.unmodifiableList(new ArrayList<>(hosts));
+            this.loadBalancing = loadBalancing;
+            this.discoveryIntervalMillis = discoveryIntervalMillis;
+            this.maxConnectionsPerNode = maxConnectionsPerNode;
+        }
+
+        /**
+         * Retrieves the nodes.
+         * @return such nodes.
+         */
+        @NonNull
+        public List<HttpHost> getHosts() {
+            return this.hosts;
+        }
+
+        /**
+         * Retrieves how requests are spread.
+         * @return such {@link LoadBalancing}.
+         */
+        @NonNull
+        public LoadBalancing getLoadBalancing() {
+            return this.loadBalancing;
+        }
+
+        /**
+         * Retrieves the interval between discoveries of the nodes.
+         * @return such interval, in milliseconds, or {@code 0} if they are not discovered.
+         */
+        public long getDiscoveryIntervalMillis() {
+            return this.discoveryIntervalMillis;
+        }
+
+        /**
+         * Retrieves the most connections open to each node.
+         * @return such number.
+         */
+        public int getMaxConnectionsPerNode() {
+            return this.maxConnectionsPerNode;
+        }
+    }
+
+    /**
+     * A pool, and how many adapters use it.
+     */
+    @ToString
+    protected static final class SharedNodePool {
+
+        /**
+         * The pool.
+         */
+        @NonNull
+        private final ElasticsearchNodePool pool;
+
+        /**
+         * How many adapters use it.
+         */
+        private int references;
+
+        /**
+         * Creates a new instance, with no references yet.
+         * @param pool the pool.
+         */
+        protected SharedNodePool(@NonNull final ElasticsearchNodePool pool) {
+            this.pool = pool;
+        }
+    }
+}
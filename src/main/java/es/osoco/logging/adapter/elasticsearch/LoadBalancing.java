@@ -0,0 +1,51 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * How requests are spread across the ElasticSearch nodes.
+ */
+public enum LoadBalancing {
+    /**
+     * Each request goes to the next live node.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Each request goes to the live node with the fewest requests awaiting their response.
+     */
+    LEAST_IN_FLIGHT;
+
+    /**
+     * Finds the load balancing with given name, ignoring case, and accepting dashes for underscores.
+     * @param name the name.
+     * @return such load balancing, or {@link #ROUND_ROBIN} if unknown.
+     */
+    @NonNull
+    public static LoadBalancing fromName(@Nullable final String name) {
+        @NonNull LoadBalancing result = ROUND_ROBIN;
+
+        for (@NonNull final LoadBalancing loadBalancing : values()) {
+            if (name != null && loadBalancing.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                result = loadBalancing;
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * <p>Prints the rejected documents, one per line, as JSON objects with their {@code status}, {@code error},
+ * and their {@code action} and {@code document} as they were sent, so that they can be fixed and indexed
+ * again.</p>
+ */
+@EqualsAndHashCode
+public class PrintStreamDeadLetterSink
+    implements DeadLetterSink {
+
+    /**
+     * Where the documents are printed.
+     */
+    @NonNull
+    private final PrintStream printStream;
+
+    /**
+     * Creates a new instance.
+     * @param printStream where the documents are printed.
+     */
+    public PrintStreamDeadLetterSink(@NonNull final PrintStream printStream) {
+        this.printStream = printStream;
+    }
+
+    /**
+     * Retrieves where the documents are printed.
+     * @return such {@link PrintStream}.
+     */
+    @NonNull
+    public PrintStream getPrintStream() {
+        return this.printStream;
+    }
+
+    @Override
+    public void accept(
+        @NonNull final String action, @NonNull final String document, final int status, @Nullable final String error) {
+        @NonNull final Utf8JsonBuffer buffer = new Utf8JsonBuffer(action.length() + document.length() + 128);
+
+        buffer.write(Utf8JsonBuffer.ascii("{\"status\":"));
+        buffer.writeDigits(status, 1);
+        if (error != null) {
+            buffer.write(Utf8JsonBuffer.ascii(",\"error\":"));
+            buffer.writeString(error);
+        }
+        buffer.write(Utf8JsonBuffer.ascii(",\"action\":"));
+        buffer.write(action.getBytes(StandardCharsets.UTF_8));
+        buffer.write(Utf8JsonBuffer.ascii(",\"document\":"));
+        buffer.write(document.getBytes(StandardCharsets.UTF_8));
+        buffer.write('}');
+
+        this.printStream.println(buffer.toString());
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return (this.printStream == System.out) ? "stdout" : (this.printStream == System.err) ? "stderr" : "print stream";
+    }
+}
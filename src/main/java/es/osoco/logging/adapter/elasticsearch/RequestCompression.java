@@ -0,0 +1,173 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * <p>How the bodies of the requests are compressed, if at all.</p>
+ * <p>Each thread compressing bodies reuses its own {@link Deflater}s, favoring speed over ratio:
+ * log documents compress well anyway.</p>
+ */
+public enum RequestCompression {
+    /**
+     * Bodies are sent as they are.
+     */
+    NONE(null),
+
+    /**
+     * Bodies are compressed in gzip format.
+     */
+    GZIP("gzip"),
+
+    /**
+     * Bodies are compressed in zlib format, as HTTP's "deflate" encoding mandates.
+     */
+    DEFLATE("deflate");
+
+    /**
+     * The compression level.
+     */
+    public static final int LEVEL = Deflater.BEST_SPEED;
+
+    /**
+     * The gzip header: magic number, "deflate" method, no flags, no modification time, no extra flags, unknown OS.
+     */
+    @NonNull
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    /**
+     * The raw deflaters of each thread, for gzip.
+     */
+    @NonNull
+    private static final ThreadLocal<Deflater> RAW_DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(LEVEL, true));
+
+    /**
+     * The zlib deflaters of each thread.
+     */
+    @NonNull
+    private static final ThreadLocal<Deflater> ZLIB_DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(LEVEL));
+
+    /**
+     * The room made for each call to the deflater, in bytes.
+     */
+    private static final int CHUNK_BYTES = 4096;
+
+    /**
+     * The value of the Content-Encoding header.
+     */
+    @Nullable
+    private final String contentEncoding;
+
+    /**
+     * Creates a new instance.
+     * @param contentEncoding the value of the Content-Encoding header.
+     */
+    RequestCompression(@Nullable final String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * Retrieves the value of the Content-Encoding header.
+     * @return such value, or {@code null} if bodies are not compressed.
+     */
+    @Nullable
+    public String getContentEncoding() {
+        return this.contentEncoding;
+    }
+
+    /**
+     * Finds the compression with given name, ignoring case.
+     * @param name the name.
+     * @return such compression, or {@link #NONE} if unknown.
+     */
+    @NonNull
+    public static RequestCompression fromName(@Nullable final String name) {
+        @NonNull RequestCompression result = NONE;
+
+        for (@NonNull final RequestCompression compression : values()) {
+            if (compression.name().equalsIgnoreCase(name)) {
+                result = compression;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compresses given data, appending them to given buffer. Nothing is appended if bodies are not compressed.
+     * @param data the data.
+     * @param offset where the data start.
+     * @param length the length of the data.
+     * @param target the buffer.
+     */
+    public void compress(
+        @NonNull final byte[] data, final int offset, final int length, @NonNull final Utf8JsonBuffer target) {
+        switch (this) {
+            case GZIP:
+                @NonNull final CRC32 crc = new CRC32();
+                crc.update(data, offset, length);
+                target.write(GZIP_HEADER);
+                deflate(RAW_DEFLATERS.get(), data, offset, length, target);
+                writeIntLittleEndian((int) crc.getValue(), target);
+                writeIntLittleEndian(length, target);
+                break;
+            case DEFLATE:
+                deflate(ZLIB_DEFLATERS.get(), data, offset, length, target);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Deflates given data, appending them to given buffer.
+     * @param deflater the deflater.
+     * @param data the data.
+     * @param offset where the data start.
+     * @param length the length of the data.
+     * @param target the buffer.
+     */
+    protected static void deflate(
+        @NonNull final Deflater deflater,
+        @NonNull final byte[] data,
+        final int offset,
+        final int length,
+        @NonNull final Utf8JsonBuffer target) {
+        deflater.reset();
+        deflater.setInput(data, offset, length);
+        deflater.finish();
+
+        while (!deflater.finished()) {
+            target.ensureRoom(CHUNK_BYTES);
+            target.written(deflater.deflate(target.getBytes(), target.size(), target.capacity() - target.size()));
+        }
+    }
+
+    /**
+     * Appends given number in little-endian order, as gzip trailers are.
+     * @param value the number.
+     * @param target the buffer.
+     */
+    protected static void writeIntLittleEndian(final int value, @NonNull final Utf8JsonBuffer target) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            target.write((char) ((value >>> shift) & 0xFF));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import es.osoco.logging.adapter.LogEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * <p>Builds monotonic, collision-free ids out of a node name, the time of the event, and a sequence.</p>
+ * <p>Each id is the node name, a dash, and sixteen hexadecimal digits: the timestamp of the event, in
+ * milliseconds, shifted {@link #SEQUENCE_BITS} bits to the left, plus a sequence. Whenever the timestamp
+ * does not exceed the latest one, the latest value is incremented instead, so ids never repeat within the
+ * same instance, and sort in the order they're built. Different instances must use different node
+ * names; the default one is random.</p>
+ */
+@EqualsAndHashCode(of = "node")
+@ToString(of = "node")
+public class SequentialDocumentIdStrategy
+    implements DocumentIdStrategy {
+
+    /**
+     * The bits of the sequence. Up to 65536 ids per millisecond fit before running ahead of the clock.
+     */
+    public static final int SEQUENCE_BITS = 16;
+
+    /**
+     * The hexadecimal digits.
+     */
+    @NonNull
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The node name.
+     */
+    @NonNull
+    private final String node;
+
+    /**
+     * The latest value.
+     */
+    @NonNull
+    private final AtomicLong latest = new AtomicLong();
+
+    /**
+     * Creates a new instance, with a random node name.
+     */
+    public SequentialDocumentIdStrategy() {
+        this(randomNode());
+    }
+
+    /**
+     * Creates a new instance.
+     * @param node the node name.
+     */
+    public SequentialDocumentIdStrategy(@NonNull final String node) {
+        this.node = node;
+    }
+
+    /**
+     * Builds a random node name.
+     * @return such name.
+     */
+    @NonNull
+    protected static String randomNode() {
+        return Long.toHexString(new SecureRandom().nextLong());
+    }
+
+    /**
+     * Retrieves the node name.
+     * @return such name.
+     */
+    @NonNull
+    public String getNode() {
+        return this.node;
+    }
+
+    @Override
+    @NonNull
+    public String buildDocumentId(@NonNull final LogEvent event) {
+        final long floor = event.getTimestamp() << SEQUENCE_BITS;
+
+        long previous;
+        long next;
+
+        do {
+            previous = this.latest.get();
+            next = Math.max(previous + 1, floor);
+        } while (!this.latest.compareAndSet(previous, next));
+
+        @NonNull final char[] result = new char[this.node.length() + 17];
+
+        this.node.getChars(0, this.node.length(), result, 0);
+        result[this.node.length()] = '-';
+        for (int index = result.length - 1; index > this.node.length(); index--) {
+            result[index] = HEX_DIGITS[(int) (next & 0xF)];
+            next >>>= 4;
+        }
+
+        return new String(result);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>A growable byte buffer which JSON gets written to, encoded in UTF-8 as it's written.</p>
+ * <p>Strings are quoted and escaped in the same pass that encodes them, so no intermediate copy is made.
+ * Field names and other constant fragments can be precomputed with {@link #ascii(String)}.
+ * Buffers are meant to be reused, through {@link #clear()}.</p>
+ */
+public class Utf8JsonBuffer {
+
+    /**
+     * The default initial capacity, in bytes.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The most bytes a single character takes once escaped or encoded.
+     */
+    protected static final int MAX_CHARACTER_BYTES = 6;
+
+    /**
+     * The escape of each ASCII character: {@code 0} if none, {@code 'u'} for a Unicode escape,
+     * or the character following the backslash.
+     */
+    @NonNull
+    private static final byte[] ESCAPES = new byte[128];
+
+    /**
+     * The hexadecimal digits.
+     */
+    @NonNull
+    private static final byte[] HEX_DIGITS = ascii("0123456789abcdef");
+
+    static {
+        for (int character = 0; character < 0x20; character++) {
+            ESCAPES[character] = 'u';
+        }
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+    }
+
+    /**
+     * The bytes.
+     */
+    @NonNull
+    private byte[] bytes;
+
+    /**
+     * How many bytes have been written.
+     */
+    private int size;
+
+    /**
+     * Creates a new buffer with the default capacity.
+     */
+    public Utf8JsonBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new buffer.
+     * @param capacity the initial capacity, in bytes.
+     */
+    public Utf8JsonBuffer(final int capacity) {
+        this.bytes = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * Encodes given ASCII text, to write it later with {@link #write(byte[])}.
+     * @param txt the text.
+     * @return its bytes.
+     */
+    @NonNull
+    public static byte[] ascii(@NonNull final String txt) {
+        return txt.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Retrieves the bytes. Only the first {@link #size()} are meaningful.
+     * @return such bytes.
+     */
+    @NonNull
+    public byte[] getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Retrieves how many bytes have been written.
+     * @return such number.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Retrieves how many bytes fit before growing.
+     * @return such number.
+     */
+    public int capacity() {
+        return this.bytes.length;
+    }
+
+    /**
+     * Discards the bytes written so far, keeping the capacity.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Makes room for given number of bytes.
+     * @param count the bytes about to be written.
+     */
+    protected void ensureRoom(final int count) {
+        if (this.size + count > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.size + count, this.bytes.length * 2));
+        }
+    }
+
+    /**
+     * Counts given number of bytes, written directly into {@link #getBytes()}, after making room for them.
+     * @param count the bytes written.
+     */
+    protected void written(final int count) {
+        this.size += count;
+    }
+
+    /**
+     * Writes given ASCII character.
+     * @param character the character.
+     */
+    public void write(final char character) {
+        ensureRoom(1);
+        this.bytes[this.size++] = (byte) character;
+    }
+
+    /**
+     * Writes given bytes, as they are.
+     * @param data the bytes.
+     */
+    public void write(@NonNull final byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    /**
+     * Writes some of given bytes, as they are.
+     * @param data the bytes.
+     * @param offset the position of the first byte to write.
+     * @param length how many bytes to write.
+     */
+    public void write(@NonNull final byte[] data, final int offset, final int length) {
+        ensureRoom(length);
+        System.arraycopy(data, offset, this.bytes, this.size, length);
+        this.size += length;
+    }
+
+    /**
+     * Writes given non-negative number, padded with zeros to given width.
+     * @param value the number.
+     * @param width the fewest digits to write.
+     */
+    public void writeDigits(final long value, final int width) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        final int count = Math.max(digits, width);
+
+        ensureRoom(count);
+        long rest = value;
+        for (int index = this.size + count - 1; index >= this.size; index--) {
+            this.bytes[index] = (byte) ('0' + (rest % 10));
+            rest /= 10;
+        }
+        this.size += count;
+    }
+
+    /**
+     * Writes given text as a JSON string: quoted, escaped, and encoded in UTF-8.
+     * Unpaired surrogates are written as {@code ?}.
+     * @param txt the text.
+     */
+    public void writeString(@NonNull final CharSequence txt) {
+        write('"');
+        writeEscaped(txt);
+        write('"');
+    }
+
+    /**
+     * Writes given text as part of a JSON string, without the quotes: escaped, and encoded in UTF-8.
+     * Long strings can be written piece by piece, as long as surrogate pairs are not split.
+     * Unpaired surrogates are written as {@code ?}.
+     * @param txt the text.
+     */
+    public void writeEscaped(@NonNull final CharSequence txt) {
+        final int length = txt.length();
+
+        for (int index = 0; index < length; index++) {
+            final char character = txt.charAt(index);
+
+            ensureRoom(MAX_CHARACTER_BYTES);
+
+            if (character < 0x80) {
+                final byte escape = ESCAPES[character];
+
+                if (escape == 0) {
+                    this.bytes[this.size++] = (byte) character;
+                } else {
+                    this.bytes[this.size++] = '\\';
+                    this.bytes[this.size++] = escape;
+                    if (escape == 'u') {
+                        this.bytes[this.size++] = '0';
+                        this.bytes[this.size++] = '0';
+                        this.bytes[this.size++] = HEX_DIGITS[character >> 4];
+                        this.bytes[this.size++] = HEX_DIGITS[character & 0xF];
+                    }
+                }
+            } else if (character < 0x800) {
+                this.bytes[this.size++] = (byte) (0xC0 | (character >> 6));
+                this.bytes[this.size++] = (byte) (0x80 | (character & 0x3F));
+            } else if (!Character.isSurrogate(character)) {
+                this.bytes[this.size++] = (byte) (0xE0 | (character >> 12));
+                this.bytes[this.size++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+                this.bytes[this.size++] = (byte) (0x80 | (character & 0x3F));
+            } else if (Character.isHighSurrogate(character)
+                       && index + 1 < length
+                       && Character.isLowSurrogate(txt.charAt(index + 1))) {
+                final int codePoint = Character.toCodePoint(character, txt.charAt(++index));
+
+                this.bytes[this.size++] = (byte) (0xF0 | (codePoint >> 18));
+                this.bytes[this.size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                this.bytes[this.size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                this.bytes[this.size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                this.bytes[this.size++] = '?';
+            }
+        }
+    }
+
+    /**
+     * Decodes the bytes written so far.
+     * @return the text.
+     */
+    @Override
+    @NonNull
+    public String toString() {
+        return new String(this.bytes, 0, this.size, StandardCharsets.UTF_8);
+    }
+}
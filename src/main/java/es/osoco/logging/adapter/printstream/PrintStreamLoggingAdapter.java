@@ -15,11 +15,13 @@
 package es.osoco.logging.adapter.printstream;
 
 import es.osoco.logging.adapter.AbstractLoggingAdapter;
+import es.osoco.logging.adapter.LogEvent;
 import es.osoco.logging.adapter.LoggingAdapter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.PrintStream;
+import java.util.List;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -55,6 +57,48 @@ public class PrintStreamLoggingAdapter
         }
     }
 
+    /**
+     * Logs given event to the underlying {@link PrintStream}, reusing its category prefix.
+     * @param event the event.
+     */
+    @Override
+    protected void logEvent(@NonNull final LogEvent event) {
+        @NonNull final PrintStream stream = getLoggingConfiguration().getPrintStream();
+        stream.println(event.getCategoryPrefix() + event.getMessage());
+        @Nullable final Throwable error = event.getError();
+        if (error != null) {
+            error.printStackTrace(stream);
+        }
+    }
+
+    /**
+     * Logs given events to the underlying {@link PrintStream} with a single write,
+     * except for their stack traces.
+     * @param events the events.
+     */
+    @Override
+    protected void logEvents(@NonNull final List<LogEvent> events) {
+        @NonNull final PrintStream stream = getLoggingConfiguration().getPrintStream();
+        @NonNull final String lineSeparator = System.lineSeparator();
+        @NonNull final StringBuilder lines = new StringBuilder();
+
+        synchronized (stream) {
+            for (@NonNull final LogEvent event : events) {
+                lines.append(event.getCategoryPrefix()).append(event.getMessage()).append(lineSeparator);
+                @Nullable final Throwable error = event.getError();
+                if (error != null) {
+                    stream.print(lines);
+                    lines.setLength(0);
+                    error.printStackTrace(stream);
+                }
+            }
+            if (lines.length() > 0) {
+                stream.print(lines);
+            }
+            stream.flush();
+        }
+    }
+
     @Override
     protected void logError(@Nullable final String category, @NonNull final String msg) {
         logToPrintStream(category, msg, null);
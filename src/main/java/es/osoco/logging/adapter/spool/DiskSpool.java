@@ -0,0 +1,289 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.spool;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.ToString;
+
+/**
+ * <p>A first-in, first-out queue of records, kept on disk in {@link SpoolSegment}s.</p>
+ * <p>Records are appended to the newest segment, and a new one is created whenever they don't fit.
+ * Segments are deleted once all their records are removed. Segments found in the directory when
+ * created are recovered, so records survive restarts and crashes.</p>
+ * <p>The size of the segments is bounded: once reached, new records are discarded, and counted.</p>
+ */
+@ToString(of = { "directory", "sizeInBytes" })
+public class DiskSpool
+    implements Closeable {
+
+    /**
+     * The prefix of the names of segment files.
+     */
+    @NonNull
+    public static final String SEGMENT_PREFIX = "segment-";
+
+    /**
+     * The suffix of the names of segment files.
+     */
+    @NonNull
+    public static final String SEGMENT_SUFFIX = ".spool";
+
+    /**
+     * The directory.
+     */
+    @NonNull
+    private final Path directory;
+
+    /**
+     * The size of new segments, in bytes.
+     */
+    private final int segmentBytes;
+
+    /**
+     * The most bytes the segments take, altogether.
+     */
+    private final long maxBytes;
+
+    /**
+     * The segments, oldest first.
+     */
+    @NonNull
+    private final Deque<SpoolSegment> segments = new ArrayDeque<>();
+
+    /**
+     * The sequence number of the next segment.
+     */
+    private long nextSequence;
+
+    /**
+     * The bytes the segments take, altogether.
+     */
+    private long sizeInBytes;
+
+    /**
+     * The records discarded for lack of room.
+     */
+    @NonNull
+    private final AtomicLong discardedRecords = new AtomicLong();
+
+    /**
+     * Creates a new spool, recovering the segments in given directory.
+     * @param directory the directory, created if necessary.
+     * @param segmentBytes the size of new segments, in bytes.
+     * @param maxBytes the most bytes the segments take, altogether.
+     * @throws IOException if the directory cannot be read.
+     */
+    public DiskSpool(@NonNull final Path directory, final int segmentBytes, final long maxBytes)
+        throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Opens the segments in the directory, deleting empty ones.
+     * @throws IOException if the directory cannot be read.
+     */
+    protected final void recover()
+        throws IOException {
+        @NonNull final List<SpoolSegment> recovered = new ArrayList<>();
+
+        try (@NonNull final DirectoryStream<Path> files =
+                 Files.newDirectoryStream(this.directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (@NonNull final Path file : files) {
+                @Nullable final SpoolSegment segment = SpoolSegment.open(file);
+
+                if (segment != null) {
+                    this.nextSequence = Math.max(this.nextSequence, segment.getSequence() + 1);
+                    if (segment.isEmpty()) {
+                        segment.delete();
+                    } else {
+                        recovered.add(segment);
+                    }
+                }
+            }
+        }
+
+        recovered.sort(Comparator.comparingLong(SpoolSegment::getSequence));
+        for (@NonNull final SpoolSegment segment : recovered) {
+            this.segments.addLast(segment);
+            this.sizeInBytes += segment.getCapacity();
+        }
+    }
+
+    /**
+     * Retrieves the directory.
+     * @return such directory.
+     */
+    @NonNull
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Retrieves the bytes the segments take, altogether.
+     * @return such size.
+     */
+    public synchronized long getSizeInBytes() {
+        return this.sizeInBytes;
+    }
+
+    /**
+     * Retrieves how many records have been discarded for lack of room.
+     * @return such number.
+     */
+    public long getDiscardedRecords() {
+        return this.discardedRecords.get();
+    }
+
+    /**
+     * Appends a record, and forces it to disk.
+     * @param data the data.
+     * @param offset where the data starts.
+     * @param length the length of the data.
+     * @return {@code false} if it was discarded for lack of room, or because a segment could not be created.
+     */
+    public synchronized boolean append(@NonNull final byte[] data, final int offset, final int length) {
+        boolean result = true;
+
+        @Nullable SpoolSegment tail = this.segments.peekLast();
+
+        if (tail == null || !tail.hasRoom(length)) {
+            final long capacity =
+                Math.max(this.segmentBytes, (long) SpoolSegment.HEADER_BYTES + SpoolSegment.RECORD_HEADER_BYTES + length);
+
+            tail = null;
+            if (capacity <= Integer.MAX_VALUE && this.sizeInBytes + capacity <= this.maxBytes) {
+                try {
+                    tail =
+                        SpoolSegment.create(
+                            this.directory.resolve(SEGMENT_PREFIX + String.format("%020d", this.nextSequence) + SEGMENT_SUFFIX),
+                            this.nextSequence,
+                            (int) capacity);
+                    this.nextSequence++;
+                    this.segments.addLast(tail);
+                    this.sizeInBytes += capacity;
+                } catch (@NonNull final IOException cannotCreate) {
+                    tail = null;
+                }
+            }
+        }
+
+        if (tail == null) {
+            this.discardedRecords.incrementAndGet();
+            result = false;
+        } else {
+            tail.append(data, offset, length);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the oldest record, without removing it.
+     * @return its data, or {@code null} if the spool is empty.
+     */
+    @Nullable
+    public synchronized byte[] peek() {
+        @Nullable byte[] result = null;
+
+        @Nullable SpoolSegment head = this.segments.peekFirst();
+
+        while (result == null && head != null) {
+            result = head.peek();
+
+            if (result == null) {
+                head = (discardIfDone(head)) ? this.segments.peekFirst() : null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the oldest record.
+     */
+    public synchronized void remove() {
+        @Nullable final SpoolSegment head = this.segments.peekFirst();
+
+        if (head != null) {
+            head.remove();
+            discardIfDone(head);
+        }
+    }
+
+    /**
+     * Checks whether the spool holds no records.
+     * @return {@code true} in such case.
+     */
+    public synchronized boolean isEmpty() {
+        boolean result = true;
+
+        for (@NonNull final SpoolSegment segment : this.segments) {
+            result &= segment.isEmpty();
+        }
+
+        return result;
+    }
+
+    /**
+     * Deletes the oldest segment if all its records are removed, unless it's also the newest one.
+     * @param head the oldest segment.
+     * @return {@code true} if deleted.
+     */
+    protected boolean discardIfDone(@NonNull final SpoolSegment head) {
+        final boolean result = head.isEmpty() && this.segments.size() > 1;
+
+        if (result) {
+            this.segments.removeFirst();
+            this.sizeInBytes -= head.getCapacity();
+            try {
+                head.delete();
+            } catch (@NonNull final IOException cannotDelete) {
+                // it's empty, so it gets deleted when recovered
+                head.force();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Forces the removals to disk.
+     */
+    @Override
+    public synchronized void close() {
+        for (@NonNull final SpoolSegment segment : this.segments) {
+            segment.force();
+        }
+    }
+}
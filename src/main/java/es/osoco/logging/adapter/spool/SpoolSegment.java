@@ -0,0 +1,333 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.spool;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import lombok.ToString;
+
+/**
+ * <p>A memory-mapped file holding records, in the order they were appended.</p>
+ * <p>The file starts with a {@link #HEADER_BYTES}-byte header: a magic number, the format version,
+ * the sequence number of the segment, the position the next record goes to, and the position of the
+ * oldest record not yet removed. Each record is its length, the CRC32 of its data, and its data.</p>
+ * <p>Records are forced to disk before the header points past them, so a crash loses, at most,
+ * the record being appended. Removals are not forced: after a crash, a record may be read twice.</p>
+ */
+@ToString(of = { "path", "writePosition", "readPosition" })
+public class SpoolSegment {
+
+    /**
+     * The magic number of segment files.
+     */
+    public static final int MAGIC = 0x4A4C5350;
+
+    /**
+     * The format version.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    public static final int HEADER_BYTES = 32;
+
+    /**
+     * The size of the length and CRC32 preceding the data of each record, in bytes.
+     */
+    public static final int RECORD_HEADER_BYTES = 8;
+
+    /**
+     * Where the sequence number is.
+     */
+    protected static final int SEQUENCE_OFFSET = 8;
+
+    /**
+     * Where the write position is.
+     */
+    protected static final int WRITE_POSITION_OFFSET = 16;
+
+    /**
+     * Where the read position is.
+     */
+    protected static final int READ_POSITION_OFFSET = 20;
+
+    /**
+     * The file.
+     */
+    @NonNull
+    private final Path path;
+
+    /**
+     * The sequence number.
+     */
+    private final long sequence;
+
+    /**
+     * The mapped file.
+     */
+    @NonNull
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The position the next record goes to.
+     */
+    private int writePosition;
+
+    /**
+     * The position of the oldest record not yet removed.
+     */
+    private int readPosition;
+
+    /**
+     * Creates a new instance.
+     * @param path the file.
+     * @param sequence the sequence number.
+     * @param buffer the mapped file.
+     * @param writePosition the position the next record goes to.
+     * @param readPosition the position of the oldest record not yet removed.
+     */
+    protected SpoolSegment(
+        @NonNull final Path path,
+        final long sequence,
+        @NonNull final MappedByteBuffer buffer,
+        final int writePosition,
+        final int readPosition) {
+        this.path = path;
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.writePosition = writePosition;
+        this.readPosition = readPosition;
+    }
+
+    /**
+     * Creates a new, empty segment file.
+     * @param path the file.
+     * @param sequence the sequence number.
+     * @param capacity the size of the file, in bytes.
+     * @return the segment.
+     * @throws IOException if the file cannot be created.
+     */
+    @NonNull
+    public static SpoolSegment create(@NonNull final Path path, final long sequence, final int capacity)
+        throws IOException {
+        @NonNull final MappedByteBuffer buffer = map(path, capacity, StandardOpenOption.CREATE_NEW);
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(SEQUENCE_OFFSET, sequence);
+        buffer.putInt(WRITE_POSITION_OFFSET, HEADER_BYTES);
+        buffer.putInt(READ_POSITION_OFFSET, HEADER_BYTES);
+        buffer.force();
+
+        return new SpoolSegment(path, sequence, buffer, HEADER_BYTES, HEADER_BYTES);
+    }
+
+    /**
+     * Opens an existing segment file.
+     * @param path the file.
+     * @return the segment, or {@code null} if the file is not a valid segment.
+     * @throws IOException if the file cannot be read.
+     */
+    @Nullable
+    public static SpoolSegment open(@NonNull final Path path)
+        throws IOException {
+        @Nullable final SpoolSegment result;
+
+        final long size = Files.size(path);
+
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+            result = null;
+        } else {
+            @NonNull final MappedByteBuffer buffer = map(path, (int) size);
+            final int writePosition = buffer.getInt(WRITE_POSITION_OFFSET);
+            final int readPosition = buffer.getInt(READ_POSITION_OFFSET);
+
+            if (buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION
+                || writePosition < HEADER_BYTES
+                || writePosition > size
+                || readPosition < HEADER_BYTES
+                || readPosition > writePosition) {
+                result = null;
+            } else {
+                result = new SpoolSegment(path, buffer.getLong(SEQUENCE_OFFSET), buffer, writePosition, readPosition);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Maps given file, read-write.
+     * @param path the file.
+     * @param size the bytes to map.
+     * @param options how to open the file, besides reading and writing.
+     * @return the mapped file.
+     * @throws IOException if the file cannot be mapped.
+     */
+    @NonNull
+    protected static MappedByteBuffer map(
+        @NonNull final Path path, final int size, @NonNull final StandardOpenOption... options)
+        throws IOException {
+        @NonNull final MappedByteBuffer result;
+
+        @NonNull final StandardOpenOption[] allOptions = new StandardOpenOption[options.length + 2];
+        allOptions[0] = StandardOpenOption.READ;
+        allOptions[1] = StandardOpenOption.WRITE;
+        System.arraycopy(options, 0, allOptions, 2, options.length);
+
+        try (@NonNull final FileChannel channel = FileChannel.open(path, allOptions)) {
+            result = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the file.
+     * @return such file.
+     */
+    @NonNull
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Retrieves the sequence number.
+     * @return such number.
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Retrieves the size of the file.
+     * @return such size, in bytes.
+     */
+    public int getCapacity() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Checks whether a record of given length fits.
+     * @param length the length of the data.
+     * @return {@code true} in such case.
+     */
+    public boolean hasRoom(final int length) {
+        return (long) this.writePosition + RECORD_HEADER_BYTES + length <= this.buffer.capacity();
+    }
+
+    /**
+     * Checks whether every record appended has been removed.
+     * @return {@code true} in such case.
+     */
+    public boolean isEmpty() {
+        return this.readPosition >= this.writePosition;
+    }
+
+    /**
+     * Appends a record, and forces it to disk. It must fit.
+     * @param data the data.
+     * @param offset where the data starts.
+     * @param length the length of the data.
+     */
+    public void append(@NonNull final byte[] data, final int offset, final int length) {
+        @NonNull final CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+
+        this.buffer.putInt(this.writePosition, length);
+        this.buffer.putInt(this.writePosition + 4, (int) crc.getValue());
+        @NonNull final ByteBuffer view = this.buffer.duplicate();
+        view.position(this.writePosition + RECORD_HEADER_BYTES);
+        view.put(data, offset, length);
+        this.buffer.force();
+
+        this.writePosition += RECORD_HEADER_BYTES + length;
+        this.buffer.putInt(WRITE_POSITION_OFFSET, this.writePosition);
+        this.buffer.force();
+    }
+
+    /**
+     * Reads the oldest record not yet removed. Records failing their checksum, and any after them,
+     * are skipped.
+     * @return its data, or {@code null} if none.
+     */
+    @Nullable
+    public byte[] peek() {
+        @Nullable byte[] result = null;
+
+        if (!isEmpty()) {
+            final int length = this.buffer.getInt(this.readPosition);
+
+            if (length >= 0 && (long) this.readPosition + RECORD_HEADER_BYTES + length <= this.writePosition) {
+                result = new byte[length];
+
+                @NonNull final ByteBuffer view = this.buffer.duplicate();
+                view.position(this.readPosition + RECORD_HEADER_BYTES);
+                view.get(result);
+
+                @NonNull final CRC32 crc = new CRC32();
+                crc.update(result, 0, length);
+                if ((int) crc.getValue() != this.buffer.getInt(this.readPosition + 4)) {
+                    result = null;
+                }
+            }
+
+            if (result == null) {
+                this.readPosition = this.writePosition;
+                this.buffer.putInt(READ_POSITION_OFFSET, this.readPosition);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the oldest record.
+     */
+    public void remove() {
+        if (!isEmpty()) {
+            this.readPosition += RECORD_HEADER_BYTES + this.buffer.getInt(this.readPosition);
+            this.buffer.putInt(READ_POSITION_OFFSET, this.readPosition);
+        }
+    }
+
+    /**
+     * Forces pending changes to disk.
+     */
+    public void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Deletes the file. The mapping is released once garbage-collected.
+     * @throws IOException if the file cannot be deleted.
+     */
+    public void delete()
+        throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+}
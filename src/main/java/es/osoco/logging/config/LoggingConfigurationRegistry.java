@@ -209,7 +209,8 @@ public class LoggingConfigurationRegistry {
     }
 
     /**
-     * Specifies a new {@link LoggingConfiguration}.
+     * Specifies a new {@link LoggingConfiguration}, and notifies the listeners.
+     * Any cached log level gets resolved again afterwards.
      * @param key the key.
      * @param config the config.
      * @param <T> the type of the value.
@@ -218,6 +219,7 @@ public class LoggingConfigurationRegistry {
     public <T extends LoggingConfiguration> void put(@NonNull final String key, @NonNull final T config) {
         getMap().put(key, config);
         notifyListeners(config);
+        LoggingLevelTracker.getInstance().levelsChanged();
     }
 
     /**
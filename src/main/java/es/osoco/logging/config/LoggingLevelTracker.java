@@ -0,0 +1,99 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.config;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of changes in the enabled log levels, so that whatever caches them knows when to resolve them again.
+ * Changes are counted in a generation number, and announced to {@link LoggingLevelListener}s.
+ */
+public class LoggingLevelTracker {
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class LoggingLevelTrackerSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final LoggingLevelTracker SINGLETON = new LoggingLevelTracker();
+    }
+
+    /**
+     * The generation, increased on every change.
+     */
+    @NonNull
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The listeners. They are weakly referenced, so that they don't outlive whatever registered them.
+     */
+    @NonNull
+    private final Set<LoggingLevelListener> listeners = Collections.newSetFromMap(new WeakHashMap<>());
+
+    protected LoggingLevelTracker() {}
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static LoggingLevelTracker getInstance() {
+        return LoggingLevelTrackerSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Retrieves the current generation.
+     * Caches can check it after resolving the levels: if it changed meanwhile, they need to resolve them again.
+     * @return such number.
+     */
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
+    /**
+     * Registers given listener. It's weakly referenced.
+     * @param listener the listener.
+     */
+    public void addListener(@NonNull final LoggingLevelListener listener) {
+        synchronized (this.listeners) {
+            this.listeners.add(listener);
+        }
+    }
+
+    /**
+     * Announces a change in the log levels. The generation gets increased before notifying the listeners.
+     */
+    public void levelsChanged() {
+        this.generation.incrementAndGet();
+
+        @NonNull final List<LoggingLevelListener> copy;
+
+        synchronized (this.listeners) {
+            copy = new ArrayList<>(this.listeners);
+        }
+
+        copy.forEach(LoggingLevelListener::levelsChanged);
+    }
+}
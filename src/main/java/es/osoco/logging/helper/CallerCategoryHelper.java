@@ -0,0 +1,100 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.helper;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Finds out which class is logging, to use it as default category.
+ */
+public class CallerCategoryHelper {
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class CallerCategoryHelperSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final CallerCategoryHelper SINGLETON = new CallerCategoryHelper();
+    }
+
+    /**
+     * Whether each class is a valid category, as per {@link #isValidCategory(String)}, computed once per class.
+     */
+    @NonNull
+    private final ClassValue<Boolean> validCallers = new ClassValue<Boolean>() {
+        @Override
+        @NonNull
+        protected Boolean computeValue(@NonNull final Class<?> type) {
+            return isValidCategory(type.getName());
+        }
+    };
+
+    /**
+     * The filter of valid callers, based on the cache.
+     */
+    @NonNull
+    private final Predicate<Class<?>> validCaller = this.validCallers::get;
+
+    protected CallerCategoryHelper() {}
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static CallerCategoryHelper getInstance() {
+        return CallerCategoryHelperSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Retrieves the default category, based on the calling class.
+     * Whether each class is valid or not is checked only once.
+     * @return the category.
+     */
+    @Nullable
+    public String retrieveCallerCategory() {
+        @Nullable final Class<?> caller = CallerClassFinder.getInstance().findCaller(this.validCaller);
+
+        return (caller == null) ? null : caller.getName();
+    }
+
+    /**
+     * Retrieves the default category, based on the first calling class accepted by given filter.
+     * @param validCategory the filter.
+     * @return the category.
+     */
+    @Nullable
+    public String retrieveCallerCategory(@NonNull final Predicate<String> validCategory) {
+        @Nullable final Class<?> caller =
+            CallerClassFinder.getInstance().findCaller(type -> validCategory.test(type.getName()));
+
+        return (caller == null) ? null : caller.getName();
+    }
+
+    /**
+     * Checks whether given category is valid or should be discarded.
+     * @param category the category to check.
+     * @return {@code true} if the category is valid; {@code false} otherwise.
+     */
+    public boolean isValidCategory(@NonNull final String category) {
+        return (!category.startsWith("es.osoco.logging") && !category.startsWith("org.codehaus.groovy"));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.helper;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Builds log messages out of patterns with {@code {}} placeholders.
+ * Example:
+ * format("User {} logged in from {}", "alice", "10.0.0.1") -> "User alice logged in from 10.0.0.1"
+ */
+public class MessageFormatHelper {
+
+    /**
+     * The placeholder: "{}".
+     */
+    @NonNull
+    public static final String PLACEHOLDER = "{}";
+
+    /**
+     * The escape character, to log a literal placeholder: "\{}".
+     */
+    public static final char ESCAPE_CHAR = '\\';
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class MessageFormatHelperSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final MessageFormatHelper SINGLETON = new MessageFormatHelper();
+    }
+
+    protected MessageFormatHelper() {}
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static MessageFormatHelper getInstance() {
+        return MessageFormatHelperSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Retrieves the error among given arguments, if any. By convention,
+     * it's the last argument, if it's a {@link Throwable}.
+     * @param args the arguments.
+     * @return the error, or {@code null} if the last argument is not a {@link Throwable}.
+     */
+    @Nullable
+    public Throwable retrieveError(@Nullable final Object[] args) {
+        @Nullable final Throwable result;
+
+        if (args != null && args.length > 0 && args[args.length - 1] instanceof Throwable) {
+            result = (Throwable) args[args.length - 1];
+        } else {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the placeholders in given pattern with the arguments, in order.
+     * A trailing {@link Throwable} is not used as argument (see {@link #retrieveError(Object[])}).
+     * Placeholders without a matching argument are kept as is.
+     * @param pattern the pattern.
+     * @param args the arguments.
+     * @return the formatted message.
+     */
+    @NonNull
+    public String format(@NonNull final String pattern, @Nullable final Object[] args) {
+        @NonNull final String result;
+
+        final int count;
+
+        if (args == null) {
+            count = 0;
+        } else if (retrieveError(args) == null) {
+            count = args.length;
+        } else {
+            count = args.length - 1;
+        }
+
+        if (count == 0 && pattern.indexOf(ESCAPE_CHAR) < 0) {
+            result = pattern;
+        } else {
+            result = format(pattern, args, count);
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the placeholders in given pattern with the first {@code count} arguments.
+     * @param pattern the pattern.
+     * @param args the arguments.
+     * @param count how many arguments to use.
+     * @return the formatted message.
+     */
+    @NonNull
+    protected String format(@NonNull final String pattern, @Nullable final Object[] args, final int count) {
+        @NonNull final StringBuilder result = new StringBuilder(pattern.length() + 16 * count);
+
+        int argIndex = 0;
+        int start = 0;
+        int placeholder = pattern.indexOf(PLACEHOLDER);
+
+        while (placeholder >= 0) {
+            if (placeholder > 0 && pattern.charAt(placeholder - 1) == ESCAPE_CHAR) {
+                result.append(pattern, start, placeholder - 1);
+                result.append(PLACEHOLDER);
+            } else if (args != null && argIndex < count) {
+                result.append(pattern, start, placeholder);
+                append(result, args[argIndex++]);
+            } else {
+                result.append(pattern, start, placeholder + PLACEHOLDER.length());
+            }
+            start = placeholder + PLACEHOLDER.length();
+            placeholder = pattern.indexOf(PLACEHOLDER, start);
+        }
+
+        result.append(pattern, start, pattern.length());
+
+        return result.toString();
+    }
+
+    /**
+     * Appends given argument to the message being built.
+     * @param message the message.
+     * @param arg the argument.
+     */
+    protected void append(@NonNull final StringBuilder message, @Nullable final Object arg) {
+        if (arg instanceof Object[]) {
+            message.append(Arrays.deepToString((Object[]) arg));
+        } else {
+            try {
+                message.append(arg);
+            } catch (@NonNull final Throwable invalidToString) {
+                message.append("[").append(arg.getClass().getName()).append("#toString() failed]");
+            }
+        }
+    }
+}
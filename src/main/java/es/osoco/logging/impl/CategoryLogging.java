@@ -0,0 +1,708 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.Logging;
+import es.osoco.logging.LoggingContext;
+import es.osoco.logging.adapter.LogLevel;
+import es.osoco.logging.config.LoggingLevelListener;
+import es.osoco.logging.config.LoggingLevelTracker;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Supplier;
+
+import lombok.ToString;
+
+/**
+ * A {@link Logging} bound to a category, on top of a {@link CompositeLogging}.
+ * It resolves whether each level is enabled for its category once, and caches the outcome in a single field
+ * until the {@link LoggingLevelTracker} announces a change. Disabled levels cost a single field read.
+ * Calls providing their own category are delegated to the composite as they are.
+ */
+@ToString(of = { "category" })
+public class CategoryLogging
+    implements Logging, LoggingLevelListener {
+
+    /**
+     * The value of the cached levels when they need to be resolved.
+     */
+    protected static final int UNRESOLVED = -1;
+
+    /**
+     * The levels, in declaration order.
+     */
+    @NonNull
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    /**
+     * Bit set when any preferred adapter would log "error" messages.
+     */
+    protected static final int ERROR_ANY = 1 << 0;
+
+    /**
+     * Bit set when any preferred adapter would log "warn" messages.
+     */
+    protected static final int WARN_ANY = 1 << 1;
+
+    /**
+     * Bit set when any preferred adapter would log "info" messages.
+     */
+    protected static final int INFO_ANY = 1 << 2;
+
+    /**
+     * Bit set when any preferred adapter would log "debug" messages.
+     */
+    protected static final int DEBUG_ANY = 1 << 3;
+
+    /**
+     * Bit set when any preferred adapter would log "trace" messages.
+     */
+    protected static final int TRACE_ANY = 1 << 4;
+
+    /**
+     * Bit set when all preferred adapters have "error" enabled.
+     */
+    protected static final int ERROR_ALL = 1 << 5;
+
+    /**
+     * Bit set when all preferred adapters have "warn" enabled.
+     */
+    protected static final int WARN_ALL = 1 << 6;
+
+    /**
+     * Bit set when all preferred adapters have "info" enabled.
+     */
+    protected static final int INFO_ALL = 1 << 7;
+
+    /**
+     * Bit set when all preferred adapters have "debug" enabled.
+     */
+    protected static final int DEBUG_ALL = 1 << 8;
+
+    /**
+     * Bit set when all preferred adapters have "trace" enabled.
+     */
+    protected static final int TRACE_ALL = 1 << 9;
+
+    /**
+     * The category.
+     */
+    @NonNull
+    private final String category;
+
+    /**
+     * The composite logging.
+     */
+    @NonNull
+    private final CompositeLogging compositeLogging;
+
+    /**
+     * The cached levels, as a combination of the *_ANY and *_ALL bits, or {@link #UNRESOLVED}.
+     */
+    private volatile int levels = UNRESOLVED;
+
+    /**
+     * Creates a new logging bound to given category.
+     * @param category the category.
+     * @param compositeLogging the composite logging to delegate on.
+     */
+    public CategoryLogging(@NonNull final String category, @NonNull final CompositeLogging compositeLogging) {
+        this.category = category;
+        this.compositeLogging = compositeLogging;
+        LoggingLevelTracker.getInstance().addListener(this);
+    }
+
+    /**
+     * Retrieves the category.
+     * @return such category.
+     */
+    @NonNull
+    public String getCategory() {
+        return this.category;
+    }
+
+    /**
+     * Retrieves the composite logging.
+     * @return such instance.
+     */
+    @NonNull
+    public CompositeLogging getCompositeLogging() {
+        return this.compositeLogging;
+    }
+
+    /**
+     * Retrieves the cached levels, resolving them if needed.
+     * @return the combination of *_ANY and *_ALL bits.
+     */
+    protected int retrieveLevels() {
+        int result = this.levels;
+
+        if (result == UNRESOLVED) {
+            result = resolveLevels();
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the levels of the category, and caches them.
+     * Resolves them again if they change meanwhile.
+     * @return the combination of *_ANY and *_ALL bits.
+     */
+    protected int resolveLevels() {
+        int result;
+
+        @NonNull final LoggingLevelTracker tracker = LoggingLevelTracker.getInstance();
+        @NonNull final CompositeLogging composite = getCompositeLogging();
+
+        long generation;
+
+        do {
+            generation = tracker.getGeneration();
+            result = 0;
+            for (@NonNull final LogLevel level : LEVELS) {
+                if (composite.isEnabledInAnyPreferred(level, this.category)) {
+                    result |= 1 << level.ordinal();
+                }
+                if (composite.isEnabled(level, this.category)) {
+                    result |= 1 << (level.ordinal() + LEVELS.length);
+                }
+            }
+            this.levels = result;
+        } while (generation != tracker.getGeneration());
+
+        return result;
+    }
+
+    /**
+     * Discards the cached levels.
+     */
+    @Override
+    public void levelsChanged() {
+        this.levels = UNRESOLVED;
+    }
+
+    @Override
+    public void error(@NonNull final String msg) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.ERROR, this.category, msg, null);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final String msg) {
+        getCompositeLogging().error(category, msg);
+    }
+
+    @Override
+    public void error(@NonNull final String msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.ERROR, this.category, msg, error);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        getCompositeLogging().error(category, msg, error);
+    }
+
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object arg) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.ERROR, this.category, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.ERROR, this.category, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void errorf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.ERROR, this.category, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object... args) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.ERROR, this.category, pattern, args);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final Supplier<String> msg) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.ERROR, this.category, msg.get(), null);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        getCompositeLogging().error(category, msg);
+    }
+
+    @Override
+    public void error(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & ERROR_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.ERROR, this.category, msg.get(), error);
+        }
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        getCompositeLogging().error(category, msg, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return (retrieveLevels() & ERROR_ALL) != 0;
+    }
+
+    @Override
+    public boolean isErrorEnabled(@NonNull final String category) {
+        return getCompositeLogging().isErrorEnabled(category);
+    }
+
+    /**
+     * Enables or disables the "error" level for the bound category.
+     * @param flag whether to enable it or not.
+     */
+    @Override
+    public void setErrorEnabled(final boolean flag) {
+        getCompositeLogging().setErrorEnabled(this.category, flag);
+    }
+
+    @Override
+    public void setErrorEnabled(@NonNull final String category, final boolean flag) {
+        getCompositeLogging().setErrorEnabled(category, flag);
+    }
+
+    @Override
+    public void warn(@NonNull final String msg) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.WARN, this.category, msg, null);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final String msg) {
+        getCompositeLogging().warn(category, msg);
+    }
+
+    @Override
+    public void warn(@NonNull final String msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.WARN, this.category, msg, error);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        getCompositeLogging().warn(category, msg, error);
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object arg) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.WARN, this.category, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.WARN, this.category, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void warnf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.WARN, this.category, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object... args) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.WARN, this.category, pattern, args);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final Supplier<String> msg) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.WARN, this.category, msg.get(), null);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        getCompositeLogging().warn(category, msg);
+    }
+
+    @Override
+    public void warn(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & WARN_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.WARN, this.category, msg.get(), error);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        getCompositeLogging().warn(category, msg, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return (retrieveLevels() & WARN_ALL) != 0;
+    }
+
+    @Override
+    public boolean isWarnEnabled(@NonNull final String category) {
+        return getCompositeLogging().isWarnEnabled(category);
+    }
+
+    /**
+     * Enables or disables the "warn" level for the bound category.
+     * @param flag whether to enable it or not.
+     */
+    @Override
+    public void setWarnEnabled(final boolean flag) {
+        getCompositeLogging().setWarnEnabled(this.category, flag);
+    }
+
+    @Override
+    public void setWarnEnabled(@NonNull final String category, final boolean flag) {
+        getCompositeLogging().setWarnEnabled(category, flag);
+    }
+
+    @Override
+    public void info(@NonNull final String msg) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.INFO, this.category, msg, null);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final String msg) {
+        getCompositeLogging().info(category, msg);
+    }
+
+    @Override
+    public void info(@NonNull final String msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.INFO, this.category, msg, error);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        getCompositeLogging().info(category, msg, error);
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object arg) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.INFO, this.category, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.INFO, this.category, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void infof(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.INFO, this.category, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object... args) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.INFO, this.category, pattern, args);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final Supplier<String> msg) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.INFO, this.category, msg.get(), null);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        getCompositeLogging().info(category, msg);
+    }
+
+    @Override
+    public void info(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & INFO_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.INFO, this.category, msg.get(), error);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        getCompositeLogging().info(category, msg, error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return (retrieveLevels() & INFO_ALL) != 0;
+    }
+
+    @Override
+    public boolean isInfoEnabled(@NonNull final String category) {
+        return getCompositeLogging().isInfoEnabled(category);
+    }
+
+    /**
+     * Enables or disables the "info" level for the bound category.
+     * @param flag whether to enable it or not.
+     */
+    @Override
+    public void setInfoEnabled(final boolean flag) {
+        getCompositeLogging().setInfoEnabled(this.category, flag);
+    }
+
+    @Override
+    public void setInfoEnabled(@NonNull final String category, final boolean flag) {
+        getCompositeLogging().setInfoEnabled(category, flag);
+    }
+
+    @Override
+    public void debug(@NonNull final String msg) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.DEBUG, this.category, msg, null);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final String msg) {
+        getCompositeLogging().debug(category, msg);
+    }
+
+    @Override
+    public void debug(@NonNull final String msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.DEBUG, this.category, msg, error);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        getCompositeLogging().debug(category, msg, error);
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object arg) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.DEBUG, this.category, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.DEBUG, this.category, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void debugf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.DEBUG, this.category, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object... args) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.DEBUG, this.category, pattern, args);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final Supplier<String> msg) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.DEBUG, this.category, msg.get(), null);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        getCompositeLogging().debug(category, msg);
+    }
+
+    @Override
+    public void debug(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & DEBUG_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.DEBUG, this.category, msg.get(), error);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        getCompositeLogging().debug(category, msg, error);
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return (retrieveLevels() & DEBUG_ALL) != 0;
+    }
+
+    @Override
+    public boolean isDebugEnabled(@NonNull final String category) {
+        return getCompositeLogging().isDebugEnabled(category);
+    }
+
+    /**
+     * Enables or disables the "debug" level for the bound category.
+     * @param flag whether to enable it or not.
+     */
+    @Override
+    public void setDebugEnabled(final boolean flag) {
+        getCompositeLogging().setDebugEnabled(this.category, flag);
+    }
+
+    @Override
+    public void setDebugEnabled(@NonNull final String category, final boolean flag) {
+        getCompositeLogging().setDebugEnabled(category, flag);
+    }
+
+    @Override
+    public void trace(@NonNull final String msg) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.TRACE, this.category, msg, null);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final String msg) {
+        getCompositeLogging().trace(category, msg);
+    }
+
+    @Override
+    public void trace(@NonNull final String msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.TRACE, this.category, msg, error);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        getCompositeLogging().trace(category, msg, error);
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object arg) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.TRACE, this.category, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.TRACE, this.category, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void tracef(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.TRACE, this.category, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object... args) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().logFormatted(LogLevel.TRACE, this.category, pattern, args);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final Supplier<String> msg) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.TRACE, this.category, msg.get(), null);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        getCompositeLogging().trace(category, msg);
+    }
+
+    @Override
+    public void trace(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        if ((retrieveLevels() & TRACE_ANY) != 0) {
+            getCompositeLogging().buildAndDispatch(LogLevel.TRACE, this.category, msg.get(), error);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        getCompositeLogging().trace(category, msg, error);
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return (retrieveLevels() & TRACE_ALL) != 0;
+    }
+
+    @Override
+    public boolean isTraceEnabled(@NonNull final String category) {
+        return getCompositeLogging().isTraceEnabled(category);
+    }
+
+    /**
+     * Enables or disables the "trace" level for the bound category.
+     * @param flag whether to enable it or not.
+     */
+    @Override
+    public void setTraceEnabled(final boolean flag) {
+        getCompositeLogging().setTraceEnabled(this.category, flag);
+    }
+
+    @Override
+    public void setTraceEnabled(@NonNull final String category, final boolean flag) {
+        getCompositeLogging().setTraceEnabled(category, flag);
+    }
+
+    @Override
+    @NonNull
+    public LoggingContext getLoggingContext() {
+        return getCompositeLogging().getLoggingContext();
+    }
+}
@@ -0,0 +1,324 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.helper.EnvironmentHelper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.ToString;
+
+/**
+ * <p>Tracks the outcome of the calls to an adapter, to stop calling it while it keeps failing.</p>
+ * <p>While {@link CircuitState#CLOSED}, calls are counted in consecutive windows of a number of calls,
+ * each one starting with a failure, so that healthy adapters cost no bookkeeping.
+ * Once enough calls in a window fail, the circuit opens, and calls are refused until the probe
+ * interval elapses. Then a single call is allowed through, half-open: if it succeeds, the circuit
+ * closes again; otherwise it stays open for another interval.</p>
+ * <p>Circuit breakers are disabled unless either "logging.circuit.breaker" property or
+ * "LOGGING_CIRCUIT_BREAKER" environment variable is {@code true}. They're tuned by
+ * "logging.circuit.breaker.failure.rate" / "LOGGING_CIRCUIT_BREAKER_FAILURE_RATE" (a percentage),
+ * "logging.circuit.breaker.minimum.calls" / "LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS",
+ * "logging.circuit.breaker.window" / "LOGGING_CIRCUIT_BREAKER_WINDOW" (in calls), and
+ * "logging.circuit.breaker.probe.interval" / "LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL" (in milliseconds).</p>
+ */
+@ToString(of = { "state", "failureRate", "minimumCalls", "windowSize", "probeIntervalNanos" })
+public class CircuitBreaker {
+
+    /**
+     * The property to enable circuit breakers.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_PROPERTY = "logging.circuit.breaker";
+
+    /**
+     * The environment variable to enable circuit breakers.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_ENVVAR = "LOGGING_CIRCUIT_BREAKER";
+
+    /**
+     * Circuit breakers are disabled by default.
+     */
+    public static final boolean DEFAULT_LOGGING_CIRCUIT_BREAKER = false;
+
+    /**
+     * The property with the percentage of failed calls which opens the circuit.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_FAILURE_RATE_PROPERTY = "logging.circuit.breaker.failure.rate";
+
+    /**
+     * The environment variable with the percentage of failed calls which opens the circuit.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_FAILURE_RATE_ENVVAR = "LOGGING_CIRCUIT_BREAKER_FAILURE_RATE";
+
+    /**
+     * The default percentage of failed calls which opens the circuit.
+     */
+    public static final int DEFAULT_LOGGING_CIRCUIT_BREAKER_FAILURE_RATE = 50;
+
+    /**
+     * The property with how many calls in a window are needed before opening the circuit.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_PROPERTY = "logging.circuit.breaker.minimum.calls";
+
+    /**
+     * The environment variable with how many calls in a window are needed before opening the circuit.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_ENVVAR = "LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS";
+
+    /**
+     * The default number of calls in a window needed before opening the circuit.
+     */
+    public static final int DEFAULT_LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS = 20;
+
+    /**
+     * The property with how many calls make a window.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_WINDOW_PROPERTY = "logging.circuit.breaker.window";
+
+    /**
+     * The environment variable with how many calls make a window.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_WINDOW_ENVVAR = "LOGGING_CIRCUIT_BREAKER_WINDOW";
+
+    /**
+     * The default number of calls making a window.
+     */
+    public static final int DEFAULT_LOGGING_CIRCUIT_BREAKER_WINDOW = 100;
+
+    /**
+     * The property with how long the circuit stays open before probing the adapter.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_PROPERTY = "logging.circuit.breaker.probe.interval";
+
+    /**
+     * The environment variable with how long the circuit stays open before probing the adapter.
+     */
+    @NonNull
+    public static final String LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_ENVVAR = "LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL";
+
+    /**
+     * The default time the circuit stays open before probing the adapter, in milliseconds.
+     */
+    public static final int DEFAULT_LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL = 5000;
+
+    /**
+     * A call, in the packed window counters.
+     */
+    protected static final long CALL = 1L << 32;
+
+    /**
+     * A failure, in the packed window counters.
+     */
+    protected static final long FAILURE = 1L;
+
+    /**
+     * The percentage of failed calls which opens the circuit.
+     */
+    private final int failureRate;
+
+    /**
+     * How many calls in a window are needed before opening the circuit.
+     */
+    private final int minimumCalls;
+
+    /**
+     * How many calls make a window.
+     */
+    private final int windowSize;
+
+    /**
+     * How long the circuit stays open before probing the adapter, in nanoseconds.
+     */
+    private final long probeIntervalNanos;
+
+    /**
+     * The current state.
+     */
+    @NonNull
+    private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+
+    /**
+     * The calls in the current window (high 32 bits), and the failures among them (low 32 bits).
+     * Zero until a failure starts the window.
+     */
+    @NonNull
+    private final AtomicLong window = new AtomicLong();
+
+    /**
+     * When the adapter can be probed, as given by {@link System#nanoTime()}.
+     */
+    private volatile long probeAt;
+
+    /**
+     * Creates a new circuit breaker, closed.
+     * @param failureRate the percentage of failed calls which opens the circuit.
+     * @param minimumCalls how many calls in a window are needed before opening the circuit.
+     * @param windowSize how many calls make a window.
+     * @param probeIntervalMillis how long the circuit stays open before probing the adapter, in milliseconds.
+     */
+    public CircuitBreaker(
+        final int failureRate, final int minimumCalls, final int windowSize, final long probeIntervalMillis) {
+        this.failureRate = failureRate;
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.windowSize = Math.max(this.minimumCalls, windowSize);
+        this.probeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(probeIntervalMillis);
+    }
+
+    /**
+     * Creates a new circuit breaker as configured, unless they're disabled.
+     * @return such instance, or {@code null} if disabled.
+     */
+    @Nullable
+    public static CircuitBreaker fromEnvironment() {
+        @Nullable final CircuitBreaker result;
+
+        @NonNull final EnvironmentHelper helper = EnvironmentHelper.getInstance();
+
+        if (helper.retrieveBooleanFromSystemPropertyOrEnvironmentVariableOrElse(
+            LOGGING_CIRCUIT_BREAKER_PROPERTY, LOGGING_CIRCUIT_BREAKER_ENVVAR, DEFAULT_LOGGING_CIRCUIT_BREAKER)) {
+            result =
+                new CircuitBreaker(
+                    helper.retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                        LOGGING_CIRCUIT_BREAKER_FAILURE_RATE_PROPERTY,
+                        LOGGING_CIRCUIT_BREAKER_FAILURE_RATE_ENVVAR,
+                        DEFAULT_LOGGING_CIRCUIT_BREAKER_FAILURE_RATE),
+                    helper.retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                        LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_PROPERTY,
+                        LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_ENVVAR,
+                        DEFAULT_LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS),
+                    helper.retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                        LOGGING_CIRCUIT_BREAKER_WINDOW_PROPERTY,
+                        LOGGING_CIRCUIT_BREAKER_WINDOW_ENVVAR,
+                        DEFAULT_LOGGING_CIRCUIT_BREAKER_WINDOW),
+                    helper.retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                        LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_PROPERTY,
+                        LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_ENVVAR,
+                        DEFAULT_LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL));
+        } else {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the current state.
+     * @return such state.
+     */
+    @NonNull
+    public CircuitState getState() {
+        return this.state.get();
+    }
+
+    /**
+     * Checks whether the adapter can be called now. Once the probe interval elapses, the first
+     * thread asking gets to probe it.
+     * Callers allowed to call it must then call either {@link #recordSuccess()} or {@link #recordFailure()}.
+     * @return {@code true} in such case.
+     */
+    public boolean allowsCall() {
+        boolean result;
+
+        switch (this.state.get()) {
+            case CLOSED:
+                result = true;
+                break;
+            case OPEN:
+                result =
+                    System.nanoTime() - this.probeAt >= 0
+                    && this.state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN);
+                break;
+            default:
+                result = false;
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the adapter is being skipped, without claiming any probe.
+     * @return {@code true} unless the circuit is closed.
+     */
+    public boolean isOpen() {
+        return this.state.get() != CircuitState.CLOSED;
+    }
+
+    /**
+     * Records a successful call. It's counted only within a window, started by a failure.
+     */
+    public void recordSuccess() {
+        if (this.state.get() == CircuitState.HALF_OPEN) {
+            this.window.set(0L);
+            this.state.set(CircuitState.CLOSED);
+        } else if (this.window.get() != 0L) {
+            record(CALL);
+        }
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public void recordFailure() {
+        if (this.state.get() == CircuitState.HALF_OPEN) {
+            open();
+        } else {
+            final long counters = record(CALL + FAILURE);
+            final long calls = counters >>> 32;
+            final long failures = counters & 0xFFFFFFFFL;
+
+            if (calls >= this.minimumCalls && failures * 100 >= (long) this.failureRate * calls) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Adds given counters to the current window, starting a new one once full.
+     * @param delta the counters to add.
+     * @return the counters of the window, including given ones.
+     */
+    protected long record(final long delta) {
+        final long result = this.window.addAndGet(delta);
+
+        if ((result >>> 32) >= this.windowSize) {
+            this.window.compareAndSet(result, 0L);
+        }
+
+        return result;
+    }
+
+    /**
+     * Opens the circuit until the probe interval elapses.
+     */
+    protected void open() {
+        this.probeAt = System.nanoTime() + this.probeIntervalNanos;
+        this.window.set(0L);
+        this.state.set(CircuitState.OPEN);
+    }
+}
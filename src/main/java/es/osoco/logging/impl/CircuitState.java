@@ -0,0 +1,35 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+/**
+ * The states of a {@link CircuitBreaker}.
+ */
+public enum CircuitState {
+    /**
+     * The adapter is healthy: it gets all events.
+     */
+    CLOSED,
+
+    /**
+     * The adapter failed too often: it's skipped, and events go straight to the fallback adapters.
+     */
+    OPEN,
+
+    /**
+     * The adapter is being probed with a single event, which decides whether the circuit closes again.
+     */
+    HALF_OPEN
+}
@@ -16,17 +16,36 @@ package es.osoco.logging.impl;
 
 import es.osoco.logging.Logging;
 import es.osoco.logging.LoggingContext;
+import es.osoco.logging.adapter.LogEvent;
+import es.osoco.logging.adapter.LogLevel;
 import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.adapter.LoggingLevelSwitches;
+import es.osoco.logging.config.LoggingLevelTracker;
+import es.osoco.logging.helper.MessageFormatHelper;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * A {@link Logging} composed of some preferred logging mechanisms, and fallback mechanisms should they fail.
+ * Calls are dispatched by {@link LogLevel}, over arrays of adapters frozen whenever the lists change.
  */
 public class CompositeLogging
     implements Logging {
 
+    /**
+     * An empty array of adapters.
+     */
+    @NonNull
+    private static final LoggingAdapter[] NO_ADAPTERS = new LoggingAdapter[0];
+
+    /**
+     * Used instead of the index of the first enabled preferred adapter, when none has been checked yet.
+     */
+    protected static final int NONE_CHECKED = -1;
+
     @NonNull
     private LoggingContext context = new ThreadLocalLoggingContext();
 
@@ -36,14 +55,32 @@ public class CompositeLogging
     @NonNull
     private List<LoggingAdapter> fallback;
 
+    /**
+     * The preferred adapters, frozen into an array for dispatching.
+     */
+    @NonNull
+    private LoggingAdapter[] preferredAdapters;
+
+    /**
+     * The fallback adapters, frozen into an array for dispatching.
+     */
+    @NonNull
+    private LoggingAdapter[] fallbackAdapters;
+
+    /**
+     * The circuit breakers of the preferred adapters, in the same order. Empty slots mean disabled.
+     */
+    @NonNull
+    private CircuitBreaker[] preferredBreakers;
+
     /**
      * Creates a new composite logging.
      * @param preferred the preferred adapters.
      * @param fallback the fallback adapter
      */
     public CompositeLogging(@NonNull final List<LoggingAdapter> preferred, @NonNull final List<LoggingAdapter> fallback) {
-        this.preferred = preferred;
-        this.fallback = fallback;
+        immutableSetPreferred(preferred);
+        immutableSetFallback(fallback);
     }
 
     /**
@@ -52,6 +89,38 @@ public class CompositeLogging
      */
     protected final void immutableSetPreferred(@NonNull final List<LoggingAdapter> preferred) {
         this.preferred = preferred;
+        this.preferredAdapters = preferred.toArray(NO_ADAPTERS);
+        this.preferredBreakers = createCircuitBreakers(this.preferredAdapters.length);
+        registerInLevelSwitches(this.preferredAdapters);
+    }
+
+    /**
+     * Creates the circuit breakers for some adapters, as configured.
+     * @param count how many adapters.
+     * @return the circuit breakers, or empty slots if disabled.
+     */
+    @NonNull
+    protected static CircuitBreaker[] createCircuitBreakers(final int count) {
+        @NonNull final CircuitBreaker[] result = new CircuitBreaker[count];
+
+        for (int index = 0; index < count; index++) {
+            result[index] = CircuitBreaker.fromEnvironment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Registers the adapters in {@link LoggingLevelSwitches}, once they're built.
+     * Registering them again is harmless.
+     * @param adapters the adapters.
+     */
+    protected static void registerInLevelSwitches(@NonNull final LoggingAdapter[] adapters) {
+        if (LoggingLevelSwitches.isSwitchesEnabled()) {
+            for (@NonNull final LoggingAdapter adapter : adapters) {
+                LoggingLevelSwitches.getInstance().register(adapter);
+            }
+        }
     }
 
     /**
@@ -61,6 +130,7 @@ public class CompositeLogging
     @SuppressWarnings("unused")
     protected void setPreferred(@NonNull final List<LoggingAdapter> preferred) {
         immutableSetPreferred(preferred);
+        LoggingLevelTracker.getInstance().levelsChanged();
     }
 
     /**
@@ -72,12 +142,32 @@ public class CompositeLogging
         return this.preferred;
     }
 
+    /**
+     * Retrieves the preferred logging adapters, as frozen for dispatching.
+     * @return such adapters.
+     */
+    @NonNull
+    protected final LoggingAdapter[] immutableGetPreferredAdapters() {
+        return this.preferredAdapters;
+    }
+
+    /**
+     * Retrieves the circuit breakers of the preferred adapters, in the same order.
+     * @return such circuit breakers. Empty slots mean disabled.
+     */
+    @NonNull
+    protected final CircuitBreaker[] immutableGetPreferredBreakers() {
+        return this.preferredBreakers;
+    }
+
     /**
      * Specifies the fallback adapters.
      * @param fallback the fallback logging.
      */
     protected final void immutableSetFallback(@NonNull final List<LoggingAdapter> fallback) {
         this.fallback = fallback;
+        this.fallbackAdapters = fallback.toArray(NO_ADAPTERS);
+        registerInLevelSwitches(this.fallbackAdapters);
     }
 
     /**
@@ -87,6 +177,7 @@ public class CompositeLogging
     @SuppressWarnings("unused")
     protected void setFallback(@NonNull final List<LoggingAdapter> fallback) {
         immutableSetFallback(fallback);
+        LoggingLevelTracker.getInstance().levelsChanged();
     }
 
     /**
@@ -99,52 +190,194 @@ public class CompositeLogging
     }
 
     /**
-     * Logs given msg, using a function interface.
+     * Retrieves the fallback logging adapters, as frozen for dispatching.
+     * @return such adapters.
+     */
+    @NonNull
+    protected final LoggingAdapter[] immutableGetFallbackAdapters() {
+        return this.fallbackAdapters;
+    }
+
+    /**
+     * Builds a single {@link LogEvent} and delivers it to the preferred adapters, and to the fallback ones
+     * if any of the former fails. Nothing gets built unless some preferred adapter is enabled.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
      * @param msg the message to log.
-     * @param loggingCallable the callable function.
+     * @param error the error, if any.
      */
-    protected void log(@NonNull final String msg, @NonNull final LoggingCall loggingCallable) {
-        boolean fallbackNeeded = false;
+    protected void log(
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String msg,
+        @Nullable final Throwable error) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, level, category);
 
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
-            try {
-                loggingCallable.log(preferred, msg);
-            } catch (final Throwable error) {
-                fallbackNeeded = true;
-            }
+        if (firstEnabled >= 0) {
+            buildAndDispatch(preferredAdapters, firstEnabled, level, category, msg, error);
         }
+    }
 
-        if (fallbackNeeded) {
-            for (@NonNull final LoggingAdapter fallback : getFallback()) {
-                try {
-                    loggingCallable.log(fallback, msg);
-                } catch (final Throwable error) {
-                }
-            }
-        }
+    /**
+     * Builds a single {@link LogEvent}, once known some preferred adapter is enabled, and dispatches it.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
+     * @param msg the message to log.
+     * @param error the error, if any.
+     */
+    protected void buildAndDispatch(
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String msg,
+        @Nullable final Throwable error) {
+        buildAndDispatch(immutableGetPreferredAdapters(), NONE_CHECKED, level, category, msg, error);
     }
 
     /**
-     * Logs given msg, using a function interface.
+     * Builds a single {@link LogEvent}, once known which preferred adapter is the first one enabled, and dispatches it.
+     * @param preferredAdapters the preferred adapters.
+     * @param firstEnabled the index of the first preferred adapter known to be enabled, or {@link #NONE_CHECKED}.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
      * @param msg the message to log.
-     * @param loggingCallable the callable function.
+     * @param error the error, if any.
+     */
+    protected void buildAndDispatch(
+        @NonNull final LoggingAdapter[] preferredAdapters,
+        final int firstEnabled,
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String msg,
+        @Nullable final Throwable error) {
+        // a fresh event is a bump of the thread's allocation buffer, cheaper than looking a reusable one up.
+        dispatch(new LogEvent().populate(level, category, msg, error, getLoggingContext()), preferredAdapters, firstEnabled);
+    }
+
+    /**
+     * Logs the message provided by given supplier.
+     * The supplier is called at most once, and only if any preferred adapter is enabled.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
+     * @param msg the message supplier.
+     * @param error the error, if any.
      */
     protected void log(
-        @NonNull final String msg, @NonNull final Throwable error, @NonNull final LoggingCall loggingCallable) {
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final Supplier<String> msg,
+        @Nullable final Throwable error) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, level, category);
+
+        if (firstEnabled >= 0) {
+            buildAndDispatch(preferredAdapters, firstEnabled, level, category, msg.get(), error);
+        }
+    }
+
+    /**
+     * Formats given pattern once, and logs the outcome. Callers check the level beforehand.
+     * @param level the level.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logFormatted(@NonNull final LogLevel level, @NonNull final String pattern, @Nullable final Object[] args) {
+        logFormatted(level, null, pattern, args);
+    }
+
+    /**
+     * Formats given pattern once, and logs the outcome in given category. Callers check the level beforehand.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logFormatted(
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String pattern,
+        @Nullable final Object[] args) {
+        logFormatted(immutableGetPreferredAdapters(), NONE_CHECKED, level, category, pattern, args);
+    }
+
+    /**
+     * Formats given pattern once, and logs the outcome, once known which preferred adapter is the first one enabled.
+     * @param preferredAdapters the preferred adapters.
+     * @param firstEnabled the index of the first preferred adapter known to be enabled, or {@link #NONE_CHECKED}.
+     * @param level the level.
+     * @param category the category, or {@code null} to use the default one.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     */
+    protected void logFormatted(
+        @NonNull final LoggingAdapter[] preferredAdapters,
+        final int firstEnabled,
+        @NonNull final LogLevel level,
+        @Nullable final String category,
+        @NonNull final String pattern,
+        @Nullable final Object[] args) {
+        @NonNull final MessageFormatHelper helper = MessageFormatHelper.getInstance();
+
+        buildAndDispatch(
+            preferredAdapters, firstEnabled, level, category, helper.format(pattern, args), helper.retrieveError(args));
+    }
+
+    /**
+     * Delivers given event to the preferred adapters, and to the fallback ones if any of the former fails.
+     * Preferred adapters whose circuit is open are skipped, as if they had failed.
+     * @param event the event.
+     */
+    protected final void dispatch(@NonNull final LogEvent event) {
+        dispatch(event, immutableGetPreferredAdapters(), NONE_CHECKED);
+    }
+
+    /**
+     * Delivers given event to the preferred adapters, and to the fallback ones if any of the former fails.
+     * Each preferred adapter's level is checked once, and the ones before the first enabled one are
+     * not checked at all. Adapters not enabled for the event are left alone, circuit breaker included;
+     * enabled ones whose circuit is open are skipped, as if they had failed.
+     * @param event the event.
+     * @param preferredAdapters the preferred adapters.
+     * @param firstEnabled the index of the first preferred adapter known to be enabled, or {@link #NONE_CHECKED}.
+     */
+    protected void dispatch(
+        @NonNull final LogEvent event, @NonNull final LoggingAdapter[] preferredAdapters, final int firstEnabled) {
         boolean fallbackNeeded = false;
 
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
-            try {
-                loggingCallable.log(preferred, msg, error);
-            } catch (final Throwable unexpected) {
-                fallbackNeeded = true;
+        @NonNull final CircuitBreaker[] preferredBreakers = immutableGetPreferredBreakers();
+        @Nullable final String category = event.getExplicitCategory();
+
+        for (int index = Math.max(0, firstEnabled); index < preferredAdapters.length; index++) {
+            @NonNull final LoggingAdapter adapter = preferredAdapters[index];
+
+            if (index == firstEnabled || isEnabledOrFailing(adapter, event.getLevel(), category)) {
+                @Nullable final CircuitBreaker breaker =
+                    (index < preferredBreakers.length) ? preferredBreakers[index] : null;
+
+                if (breaker == null || breaker.allowsCall()) {
+                    try {
+                        adapter.logEnabled(event);
+                        if (breaker != null) {
+                            breaker.recordSuccess();
+                        }
+                    } catch (final Throwable unexpected) {
+                        fallbackNeeded = true;
+                        if (breaker != null) {
+                            breaker.recordFailure();
+                        }
+                    }
+                } else {
+                    fallbackNeeded = true;
+                }
             }
         }
 
         if (fallbackNeeded) {
-            for (@NonNull final LoggingAdapter fallback : getFallback()) {
+            @NonNull final LoggingAdapter[] fallbackAdapters = immutableGetFallbackAdapters();
+
+            for (int index = 0; index < fallbackAdapters.length; index++) {
                 try {
-                    loggingCallable.log(fallback, msg, error);
+                    fallbackAdapters[index].log(event);
                 } catch (final Throwable unexpected) {
                 }
             }
@@ -152,31 +385,141 @@ public class CompositeLogging
     }
 
     /**
-     * Logs given msg, using a function interface.
-     * @param category the category.
-     * @param msg the message to log.
-     * @param loggingCallable the callable function.
+     * Checks whether any of the preferred adapters would log a message, to avoid building it otherwise.
+     * Adapters failing to answer are considered enabled, so that the fallback adapters get a chance to log it.
+     * @param level the level.
+     * @param category the category, or {@code null} for the default one.
+     * @return {@code true} if the message needs to be built.
      */
-    protected void log(
-        @NonNull final String category, @NonNull final String msg, @NonNull final LoggingCall loggingCallable) {
+    protected boolean isEnabledInAnyPreferred(@NonNull final LogLevel level, @Nullable final String category) {
+        return findFirstEnabled(immutableGetPreferredAdapters(), level, category) >= 0;
+    }
+
+    /**
+     * Finds the first of given adapters which would log a message, to avoid building it otherwise.
+     * Adapters failing to answer are considered enabled, so that the fallback adapters get a chance to log it.
+     * @param adapters the adapters.
+     * @param level the level.
+     * @param category the category, or {@code null} for the default one.
+     * @return the index of such adapter, or {@code -1} if none is enabled.
+     */
+    protected int findFirstEnabled(
+        @NonNull final LoggingAdapter[] adapters, @NonNull final LogLevel level, @Nullable final String category) {
+        int result = -1;
+
+        final int count = LoggingLevelSwitches.mayBeEnabled(level) ? adapters.length : 0;
+
+        for (int index = 0; index < count && result < 0; index++) {
+            if (isEnabledOrFailing(adapters[index], level, category)) {
+                result = index;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given level is enabled in all preferred adapters, or in the fallback ones
+     * if any of the former fails to answer.
+     * @param level the level.
+     * @param category the category, or {@code null} for the default one.
+     * @return the outcome of the check.
+     */
+    protected boolean isEnabled(@NonNull final LogLevel level, @Nullable final String category) {
+        boolean result = LoggingLevelSwitches.mayBeEnabled(level);
+
         boolean fallbackNeeded = false;
 
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        @NonNull final LoggingAdapter[] preferredAdapters = result ? immutableGetPreferredAdapters() : NO_ADAPTERS;
+
+        for (@NonNull final LoggingAdapter preferred : preferredAdapters) {
             try {
-                loggingCallable.log(preferred, category, msg);
-            } catch (final Throwable error) {
+                result = result && isEnabled(preferred, level, category);
+            } catch (@NonNull final Throwable error) {
                 fallbackNeeded = true;
             }
         }
 
         if (fallbackNeeded) {
-            for (@NonNull final LoggingAdapter fallback : getFallback()) {
+            for (@NonNull final LoggingAdapter fallback : immutableGetFallbackAdapters()) {
                 try {
-                    loggingCallable.log(fallback, category, msg);
-                } catch (final Throwable error) {
+                    result = result && isEnabled(fallback, level, category);
+                } catch (@NonNull final Throwable error) {
                 }
             }
         }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given level is enabled in given adapter.
+     * Adapters failing to answer are considered enabled, so that their failure gets noticed when logging.
+     * @param adapter the adapter.
+     * @param level the level.
+     * @param category the category, or {@code null} for the default one.
+     * @return the outcome of the check.
+     */
+    protected boolean isEnabledOrFailing(
+        @NonNull final LoggingAdapter adapter, @NonNull final LogLevel level, @Nullable final String category) {
+        boolean result;
+
+        try {
+            result = isEnabled(adapter, level, category);
+        } catch (@NonNull final Throwable error) {
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given level is enabled in given adapter.
+     * @param adapter the adapter.
+     * @param level the level.
+     * @param category the category, or {@code null} for the default one.
+     * @return the outcome of the check.
+     */
+    protected boolean isEnabled(
+        @NonNull final LoggingAdapter adapter, @NonNull final LogLevel level, @Nullable final String category) {
+        return (category == null) ? adapter.isEnabled(level) : adapter.isEnabled(level, category);
+    }
+
+    /**
+     * Logs given msg, using a function interface.
+     * @param msg the message to log.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void log(@NonNull final String msg, @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), null, msg, null);
+    }
+
+    /**
+     * Logs given msg, using a function interface.
+     * @param msg the message to log.
+     * @param error the error.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void log(
+        @NonNull final String msg, @NonNull final Throwable error, @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), null, msg, error);
+    }
+
+    /**
+     * Logs given msg, using a function interface.
+     * @param category the category.
+     * @param msg the message to log.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void log(
+        @NonNull final String category, @NonNull final String msg, @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), category, msg, null);
     }
 
     /**
@@ -185,60 +528,116 @@ public class CompositeLogging
      * @param msg the message to log.
      * @param error the error.
      * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
      */
+    @Deprecated
     protected void log(
         @NonNull final String category,
         @NonNull final String msg,
         @NonNull final Throwable error,
         @NonNull final LoggingCall loggingCallable) {
-        boolean fallbackNeeded = false;
+        log(loggingCallable.getLevel(), category, msg, error);
+    }
 
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
-            try {
-                loggingCallable.log(preferred, category, msg, error);
-            } catch (final Throwable unexpected) {
-                fallbackNeeded = true;
-            }
-        }
+    /**
+     * Logs the message provided by given supplier, using a function interface.
+     * @param msg the message supplier.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void log(@NonNull final Supplier<String> msg, @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), null, msg, null);
+    }
 
-        if (fallbackNeeded) {
-            for (@NonNull final LoggingAdapter fallback : getFallback()) {
-                try {
-                    loggingCallable.log(fallback, category, msg, error);
-                } catch (final Throwable unexpected) {
-                }
-            }
-        }
+    /**
+     * Logs the message provided by given supplier, using a function interface.
+     * @param msg the message supplier.
+     * @param error the error.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void log(
+        @NonNull final Supplier<String> msg, @NonNull final Throwable error, @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), null, msg, error);
     }
 
     /**
-     * Delegates the check regarding whether a level is enabled to given callable.
-     * @param loggingCallable the function pointer.
-     * @return the outcome of the check.
+     * Logs the message provided by given supplier, using a function interface.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
      */
-    protected boolean isEnabled(@NonNull final LoggingCall loggingCallable) {
-        boolean result = true;
+    @Deprecated
+    protected void log(
+        @NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), category, msg, null);
+    }
 
-        boolean fallbackNeeded = false;
+    /**
+     * Logs the message provided by given supplier, using a function interface.
+     * @param category the category.
+     * @param msg the message supplier.
+     * @param error the error.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void log(
+        @NonNull final String category,
+        @NonNull final Supplier<String> msg,
+        @NonNull final Throwable error,
+        @NonNull final LoggingCall loggingCallable) {
+        log(loggingCallable.getLevel(), category, msg, error);
+    }
 
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
-            try {
-                result = result && loggingCallable.isEnabled(preferred);
-            } catch (@NonNull final Throwable error) {
-                fallbackNeeded = true;
-            }
-        }
+    /**
+     * Formats given pattern once, and logs the outcome using a function interface.
+     * @param pattern the message pattern.
+     * @param args the arguments.
+     * @param loggingCallable the callable function.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected void logFormatted(
+        @NonNull final String pattern, @Nullable final Object[] args, @NonNull final LoggingCall loggingCallable) {
+        logFormatted(loggingCallable.getLevel(), pattern, args);
+    }
 
-        if (fallbackNeeded) {
-            for (@NonNull final LoggingAdapter fallback : getFallback()) {
-                try {
-                    result = result && loggingCallable.isEnabled(fallback);
-                } catch (@NonNull final Throwable error) {
-                }
-            }
-        }
+    /**
+     * Checks whether any of the preferred adapters would log a message, to avoid building it otherwise.
+     * @param loggingCallable the function pointer.
+     * @return {@code true} if the message needs to be built.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected boolean isEnabledInAnyPreferred(@NonNull final LoggingCall loggingCallable) {
+        return isEnabledInAnyPreferred(loggingCallable.getLevel(), null);
+    }
 
-        return result;
+    /**
+     * Checks whether any of the preferred adapters would log a message in given category, to avoid building it otherwise.
+     * @param loggingCallable the function pointer.
+     * @param category the category.
+     * @return {@code true} if the message needs to be built.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected boolean isEnabledInAnyPreferred(@NonNull final LoggingCall loggingCallable, @NonNull final String category) {
+        return isEnabledInAnyPreferred(loggingCallable.getLevel(), category);
+    }
+
+    /**
+     * Delegates the check regarding whether a level is enabled to given callable.
+     * @param loggingCallable the function pointer.
+     * @return the outcome of the check.
+     * @deprecated use the {@link LogLevel}-based variant.
+     */
+    @Deprecated
+    protected boolean isEnabled(@NonNull final LoggingCall loggingCallable) {
+        return isEnabled(loggingCallable.getLevel(), null);
     }
 
     /**
@@ -246,248 +645,534 @@ public class CompositeLogging
      * @param loggingCallable the function pointer.
      * @param category the category.
      * @return the outcome of the check.
+     * @deprecated use the {@link LogLevel}-based variant.
      */
+    @Deprecated
     protected boolean isEnabled(@NonNull final LoggingCall loggingCallable, @NonNull final String category) {
-        boolean result = true;
+        return isEnabled(loggingCallable.getLevel(), category);
+    }
 
-        boolean fallbackNeeded = false;
+    @Override
+    public void error(@NonNull final String msg) {
+        log(LogLevel.ERROR, null, msg, null);
+    }
 
-        for (final LoggingAdapter preferred: getPreferred()) {
-            try {
-                result = result && loggingCallable.isEnabled(preferred, category);
-            } catch (final Throwable error) {
-                fallbackNeeded = true;
-            }
+    @Override
+    public void error(@NonNull final String category, @NonNull final String msg) {
+        log(LogLevel.ERROR, category, msg, null);
+    }
+
+    @Override
+    public void error(@NonNull final String msg, @NonNull final Throwable error) {
+        log(LogLevel.ERROR, null, msg, error);
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
+        log(LogLevel.ERROR, category, msg, error);
+    }
+
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object arg) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.ERROR, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.ERROR, null, pattern, new Object[] { arg });
         }
+    }
 
-        if (fallbackNeeded) {
-            for (final LoggingAdapter fallback : getFallback()) {
-                try {
-                    result = result && loggingCallable.isEnabled(fallback, category);
-                } catch (final Throwable error) {
-                }
-            }
+    @Override
+    public void errorf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.ERROR, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.ERROR, null, pattern, new Object[] { arg1, arg2 });
         }
+    }
 
-        return result;
+    @Override
+    public void errorf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.ERROR, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.ERROR, null, pattern, new Object[] { arg1, arg2, arg3 });
+        }
     }
 
     @Override
-    public void error(@NonNull final String msg) {
-        log(msg, new LoggingErrorCall());
+    public void errorf(@NonNull final String pattern, @Nullable final Object... args) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.ERROR, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.ERROR, null, pattern, args);
+        }
     }
 
     @Override
-    public void error(@NonNull final String category, @NonNull final String msg) {
-        log(category, msg, new LoggingErrorCall());
+    public void error(@NonNull final Supplier<String> msg) {
+        log(LogLevel.ERROR, null, msg, null);
     }
 
     @Override
-    public void error(@NonNull final String msg, @NonNull final Throwable error) {
-        log(msg, error, new LoggingErrorCall());
+    public void error(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        log(LogLevel.ERROR, category, msg, null);
     }
 
     @Override
-    public void error(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        log(category, msg, error, new LoggingErrorCall());
+    public void error(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.ERROR, null, msg, error);
+    }
+
+    @Override
+    public void error(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.ERROR, category, msg, error);
     }
 
     @Override
     public boolean isErrorEnabled() {
-        return isEnabled(new LoggingErrorCall());
+        return isEnabled(LogLevel.ERROR, null);
     }
 
     @Override
     public boolean isErrorEnabled(@NonNull final String category) {
-        return isEnabled(new LoggingErrorCall(), category);
+        return isEnabled(LogLevel.ERROR, category);
     }
 
     @Override
     public void setErrorEnabled(final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setErrorEnabled(flag);
         }
     }
 
     @Override
     public void setErrorEnabled(@NonNull final String category, final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setErrorEnabled(category, flag);
         }
     }
 
     @Override
     public void warn(@NonNull final String msg) {
-        log(msg, new LoggingWarnCall());
+        log(LogLevel.WARN, null, msg, null);
     }
 
     @Override
     public void warn(@NonNull final String category, @NonNull final String msg) {
-        log(category, msg, new LoggingWarnCall());
+        log(LogLevel.WARN, category, msg, null);
     }
 
     @Override
     public void warn(@NonNull final String msg, @NonNull final Throwable error) {
-        log(msg, error, new LoggingWarnCall());
+        log(LogLevel.WARN, null, msg, error);
     }
 
     @Override
     public void warn(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        log(category, msg, error, new LoggingWarnCall());
+        log(LogLevel.WARN, category, msg, error);
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object arg) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.WARN, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.WARN, null, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.WARN, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.WARN, null, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void warnf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.WARN, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.WARN, null, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void warnf(@NonNull final String pattern, @Nullable final Object... args) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.WARN, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.WARN, null, pattern, args);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull final Supplier<String> msg) {
+        log(LogLevel.WARN, null, msg, null);
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        log(LogLevel.WARN, category, msg, null);
+    }
+
+    @Override
+    public void warn(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.WARN, null, msg, error);
+    }
+
+    @Override
+    public void warn(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.WARN, category, msg, error);
     }
 
     @Override
     public boolean isWarnEnabled() {
-        return isEnabled(new LoggingWarnCall());
+        return isEnabled(LogLevel.WARN, null);
     }
 
     @Override
     public boolean isWarnEnabled(@NonNull final String category) {
-        return isEnabled(new LoggingWarnCall(), category);
+        return isEnabled(LogLevel.WARN, category);
     }
 
     @Override
     public void setWarnEnabled(final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setWarnEnabled(flag);
         }
     }
 
     @Override
     public void setWarnEnabled(@NonNull final String category, final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setWarnEnabled(category, flag);
         }
     }
 
     @Override
     public void info(@NonNull final String msg) {
-        log(msg, new LoggingInfoCall());
+        log(LogLevel.INFO, null, msg, null);
     }
 
     @Override
     public void info(@NonNull final String category, @NonNull final String msg) {
-        log(category, msg, new LoggingInfoCall());
+        log(LogLevel.INFO, category, msg, null);
     }
 
     @Override
     public void info(@NonNull final String msg, @NonNull final Throwable error) {
-        log(msg, error, new LoggingInfoCall());
+        log(LogLevel.INFO, null, msg, error);
     }
 
     @Override
     public void info(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        log(category, msg, error, new LoggingInfoCall());
+        log(LogLevel.INFO, category, msg, error);
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object arg) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.INFO, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.INFO, null, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.INFO, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.INFO, null, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void infof(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.INFO, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.INFO, null, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void infof(@NonNull final String pattern, @Nullable final Object... args) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.INFO, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.INFO, null, pattern, args);
+        }
+    }
+
+    @Override
+    public void info(@NonNull final Supplier<String> msg) {
+        log(LogLevel.INFO, null, msg, null);
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        log(LogLevel.INFO, category, msg, null);
+    }
+
+    @Override
+    public void info(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.INFO, null, msg, error);
+    }
+
+    @Override
+    public void info(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.INFO, category, msg, error);
     }
 
     @Override
     public boolean isInfoEnabled() {
-        return isEnabled(new LoggingInfoCall());
+        return isEnabled(LogLevel.INFO, null);
     }
 
     @Override
     public boolean isInfoEnabled(@NonNull final String category) {
-        return isEnabled(new LoggingInfoCall(), category);
+        return isEnabled(LogLevel.INFO, category);
     }
 
     @Override
     public void setInfoEnabled(final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setInfoEnabled(flag);
         }
     }
 
     @Override
     public void setInfoEnabled(@NonNull final String category, final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setInfoEnabled(category, flag);
         }
     }
 
     @Override
     public void debug(@NonNull final String msg) {
-        log(msg, new LoggingDebugCall());
+        log(LogLevel.DEBUG, null, msg, null);
     }
 
     @Override
     public void debug(@NonNull final String category, @NonNull final String msg) {
-        log(category, msg, new LoggingDebugCall());
+        log(LogLevel.DEBUG, category, msg, null);
     }
 
     @Override
     public void debug(@NonNull final String msg, @NonNull final Throwable error) {
-        log(msg, error, new LoggingDebugCall());
+        log(LogLevel.DEBUG, null, msg, error);
     }
 
     @Override
     public void debug(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        log(category, msg, error, new LoggingDebugCall());
+        log(LogLevel.DEBUG, category, msg, error);
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object arg) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.DEBUG, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.DEBUG, null, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.DEBUG, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.DEBUG, null, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void debugf(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.DEBUG, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.DEBUG, null, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void debugf(@NonNull final String pattern, @Nullable final Object... args) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.DEBUG, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.DEBUG, null, pattern, args);
+        }
+    }
+
+    @Override
+    public void debug(@NonNull final Supplier<String> msg) {
+        log(LogLevel.DEBUG, null, msg, null);
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        log(LogLevel.DEBUG, category, msg, null);
+    }
+
+    @Override
+    public void debug(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.DEBUG, null, msg, error);
+    }
+
+    @Override
+    public void debug(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.DEBUG, category, msg, error);
     }
 
     @Override
     public boolean isDebugEnabled() {
-        return isEnabled(new LoggingDebugCall());
+        return isEnabled(LogLevel.DEBUG, null);
     }
 
     @Override
     public boolean isDebugEnabled(@NonNull final String category) {
-        return isEnabled(new LoggingDebugCall(), category);
+        return isEnabled(LogLevel.DEBUG, category);
     }
 
     @Override
     public void setDebugEnabled(final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setDebugEnabled(flag);
         }
     }
 
     @Override
     public void setDebugEnabled(@NonNull final String category, final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setDebugEnabled(category, flag);
         }
     }
 
     @Override
     public void trace(@NonNull final String msg) {
-        log(msg, new LoggingTraceCall());
+        log(LogLevel.TRACE, null, msg, null);
     }
 
     @Override
     public void trace(@NonNull final String category, @NonNull final String msg) {
-        log(category, msg, new LoggingTraceCall());
+        log(LogLevel.TRACE, category, msg, null);
     }
 
     @Override
     public void trace(@NonNull final String msg, @NonNull final Throwable error) {
-        log(msg, error, new LoggingTraceCall());
+        log(LogLevel.TRACE, null, msg, error);
     }
 
     @Override
     public void trace(@NonNull final String category, @NonNull final String msg, @NonNull final Throwable error) {
-        log(category, msg, error, new LoggingTraceCall());
+        log(LogLevel.TRACE, category, msg, error);
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object arg) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.TRACE, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.TRACE, null, pattern, new Object[] { arg });
+        }
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.TRACE, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.TRACE, null, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    @Override
+    public void tracef(
+        @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2, @Nullable final Object arg3) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.TRACE, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.TRACE, null, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    @Override
+    public void tracef(@NonNull final String pattern, @Nullable final Object... args) {
+        @NonNull final LoggingAdapter[] preferredAdapters = immutableGetPreferredAdapters();
+        final int firstEnabled = findFirstEnabled(preferredAdapters, LogLevel.TRACE, null);
+
+        if (firstEnabled >= 0) {
+            logFormatted(preferredAdapters, firstEnabled, LogLevel.TRACE, null, pattern, args);
+        }
+    }
+
+    @Override
+    public void trace(@NonNull final Supplier<String> msg) {
+        log(LogLevel.TRACE, null, msg, null);
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final Supplier<String> msg) {
+        log(LogLevel.TRACE, category, msg, null);
+    }
+
+    @Override
+    public void trace(@NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.TRACE, null, msg, error);
+    }
+
+    @Override
+    public void trace(@NonNull final String category, @NonNull final Supplier<String> msg, @NonNull final Throwable error) {
+        log(LogLevel.TRACE, category, msg, error);
     }
 
     @Override
     public boolean isTraceEnabled() {
-        return isEnabled(new LoggingTraceCall());
+        return isEnabled(LogLevel.TRACE, null);
     }
 
     @Override
     public boolean isTraceEnabled(@NonNull final String category) {
-        return isEnabled(new LoggingTraceCall(), category);
+        return isEnabled(LogLevel.TRACE, category);
     }
 
     @Override
     public void setTraceEnabled(final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setTraceEnabled(flag);
         }
     }
 
     @Override
     public void setTraceEnabled(@NonNull final String category, final boolean flag) {
-        for (@NonNull final LoggingAdapter preferred: getPreferred()) {
+        for (@NonNull final LoggingAdapter preferred : immutableGetPreferredAdapters()) {
             preferred.setTraceEnabled(category, flag);
         }
     }
@@ -0,0 +1,327 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.adapter.LogEvent;
+import es.osoco.logging.adapter.LoggingAdapter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A {@link CompositeLogging} delivering each event to its preferred adapters in parallel, each one
+ * in its own {@link LoggingLane}, so that a slow adapter delays neither the others nor the caller.</p>
+ * <p>Each adapter receives the events in the order they were logged. Once all preferred adapters
+ * are done with an event, it's delivered to the fallback adapters, through their own lanes, if any
+ * of the former failed, or was skipped because its {@link CircuitBreaker} is open.</p>
+ */
+public class FanOutCompositeLogging
+    extends CompositeLogging {
+
+    /**
+     * The lanes of the preferred adapters, along with the adapters they were created for.
+     */
+    @Nullable
+    private volatile Lanes preferredLanes;
+
+    /**
+     * The lanes of the fallback adapters, along with the adapters they were created for.
+     */
+    @Nullable
+    private volatile Lanes fallbackLanes;
+
+    /**
+     * Creates a new composite logging.
+     * @param preferred the preferred adapters.
+     * @param fallback the fallback adapters.
+     */
+    public FanOutCompositeLogging(
+        @NonNull final List<LoggingAdapter> preferred, @NonNull final List<LoggingAdapter> fallback) {
+        super(preferred, fallback);
+    }
+
+    /**
+     * Hands a copy of given event over to the lanes of the preferred adapters enabled for it.
+     * Those whose circuit is open are skipped, as if they had failed.
+     * @param event the event.
+     * @param preferredAdapters the preferred adapters.
+     * @param firstEnabled the index of the first preferred adapter known to be enabled, or {@link #NONE_CHECKED}.
+     */
+    @Override
+    protected void dispatch(
+        @NonNull final LogEvent event, @NonNull final LoggingAdapter[] preferredAdapters, final int firstEnabled) {
+        @NonNull final LoggingLane[] lanes = immutableGetPreferredLanes();
+        @NonNull final CircuitBreaker[] breakers = immutableGetPreferredBreakers();
+
+        if (lanes.length == 0) {
+            super.dispatch(event, preferredAdapters, firstEnabled);
+        } else {
+            @Nullable final String category = event.getExplicitCategory();
+
+            @NonNull final boolean[] allowed = new boolean[lanes.length];
+            int enabledCount = 0;
+            int allowedCount = 0;
+
+            for (int index = Math.max(0, firstEnabled); index < lanes.length; index++) {
+                if (index == firstEnabled || isEnabledOrFailing(lanes[index].getAdapter(), event.getLevel(), category)) {
+                    enabledCount++;
+                    allowed[index] = breakers[index] == null || breakers[index].allowsCall();
+                    if (allowed[index]) {
+                        allowedCount++;
+                    }
+                }
+            }
+
+            if (allowedCount == 0 && enabledCount > 0) {
+                dispatchToFallback(copyOf(event));
+            } else if (allowedCount > 0) {
+                @NonNull final PreferredDelivery delivery =
+                    new PreferredDelivery(copyOf(event), lanes, breakers, allowedCount, allowedCount < enabledCount);
+
+                for (int index = 0; index < lanes.length; index++) {
+                    if (allowed[index]) {
+                        lanes[index].submit(delivery);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies given event so that it outlives the logging call, resolving what needs the logging thread.
+     * @param event the event.
+     * @return the copy.
+     */
+    @NonNull
+    protected LogEvent copyOf(@NonNull final LogEvent event) {
+        @NonNull final LogEvent result = event.copy();
+
+        result.getCategoryPrefix();
+
+        return result;
+    }
+
+    /**
+     * Hands given event over to the lanes of the fallback adapters.
+     * @param event the event.
+     */
+    protected void dispatchToFallback(@NonNull final LogEvent event) {
+        @NonNull final LoggingLane[] lanes = immutableGetFallbackLanes();
+
+        if (lanes.length > 0) {
+            @NonNull final FallbackDelivery delivery = new FallbackDelivery(event);
+
+            for (int index = 0; index < lanes.length; index++) {
+                lanes[index].submitOrDeliver(delivery);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the lanes of the preferred adapters.
+     * @return such lanes.
+     */
+    @NonNull
+    protected final LoggingLane[] immutableGetPreferredLanes() {
+        @NonNull final LoggingAdapter[] adapters = immutableGetPreferredAdapters();
+        @Nullable Lanes result = this.preferredLanes;
+
+        if (result == null || result.adapters != adapters) {
+            result = new Lanes(adapters);
+            this.preferredLanes = result;
+        }
+
+        return result.lanes;
+    }
+
+    /**
+     * Retrieves the lanes of the fallback adapters.
+     * @return such lanes.
+     */
+    @NonNull
+    protected final LoggingLane[] immutableGetFallbackLanes() {
+        @NonNull final LoggingAdapter[] adapters = immutableGetFallbackAdapters();
+        @Nullable Lanes result = this.fallbackLanes;
+
+        if (result == null || result.adapters != adapters) {
+            result = new Lanes(adapters);
+            this.fallbackLanes = result;
+        }
+
+        return result.lanes;
+    }
+
+    /**
+     * The lanes of some adapters.
+     */
+    protected static final class Lanes {
+        /**
+         * The adapters.
+         */
+        @NonNull
+        private final LoggingAdapter[] adapters;
+
+        /**
+         * Their lanes.
+         */
+        @NonNull
+        private final LoggingLane[] lanes;
+
+        /**
+         * Retrieves the lanes of given adapters.
+         * @param adapters the adapters.
+         */
+        protected Lanes(@NonNull final LoggingAdapter[] adapters) {
+            this.adapters = adapters;
+            this.lanes = new LoggingLane[adapters.length];
+            for (int index = 0; index < adapters.length; index++) {
+                this.lanes[index] = LoggingLanes.getInstance().getLane(adapters[index]);
+            }
+        }
+    }
+
+    /**
+     * The delivery of an event to the preferred adapters. The last one to finish decides
+     * whether the fallback adapters get it as well.
+     */
+    protected class PreferredDelivery
+        implements LoggingLane.Delivery {
+        /**
+         * The event.
+         */
+        @NonNull
+        private final LogEvent event;
+
+        /**
+         * How many adapters haven't finished yet.
+         */
+        @NonNull
+        private final AtomicInteger remaining;
+
+        /**
+         * The lanes of the preferred adapters.
+         */
+        @NonNull
+        private final LoggingLane[] lanes;
+
+        /**
+         * Their circuit breakers, in the same order.
+         */
+        @NonNull
+        private final CircuitBreaker[] breakers;
+
+        /**
+         * Whether any adapter failed, or was skipped.
+         */
+        private volatile boolean failed;
+
+        /**
+         * Creates a new delivery.
+         * @param event the event.
+         * @param lanes the lanes of the preferred adapters.
+         * @param breakers their circuit breakers.
+         * @param adapters how many adapters it's delivered to.
+         * @param skipped whether some adapters were skipped.
+         */
+        protected PreferredDelivery(
+            @NonNull final LogEvent event,
+            @NonNull final LoggingLane[] lanes,
+            @NonNull final CircuitBreaker[] breakers,
+            final int adapters,
+            final boolean skipped) {
+            this.event = event;
+            this.lanes = lanes;
+            this.breakers = breakers;
+            this.remaining = new AtomicInteger(adapters);
+            this.failed = skipped;
+        }
+
+        @Override
+        @NonNull
+        public LogEvent getEvent() {
+            return this.event;
+        }
+
+        @Override
+        public void completed(@NonNull final LoggingLane lane, final boolean logged) {
+            @Nullable final CircuitBreaker breaker = findBreaker(lane);
+
+            if (breaker != null) {
+                if (logged) {
+                    breaker.recordSuccess();
+                } else {
+                    breaker.recordFailure();
+                }
+            }
+            if (!logged) {
+                this.failed = true;
+            }
+            if (this.remaining.decrementAndGet() == 0 && this.failed) {
+                dispatchToFallback(this.event);
+            }
+        }
+
+        /**
+         * Finds the circuit breaker of the adapter of given lane.
+         * @param lane the lane.
+         * @return such circuit breaker, if enabled.
+         */
+        @Nullable
+        protected CircuitBreaker findBreaker(@NonNull final LoggingLane lane) {
+            @Nullable CircuitBreaker result = null;
+
+            for (int index = 0; index < this.lanes.length; index++) {
+                if (this.lanes[index] == lane) {
+                    result = this.breakers[index];
+                    break;
+                }
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * The delivery of an event to the fallback adapters, whose failures are ignored.
+     */
+    protected static class FallbackDelivery
+        implements LoggingLane.Delivery {
+        /**
+         * The event.
+         */
+        @NonNull
+        private final LogEvent event;
+
+        /**
+         * Creates a new delivery.
+         * @param event the event.
+         */
+        protected FallbackDelivery(@NonNull final LogEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        @NonNull
+        public LogEvent getEvent() {
+            return this.event;
+        }
+
+        @Override
+        public void completed(@NonNull final LoggingLane lane, final boolean logged) {
+        }
+    }
+}
@@ -14,13 +14,23 @@
 */
 package es.osoco.logging.impl;
 
+import es.osoco.logging.adapter.LogLevel;
 import es.osoco.logging.adapter.LoggingAdapter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 /**
  * Function implementations to delegate calls to given adapters.
+ * @deprecated {@link CompositeLogging} dispatches by {@link LogLevel} instead.
  */
+@Deprecated
 public interface LoggingCall {
+    /**
+     * Retrieves the level this function logs at.
+     * @return such level.
+     */
+    @NonNull
+    LogLevel getLevel();
+
     /**
      * Delegates the logging operation on given adapter.
      * @param adapter the adapter.
@@ -14,6 +14,7 @@
 */
 package es.osoco.logging.impl;
 
+import es.osoco.logging.adapter.LogLevel;
 import es.osoco.logging.adapter.LoggingAdapter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -22,12 +23,20 @@ import lombok.ToString;
 
 /**
  * Calls #error(msg) and #isErrorEnabled() on a given adapter.
+ * @deprecated {@link CompositeLogging} dispatches by {@link LogLevel} instead.
  */
+@Deprecated
 @EqualsAndHashCode
 @ToString
 public class LoggingErrorCall
     implements LoggingCall {
 
+    @Override
+    @NonNull
+    public LogLevel getLevel() {
+        return LogLevel.ERROR;
+    }
+
     @Override
     public void log(@NonNull final LoggingAdapter adapter, @NonNull final String msg) {
         adapter.error(msg);
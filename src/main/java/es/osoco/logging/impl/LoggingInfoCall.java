@@ -14,6 +14,8 @@
 */
 package es.osoco.logging.impl;
 
+import es.osoco.logging.adapter.LogLevel;
+import es.osoco.logging.adapter.LogLevel;
 import es.osoco.logging.adapter.LoggingAdapter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -22,12 +24,20 @@ import lombok.ToString;
 
 /**
  * Calls #info(msg) and #isInfoEnabled() on a given adapter.
+ * @deprecated {@link CompositeLogging} dispatches by {@link LogLevel} instead.
  */
+@Deprecated
 @EqualsAndHashCode
 @ToString
 public class LoggingInfoCall
    implements LoggingCall {
 
+    @Override
+    @NonNull
+    public LogLevel getLevel() {
+        return LogLevel.INFO;
+    }
+
     @Override
     public void log(@NonNull final LoggingAdapter adapter, @NonNull final String msg) {
         adapter.info(msg);
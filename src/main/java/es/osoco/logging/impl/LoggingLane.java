@@ -0,0 +1,207 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.adapter.LogEvent;
+import es.osoco.logging.adapter.LoggingAdapter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.ToString;
+
+/**
+ * <p>Delivers events to a single {@link LoggingAdapter}, one at a time and in order, borrowing threads
+ * from a shared {@link Executor}.</p>
+ * <p>Pending deliveries wait in a bounded queue; submitting waits while it's full. At most one thread
+ * drains the queue at any time, and gives it back after {@link #MAX_DELIVERIES_PER_DRAIN} deliveries,
+ * so that lanes share bounded pools fairly.</p>
+ */
+@ToString(of = "adapter")
+public class LoggingLane {
+
+    /**
+     * How many events a thread delivers before giving the lane back to the executor.
+     */
+    public static final int MAX_DELIVERIES_PER_DRAIN = 256;
+
+    /**
+     * A delivery of an event, which learns whether the adapter logged it.
+     */
+    public interface Delivery {
+        /**
+         * Retrieves the event to deliver.
+         * @return such event, which is not reused afterwards.
+         */
+        @NonNull
+        LogEvent getEvent();
+
+        /**
+         * Called once the adapter is done with the event.
+         * @param lane the lane.
+         * @param logged {@code false} if the adapter failed.
+         */
+        void completed(@NonNull LoggingLane lane, boolean logged);
+    }
+
+    /**
+     * The adapter.
+     */
+    @NonNull
+    private final LoggingAdapter adapter;
+
+    /**
+     * The executor lending the threads.
+     */
+    @NonNull
+    private final Executor executor;
+
+    /**
+     * The pending deliveries.
+     */
+    @NonNull
+    private final BlockingQueue<Delivery> pending;
+
+    /**
+     * Whether some thread is draining, or about to drain, the queue.
+     */
+    @NonNull
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * Creates a new lane.
+     * @param adapter the adapter.
+     * @param executor the executor lending the threads.
+     * @param capacity how many deliveries can be pending.
+     */
+    public LoggingLane(@NonNull final LoggingAdapter adapter, @NonNull final Executor executor, final int capacity) {
+        this.adapter = adapter;
+        this.executor = executor;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Retrieves the adapter.
+     * @return such adapter.
+     */
+    @NonNull
+    public LoggingAdapter getAdapter() {
+        return this.adapter;
+    }
+
+    /**
+     * Retrieves how many deliveries are pending.
+     * @return such number.
+     */
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Checks whether all deliveries submitted so far are done.
+     * @return {@code true} in such case.
+     */
+    public boolean isIdle() {
+        return this.pending.isEmpty() && !this.scheduled.get();
+    }
+
+    /**
+     * Queues given delivery, waiting for room if necessary.
+     * If interrupted meanwhile, the delivery happens in the calling thread.
+     * @param delivery the delivery.
+     */
+    public void submit(@NonNull final Delivery delivery) {
+        boolean queued = this.pending.offer(delivery);
+
+        if (!queued) {
+            try {
+                this.pending.put(delivery);
+                queued = true;
+            } catch (@NonNull final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (queued) {
+            schedule();
+        } else {
+            deliver(delivery);
+        }
+    }
+
+    /**
+     * Queues given delivery if there's room, or delivers it in the calling thread otherwise.
+     * Lanes use it to hand events over to other lanes without waiting for each other.
+     * @param delivery the delivery.
+     */
+    public void submitOrDeliver(@NonNull final Delivery delivery) {
+        if (this.pending.offer(delivery)) {
+            schedule();
+        } else {
+            deliver(delivery);
+        }
+    }
+
+    /**
+     * Asks the executor for a thread to drain the queue, unless one is already on it.
+     */
+    protected void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Delivers pending events, and hands the lane back to the executor.
+     */
+    protected void drain() {
+        int delivered = 0;
+
+        @Nullable Delivery delivery = this.pending.poll();
+
+        while (delivery != null) {
+            deliver(delivery);
+            delivered++;
+            delivery = (delivered < MAX_DELIVERIES_PER_DRAIN) ? this.pending.poll() : null;
+        }
+
+        this.scheduled.set(false);
+
+        if (!this.pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Logs the event of given delivery, and tells it the outcome.
+     * @param delivery the delivery.
+     */
+    protected void deliver(@NonNull final Delivery delivery) {
+        boolean logged;
+
+        try {
+            this.adapter.log(delivery.getEvent());
+            logged = true;
+        } catch (final Throwable unexpected) {
+            logged = false;
+        }
+
+        delivery.completed(this, logged);
+    }
+}
@@ -0,0 +1,291 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.helper.EnvironmentHelper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Keeps a {@link LoggingLane} per adapter, so that all {@link FanOutCompositeLogging} instances
+ * sharing an adapter deliver to it in order.</p>
+ * <p>Lanes borrow virtual threads on Java 21 or newer, and threads from a bounded pool of daemon threads
+ * otherwise. Fan-out is enabled by either "logging.fanout" property or "LOGGING_FANOUT" environment variable;
+ * "logging.fanout.threads" / "LOGGING_FANOUT_THREADS" sets the size of the pool, and
+ * "logging.fanout.lane.capacity" / "LOGGING_FANOUT_LANE_CAPACITY" how many events each lane can hold.</p>
+ */
+public class LoggingLanes {
+
+    /**
+     * The property to enable fan-out.
+     */
+    @NonNull
+    public static final String LOGGING_FANOUT_PROPERTY = "logging.fanout";
+
+    /**
+     * The environment variable to enable fan-out.
+     */
+    @NonNull
+    public static final String LOGGING_FANOUT_ENVVAR = "LOGGING_FANOUT";
+
+    /**
+     * Fan-out is disabled by default.
+     */
+    public static final boolean DEFAULT_LOGGING_FANOUT = false;
+
+    /**
+     * The property with the size of the pool, when virtual threads are not available.
+     */
+    @NonNull
+    public static final String LOGGING_FANOUT_THREADS_PROPERTY = "logging.fanout.threads";
+
+    /**
+     * The environment variable with the size of the pool, when virtual threads are not available.
+     */
+    @NonNull
+    public static final String LOGGING_FANOUT_THREADS_ENVVAR = "LOGGING_FANOUT_THREADS";
+
+    /**
+     * The default size of the pool.
+     */
+    public static final int DEFAULT_LOGGING_FANOUT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The property with how many events each lane can hold.
+     */
+    @NonNull
+    public static final String LOGGING_FANOUT_LANE_CAPACITY_PROPERTY = "logging.fanout.lane.capacity";
+
+    /**
+     * The environment variable with how many events each lane can hold.
+     */
+    @NonNull
+    public static final String LOGGING_FANOUT_LANE_CAPACITY_ENVVAR = "LOGGING_FANOUT_LANE_CAPACITY";
+
+    /**
+     * The default number of events each lane can hold.
+     */
+    public static final int DEFAULT_LOGGING_FANOUT_LANE_CAPACITY = 8192;
+
+    /**
+     * The longest the pending events are waited for when the JVM shuts down, in milliseconds.
+     */
+    public static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class LoggingLanesSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final LoggingLanes SINGLETON = new LoggingLanes();
+    }
+
+    /**
+     * The lanes, per adapter instance.
+     */
+    @NonNull
+    private final Map<LoggingAdapter, LoggingLane> lanes = new IdentityHashMap<>();
+
+    /**
+     * The executor lending the threads, created when the first lane is.
+     */
+    @Nullable
+    private ExecutorService executor;
+
+    /**
+     * Default constructor to avoid public instantiation.
+     */
+    protected LoggingLanes() {
+    }
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static LoggingLanes getInstance() {
+        return LoggingLanesSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Checks whether fan-out is enabled.
+     * @return {@code true} in such case.
+     */
+    public boolean isFanOutEnabled() {
+        return
+            EnvironmentHelper.getInstance().retrieveBooleanFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_FANOUT_PROPERTY, LOGGING_FANOUT_ENVVAR, DEFAULT_LOGGING_FANOUT);
+    }
+
+    /**
+     * Retrieves the lane of given adapter, creating it if necessary.
+     * @param adapter the adapter.
+     * @return such lane.
+     */
+    @NonNull
+    public synchronized LoggingLane getLane(@NonNull final LoggingAdapter adapter) {
+        @Nullable LoggingLane result = this.lanes.get(adapter);
+
+        if (result == null) {
+            result = new LoggingLane(adapter, getExecutor(), retrieveLaneCapacity());
+            this.lanes.put(adapter, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Forgets the lanes created so far. Whoever uses them can keep doing so.
+     */
+    public synchronized void clear() {
+        this.lanes.clear();
+    }
+
+    /**
+     * Waits until all lanes are done with the events submitted so far.
+     * @param timeoutMillis the longest to wait, in milliseconds.
+     * @return {@code false} if some events are still pending.
+     */
+    public boolean awaitIdle(final long timeoutMillis) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        boolean result = isIdle();
+
+        while (!result && System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(1L);
+            } catch (@NonNull final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            result = isIdle();
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether all lanes are done with the events submitted so far.
+     * @return {@code true} in such case.
+     */
+    protected synchronized boolean isIdle() {
+        boolean result = true;
+
+        for (@NonNull final LoggingLane lane : this.lanes.values()) {
+            if (!lane.isIdle()) {
+                result = false;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the executor, creating it if necessary.
+     * @return such executor.
+     */
+    @NonNull
+    protected synchronized ExecutorService getExecutor() {
+        @Nullable ExecutorService result = this.executor;
+
+        if (result == null) {
+            result = createVirtualThreadExecutor();
+            if (result == null) {
+                result = createBoundedExecutor(retrieveThreads());
+            }
+            this.executor = result;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitIdle(SHUTDOWN_TIMEOUT_MILLIS)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, if the JVM supports them.
+     * @return such executor, or {@code null} before Java 21.
+     */
+    @Nullable
+    protected ExecutorService createVirtualThreadExecutor() {
+        @Nullable ExecutorService result;
+
+        try {
+            result =
+                (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (@NonNull final ReflectiveOperationException | RuntimeException unsupported) {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a pool of daemon threads.
+     * @param threads the size of the pool.
+     * @return such executor.
+     */
+    @NonNull
+    protected ExecutorService createBoundedExecutor(final int threads) {
+        @NonNull final AtomicInteger count = new AtomicInteger();
+        @NonNull final ThreadFactory factory =
+            runnable -> {
+                @NonNull final Thread thread = new Thread(runnable, "java-logging-lane-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        @NonNull final ThreadPoolExecutor result =
+            new ThreadPoolExecutor(
+                Math.max(1, threads), Math.max(1, threads), 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        result.allowCoreThreadTimeOut(true);
+
+        return result;
+    }
+
+    /**
+     * Retrieves the size of the pool.
+     * @return such size.
+     */
+    public int retrieveThreads() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_FANOUT_THREADS_PROPERTY, LOGGING_FANOUT_THREADS_ENVVAR, DEFAULT_LOGGING_FANOUT_THREADS);
+    }
+
+    /**
+     * Retrieves how many events each lane can hold.
+     * @return such number.
+     */
+    public int retrieveLaneCapacity() {
+        return
+            EnvironmentHelper.getInstance().retrieveIntFromSystemPropertyOrEnvironmentVariableOrElse(
+                LOGGING_FANOUT_LANE_CAPACITY_PROPERTY,
+                LOGGING_FANOUT_LANE_CAPACITY_ENVVAR,
+                DEFAULT_LOGGING_FANOUT_LANE_CAPACITY);
+    }
+}
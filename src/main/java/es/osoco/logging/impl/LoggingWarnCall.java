@@ -14,6 +14,7 @@
 */
 package es.osoco.logging.impl;
 
+import es.osoco.logging.adapter.LogLevel;
 import es.osoco.logging.adapter.LoggingAdapter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -22,12 +23,20 @@ import lombok.ToString;
 
 /**
  * Calls #warn(msg) and #isWarnEnabled() on a given adapter.
+ * @deprecated {@link CompositeLogging} dispatches by {@link LogLevel} instead.
  */
+@Deprecated
 @EqualsAndHashCode
 @ToString
 public class LoggingWarnCall
     implements LoggingCall {
 
+    @Override
+    @NonNull
+    public LogLevel getLevel() {
+        return LogLevel.WARN;
+    }
+
     @Override
     public void log(@NonNull final LoggingAdapter adapter, @NonNull final String msg) {
         adapter.warn(msg);
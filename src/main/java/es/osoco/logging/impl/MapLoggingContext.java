@@ -0,0 +1,75 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.LoggingContext;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A {@link LoggingContext} backed by a plain map, such as the snapshots of {@link ThreadLocalLoggingContext}s.
+ * Its values are not bound to any thread.
+ */
+@ToString
+@EqualsAndHashCode
+public class MapLoggingContext
+    implements LoggingContext {
+
+    /**
+     * The underlying map.
+     */
+    @NonNull
+    private final Map<String, Object> map;
+
+    /**
+     * Creates a context with given values.
+     * @param map the values (the map is not copied).
+     */
+    public MapLoggingContext(@NonNull final Map<String, Object> map) {
+        this.map = map;
+    }
+
+    /**
+     * Retrieves the map.
+     * @return such collection.
+     */
+    @NonNull
+    protected final Map<String, Object> immutableGetMap() {
+        return this.map;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> T get(@NonNull final String key) {
+        return (T) immutableGetMap().get(key);
+    }
+
+    @Override
+    public <T> void put(@NonNull final String key, @Nullable final T value) {
+        if (key != null) {
+            if (value == null) {
+                immutableGetMap().remove(key);
+            } else {
+                immutableGetMap().put(key, value);
+            }
+        }
+    }
+}
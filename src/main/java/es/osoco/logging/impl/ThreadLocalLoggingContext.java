@@ -84,4 +84,14 @@ public class ThreadLocalLoggingContext
             }
         }
     }
+
+    /**
+     * Retrieves a copy of the values stored by the current thread.
+     * @return such copy.
+     */
+    @Override
+    @NonNull
+    public LoggingContext snapshot() {
+        return new MapLoggingContext(new HashMap<>(immutableGetMap()));
+    }
 }
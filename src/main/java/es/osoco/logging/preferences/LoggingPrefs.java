@@ -14,6 +14,7 @@
 */
 package es.osoco.logging.preferences;
 
+import es.osoco.logging.annotations.LoggingPreferences;
 import es.osoco.logging.helper.EnvironmentHelper;
 import io.github.lukehutch.fastclasspathscanner.FastClasspathScanner;
 import io.github.lukehutch.fastclasspathscanner.matchprocessor.ClassAnnotationMatchProcessor;
@@ -27,6 +28,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -42,6 +45,11 @@ import lombok.ToString;
  * environment variable.</p>
  * <p>Notice the default preferred and default fallback mechanisms are used also when
  * no annotations are available in the Thread's stack trace.</p>
+ * <p>Alternatively, when "logging.preferences.resolution" property or "LOGGING_PREFERENCES_RESOLUTION"
+ * environment variable is set to "scoped", I won't look at the stack trace at all: entry points
+ * declare their preferences explicitly with {@link #enter(Class)}, {@link #enter(Method)} or the
+ * {@code runWithin} / {@code callWithin} wrappers, and I just look at the innermost scope of the current thread.</p>
+ * <p>Properties and environment variables are read once. Use {@link #refresh()} to read them again.</p>
  */
 public class LoggingPrefs {
 
@@ -96,6 +104,64 @@ public class LoggingPrefs {
     public static final String DEFAULT_FALLBACK_LOGGING_ENVVAR =
         "DEFAULT_FALLBACK_LOGGING";
 
+    /**
+     * The property to choose how preferences are resolved.
+     */
+    public static final String LOGGING_PREFERENCES_RESOLUTION_PROPERTY =
+        "logging.preferences.resolution";
+
+    /**
+     * The environment variable to choose how preferences are resolved.
+     */
+    public static final String LOGGING_PREFERENCES_RESOLUTION_ENVVAR =
+        "LOGGING_PREFERENCES_RESOLUTION";
+
+    /**
+     * The default preferences resolution.
+     */
+    public static final PreferencesResolution DEFAULT_LOGGING_PREFERENCES_RESOLUTION = PreferencesResolution.STACK_TRACE;
+
+    /**
+     * The annotations of each class, retrieved once.
+     */
+    protected static final ClassValue<Optional<LoggingPreferences>> CLASS_ANNOTATIONS =
+        new ClassValue<Optional<LoggingPreferences>>() {
+            @Override
+            @NonNull
+            protected Optional<LoggingPreferences> computeValue(@NonNull final Class<?> type) {
+                return Optional.ofNullable(type.getAnnotation(LoggingPreferences.class));
+            }
+        };
+
+    /**
+     * The innermost scope of each thread.
+     */
+    @NonNull
+    private final ThreadLocal<Scope> scopes = new ThreadLocal<>();
+
+    /**
+     * Whether logging annotations are discovered automatically, as read from the environment.
+     */
+    private volatile boolean discoverLoggingAnnotations;
+
+    /**
+     * The default preferred logging, as read from the environment.
+     */
+    @NonNull
+    private volatile String[] defaultPreferred = DEFAULT_PREFERRED;
+
+    /**
+     * The default fallback logging, as read from the environment.
+     */
+    @NonNull
+    private volatile String[] defaultFallback = DEFAULT_FALLBACK;
+
+    /**
+     * The preferences resolution, as read from the environment.
+     */
+    @NonNull
+    private volatile PreferencesResolution resolution = DEFAULT_LOGGING_PREFERENCES_RESOLUTION;
+
     /**
      * The discovered per-class preferred logging.
      */
@@ -130,9 +196,20 @@ public class LoggingPrefs {
      * Creates a new instance.
      */
     protected LoggingPrefs() {
+        refresh();
         discoverLoggingAnnotations();
     }
 
+    /**
+     * Reads the properties and environment variables again.
+     */
+    public void refresh() {
+        this.discoverLoggingAnnotations = retrieveDiscoverLoggingAnnotationsEnabled();
+        this.defaultPreferred = retrieveDefaultPreferred();
+        this.defaultFallback = retrieveDefaultFallback();
+        this.resolution = retrieveResolution();
+    }
+
     /**
      * Retrieves the singleton instance.
      * @return such instance.
@@ -196,6 +273,14 @@ public class LoggingPrefs {
      * @return {@code true} in such case.
      */
     protected boolean discoverLoggingAnnotationsEnabled() {
+        return this.discoverLoggingAnnotations;
+    }
+
+    /**
+     * Reads whether we are allowed to automatically discover the logging annotations.
+     * @return {@code true} in such case.
+     */
+    protected boolean retrieveDiscoverLoggingAnnotationsEnabled() {
         return
             EnvironmentHelper.getInstance().retrieveBooleanFromSystemPropertyOrEnvironmentVariableOrElse(
                 AUTOMATICALLY_DISCOVER_LOGGING_ANNOTATIONS_PROPERTY,
@@ -209,6 +294,15 @@ public class LoggingPrefs {
      */
     @NonNull
     protected String[] getDefaultPreferred() {
+        return this.defaultPreferred;
+    }
+
+    /**
+     * Reads the default preferred mechanism.
+     * @return such mechanism.
+     */
+    @NonNull
+    protected String[] retrieveDefaultPreferred() {
         return
             EnvironmentHelper.getInstance().retrieveStringArrayFromSystemPropertyOrEnvironmentVariableOrElse(
                 DEFAULT_PREFERRED_LOGGING_PROPERTY,
@@ -222,6 +316,15 @@ public class LoggingPrefs {
      */
     @NonNull
     protected String[] getDefaultFallback() {
+        return this.defaultFallback;
+    }
+
+    /**
+     * Reads the default fallback mechanism.
+     * @return such mechanism.
+     */
+    @NonNull
+    protected String[] retrieveDefaultFallback() {
         return
             EnvironmentHelper.getInstance().retrieveStringArrayFromSystemPropertyOrEnvironmentVariableOrElse(
                 DEFAULT_FALLBACK_LOGGING_PROPERTY,
@@ -229,6 +332,30 @@ public class LoggingPrefs {
                 DEFAULT_FALLBACK);
     }
 
+    /**
+     * Retrieves the preferences resolution.
+     * @return such mode.
+     */
+    @NonNull
+    public PreferencesResolution getResolution() {
+        return this.resolution;
+    }
+
+    /**
+     * Reads the preferences resolution.
+     * @return such mode.
+     */
+    @NonNull
+    protected PreferencesResolution retrieveResolution() {
+        return
+            PreferencesResolution.fromValue(
+                EnvironmentHelper.getInstance().retrieveStringFromSystemPropertyOrEnvironmentVariableOrElse(
+                    LOGGING_PREFERENCES_RESOLUTION_PROPERTY,
+                    LOGGING_PREFERENCES_RESOLUTION_ENVVAR,
+                    DEFAULT_LOGGING_PREFERENCES_RESOLUTION.getValue()),
+                DEFAULT_LOGGING_PREFERENCES_RESOLUTION);
+    }
+
     /**
      * Retrieves the preferred logging of current context.
      * @return the ordered array of {@link es.osoco.logging.adapter.LoggingAdapterBuilderRegistry} keys.
@@ -240,7 +367,10 @@ public class LoggingPrefs {
 
         @Nullable final String[] aux;
 
-        if (discoverLoggingAnnotationsEnabled()) {
+        if (getResolution() == PreferencesResolution.SCOPED) {
+            @Nullable final Scope scope = this.scopes.get();
+            aux = (scope == null) ? null : scope.getPreferred();
+        } else if (discoverLoggingAnnotationsEnabled()) {
             aux = findPreferred(Thread.currentThread().getStackTrace());
         } else {
             aux = null;
@@ -265,7 +395,10 @@ public class LoggingPrefs {
 
         @Nullable final String[] aux;
 
-        if (discoverLoggingAnnotationsEnabled()) {
+        if (getResolution() == PreferencesResolution.SCOPED) {
+            @Nullable final Scope scope = this.scopes.get();
+            aux = (scope == null) ? null : scope.getFallback();
+        } else if (discoverLoggingAnnotationsEnabled()) {
             aux = findFallback(Thread.currentThread().getStackTrace());
         } else {
             aux = null;
@@ -280,6 +413,136 @@ public class LoggingPrefs {
         return result;
     }
 
+    /**
+     * Enters a scope with the preferences of given class, as declared by its {@link LoggingPreferences} annotation.
+     * If it has none, the preferences of the enclosing scope are kept.
+     * Use it in a try-with-resources block.
+     * @param clazz the class.
+     * @return the scope, to close once the class is done.
+     */
+    @NonNull
+    public Scope enter(@NonNull final Class<?> clazz) {
+        return enter(CLASS_ANNOTATIONS.get(clazz).orElse(null));
+    }
+
+    /**
+     * Enters a scope with the preferences of given method, as declared by its {@link LoggingPreferences} annotation,
+     * or else by the annotation of its class. If none has it, the preferences of the enclosing scope are kept.
+     * Use it in a try-with-resources block.
+     * @param method the method.
+     * @return the scope, to close once the method is done.
+     */
+    @NonNull
+    public Scope enter(@NonNull final Method method) {
+        @Nullable final LoggingPreferences annotation = method.getAnnotation(LoggingPreferences.class);
+
+        return enter((annotation == null) ? CLASS_ANNOTATIONS.get(method.getDeclaringClass()).orElse(null) : annotation);
+    }
+
+    /**
+     * Enters a scope with the preferences of given annotation.
+     * @param annotation the annotation, or {@code null} to keep the preferences of the enclosing scope.
+     * @return the scope.
+     */
+    @NonNull
+    protected Scope enter(@Nullable final LoggingPreferences annotation) {
+        @NonNull final Scope result;
+
+        if (annotation == null) {
+            @Nullable final Scope parent = this.scopes.get();
+            result =
+                enter(
+                    (parent == null) ? getDefaultPreferred() : parent.getPreferred(),
+                    (parent == null) ? getDefaultFallback() : parent.getFallback());
+        } else {
+            result = enter(annotation.preferred(), annotation.fallback());
+        }
+
+        return result;
+    }
+
+    /**
+     * Enters a scope with given preferences.
+     * Use it in a try-with-resources block.
+     * @param preferred the preferred logging keys.
+     * @param fallback the fallback logging keys.
+     * @return the scope, to close once done.
+     */
+    @NonNull
+    public Scope enter(@NonNull final String[] preferred, @NonNull final String[] fallback) {
+        @NonNull final Scope result = new Scope(preferred, fallback, this.scopes.get(), this.scopes);
+        this.scopes.set(result);
+        return result;
+    }
+
+    /**
+     * Runs given task within the scope of given class.
+     * @param clazz the class.
+     * @param task the task.
+     */
+    public void runWithin(@NonNull final Class<?> clazz, @NonNull final Runnable task) {
+        @NonNull final Scope scope = enter(clazz);
+
+        try {
+            task.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Runs given task within the scope of given method.
+     * @param method the method.
+     * @param task the task.
+     */
+    public void runWithin(@NonNull final Method method, @NonNull final Runnable task) {
+        @NonNull final Scope scope = enter(method);
+
+        try {
+            task.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Calls given task within the scope of given class.
+     * @param clazz the class.
+     * @param task the task.
+     * @param <T> the type of the result.
+     * @return the outcome of the task.
+     * @throws Exception if the task fails.
+     */
+    public <T> T callWithin(@NonNull final Class<?> clazz, @NonNull final Callable<T> task)
+        throws Exception {
+        @NonNull final Scope scope = enter(clazz);
+
+        try {
+            return task.call();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Calls given task within the scope of given method.
+     * @param method the method.
+     * @param task the task.
+     * @param <T> the type of the result.
+     * @return the outcome of the task.
+     * @throws Exception if the task fails.
+     */
+    public <T> T callWithin(@NonNull final Method method, @NonNull final Callable<T> task)
+        throws Exception {
+        @NonNull final Scope scope = enter(method);
+
+        try {
+            return task.call();
+        } finally {
+            scope.close();
+        }
+    }
+
     /**
      * Adds a new class-specific logging preferences.
      * @param className the class name.
@@ -418,6 +681,87 @@ public class LoggingPrefs {
         return result;
     }
 
+    /**
+     * The preferences of an entry point, while it runs in a thread.
+     * Scopes of the same thread are nested: closing one restores the enclosing one.
+     */
+    @ToString(of = { "preferred", "fallback" })
+    public static final class Scope
+        implements AutoCloseable {
+
+        /**
+         * The preferred logging keys.
+         */
+        @NonNull
+        private final String[] preferred;
+
+        /**
+         * The fallback logging keys.
+         */
+        @NonNull
+        private final String[] fallback;
+
+        /**
+         * The enclosing scope.
+         */
+        @Nullable
+        private final Scope parent;
+
+        /**
+         * The per-thread scopes this one belongs to.
+         */
+        @NonNull
+        private final ThreadLocal<Scope> scopes;
+
+        /**
+         * Creates a new scope.
+         * @param preferred the preferred logging keys.
+         * @param fallback the fallback logging keys.
+         * @param parent the enclosing scope.
+         * @param scopes the per-thread scopes.
+         */
+        protected Scope(
+            @NonNull final String[] preferred,
+            @NonNull final String[] fallback,
+            @Nullable final Scope parent,
+            @NonNull final ThreadLocal<Scope> scopes) {
+            this.preferred = preferred;
+            this.fallback = fallback;
+            this.parent = parent;
+            this.scopes = scopes;
+        }
+
+        /**
+         * Retrieves the preferred logging keys.
+         * @return such keys.
+         */
+        @NonNull
+        public String[] getPreferred() {
+            return this.preferred;
+        }
+
+        /**
+         * Retrieves the fallback logging keys.
+         * @return such keys.
+         */
+        @NonNull
+        public String[] getFallback() {
+            return this.fallback;
+        }
+
+        /**
+         * Restores the enclosing scope.
+         */
+        @Override
+        public void close() {
+            if (this.parent == null) {
+                this.scopes.remove();
+            } else {
+                this.scopes.set(this.parent);
+            }
+        }
+    }
+
     /**
      * Base class for the inline processors.
      */
@@ -0,0 +1,78 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.preferences;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * How {@link LoggingPrefs} finds out the logging preferences of the caller.
+ */
+public enum PreferencesResolution {
+    /**
+     * Scanning the current stack trace for annotated classes or methods, on every request.
+     */
+    STACK_TRACE("stack-trace"),
+
+    /**
+     * Using the preferences of the innermost scope entered by the current thread,
+     * via {@link LoggingPrefs#enter(Class)} and friends.
+     */
+    SCOPED("scoped");
+
+    /**
+     * The value of the property or environment variable.
+     */
+    @NonNull
+    private final String value;
+
+    /**
+     * Creates a new resolution mode.
+     * @param value the value of the property or environment variable.
+     */
+    PreferencesResolution(@NonNull final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of the property or environment variable.
+     * @return such value.
+     */
+    @NonNull
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * Retrieves the resolution mode matching given value.
+     * @param value the value.
+     * @param defaultValue the mode to use if the value doesn't match any.
+     * @return the matching mode.
+     */
+    @NonNull
+    public static PreferencesResolution fromValue(
+        @Nullable final String value, @NonNull final PreferencesResolution defaultValue) {
+        @NonNull PreferencesResolution result = defaultValue;
+
+        for (@NonNull final PreferencesResolution candidate : values()) {
+            if (candidate.getValue().equalsIgnoreCase(value) || candidate.name().equalsIgnoreCase(value)) {
+                result = candidate;
+                break;
+            }
+        }
+
+        return result;
+    }
+}
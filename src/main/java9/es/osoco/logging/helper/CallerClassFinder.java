@@ -0,0 +1,68 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.helper;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Finds the first class in the current call stack accepted by a given filter.
+ * This is the Java 9+ version, based on {@code StackWalker}: it stops walking the stack as soon as
+ * the class is found, and skips reflection frames.
+ */
+public class CallerClassFinder {
+
+    /**
+     * Singleton implemented to avoid double-check locking.
+     */
+    protected static final class CallerClassFinderSingletonContainer {
+        /**
+         * The singleton instance.
+         */
+        @NonNull
+        public static final CallerClassFinder SINGLETON = new CallerClassFinder();
+    }
+
+    /**
+     * The stack walker.
+     */
+    @NonNull
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    protected CallerClassFinder() {}
+
+    /**
+     * Retrieves the singleton instance.
+     * @return such instance.
+     */
+    @NonNull
+    public static CallerClassFinder getInstance() {
+        return CallerClassFinderSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Finds the first class in the call stack, from the innermost frame outwards, accepted by given filter.
+     * @param filter the filter.
+     * @return such class, or {@code null} if none is accepted.
+     */
+    @Nullable
+    public Class<?> findCaller(@NonNull final Predicate<Class<?>> filter) {
+        return
+            WALKER.walk(
+                frames -> frames.map(StackWalker.StackFrame::getDeclaringClass).filter(filter).findFirst().orElse(null));
+    }
+}
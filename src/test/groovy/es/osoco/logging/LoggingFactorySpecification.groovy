@@ -19,6 +19,7 @@ import es.osoco.logging.adapter.awslambda.AwsLambdaLoggingAdapter
 import es.osoco.logging.adapter.awslambda.AwsLambdaLoggingConfigurationProducer
 import es.osoco.logging.adapter.printstream.PrintStreamLoggingAdapter
 import es.osoco.logging.annotations.LoggingPreferences
+import es.osoco.logging.impl.CategoryLogging
 import es.osoco.logging.impl.CompositeLogging
 import spock.lang.Specification
 
@@ -116,6 +117,44 @@ class LoggingFactorySpecification
         caller.logging.getFallback().size() == 0
     }
 
+    def "createLogging(Class) binds the logging to the category of the class, honoring its preferences"() {
+        when:
+        def logging = LoggingFactory.getInstance().createLogging(AwsLambdaOtherwiseElasticSearchOrLogStashCaller)
+
+        then:
+        logging instanceof CategoryLogging
+        logging.category == AwsLambdaOtherwiseElasticSearchOrLogStashCaller.name
+        logging.compositeLogging.getPreferred() != null
+    }
+
+    def "createLogging() reuses the same instance for the same preferences, until a builder changes"() {
+        setup:
+        LambdaLogger logger = Mock()
+        def producer = new AwsLambdaLoggingConfigurationProducer()
+        producer.configureLogging("aws-lambda", logger)
+        AwsLambdaOtherwiseElasticSearchOrLogStashCaller caller = new AwsLambdaOtherwiseElasticSearchOrLogStashCaller()
+
+        when:
+        caller.iPreferSystemErr()
+        def first = caller.logging
+        caller.iPreferSystemErr()
+        def second = caller.logging
+        caller.iPreferSystemOut()
+        def other = caller.logging
+
+        then:
+        first.is(second)
+        !first.is(other)
+
+        when:
+        producer.configureLogging("aws-lambda", logger)
+        caller.iPreferSystemErr()
+
+        then:
+        !caller.logging.is(first)
+        caller.logging.getPreferred().get(0).is(first.getPreferred().get(0))
+    }
+
     @LoggingPreferences(preferred="aws-lambda", fallback=["ElasticSearch", "LogStash"])
     class AwsLambdaOtherwiseElasticSearchOrLogStashCaller {
         public Logging logging
@@ -0,0 +1,124 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.function.Supplier
+
+class LoggingSpecification
+    extends Specification {
+
+    @Unroll
+    def "formatting methods format their pattern only when the level is enabled (enabled: #enabled)"() {
+        given:
+        RecordingLogging logging = new RecordingLogging(enabled: enabled)
+
+        when:
+        logging.infof('{}', 'a')
+        logging.warnf('{} {}', 'a', 'b')
+        logging.debugf('{} {} {}', 'a', 'b', 'c')
+        logging.tracef('{} {} {} {}', 'a', 'b', 'c', 'd')
+        logging.errorf('failed {}', 'a', new IllegalStateException('boom'))
+
+        then:
+        logging.messages == expected
+
+        where:
+        enabled | expected
+        true    | [ 'info: a', 'warn: a b', 'debug: a b c', 'trace: a b c d', 'error: failed a (boom)' ]
+        false   | []
+    }
+
+    def "supplier methods don't call their supplier when the level is disabled"() {
+        given:
+        RecordingLogging logging = new RecordingLogging(enabled: false)
+        Supplier<String> supplier = Mock(Supplier)
+
+        when:
+        logging.info(supplier)
+        logging.warn('category', supplier)
+        logging.debug(supplier, new IllegalStateException('boom'))
+        logging.trace('category', supplier, new IllegalStateException('boom'))
+
+        then:
+        0 * supplier.get()
+        logging.messages.empty
+    }
+
+    def "supplier methods log the supplied message when the level is enabled"() {
+        given:
+        RecordingLogging logging = new RecordingLogging(enabled: true)
+
+        when:
+        logging.info({ 'a' } as Supplier<String>)
+        logging.warn('category', { 'b' } as Supplier<String>)
+        logging.debug({ 'c' } as Supplier<String>, new IllegalStateException('boom'))
+        logging.trace('category', { 'd' } as Supplier<String>, new IllegalStateException('boom'))
+
+        then:
+        logging.messages == [ 'info: a', 'warn[category]: b', 'debug: c (boom)', 'trace[category]: d (boom)' ]
+    }
+
+    static class RecordingLogging
+        implements Logging {
+
+        boolean enabled
+        List<String> messages = []
+
+        @Override void error(String msg) { messages << "error: $msg" }
+        @Override void error(String category, String msg) { messages << "error[$category]: $msg" }
+        @Override void error(String msg, Throwable error) { messages << "error: $msg (${error.message})" }
+        @Override void error(String category, String msg, Throwable error) { messages << "error[$category]: $msg (${error.message})" }
+        @Override boolean isErrorEnabled() { enabled }
+        @Override boolean isErrorEnabled(String category) { enabled }
+        @Override void setErrorEnabled(boolean flag) { enabled = flag }
+        @Override void setErrorEnabled(String category, boolean flag) { enabled = flag }
+        @Override void warn(String msg) { messages << "warn: $msg" }
+        @Override void warn(String category, String msg) { messages << "warn[$category]: $msg" }
+        @Override void warn(String msg, Throwable error) { messages << "warn: $msg (${error.message})" }
+        @Override void warn(String category, String msg, Throwable error) { messages << "warn[$category]: $msg (${error.message})" }
+        @Override boolean isWarnEnabled() { enabled }
+        @Override boolean isWarnEnabled(String category) { enabled }
+        @Override void setWarnEnabled(boolean flag) { enabled = flag }
+        @Override void setWarnEnabled(String category, boolean flag) { enabled = flag }
+        @Override void info(String msg) { messages << "info: $msg" }
+        @Override void info(String category, String msg) { messages << "info[$category]: $msg" }
+        @Override void info(String msg, Throwable error) { messages << "info: $msg (${error.message})" }
+        @Override void info(String category, String msg, Throwable error) { messages << "info[$category]: $msg (${error.message})" }
+        @Override boolean isInfoEnabled() { enabled }
+        @Override boolean isInfoEnabled(String category) { enabled }
+        @Override void setInfoEnabled(boolean flag) { enabled = flag }
+        @Override void setInfoEnabled(String category, boolean flag) { enabled = flag }
+        @Override void debug(String msg) { messages << "debug: $msg" }
+        @Override void debug(String category, String msg) { messages << "debug[$category]: $msg" }
+        @Override void debug(String msg, Throwable error) { messages << "debug: $msg (${error.message})" }
+        @Override void debug(String category, String msg, Throwable error) { messages << "debug[$category]: $msg (${error.message})" }
+        @Override boolean isDebugEnabled() { enabled }
+        @Override boolean isDebugEnabled(String category) { enabled }
+        @Override void setDebugEnabled(boolean flag) { enabled = flag }
+        @Override void setDebugEnabled(String category, boolean flag) { enabled = flag }
+        @Override void trace(String msg) { messages << "trace: $msg" }
+        @Override void trace(String category, String msg) { messages << "trace[$category]: $msg" }
+        @Override void trace(String msg, Throwable error) { messages << "trace: $msg (${error.message})" }
+        @Override void trace(String category, String msg, Throwable error) { messages << "trace[$category]: $msg (${error.message})" }
+        @Override boolean isTraceEnabled() { enabled }
+        @Override boolean isTraceEnabled(String category) { enabled }
+        @Override void setTraceEnabled(boolean flag) { enabled = flag }
+        @Override void setTraceEnabled(String category, boolean flag) { enabled = flag }
+        @Override LoggingContext getLoggingContext() { null }
+    }
+}
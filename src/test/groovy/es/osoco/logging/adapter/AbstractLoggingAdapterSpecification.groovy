@@ -34,4 +34,49 @@ class AbstractLoggingAdapterSpecification
         category
         !category.startsWith('org.codehaus.groovy')
     }
+
+    def "Levels set for a category apply to the categories below it"() {
+        setup:
+        final AbstractLoggingAdapter<PrintStreamLoggingConfiguration> adapter =
+            new PrintStreamLoggingAdapter(new PrintStreamLoggingConfiguration("System.out", System.out))
+
+        when:
+        adapter.setDebugEnabled("com.acme", true)
+        adapter.setDebugEnabled("com.acme.orders.audit", false)
+        adapter.setInfoEnabled("com.acme.orders", false)
+
+        then:
+        adapter.isDebugEnabled("com.acme")
+        adapter.isDebugEnabled("com.acme.orders")
+        !adapter.isDebugEnabled("com.acme.orders.audit")
+        !adapter.isDebugEnabled("com.acme.orders.audit.detail")
+        !adapter.isDebugEnabled("com.acmeinc")
+        !adapter.isDebugEnabled("com")
+        !adapter.isInfoEnabled("com.acme.orders.audit")
+        adapter.isInfoEnabled("com.acme")
+    }
+
+    def "Adapters customizing the default category resolve it for events without an explicit one"() {
+        setup:
+        final ByteArrayOutputStream output = new ByteArrayOutputStream()
+        final PrintStreamLoggingConfiguration config = new PrintStreamLoggingConfiguration('test', new PrintStream(output, true))
+        final AbstractLoggingAdapter<PrintStreamLoggingConfiguration> customized = new PrintStreamLoggingAdapter(config) {
+            @Override
+            protected String retrieveDefaultCategory() {
+                'custom.category'
+            }
+        }
+        final AbstractLoggingAdapter<PrintStreamLoggingConfiguration> stock = new PrintStreamLoggingAdapter(config)
+        final LogEvent event = new LogEvent().populate(LogLevel.INFO, null, 'message', null, null)
+
+        when:
+        customized.logEnabled(event)
+        stock.logEnabled(event)
+
+        then:
+        customized.customizesDefaultCategory()
+        !stock.customizesDefaultCategory()
+        event.category != 'custom.category'
+        output.toString().readLines() == [ '[custom.category]:message', event.categoryPrefix + 'message' ]
+    }
 }
@@ -0,0 +1,82 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter
+
+import spock.lang.Specification
+
+class CategoryLevelRegistrySpecification extends Specification {
+
+    def "Categories without settings resolve to UNSET"() {
+        expect:
+        new CategoryLevelRegistry().resolve("com.acme") == CategoryLevelRegistry.UNSET
+    }
+
+    def "The deepest setting of each level wins"() {
+        setup:
+        def registry = new CategoryLevelRegistry()
+        registry.set("com", LogLevel.TRACE, true)
+        registry.set("com.acme", LogLevel.TRACE, false)
+        registry.set("com.acme.orders", LogLevel.WARN, false)
+
+        when:
+        def mask = registry.resolve("com.acme.orders.Order")
+
+        then:
+        CategoryLevelRegistry.isSet(mask, LogLevel.TRACE)
+        !CategoryLevelRegistry.isEnabled(mask, LogLevel.TRACE)
+        CategoryLevelRegistry.isSet(mask, LogLevel.WARN)
+        !CategoryLevelRegistry.isEnabled(mask, LogLevel.WARN)
+        !CategoryLevelRegistry.isSet(mask, LogLevel.ERROR)
+        CategoryLevelRegistry.isEnabled(registry.resolve("com.other"), LogLevel.TRACE)
+    }
+
+    def "Resolved levels are refreshed after every change"() {
+        setup:
+        def registry = new CategoryLevelRegistry()
+        registry.set("com.acme", LogLevel.DEBUG, true)
+
+        expect:
+        CategoryLevelRegistry.isEnabled(registry.resolve("com.acme.orders"), LogLevel.DEBUG)
+
+        when:
+        registry.set("com.acme", LogLevel.DEBUG, false)
+
+        then:
+        !CategoryLevelRegistry.isEnabled(registry.resolve("com.acme.orders"), LogLevel.DEBUG)
+    }
+
+    def "Concurrent readers and writers don't interfere"() {
+        setup:
+        def registry = new CategoryLevelRegistry()
+        def errors = Collections.synchronizedList([])
+        def readers = (1..4).collect {
+            Thread.start {
+                try {
+                    5000.times { i -> registry.resolve("com.acme.c" + (i % 50)) }
+                } catch (Throwable t) {
+                    errors << t
+                }
+            }
+        }
+
+        when:
+        500.times { i -> registry.set("com.acme.c" + (i % 50), LogLevel.INFO, i % 2 == 0) }
+        readers*.join()
+
+        then:
+        errors.isEmpty()
+        CategoryLevelRegistry.isSet(registry.resolve("com.acme.c1"), LogLevel.INFO)
+    }
+}
@@ -0,0 +1,65 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter
+
+import es.osoco.logging.impl.ThreadLocalLoggingContext
+import spock.lang.Specification
+
+class LogEventSpecification
+    extends Specification {
+
+    def "The category prefix is built from the explicit category"() {
+        given:
+        def event = new LogEvent().populate(LogLevel.INFO, category, 'msg', null, null)
+
+        expect:
+        event.categoryPrefix == prefix
+        event.category == category
+
+        where:
+        category      | prefix
+        'com.foo.bar' | '[com.foo.bar]:'
+    }
+
+    def "Copies survive the reuse of the original event"() {
+        given:
+        def context = new ThreadLocalLoggingContext()
+        context.put('application', 'app')
+        def error = new IllegalStateException('boom')
+        def event = new LogEvent().populate(LogLevel.WARN, 'cat', 'msg', error, context)
+
+        when:
+        def copy = event.copy()
+        event.populate(LogLevel.TRACE, 'other', 'other', null, null)
+        context.put('application', 'changed')
+
+        then:
+        copy.level == LogLevel.WARN
+        copy.category == 'cat'
+        copy.message == 'msg'
+        copy.error.is(error)
+        copy.threadName == Thread.currentThread().name
+        copy.context.get('application') == 'app'
+    }
+
+    def "The date is derived from the timestamp"() {
+        given:
+        def event = new LogEvent().populate(LogLevel.ERROR, 'cat', 'msg', null, null)
+
+        expect:
+        event.localDateTime.is(event.localDateTime)
+        event.localDateTime.second == new Date(event.timestamp).seconds
+    }
+}
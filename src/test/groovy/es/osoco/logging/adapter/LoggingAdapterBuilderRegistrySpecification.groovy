@@ -16,6 +16,12 @@ package es.osoco.logging.adapter
 import es.osoco.logging.adapter.printstream.SystemOutLoggingAdapterBuilder
 import es.osoco.logging.config.LoggingConfigurationRegistry
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 
 class LoggingAdapterBuilderRegistrySpecification
         extends Specification {
@@ -29,4 +35,87 @@ class LoggingAdapterBuilderRegistrySpecification
         registry.get("System.out") != null
         registry.get("System.out") instanceof SystemOutLoggingAdapterBuilder
     }
+
+    def "LoggingAdapterBuilderRegistry builds each adapter once, until its builder is replaced"() {
+        setup:
+        LoggingConfigurationRegistry.getInstance()
+        LoggingAdapterBuilderRegistry registry = LoggingAdapterBuilderRegistry.getInstance()
+        LoggingAdapterBuilder builder = registry.get("System.out")
+
+        when:
+        def first = registry.getAdapter(builder)
+        def second = registry.getAdapter(builder)
+
+        then:
+        first != null
+        first.is(second)
+
+        when:
+        def generation = registry.getGeneration()
+        registry.put("System.out", builder)
+
+        then:
+        registry.getGeneration() > generation
+        !registry.getAdapter(builder).is(first)
+    }
+
+    def "Adapters built at the same time are built outside the registry's locks, and the losing one is closed"() {
+        setup:
+        def registry = new LoggingAdapterBuilderRegistry()
+        def closed = new CopyOnWriteArrayList<String>()
+        LoggingAdapter first = Stub() { close() >> { closed << 'first' } }
+        LoggingAdapter second = Stub() { close() >> { closed << 'second' } }
+        def built = new ConcurrentLinkedQueue<LoggingAdapter>([ first, second ])
+        def building = new CountDownLatch(2)
+        // Spock stubs answer one call at a time, so this one is coerced from a map.
+        def builder = [
+            getRegistryKey: { 'concurrent' },
+            build: {
+                building.countDown()
+                building.await(5, TimeUnit.SECONDS)
+                built.poll()
+            }
+        ] as LoggingAdapterBuilder
+        def results = new CopyOnWriteArrayList<LoggingAdapter>()
+
+        when:
+        def threads = (1..2).collect { Thread.start { results << registry.getAdapter(builder) } }
+        threads*.join()
+
+        then:
+        building.count == 0
+        results.size() == 2
+        results[0].is(results[1])
+        closed.size() == 1
+        !results[0].is(closed[0] == 'first' ? first : second)
+    }
+
+    def "Discarded adapters are closed once nobody uses them"() {
+        setup:
+        def registry = new LoggingAdapterBuilderRegistry()
+        def closed = new CopyOnWriteArrayList<String>()
+        LoggingAdapter retained = Stub() { close() >> { closed << 'retained' } }
+        LoggingAdapter unretained = Stub() { close() >> { closed << 'unretained' } }
+        LoggingAdapterBuilder retainedBuilder = Stub() { getRegistryKey() >> 'retained'; build() >> retained }
+        LoggingAdapterBuilder unretainedBuilder = Stub() { getRegistryKey() >> 'unretained'; build() >> unretained }
+        def user = new Object()
+
+        when:
+        registry.getAdapter(retainedBuilder)
+        registry.getAdapter(unretainedBuilder)
+        registry.retain(retained, user)
+        registry.invalidate()
+
+        then:
+        closed == [ 'unretained' ]
+
+        when:
+        user = null
+
+        then:
+        new PollingConditions(timeout: 10).eventually {
+            System.gc()
+            assert closed == [ 'unretained', 'retained' ]
+        }
+    }
 }
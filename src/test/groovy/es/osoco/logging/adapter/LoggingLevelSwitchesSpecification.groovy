@@ -0,0 +1,108 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter
+
+import es.osoco.logging.adapter.printstream.PrintStreamLoggingAdapter
+import es.osoco.logging.adapter.printstream.PrintStreamLoggingConfiguration
+import spock.lang.Specification
+
+class LoggingLevelSwitchesSpecification extends Specification {
+
+    def "Every level may be enabled while the switches are disabled"() {
+        expect:
+        !LoggingLevelSwitches.isSwitchesEnabled()
+        LogLevel.values().every { LoggingLevelSwitches.mayBeEnabled(it) }
+    }
+
+    def "Adapters report the levels enabled globally or for any category"() {
+        setup:
+        def switches = new LoggingLevelSwitches()
+        def adapter = new PrintStreamLoggingAdapter(new PrintStreamLoggingConfiguration("System.out", System.out))
+
+        expect:
+        switches.retrieveLevels(adapter) == 0b00111
+
+        when:
+        adapter.setTraceEnabled("com.acme.orders", true)
+
+        then:
+        switches.retrieveLevels(adapter) == 0b10111
+    }
+
+    def "Published levels change what the call sites answer"() {
+        setup:
+        def switches = new LoggingLevelSwitches()
+        def adapter = new PrintStreamLoggingAdapter(new PrintStreamLoggingConfiguration("System.out", System.out))
+
+        when:
+        switches.publish(0b00111)
+
+        then:
+        !LoggingLevelSwitches.mayBeEnabled(LogLevel.DEBUG)
+        LoggingLevelSwitches.mayBeEnabled(LogLevel.INFO)
+
+        when: 'adapters answer for themselves'
+        adapter.setDebugEnabled("com.acme", true)
+
+        then:
+        adapter.isEnabled(LogLevel.DEBUG, "com.acme")
+        !adapter.isEnabled(LogLevel.TRACE, "com.acme")
+
+        cleanup:
+        switches.publish(LoggingLevelSwitches.ALL_LEVELS)
+    }
+
+    def "Adapters are tracked by identity, even once their levels change"() {
+        setup:
+        def switches = new LoggingLevelSwitches()
+        def config = new PrintStreamLoggingConfiguration("System.out", System.out)
+        def first = new PrintStreamLoggingAdapter(config)
+        def second = new PrintStreamLoggingAdapter(config)
+
+        when:
+        switches.track(first)
+        switches.track(second)
+
+        then:
+        switches.retrieveAdapters().size() == 2
+
+        when:
+        first.setTraceEnabled("com.acme.orders", true)
+        switches.track(first)
+
+        then:
+        switches.retrieveAdapters().size() == 2
+        switches.retrieveAdapters().any { it.is(first) }
+        switches.retrieveAdapters().any { it.is(second) }
+
+        cleanup:
+        switches.publish(LoggingLevelSwitches.ALL_LEVELS)
+    }
+
+    def "Every level may be enabled once no adapter is tracked"() {
+        setup:
+        def switches = new LoggingLevelSwitches()
+
+        when:
+        switches.publish(0)
+        switches.refresh()
+
+        then:
+        LogLevel.values().every { LoggingLevelSwitches.mayBeEnabled(it) }
+
+        cleanup:
+        switches.publish(LoggingLevelSwitches.ALL_LEVELS)
+    }
+}
@@ -0,0 +1,229 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async
+
+import es.osoco.logging.adapter.AbstractLoggingAdapter
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LogLevel
+import es.osoco.logging.config.LoggingConfiguration
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class AsyncLoggingAdapterSpecification extends Specification {
+
+    static class RecordingLoggingAdapter extends AbstractLoggingAdapter<LoggingConfiguration> {
+        final List<String> messages = new CopyOnWriteArrayList<>()
+        final List<String> threads = new CopyOnWriteArrayList<>()
+        final List<String> categories = new CopyOnWriteArrayList<>()
+
+        RecordingLoggingAdapter() {
+            super({ "recording" } as LoggingConfiguration)
+        }
+
+        @Override
+        protected void logEvent(LogEvent event) {
+            messages << event.message
+            categories << event.category
+            threads << Thread.currentThread().name
+        }
+
+        protected void logError(String category, String msg) {}
+        protected void logError(String category, String msg, Throwable error) {}
+        protected void logWarn(String category, String msg) {}
+        protected void logWarn(String category, String msg, Throwable error) {}
+        protected void logInfo(String category, String msg) {}
+        protected void logInfo(String category, String msg, Throwable error) {}
+        protected void logDebug(String category, String msg) {}
+        protected void logDebug(String category, String msg, Throwable error) {}
+        protected void logTrace(String category, String msg) {}
+        protected void logTrace(String category, String msg, Throwable error) {}
+    }
+
+    def "Events are delivered in order by the consumer thread"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new AsyncLoggingAdapter<>(delegate, 4, strategy)
+
+        when:
+        100.times { adapter.info("message $it") }
+        adapter.error("orders", "explicit")
+        adapter.close()
+
+        then:
+        delegate.messages == (0..<100).collect { "message $it".toString() } + "explicit"
+        delegate.threads.every { it.startsWith("java-logging-async-") }
+        delegate.categories[100] == "orders"
+
+        where:
+        strategy << WaitStrategy.values()
+    }
+
+    def "Levels are those of the decorated adapter"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new AsyncLoggingAdapter<>(delegate, 4, WaitStrategy.PARK)
+
+        when:
+        adapter.setDebugEnabled("orders", true)
+        adapter.debug("orders", "enabled")
+        adapter.debug("payments", "disabled")
+        adapter.close()
+
+        then:
+        delegate.isDebugEnabled("orders")
+        delegate.messages == ["enabled"]
+    }
+
+    def "Events logged once closed are delivered right away"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new AsyncLoggingAdapter<>(delegate, 4, WaitStrategy.PARK)
+        adapter.close()
+
+        when:
+        adapter.warn("late")
+
+        then:
+        delegate.messages == ["late"]
+        delegate.threads == [Thread.currentThread().name]
+    }
+
+    def "The consumer thread survives errors thrown by the decorated adapter"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter() {
+            @Override
+            protected void logEvent(LogEvent event) {
+                if (event.message == "fatal") {
+                    throw new StackOverflowError()
+                }
+                super.logEvent(event)
+            }
+        }
+        def adapter = new AsyncLoggingAdapter<>(delegate, 4, WaitStrategy.PARK)
+
+        when:
+        adapter.info("fatal")
+        adapter.info("after")
+        adapter.close()
+
+        then:
+        delegate.messages == ["after"]
+        delegate.threads.every { it.startsWith("java-logging-async-") }
+        adapter.failures == 1
+    }
+
+    static class BlockingLoggingAdapter extends RecordingLoggingAdapter {
+        final CountDownLatch entered = new CountDownLatch(1)
+        final CountDownLatch released = new CountDownLatch(1)
+
+        @Override
+        protected void logEvent(LogEvent event) {
+            entered.countDown()
+            released.await()
+            super.logEvent(event)
+        }
+    }
+
+    def "Events logged once closed are discarded while the consumer delivers the pending ones"() {
+        setup:
+        def delegate = new BlockingLoggingAdapter()
+        def adapter = new AsyncLoggingAdapter<>(delegate, 4, WaitStrategy.PARK)
+        adapter.info("pending")
+        delegate.entered.await()
+        def closing = Thread.start { adapter.close() }
+
+        when:
+        new PollingConditions(timeout: 10).eventually {
+            assert closing.state == Thread.State.TIMED_WAITING
+        }
+        adapter.info("cat", "overtaking")
+        delegate.released.countDown()
+        closing.join()
+        adapter.info("late")
+
+        then:
+        delegate.messages == ["pending", "Dropped 1 log events: cat (info=1)", "late"]
+        adapter.droppedEvents.total == 1
+    }
+
+    def "Overflow policies decide which events are discarded while the decorated adapter is stuck"() {
+        setup:
+        def delegate = new BlockingLoggingAdapter()
+        delegate.setDebugEnabled("cat", true)
+        def adapter = new AsyncLoggingAdapter<>(delegate, 4, WaitStrategy.PARK, policy, 60000)
+        adapter.info("cat", "stuck")
+        delegate.entered.await()
+
+        when:
+        levels.eachWithIndex { level, index -> adapter."$level"("cat", "$level$index") }
+        delegate.released.countDown()
+        adapter.close()
+
+        then:
+        delegate.messages.findAll { !it.startsWith("Dropped") } == ["stuck"] + expected
+        adapter.droppedEvents.total == dropped
+        delegate.messages.last() == "Dropped $dropped log events: cat (${summary})".toString()
+
+        where:
+        policy                          | levels                                                      || expected                               | dropped | summary
+        OverflowPolicy.DROP_NEW         | ["info"] * 6                                                || ["info0", "info1", "info2", "info3"]   | 2       | "info=2"
+        OverflowPolicy.DROP_OLDEST      | ["info"] * 6                                                || ["info2", "info3", "info4", "info5"]   | 2       | "info=2"
+        OverflowPolicy.DROP_BY_PRIORITY | ["debug", "debug", "debug", "info", "info", "warn", "warn"] || ["debug1", "info3", "warn5", "warn6"] | 3       | "info=1, debug=2"
+    }
+
+    def "Discarded events are counted in their caller's category"() {
+        setup:
+        def delegate = new BlockingLoggingAdapter()
+        def adapter = new AsyncLoggingAdapter<>(delegate, 2, WaitStrategy.PARK, OverflowPolicy.DROP_NEW, 60000)
+        adapter.info("cat", "stuck")
+        delegate.entered.await()
+
+        when:
+        4.times {
+            def event = new LogEvent() {
+                @Override
+                String getCategory() {
+                    isCategoryResolved() ? super.getCategory() : "com.acme.Caller"
+                }
+            }
+            adapter.log(event.populate(LogLevel.INFO, null, "uncategorized$it", null, null))
+        }
+
+        then:
+        adapter.droppedEvents.total == 2
+        adapter.droppedEvents.getPending(LogLevel.INFO, "com.acme.Caller") == 2
+
+        cleanup:
+        delegate.released.countDown()
+        adapter.close()
+    }
+
+    def "Only adapters listed in the property are decorated"() {
+        setup:
+        System.setProperty(AsyncLoggingAdapterDecorator.LOGGING_ASYNC_ADAPTERS_PROPERTY, "other, recording")
+        def decorator = AsyncLoggingAdapterDecorator.getInstance()
+
+        expect:
+        decorator.decorate("recording", new RecordingLoggingAdapter()) instanceof AsyncLoggingAdapter
+        decorator.decorate("System.out", new RecordingLoggingAdapter()) instanceof RecordingLoggingAdapter
+        decorator.decorate("recording", null) == null
+
+        cleanup:
+        System.clearProperty(AsyncLoggingAdapterDecorator.LOGGING_ASYNC_ADAPTERS_PROPERTY)
+    }
+}
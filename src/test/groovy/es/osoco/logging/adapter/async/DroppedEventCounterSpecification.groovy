@@ -0,0 +1,48 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async
+
+import es.osoco.logging.adapter.LogLevel
+import spock.lang.Specification
+
+class DroppedEventCounterSpecification extends Specification {
+
+    def "Reports summarize the counts since the previous report"() {
+        setup:
+        def counter = new DroppedEventCounter()
+        counter.record(LogLevel.DEBUG, "b")
+        counter.record(LogLevel.DEBUG, "b")
+        counter.record(LogLevel.ERROR, "a")
+        counter.record(LogLevel.TRACE, null)
+
+        expect:
+        counter.getPending(LogLevel.DEBUG, "b") == 2
+        counter.report() == "Dropped 4 log events: (none) (trace=1) a (error=1) b (debug=2)"
+        counter.report() == null
+        counter.getPending(LogLevel.DEBUG, "b") == 0
+        counter.total == 4
+    }
+
+    def "Categories beyond the limit are counted together"() {
+        setup:
+        def counter = new DroppedEventCounter()
+
+        when:
+        (DroppedEventCounter.MAX_CATEGORIES + 10).times { counter.record(LogLevel.INFO, "category$it") }
+
+        then:
+        counter.getPending(LogLevel.INFO, DroppedEventCounter.OTHER_CATEGORIES) == 10
+    }
+}
@@ -0,0 +1,139 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.async
+
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LogLevel
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+
+class LogEventRingBufferSpecification extends Specification {
+
+    def event(String msg) {
+        new LogEvent().populate(LogLevel.INFO, "category", msg, null, null)
+    }
+
+    def "The capacity is rounded up to a power of two, and never below two"() {
+        expect:
+        new LogEventRingBuffer(requested).capacity == expected
+
+        where:
+        requested | expected
+        0         | 2
+        1         | 2
+        2         | 2
+        3         | 4
+        8         | 8
+        1000      | 1024
+    }
+
+    def "Events are consumed in order, and offers fail while full"() {
+        setup:
+        def buffer = new LogEventRingBuffer(2)
+        def spare = new LogEvent()
+
+        expect:
+        buffer.poll(spare) == null
+        buffer.offer(event("first"))
+        buffer.offer(event("second"))
+        !buffer.offer(event("third"))
+        buffer.size() == 2
+
+        when:
+        def first = buffer.poll(spare)
+
+        then:
+        first.message == "first"
+        !first.is(spare)
+        buffer.offer(event("third"))
+        buffer.poll(new LogEvent()).message == "second"
+        buffer.poll(first.clear() ?: first).message == "third"
+        buffer.isEmpty()
+    }
+
+    def "A single requested slot is never overwritten before being consumed"() {
+        setup:
+        def buffer = new LogEventRingBuffer(1)
+        def spare = new LogEvent()
+
+        expect:
+        buffer.offer(event("first"))
+        buffer.poll(spare).message == "first"
+        buffer.offer(event("second"))
+        buffer.offer(event("third"))
+        !buffer.offer(event("fourth"))
+        buffer.poll(new LogEvent()).message == "second"
+        buffer.poll(new LogEvent()).message == "third"
+    }
+
+    def "Events which cannot be copied are skipped by the consumer"() {
+        setup:
+        def buffer = new LogEventRingBuffer(4)
+        def spare = new LogEvent()
+        def failing = new LogEvent() {
+            @Override
+            String getCategory() {
+                throw new IllegalStateException("cannot resolve the category")
+            }
+        }.populate(LogLevel.INFO, null, "failing", null, null)
+
+        when:
+        buffer.offer(failing)
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        buffer.offer(event("second"))
+
+        then:
+        buffer.poll(spare).message == "second"
+        buffer.poll(spare) == null
+    }
+
+    def "Events from many producers all reach the consumer"() {
+        setup:
+        def buffer = new LogEventRingBuffer(64)
+        def seen = ConcurrentHashMap.newKeySet()
+        def spare = new LogEvent()
+        def producers = (1..4).collect { p ->
+            Thread.start {
+                1000.times { i ->
+                    while (!buffer.offer(event("$p-$i"))) {
+                        Thread.yield()
+                    }
+                }
+            }
+        }
+
+        when:
+        while (seen.size() < 4000) {
+            def next = buffer.poll(spare)
+            if (next == null) {
+                Thread.yield()
+            } else {
+                assert seen.add(next.message)
+                next.clear()
+                spare = next
+            }
+        }
+        producers*.join()
+
+        then:
+        seen.size() == 4000
+        buffer.isEmpty()
+    }
+}
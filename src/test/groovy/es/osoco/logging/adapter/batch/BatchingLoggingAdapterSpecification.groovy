@@ -0,0 +1,149 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.batch
+
+import es.osoco.logging.adapter.AbstractLoggingAdapter
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.config.LoggingConfiguration
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BatchingLoggingAdapterSpecification extends Specification {
+
+    static class RecordingLoggingAdapter extends AbstractLoggingAdapter<LoggingConfiguration> {
+        final List<List<String>> batches = new CopyOnWriteArrayList<>()
+        final List<String> messages = new CopyOnWriteArrayList<>()
+
+        RecordingLoggingAdapter() {
+            super({ "recording" } as LoggingConfiguration)
+        }
+
+        @Override
+        protected void logEvents(List<LogEvent> events) {
+            batches << events.collect { it.message }
+            super.logEvents(events)
+        }
+
+        @Override
+        protected void logEvent(LogEvent event) {
+            messages << event.message
+        }
+
+        protected void logError(String category, String msg) {}
+        protected void logError(String category, String msg, Throwable error) {}
+        protected void logWarn(String category, String msg) {}
+        protected void logWarn(String category, String msg, Throwable error) {}
+        protected void logInfo(String category, String msg) {}
+        protected void logInfo(String category, String msg, Throwable error) {}
+        protected void logDebug(String category, String msg) {}
+        protected void logDebug(String category, String msg, Throwable error) {}
+        protected void logTrace(String category, String msg) {}
+        protected void logTrace(String category, String msg, Throwable error) {}
+    }
+
+    def "Batches are flushed once they hold enough events"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new BatchingLoggingAdapter<>(delegate, 3, Long.MAX_VALUE, 60000)
+
+        when:
+        7.times { adapter.info("message $it") }
+
+        then:
+        delegate.batches == [ ["message 0", "message 1", "message 2"], ["message 3", "message 4", "message 5"] ]
+
+        when:
+        adapter.close()
+
+        then:
+        delegate.batches.last() == ["message 6"]
+        delegate.messages == (0..<7).collect { "message $it".toString() }
+    }
+
+    def "Batches are flushed once they are large enough"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new BatchingLoggingAdapter<>(delegate, 100, 2 * LogEventBatcher.EVENT_OVERHEAD_BYTES, 60000)
+
+        when:
+        adapter.info("first")
+        adapter.info("second")
+        adapter.info("third")
+
+        then:
+        delegate.batches == [ ["first", "second"] ]
+
+        cleanup:
+        adapter.close()
+    }
+
+    def "Lingering batches are flushed in the background"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new BatchingLoggingAdapter<>(delegate, 100, Long.MAX_VALUE, 20)
+
+        when:
+        adapter.info("lonely")
+        def deadline = System.currentTimeMillis() + 5000
+        while (delegate.messages.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5)
+        }
+
+        then:
+        delegate.batches == [ ["lonely"] ]
+
+        cleanup:
+        adapter.close()
+    }
+
+    def "Disabled events are skipped, and events logged once closed are delivered right away"() {
+        setup:
+        def delegate = new RecordingLoggingAdapter()
+        def adapter = new BatchingLoggingAdapter<>(delegate, 100, Long.MAX_VALUE, 60000)
+
+        when:
+        adapter.setDebugEnabled("orders", true)
+        adapter.debug("orders", "enabled")
+        adapter.debug("payments", "disabled")
+        adapter.close()
+        adapter.warn("late")
+
+        then:
+        delegate.batches == [ ["enabled"] ]
+        delegate.messages == ["enabled", "late"]
+    }
+
+    def "Only adapters listed in the property are decorated"() {
+        setup:
+        System.setProperty(BatchingLoggingAdapterDecorator.LOGGING_BATCH_ADAPTERS_PROPERTY, "foo, bar")
+        def decorator = BatchingLoggingAdapterDecorator.getInstance()
+        def adapter = new RecordingLoggingAdapter()
+
+        when:
+        def decorated = decorator.decorate("bar", adapter)
+
+        then:
+        decorated instanceof BatchingLoggingAdapter
+        ((BatchingLoggingAdapter) decorated).delegate.is(adapter)
+        decorator.decorate("baz", adapter).is(adapter)
+
+        cleanup:
+        System.clearProperty(BatchingLoggingAdapterDecorator.LOGGING_BATCH_ADAPTERS_PROPERTY)
+        if (decorated instanceof BatchingLoggingAdapter) {
+            decorated.close()
+        }
+    }
+}
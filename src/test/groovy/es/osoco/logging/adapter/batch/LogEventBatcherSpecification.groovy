@@ -0,0 +1,53 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.batch
+
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LogLevel
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class LogEventBatcherSpecification extends Specification {
+
+    def "A slow flusher delays no other batcher's lingering batches"() {
+        setup:
+        def release = new CountDownLatch(1)
+        def stuck = new CountDownLatch(1)
+        def flushed = new CopyOnWriteArrayList<String>()
+        def slow = new LogEventBatcher(100, Long.MAX_VALUE, 10, { stuck.countDown(); release.await(5, TimeUnit.SECONDS) })
+        def fast = new LogEventBatcher(100, Long.MAX_VALUE, 10, { events -> flushed.addAll(events*.message) })
+
+        when:
+        slow.add(new LogEvent().populate(LogLevel.INFO, 'cat', 'slow', null, null))
+
+        then:
+        stuck.await(5, TimeUnit.SECONDS)
+
+        when:
+        fast.add(new LogEvent().populate(LogLevel.INFO, 'cat', 'fast', null, null))
+
+        then:
+        new PollingConditions(timeout: 2).eventually { assert flushed == [ 'fast' ] }
+
+        cleanup:
+        release.countDown()
+        slow.close()
+        fast.close()
+    }
+}
@@ -0,0 +1,70 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import com.google.gson.stream.MalformedJsonException
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class BulkResponseSpecification extends Specification {
+
+    static BulkResponse parse(String json) {
+        BulkResponse.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))
+    }
+
+    def "Items are not read once the response says there are no errors"() {
+        expect:
+        parse('{"took":2,"errors":false,"items":[ not even JSON') == BulkResponse.NO_ERRORS
+    }
+
+    def "Failed items are collected, with their position, status and error"() {
+        when:
+        def response = parse('''{"took":2,"errors":true,"items":[
+            {"index":{"_index":"log-1","_id":"a","status":201,"result":"created"}},
+            {"index":{"_index":"log-1","status":429,"error":{"type":"es_rejected_execution_exception","reason":"queue full","caused_by":{"type":"x"}}}},
+            {"create":{"_index":"log-1","status":409,"error":"version conflict"}},
+            {"index":{"_index":"log-1","status":200,"error":null}},
+            {"index":{"_index":"log-1","status":400,"error":{"type":"mapper_parsing_exception"}}}]}''')
+
+        then:
+        response.hasErrors()
+        response.failures == [
+            new BulkResponse.ItemFailure(1, 429, 'es_rejected_execution_exception: queue full'),
+            new BulkResponse.ItemFailure(2, 409, 'version conflict'),
+            new BulkResponse.ItemFailure(4, 400, 'mapper_parsing_exception')
+        ]
+    }
+
+    def "Items listed before the errors flag are read as well"() {
+        expect:
+        parse('{"items":[{"index":{"status":503}}],"errors":true}').failures == [ new BulkResponse.ItemFailure(0, 503, null) ]
+        parse('{"items":[{"index":{"status":201}}],"errors":false}') == BulkResponse.NO_ERRORS
+    }
+
+    def "Responses other than bulk ones are rejected"() {
+        when:
+        parse('[1, 2]')
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        parse('{"errors":true,"items":[{')
+
+        then:
+        thrown(IOException)
+    }
+}
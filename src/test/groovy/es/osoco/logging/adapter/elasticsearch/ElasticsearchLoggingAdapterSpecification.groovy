@@ -0,0 +1,546 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import com.google.gson.JsonParser
+import es.osoco.logging.LoggingContext
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LogLevel
+import es.osoco.logging.adapter.spool.DiskSpool
+import org.apache.http.HttpEntity
+import org.apache.http.StatusLine
+import org.apache.http.entity.ContentType
+import org.apache.http.entity.StringEntity
+import org.apache.http.util.EntityUtils
+import org.elasticsearch.client.Response
+import org.elasticsearch.client.ResponseListener
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.nio.file.Files
+import java.util.zip.GZIPInputStream
+
+class ElasticsearchLoggingAdapterSpecification extends Specification {
+
+    static class RecordingElasticsearchLoggingAdapter extends ElasticsearchLoggingAdapter {
+        final List<List<String>> requests = new CopyOnWriteArrayList<>()
+
+        RecordingElasticsearchLoggingAdapter(ElasticSearchLoggingConfiguration config) {
+            super(config)
+        }
+
+        @Override
+        protected void index(List<LogEvent> events) {
+            requests << events.collect { it.message }
+        }
+    }
+
+    static class PendingElasticsearchLoggingAdapter extends ElasticsearchLoggingAdapter {
+        final List<ResponseListener> listeners = new CopyOnWriteArrayList<>()
+        final List<String> bodies = new CopyOnWriteArrayList<>()
+        final List<HttpEntity> entities = new CopyOnWriteArrayList<>()
+
+        PendingElasticsearchLoggingAdapter(ElasticSearchLoggingConfiguration config) {
+            super(config)
+        }
+
+        @Override
+        protected void performBulkRequest(HttpEntity entity, ResponseListener listener) {
+            entities << entity
+            bodies << (entity.contentEncoding ? null : EntityUtils.toString(entity))
+            listeners << listener
+        }
+    }
+
+    static ElasticSearchLoggingConfiguration configuration(int documents, int bytes, int linger) {
+        new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+            'ElasticSearch', 'localhost', 9200, 'http', documents, bytes, linger)
+    }
+
+    def "Events are indexed together once enough are buffered"() {
+        setup:
+        def adapter = new RecordingElasticsearchLoggingAdapter(configuration(3, Integer.MAX_VALUE, 60000))
+
+        when:
+        4.times { adapter.info("message $it") }
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert adapter.requests == [ [ "message 0", "message 1", "message 2" ] ]
+        }
+    }
+
+    def "Batches are indexed right away, after the buffered events"() {
+        setup:
+        def adapter = new RecordingElasticsearchLoggingAdapter(configuration(100, Integer.MAX_VALUE, 60000))
+        adapter.warn("buffered")
+        def batch = (0..<2).collect { new LogEvent().populate(LogLevel.INFO, 'cat', "batched $it", null, null) }
+
+        when:
+        adapter.logBatch(batch)
+
+        then:
+        adapter.requests == [ [ "buffered" ], [ "batched 0", "batched 1" ] ]
+    }
+
+    def "Bulk items are an action line and a document line, both valid JSON"() {
+        setup:
+        def adapter = new ElasticsearchLoggingAdapter(configuration(100, Integer.MAX_VALUE, 60000))
+        LoggingContext ctx = adapter.getLoggingContext()
+        ctx.put('application', 'shop')
+        def event = new LogEvent().populate(
+            LogLevel.ERROR, 'orders', 'said "hi"\nand left', new IllegalStateException('boom'), ctx)
+        def buffer = new Utf8JsonBuffer(16)
+
+        when:
+        adapter.appendBulkItem(buffer, event, ctx)
+        def data = buffer.toString()
+        def lines = data.split('\n')
+        def action = new JsonParser().parse(lines[0]).asJsonObject
+        def document = new JsonParser().parse(lines[1]).asJsonObject
+
+        then:
+        data.endsWith('\n')
+        lines.length == 2
+        action.get('index').asJsonObject.get('_type').asString == 'shop'
+        action.get('index').asJsonObject.get('_index').asString.startsWith('log-')
+        !action.get('index').asJsonObject.has('_id')
+        document.get('category').asString == 'orders'
+        document.get('message').asString == 'said "hi"\nand left'
+        document.get('timestamp').asString == ElasticsearchLoggingAdapter.TIMESTAMP_FORMATTER.format(event.localDateTime)
+        document.get('error').asString.contains('ElasticsearchLoggingAdapterSpecification')
+
+        cleanup:
+        ctx.put('application', null)
+    }
+
+    def "Bulk requests in flight are capped, logging threads drop the rest, and failures are reported"() {
+        setup:
+        def deadLetters = new CopyOnWriteArrayList()
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 2,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.NONE, 512,
+                null, LoadBalancing.ROUND_ROBIN, 0, 10, 3, 1,
+                { action, document, status, error -> deadLetters << [ document, status, error ] } as DeadLetterSink))
+        def listeners = adapter.listeners
+        LoggingContext ctx = adapter.getLoggingContext()
+        def event = new LogEvent().populate(LogLevel.INFO, 'cat', 'dropped', null, ctx)
+
+        when:
+        2.times { adapter.send(adapter.acquireBuffer(), ctx) }
+        def dropped = adapter.acquireBuffer()
+        adapter.appendBulkItem(dropped, event, ctx)
+        adapter.send(dropped, ctx)
+
+        then:
+        listeners.size() == 2
+        adapter.droppedRequests == 1
+        adapter.latestErrorCode == ElasticsearchLoggingAdapter.TOO_MANY_REQUESTS
+        deadLetters.size() == 1
+        new JsonParser().parse(deadLetters[0][0]).asJsonObject.get('message').asString == 'dropped'
+        deadLetters[0][1] == ElasticsearchLoggingAdapter.TOO_MANY_REQUESTS
+        deadLetters[0][2] == ElasticsearchLoggingAdapter.DROPPED_REQUEST_ERROR
+        adapter.buffers.size() == 1
+
+        when:
+        listeners[0].onFailure(new IOException('down'))
+
+        then:
+        adapter.latestErrorCode instanceof IOException
+        !adapter.awaitInFlightRequests(0)
+
+        when:
+        listeners[1].onFailure(new IOException('down'))
+
+        then:
+        adapter.awaitInFlightRequests(0)
+        adapter.buffers.size() == 3
+    }
+
+    def "Background flushes wait for a request in flight to complete"() {
+        setup:
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 1))
+        LoggingContext ctx = adapter.getLoggingContext()
+        def conditions = new PollingConditions(timeout: 5)
+
+        when:
+        adapter.send(adapter.acquireBuffer(), ctx)
+        Thread.start { adapter.batcher.flushOnBehalf { adapter.send(adapter.acquireBuffer(), ctx) } }
+        Thread.sleep(200)
+
+        then:
+        adapter.listeners.size() == 1
+
+        when:
+        adapter.listeners[0].onFailure(new IOException('down'))
+
+        then:
+        conditions.eventually { assert adapter.listeners.size() == 2 }
+        adapter.droppedRequests == 0
+    }
+
+    def "Bulk requests beyond the cap are spooled, if configured, and sent once others complete"() {
+        setup:
+        def directory = Files.createTempDirectory('spool')
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 1,
+                AutoGeneratedDocumentIdStrategy.getInstance(), directory.toString(), 1, 1))
+        def event = { String msg -> [ new LogEvent().populate(LogLevel.INFO, 'cat', msg, null, null) ] }
+        def conditions = new PollingConditions(timeout: 5)
+        StatusLine ok = Stub() { getStatusCode() >> 200 }
+        Response response = Stub() { getStatusLine() >> ok }
+
+        when:
+        adapter.index(event('first'))
+        adapter.index(event('second'))
+
+        then:
+        conditions.eventually { assert !adapter.spool.empty }
+        adapter.listeners.size() == 1
+        adapter.droppedRequests == 0
+
+        when:
+        adapter.listeners[0].onSuccess(response)
+
+        then:
+        conditions.eventually { assert adapter.listeners.size() == 2 }
+        adapter.bodies[1].contains('second')
+
+        cleanup:
+        adapter.closeSpool()
+        directory.toFile().deleteDir()
+    }
+
+    def "Sequential ids are given to the documents, if configured"() {
+        setup:
+        def adapter = new ElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 1,
+                new SequentialDocumentIdStrategy('node1')))
+        LoggingContext ctx = adapter.getLoggingContext()
+        def buffer = new Utf8JsonBuffer()
+
+        when:
+        2.times { adapter.appendBulkItem(buffer, new LogEvent().populate(LogLevel.INFO, 'cat', 'msg', null, ctx), ctx) }
+        def ids = buffer.toString().split('\n').findAll { it.startsWith('{"index"') }.collect {
+            new JsonParser().parse(it).asJsonObject.get('index').asJsonObject.get('_id').asString
+        }
+
+        then:
+        ids.size() == 2
+        ids.every { it.startsWith('node1-') }
+        ids[0] < ids[1]
+    }
+
+    def "Failed requests are spooled, and replayed in order once the cluster is back"() {
+        setup:
+        def directory = Files.createTempDirectory('spool')
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 4,
+                AutoGeneratedDocumentIdStrategy.getInstance(), directory.toString(), 1, 1))
+        def event = { String msg -> [ new LogEvent().populate(LogLevel.INFO, 'cat', msg, null, null) ] }
+        def conditions = new PollingConditions(timeout: 5)
+        StatusLine ok = Stub() { getStatusCode() >> 200 }
+        Response response = Stub() { getStatusLine() >> ok }
+
+        when: 'the cluster is down'
+        adapter.index(event('first'))
+        adapter.listeners[0].onFailure(new IOException('down'))
+
+        then:
+        conditions.eventually { assert !adapter.spool.empty }
+
+        when: 'later requests go to the spool, behind the first'
+        adapter.index(event('second'))
+
+        then:
+        conditions.eventually { assert adapter.listeners.size() == 2 }
+        adapter.bodies[1] == adapter.bodies[0]
+
+        when: 'the cluster is back'
+        adapter.listeners[1].onSuccess(response)
+
+        then:
+        conditions.eventually { assert adapter.listeners.size() == 3 }
+        adapter.bodies[2].contains('second')
+
+        when:
+        adapter.listeners[2].onSuccess(response)
+
+        then:
+        conditions.eventually { assert adapter.spool.empty }
+        adapter.awaitInFlightRequests(0)
+
+        cleanup:
+        adapter.closeSpool()
+        directory.toFile().deleteDir()
+    }
+
+    def "Requests still on their way to the spool keep later ones behind them"() {
+        setup:
+        def directory = Files.createTempDirectory('spool')
+        def appending = new CountDownLatch(1)
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 4,
+                AutoGeneratedDocumentIdStrategy.getInstance(), directory.toString(), 1, 1)) {
+            @Override
+            protected void spool(DiskSpool spool, Utf8JsonBuffer buffer) {
+                appending.await(5, TimeUnit.SECONDS)
+                super.spool(spool, buffer)
+            }
+        }
+        def event = { String msg -> [ new LogEvent().populate(LogLevel.INFO, 'cat', msg, null, null) ] }
+
+        when:
+        adapter.index(event('first'))
+        adapter.listeners[0].onFailure(new IOException('down'))
+        adapter.index(event('second'))
+
+        then:
+        adapter.listeners.size() == 1
+
+        when:
+        appending.countDown()
+
+        then:
+        new PollingConditions(timeout: 5).eventually { assert adapter.listeners.size() == 2 }
+        adapter.bodies[1].contains('first')
+
+        cleanup:
+        appending.countDown()
+        adapter.closeSpool()
+        directory.toFile().deleteDir()
+    }
+
+    def "Bodies are compressed once big enough, if configured"() {
+        setup:
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 4,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.GZIP, 512))
+        def events = { int count -> (0..<count).collect { new LogEvent().populate(LogLevel.INFO, 'cat', "msg $it", null, null) } }
+
+        when:
+        adapter.index(events(1))
+        adapter.index(events(20))
+        def large = adapter.entities[1]
+
+        then:
+        adapter.entities[0].contentEncoding == null
+        adapter.bodies[0].contains('msg 0')
+        large.contentEncoding.value == 'gzip'
+        new GZIPInputStream(large.content).text.contains('msg 19')
+    }
+
+    Response bulkResponse(String body) {
+        StatusLine ok = Stub() { getStatusCode() >> 200 }
+        Response response = Stub() {
+            getStatusLine() >> ok
+            getEntity() >> new StringEntity(body, ContentType.APPLICATION_JSON)
+        }
+        response
+    }
+
+    def "Documents rejected temporarily are retried on their own, and the rest go to the dead-letter sink"() {
+        setup:
+        def deadLetters = new CopyOnWriteArrayList()
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 4,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.NONE, 512,
+                null, LoadBalancing.ROUND_ROBIN, 0, 10, 3, 1,
+                { action, document, status, error -> deadLetters << [ document, status, error ] } as DeadLetterSink))
+        def events = (0..<3).collect { new LogEvent().populate(LogLevel.INFO, 'cat', "msg $it", null, null) }
+
+        when:
+        adapter.index(events)
+        adapter.listeners[0].onSuccess(bulkResponse(
+            '''{"took":3,"errors":true,"items":[
+                {"index":{"_index":"log-1","status":201}},
+                {"index":{"_index":"log-1","status":429,"error":{"type":"es_rejected_execution_exception","reason":"busy"}}},
+                {"index":{"_index":"log-1","status":400,"error":{"type":"mapper_parsing_exception","reason":"bad"}}}]}'''))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert adapter.listeners.size() == 2
+        }
+        adapter.bodies[1].readLines().size() == 2
+        adapter.bodies[1].contains('msg 1')
+        deadLetters.size() == 1
+        new JsonParser().parse(deadLetters[0][0]).asJsonObject.get('message').asString == 'msg 2'
+        deadLetters[0][1] == 400
+        deadLetters[0][2] == 'mapper_parsing_exception: bad'
+        adapter.latestErrorCode == 400
+        !adapter.awaitInFlightRequests(0)
+
+        when:
+        adapter.listeners[1].onSuccess(bulkResponse('{"took":1,"errors":false,"items":[{"index":{"status":201}}]}'))
+
+        then:
+        adapter.awaitInFlightRequests(0)
+        adapter.listeners.size() == 2
+    }
+
+    def "Documents rejected temporarily are given up once out of attempts"() {
+        setup:
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 4,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.NONE, 512,
+                null, LoadBalancing.ROUND_ROBIN, 0, 10, 2, 1, DiscardingDeadLetterSink.getInstance()))
+        def rejected = '{"errors":true,"items":[{"index":{"status":503,"error":"unavailable"}}]}'
+
+        when:
+        adapter.index([ new LogEvent().populate(LogLevel.INFO, 'cat', 'msg', null, null) ])
+        adapter.listeners[0].onSuccess(bulkResponse(rejected))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert adapter.listeners.size() == 2
+        }
+
+        when:
+        adapter.listeners[1].onSuccess(bulkResponse(rejected))
+
+        then:
+        adapter.awaitInFlightRequests(0)
+        adapter.latestErrorCode == 503
+        adapter.listeners.size() == 2
+    }
+
+    def "Documents rejected temporarily give their permit back while backing off"() {
+        setup:
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 1,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.NONE, 512,
+                null, LoadBalancing.ROUND_ROBIN, 0, 10, 3, 500, DiscardingDeadLetterSink.getInstance()))
+        def rejected = '{"errors":true,"items":[{"index":{"status":429,"error":"busy"}}]}'
+
+        when:
+        adapter.index([ new LogEvent().populate(LogLevel.INFO, 'cat', 'msg', null, null) ])
+        adapter.listeners[0].onSuccess(bulkResponse(rejected))
+
+        then:
+        adapter.awaitInFlightRequests(0)
+        new PollingConditions(timeout: 5).eventually {
+            assert adapter.listeners.size() == 2
+        }
+        !adapter.awaitInFlightRequests(0)
+    }
+
+    def "Pending retries are given up on cleanup, and no node pool is built afterwards"() {
+        setup:
+        def deadLetters = new CopyOnWriteArrayList()
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 1,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.NONE, 512,
+                null, LoadBalancing.ROUND_ROBIN, 0, 10, 3, 5000,
+                { action, document, status, error -> deadLetters << [ document, status, error ] } as DeadLetterSink))
+        def rejected = '{"errors":true,"items":[{"index":{"status":429,"error":"busy"}}]}'
+
+        when:
+        adapter.index([ new LogEvent().populate(LogLevel.INFO, 'cat', 'msg', null, null) ])
+        adapter.listeners[0].onSuccess(bulkResponse(rejected))
+        adapter.cleanup()
+
+        then:
+        deadLetters.size() == 1
+        deadLetters[0][1] == ElasticsearchLoggingAdapter.SERVICE_UNAVAILABLE
+        deadLetters[0][2] == ElasticsearchLoggingAdapter.CLOSED_ERROR
+
+        when:
+        adapter.getNodePool()
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Bulk requests which cannot even be performed release their permit and body"() {
+        setup:
+        def adapter = new ElasticsearchLoggingAdapter(configuration(100, Integer.MAX_VALUE, 60000)) {
+            @Override
+            protected void performBulkRequest(HttpEntity entity, ResponseListener listener) {
+                throw new IllegalStateException('client closed')
+            }
+        }
+
+        when:
+        adapter.send(adapter.acquireBuffer(), adapter.getLoggingContext())
+
+        then:
+        adapter.awaitInFlightRequests(0)
+        adapter.latestErrorCode instanceof IllegalStateException
+        adapter.buffers.size() == 1
+    }
+
+    def "Retry backoffs grow exponentially, with jitter, up to a limit"() {
+        setup:
+        def adapter = new ElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', 100, Integer.MAX_VALUE, 60000, 4,
+                AutoGeneratedDocumentIdStrategy.getInstance(), null, 1, 1, RequestCompression.NONE, 512,
+                null, LoadBalancing.ROUND_ROBIN, 0, 10, 5, 100, DiscardingDeadLetterSink.getInstance()))
+
+        expect:
+        (0..<20).every { adapter.retryBackoffMillis(1) in 50L..100L }
+        (0..<20).every { adapter.retryBackoffMillis(3) in 200L..400L }
+        (0..<20).every { adapter.retryBackoffMillis(40) in 5000L..ElasticsearchLoggingAdapter.MAX_BULK_RETRY_BACKOFF_MILLIS }
+    }
+
+    def "Batches beyond the bulk limits are split into several requests"() {
+        setup:
+        def adapter = new PendingElasticsearchLoggingAdapter(
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'localhost', 9200, 'http', documents, bytes, 60000, 8))
+        def events = (0..<5).collect { new LogEvent().populate(LogLevel.INFO, 'cat', "msg $it", null, null) }
+
+        when:
+        adapter.index(events)
+
+        then:
+        adapter.bodies.collect { it.readLines().size() / 2 } == expected
+        adapter.bodies.join('').contains('msg 4')
+
+        where:
+        documents | bytes             || expected
+        2         | Integer.MAX_VALUE || [ 2, 2, 1 ]
+        100       | 1                 || [ 1, 1, 1, 1, 1 ]
+        100       | Integer.MAX_VALUE || [ 5 ]
+    }
+
+    def "Errors are encoded frame by frame, as the same text"() {
+        setup:
+        def adapter = new ElasticsearchLoggingAdapter(configuration(100, Integer.MAX_VALUE, 60000))
+        def error = new IllegalStateException('outer', new IOException('inner "quoted"'))
+        def buffer = new Utf8JsonBuffer()
+
+        when:
+        adapter.appendError(buffer, error)
+
+        then:
+        new JsonParser().parse(buffer.toString()).asString == adapter.toString(error)
+    }
+}
@@ -0,0 +1,135 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import org.apache.http.HttpHost
+import spock.lang.Specification
+
+class ElasticsearchNodePoolRegistrySpecification extends Specification {
+
+    static class ClosingNodePool extends ElasticsearchNodePool {
+        int closes
+
+        ClosingNodePool(ElasticsearchNodePoolRegistry.Key key) {
+            super(key.hosts, key.loadBalancing, key.discoveryIntervalMillis, key.maxConnectionsPerNode)
+        }
+
+        @Override
+        void close() {
+            closes++
+            super.close()
+        }
+    }
+
+    static class TestableRegistry extends ElasticsearchNodePoolRegistry {
+        @Override
+        protected ElasticsearchNodePool buildNodePool(ElasticsearchNodePoolRegistry.Key key) {
+            new ClosingNodePool(key)
+        }
+
+        @Override
+        protected void addShutdownHook() {
+        }
+    }
+
+    static ElasticsearchNodePoolRegistry.Key key(String host, int maxConnectionsPerNode = 10) {
+        new ElasticsearchNodePoolRegistry.Key([ new HttpHost(host, 9200, 'http') ], LoadBalancing.ROUND_ROBIN, 0, maxConnectionsPerNode)
+    }
+
+    def "Pools are shared by equal settings, and closed with their last reference"() {
+        setup:
+        def registry = new TestableRegistry()
+
+        when:
+        def first = registry.acquire(key('es1'))
+        def second = registry.acquire(key('es1'))
+        def other = registry.acquire(key('es1', 20))
+
+        then:
+        first.is(second)
+        !first.is(other)
+        registry.getReferences(key('es1')) == 2
+        registry.getReferences(key('es1', 20)) == 1
+
+        when:
+        registry.release(first)
+
+        then:
+        first.closes == 0
+        registry.getReferences(key('es1')) == 1
+
+        when:
+        registry.release(second)
+
+        then:
+        first.closes == 1
+        registry.getReferences(key('es1')) == 0
+        !registry.acquire(key('es1')).is(first)
+
+        cleanup:
+        registry.shutdown()
+    }
+
+    def "Shutdown runs the tasks, and then closes the pools in use"() {
+        setup:
+        def registry = new TestableRegistry()
+        def events = []
+        def pool = registry.acquire(key('es1'))
+        registry.addShutdownTask { events << 'flushed' }
+        registry.addShutdownTask { throw new IllegalStateException() }
+        def removed = { events << 'removed' } as Runnable
+        registry.addShutdownTask(removed)
+        registry.removeShutdownTask(removed)
+
+        when:
+        registry.shutdown()
+
+        then:
+        events == [ 'flushed' ]
+        pool.closes == 1
+        registry.getReferences(key('es1')) == 0
+    }
+
+    def "Adapters with the same nodes share their pool"() {
+        setup:
+        def config =
+            new ElasticSearchLoggingConfiguration.ElasticSearchLoggingConfigurationData(
+                'ElasticSearch', 'es-shared', 9200, 'http')
+        def first = new ElasticsearchLoggingAdapter(config)
+        def second = new ElasticsearchLoggingAdapter(config)
+        def registry = ElasticsearchNodePoolRegistry.instance
+
+        when:
+        def pool = first.nodePool
+
+        then:
+        pool.is(second.nodePool)
+        registry.getReferences(first.buildNodePoolKey()) == 2
+        pool.maxConnectionsPerNode == ElasticSearchLoggingConfiguration.DEFAULT_MAX_CONNECTIONS_PER_NODE
+
+        when:
+        first.cleanup()
+
+        then:
+        registry.getReferences(second.buildNodePoolKey()) == 1
+        second.nodePool.is(pool)
+
+        when:
+        second.cleanup()
+
+        then:
+        registry.getReferences(second.buildNodePoolKey()) == 0
+    }
+}
@@ -0,0 +1,183 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import com.sun.net.httpserver.HttpServer
+import org.apache.http.HttpHost
+import org.elasticsearch.client.Response
+import org.elasticsearch.client.ResponseListener
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ElasticsearchNodePoolSpecification extends Specification {
+
+    List<HttpServer> servers = []
+
+    def cleanup() {
+        servers*.stop(0)
+    }
+
+    HttpHost startNode(AtomicInteger hits, String body = '{}') {
+        def server = HttpServer.create(new InetSocketAddress('127.0.0.1', 0), 0)
+        server.createContext('/') { exchange ->
+            hits.incrementAndGet()
+            def bytes = body.bytes
+            exchange.sendResponseHeaders(200, bytes.length)
+            exchange.responseBody.withCloseable { it.write(bytes) }
+        }
+        server.start()
+        servers << server
+        new HttpHost('127.0.0.1', server.address.port, 'http')
+    }
+
+    static HttpHost deadNode() {
+        def socket = new ServerSocket(0)
+        def port = socket.localPort
+        socket.close()
+        new HttpHost('127.0.0.1', port, 'http')
+    }
+
+    static Object perform(ElasticsearchNodePool pool) {
+        def result = new CompletableFuture<Object>()
+        pool.performRequestAsync('GET', '/', [:], null, new ResponseListener() {
+            void onSuccess(Response response) { result.complete(response) }
+            void onFailure(Exception exception) { result.complete(exception) }
+        })
+        result.get(10, TimeUnit.SECONDS)
+    }
+
+    def "Requests are spread round-robin"() {
+        setup:
+        def first = new AtomicInteger()
+        def second = new AtomicInteger()
+        def pool = new ElasticsearchNodePool([ startNode(first), startNode(second) ], LoadBalancing.ROUND_ROBIN, 0)
+
+        when:
+        def responses = (0..<4).collect { perform(pool) }
+
+        then:
+        responses.every { it instanceof Response }
+        first.get() == 2
+        second.get() == 2
+
+        cleanup:
+        pool.close()
+    }
+
+    def "Requests to dead nodes are retried on live ones, and dead nodes are skipped"() {
+        setup:
+        def hits = new AtomicInteger()
+        def pool = new ElasticsearchNodePool([ deadNode(), startNode(hits) ], LoadBalancing.ROUND_ROBIN, 0)
+
+        when:
+        def responses = (0..<4).collect { perform(pool) }
+
+        then:
+        responses.every { it instanceof Response }
+        hits.get() == 4
+        !pool.nodes[0].isAlive(System.nanoTime())
+        pool.nodes[1].isAlive(System.nanoTime())
+
+        cleanup:
+        pool.close()
+    }
+
+    def "Requests fail once every node has failed"() {
+        setup:
+        def pool = new ElasticsearchNodePool([ deadNode(), deadNode() ], LoadBalancing.ROUND_ROBIN, 0)
+
+        expect:
+        perform(pool) instanceof IOException
+
+        cleanup:
+        pool.close()
+    }
+
+    def "The least busy live node is chosen"() {
+        setup:
+        def pool = new ElasticsearchNodePool(
+            [ new HttpHost('a', 9200), new HttpHost('b', 9200), new HttpHost('c', 9200) ], LoadBalancing.LEAST_IN_FLIGHT, 0)
+        pool.nodes[0].@inFlightRequests.set(3)
+        pool.nodes[1].@inFlightRequests.set(1)
+        pool.nodes[2].@inFlightRequests.set(0)
+        pool.nodes[2].markDead(System.nanoTime())
+
+        expect:
+        (0..<3).collect { pool.select([]).host.hostName } == [ 'b', 'b', 'b' ]
+
+        cleanup:
+        pool.close()
+    }
+
+    def "Backoffs double with each failure, up to a limit"() {
+        setup:
+        def node = new ElasticsearchNodePool.Node(new HttpHost('a', 9200), null)
+        def now = System.nanoTime()
+
+        when:
+        def backoffs = (0..<10).collect {
+            node.markDead(now)
+            TimeUnit.NANOSECONDS.toMillis(node.deadUntilNanos - now)
+        }
+
+        then:
+        backoffs.take(3) == [ 1000L, 2000L, 4000L ]
+        backoffs.last() == ElasticsearchNodePool.MAX_DEAD_NODE_BACKOFF_MILLIS
+
+        when:
+        node.markAlive()
+        node.markDead(now)
+
+        then:
+        node.deadUntilNanos - now == TimeUnit.MILLISECONDS.toNanos(1000)
+    }
+
+    def "Nodes are discovered from the cluster"() {
+        setup:
+        def hits = new AtomicInteger()
+        def other = startNode(hits)
+        def seed = startNode(new AtomicInteger(), """{"nodes":{
+            "n1":{"http":{"publish_address":"127.0.0.1:${other.port}"}},
+            "n2":{"http":{"publish_address":"localhost/127.0.0.1:${other.port + 1}"}},
+            "n3":{"name":"no http"}}}""")
+        def pool = new ElasticsearchNodePool([ seed ], LoadBalancing.ROUND_ROBIN, 0)
+
+        when:
+        pool.discover()
+
+        then:
+        new spock.util.concurrent.PollingConditions(timeout: 5).eventually {
+            assert pool.nodes*.host == [ other, new HttpHost('localhost', other.port + 1, 'http') ]
+        }
+
+        cleanup:
+        pool.close()
+    }
+
+    def "Node addresses default to the given port and scheme"() {
+        expect:
+        ElasticsearchNodePool.parseHost(node, 9200, 'http') == expected
+
+        where:
+        node                         | expected
+        'es1'                        | new HttpHost('es1', 9200, 'http')
+        ' es1:9201 '                 | new HttpHost('es1', 9201, 'http')
+        'https://es1'                | new HttpHost('es1', 9200, 'https')
+        'https://es1:9443'           | new HttpHost('es1', 9443, 'https')
+    }
+}
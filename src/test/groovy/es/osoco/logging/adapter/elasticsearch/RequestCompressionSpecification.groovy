@@ -0,0 +1,81 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPInputStream
+import java.util.zip.InflaterInputStream
+
+class RequestCompressionSpecification extends Specification {
+
+    static byte[] stackTraces() {
+        def error = new IllegalStateException('boom', new IOException('down'))
+        def writer = new StringWriter()
+        50.times { error.printStackTrace(new PrintWriter(writer)) }
+        writer.toString().getBytes(StandardCharsets.UTF_8)
+    }
+
+    static byte[] compressed(RequestCompression compression, byte[] data) {
+        def buffer = new Utf8JsonBuffer(16)
+        compression.compress(data, 0, data.length, buffer)
+        Arrays.copyOf(buffer.bytes, buffer.size())
+    }
+
+    def "Gzip bodies can be decompressed, and are much smaller"() {
+        setup:
+        def data = stackTraces()
+
+        when:
+        def result = compressed(RequestCompression.GZIP, data)
+
+        then:
+        new GZIPInputStream(new ByteArrayInputStream(result)).bytes == data
+        result.length * 10 < data.length
+    }
+
+    def "Deflate bodies can be decompressed"() {
+        setup:
+        def data = stackTraces()
+
+        when:
+        def result = compressed(RequestCompression.DEFLATE, data)
+
+        then:
+        new InflaterInputStream(new ByteArrayInputStream(result)).bytes == data
+    }
+
+    def "Deflaters are reused"() {
+        setup:
+        def first = 'first body'.bytes
+        def second = 'second body'.bytes
+
+        when:
+        compressed(RequestCompression.GZIP, first)
+        def result = compressed(RequestCompression.GZIP, second)
+
+        then:
+        new GZIPInputStream(new ByteArrayInputStream(result)).bytes == second
+    }
+
+    def "Nothing is appended without compression"() {
+        expect:
+        compressed(RequestCompression.NONE, stackTraces()).length == 0
+        RequestCompression.fromName('GZip') == RequestCompression.GZIP
+        RequestCompression.fromName('brotli') == RequestCompression.NONE
+        RequestCompression.fromName(null) == RequestCompression.NONE
+    }
+}
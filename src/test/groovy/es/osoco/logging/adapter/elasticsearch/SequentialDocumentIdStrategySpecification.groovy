@@ -0,0 +1,71 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LogLevel
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+
+class SequentialDocumentIdStrategySpecification extends Specification {
+
+    static LogEvent eventAt(long timestamp) {
+        def event = new LogEvent().populate(LogLevel.INFO, 'cat', 'msg', null, null)
+        event.@timestamp = timestamp
+        event
+    }
+
+    def "Ids are the node, a dash, and the time and sequence in hexadecimal"() {
+        setup:
+        def strategy = new SequentialDocumentIdStrategy('node1')
+
+        when:
+        def id = strategy.buildDocumentId(eventAt(1L))
+
+        then:
+        id == 'node1-' + String.format('%016x', 1L << SequentialDocumentIdStrategy.SEQUENCE_BITS)
+    }
+
+    def "Ids increase even within the same millisecond, or if the clock goes back"() {
+        setup:
+        def strategy = new SequentialDocumentIdStrategy('node1')
+
+        when:
+        def ids = [ 5000L, 5000L, 4000L, 6000L ].collect { strategy.buildDocumentId(eventAt(it)) }
+
+        then:
+        ids == ids.toSorted()
+        ids.toSet().size() == 4
+    }
+
+    def "Ids never repeat across threads"() {
+        setup:
+        def strategy = new SequentialDocumentIdStrategy()
+        def ids = ConcurrentHashMap.newKeySet()
+        def now = System.currentTimeMillis()
+
+        when:
+        (1..4).collect { Thread.start { 10000.times { ids << strategy.buildDocumentId(eventAt(now)) } } }*.join()
+
+        then:
+        ids.size() == 40000
+    }
+
+    def "Random node names differ"() {
+        expect:
+        new SequentialDocumentIdStrategy().node != new SequentialDocumentIdStrategy().node
+    }
+}
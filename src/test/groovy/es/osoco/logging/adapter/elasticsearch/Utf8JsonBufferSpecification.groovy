@@ -0,0 +1,104 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.elasticsearch
+
+import com.google.gson.JsonParser
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+
+class Utf8JsonBufferSpecification extends Specification {
+
+    @Unroll
+    def "Strings are escaped and encoded in UTF-8: #description"() {
+        setup:
+        def buffer = new Utf8JsonBuffer(16)
+
+        when:
+        buffer.writeString(txt)
+
+        then:
+        new JsonParser().parse(buffer.toString()).asString == txt
+        Arrays.copyOf(buffer.bytes, buffer.size()) == buffer.toString().getBytes(StandardCharsets.UTF_8)
+
+        where:
+        description     | txt
+        'plain'         | 'hello'
+        'quotes'        | 'say "hi"'
+        'backslashes'   | 'C:\\temp\\'
+        'control chars' | 'a\nb\r\tc\u0000\u001f\b\f'
+        'two bytes'     | 'año'
+        'three bytes'   | '€100'
+        'four bytes'    | 'smile \ud83d\ude00'
+        'long'          | 'x' * 10000
+    }
+
+    def "Unpaired surrogates are replaced"() {
+        setup:
+        def buffer = new Utf8JsonBuffer()
+
+        when:
+        buffer.writeString('a\ud83db')
+
+        then:
+        buffer.toString() == '"a?b"'
+    }
+
+    def "Numbers are padded to the given width"() {
+        setup:
+        def buffer = new Utf8JsonBuffer()
+
+        when:
+        buffer.writeDigits(7, 2)
+        buffer.write('-' as char)
+        buffer.writeDigits(2017, 2)
+        buffer.write('-' as char)
+        buffer.writeDigits(0, 1)
+
+        then:
+        buffer.toString() == '07-2017-0'
+    }
+
+    def "Cleared buffers keep their capacity"() {
+        setup:
+        def buffer = new Utf8JsonBuffer(16)
+        buffer.writeString('x' * 100)
+        def capacity = buffer.capacity()
+
+        when:
+        buffer.clear()
+
+        then:
+        buffer.size() == 0
+        buffer.capacity() == capacity
+        capacity > 100
+    }
+
+    def "Strings can be written piece by piece"() {
+        setup:
+        def whole = new Utf8JsonBuffer()
+        def pieces = new Utf8JsonBuffer()
+
+        when:
+        whole.writeString('at "x"\nañ€😀')
+        pieces.write('"' as char)
+        [ 'at "x"', '\n', 'añ€', '😀' ].each { pieces.writeEscaped(it) }
+        pieces.write('"' as char)
+
+        then:
+        pieces.toString() == whole.toString()
+    }
+}
@@ -0,0 +1,121 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.adapter.spool
+
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+class DiskSpoolSpecification extends Specification {
+
+    Path directory = Files.createTempDirectory('spool')
+
+    def cleanup() {
+        directory.toFile().deleteDir()
+    }
+
+    static boolean append(DiskSpool spool, String record) {
+        def bytes = record.bytes
+        spool.append(bytes, 0, bytes.length)
+    }
+
+    static List<String> drain(DiskSpool spool) {
+        def result = []
+        byte[] record
+        while ((record = spool.peek()) != null) {
+            result << new String(record)
+            spool.remove()
+        }
+        result
+    }
+
+    def "Records come out in the order they went in, across segments"() {
+        setup:
+        def spool = new DiskSpool(directory, 128, 1024 * 1024)
+
+        when:
+        (0..<20).each { append(spool, "record $it") }
+
+        then:
+        !spool.empty
+        Files.list(directory).count() > 1
+        drain(spool) == (0..<20).collect { "record $it" }
+        spool.empty
+        Files.list(directory).count() == 1
+    }
+
+    def "Records survive reopening the spool"() {
+        setup:
+        def spool = new DiskSpool(directory, 128, 1024 * 1024)
+        (0..<10).each { append(spool, "record $it") }
+        2.times { spool.remove() }
+        spool.close()
+
+        when:
+        def reopened = new DiskSpool(directory, 128, 1024 * 1024)
+
+        then:
+        drain(reopened) == (2..<10).collect { "record $it" }
+    }
+
+    def "Records beyond the disk space are discarded"() {
+        setup:
+        def spool = new DiskSpool(directory, 64, 128)
+
+        when:
+        def appended = (0..<10).collect { append(spool, "record $it") }
+
+        then:
+        appended.count { it } < 10
+        !appended.last()
+        spool.discardedRecords == appended.count { !it }
+        spool.sizeInBytes <= 128
+    }
+
+    def "Records larger than a segment get their own"() {
+        setup:
+        def spool = new DiskSpool(directory, 64, 1024 * 1024)
+        def large = 'x' * 1000
+
+        when:
+        append(spool, 'small')
+        append(spool, large)
+
+        then:
+        drain(spool) == [ 'small', large ]
+    }
+
+    def "Corrupted records, and those after them in the same segment, are skipped"() {
+        setup:
+        def spool = new DiskSpool(directory, 1024, 1024 * 1024)
+        append(spool, 'first')
+        append(spool, 'second')
+        spool.close()
+        def file = Files.list(directory).findFirst().get()
+        FileChannel.open(file, StandardOpenOption.WRITE).withCloseable {
+            it.write(ByteBuffer.wrap('X'.bytes), SpoolSegment.HEADER_BYTES + SpoolSegment.RECORD_HEADER_BYTES)
+        }
+
+        when:
+        def reopened = new DiskSpool(directory, 1024, 1024 * 1024)
+
+        then:
+        drain(reopened) == []
+    }
+}
@@ -0,0 +1,60 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.helper
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CallerCategoryHelperSpecification
+    extends Specification {
+
+    @Unroll
+    def "isValidCategory('#category') is #valid"() {
+        expect:
+        CallerCategoryHelper.getInstance().isValidCategory(category) == valid
+
+        where:
+        category                                       | valid
+        'com.foo.Bar'                                  | true
+        'es.osoco.logging.impl.CompositeLogging'       | false
+        'org.codehaus.groovy.runtime.InvokerHelper'    | false
+    }
+
+    def "The caller category is the first class accepted by the filter"() {
+        expect:
+        CallerCategoryHelper.getInstance().retrieveCallerCategory({ it == CallerCategoryHelperSpecification.name }) ==
+            CallerCategoryHelperSpecification.name
+    }
+
+    def "Callers are found without walking past the accepted frame"() {
+        given:
+        def visited = []
+
+        when:
+        def caller = CallerClassFinder.getInstance().findCaller({ visited << it; it == CallerCategoryHelperSpecification })
+
+        then:
+        caller == CallerCategoryHelperSpecification
+        visited.last() == CallerCategoryHelperSpecification
+    }
+
+    def "The caller category of library classes is never one of them"() {
+        when:
+        def category = CallerCategoryHelper.getInstance().retrieveCallerCategory()
+
+        then:
+        category == null || CallerCategoryHelper.getInstance().isValidCategory(category)
+    }
+}
@@ -0,0 +1,50 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.helper
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class MessageFormatHelperSpecification
+    extends Specification {
+
+    @Unroll
+    def "format('#pattern', #args) builds '#expected'"() {
+        expect:
+        MessageFormatHelper.getInstance().format(pattern, args as Object[]) == expected
+
+        where:
+        pattern                | args                                  || expected
+        'no placeholders'      | []                                    || 'no placeholders'
+        'Hello {}'             | ['world']                             || 'Hello world'
+        '{} + {} = {}'         | [1, 2, 3]                             || '1 + 2 = 3'
+        'missing {} and {}'    | ['one']                               || 'missing one and {}'
+        'extra {}'             | ['one', 'two']                        || 'extra one'
+        'escaped \\{} and {}'  | ['arg']                               || 'escaped {} and arg'
+        'null {}'              | [null]                                || 'null null'
+        'array {}'             | [['a', 'b'] as Object[]]              || 'array [a, b]'
+        'failed {}'            | ['task', new IllegalStateException()] || 'failed task'
+    }
+
+    def "The trailing Throwable is retrieved as the error"() {
+        setup:
+        def error = new IllegalStateException()
+
+        expect:
+        MessageFormatHelper.getInstance().retrieveError(['a', error] as Object[]).is(error)
+        MessageFormatHelper.getInstance().retrieveError([error, 'a'] as Object[]) == null
+        MessageFormatHelper.getInstance().retrieveError(null) == null
+    }
+}
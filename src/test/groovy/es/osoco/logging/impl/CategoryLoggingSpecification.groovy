@@ -0,0 +1,83 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl
+
+import es.osoco.logging.adapter.printstream.PrintStreamLoggingAdapter
+import es.osoco.logging.adapter.printstream.PrintStreamLoggingConfiguration
+import spock.lang.Specification
+
+class CategoryLoggingSpecification
+    extends Specification {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream()
+
+    PrintStreamLoggingAdapter adapter =
+        new PrintStreamLoggingAdapter(new PrintStreamLoggingConfiguration('test', new PrintStream(output, true)))
+
+    CategoryLogging logging = new CategoryLogging('my.category', new CompositeLogging([ adapter ], []))
+
+    def "Messages are logged in the bound category"() {
+        when:
+        logging.info('hello')
+        logging.warnf('{} and {}', 'this', 'that')
+
+        then:
+        output.toString().contains('[my.category]:hello')
+        output.toString().contains('[my.category]:this and that')
+    }
+
+    def "Levels are resolved once and cached"() {
+        when:
+        logging.debug('ignored')
+
+        then:
+        logging.@levels != CategoryLogging.UNRESOLVED
+        !logging.debugEnabled
+        logging.infoEnabled
+        output.size() == 0
+    }
+
+    def "Enabling a level through the handle applies to its category"() {
+        when:
+        logging.debug('ignored')
+        logging.debugEnabled = true
+        logging.debug('logged')
+
+        then:
+        logging.debugEnabled
+        adapter.isDebugEnabled('my.category')
+        !adapter.isDebugEnabled('other.category')
+        !output.toString().contains('ignored')
+        output.toString().contains('[my.category]:logged')
+    }
+
+    def "Changes made on the adapters discard the cached levels"() {
+        given:
+        logging.info('first')
+
+        when:
+        adapter.setInfoEnabled('my.category', false)
+
+        then:
+        logging.@levels == CategoryLogging.UNRESOLVED
+
+        when:
+        logging.info('second')
+
+        then:
+        output.toString().contains('first')
+        !output.toString().contains('second')
+    }
+}
@@ -0,0 +1,122 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl
+
+import spock.lang.Specification
+
+class CircuitBreakerSpecification
+    extends Specification {
+
+    def "The circuit opens once enough calls in a window fail"() {
+        setup:
+        def breaker = new CircuitBreaker(50, 4, 10, 60000)
+
+        when:
+        breaker.recordFailure()
+        breaker.recordSuccess()
+        breaker.recordSuccess()
+
+        then:
+        breaker.state == CircuitState.CLOSED
+        breaker.allowsCall()
+
+        when:
+        breaker.recordFailure()
+
+        then:
+        breaker.state == CircuitState.OPEN
+        !breaker.allowsCall()
+    }
+
+    def "Successes are not counted until a failure starts a window"() {
+        setup:
+        def breaker = new CircuitBreaker(50, 4, 10, 60000)
+
+        when:
+        100.times { breaker.recordSuccess() }
+
+        then:
+        breaker.window.get() == 0L
+
+        when:
+        breaker.recordFailure()
+        breaker.recordSuccess()
+
+        then:
+        breaker.window.get() == 2 * CircuitBreaker.CALL + CircuitBreaker.FAILURE
+    }
+
+    def "Failures of previous windows are forgotten"() {
+        setup:
+        def breaker = new CircuitBreaker(50, 4, 4, 60000)
+
+        when:
+        breaker.recordFailure()
+        3.times { breaker.recordSuccess() }
+        3.times { breaker.recordSuccess() }
+        breaker.recordFailure()
+
+        then:
+        breaker.state == CircuitState.CLOSED
+    }
+
+    def "A single probe is allowed once the interval elapses, and its outcome decides the state"() {
+        setup:
+        def breaker = new CircuitBreaker(50, 1, 1, 0)
+        breaker.recordFailure()
+
+        expect:
+        breaker.state == CircuitState.OPEN
+
+        when:
+        def first = breaker.allowsCall()
+        def second = breaker.allowsCall()
+
+        then:
+        first
+        !second
+        breaker.state == CircuitState.HALF_OPEN
+
+        when:
+        breaker.recordFailure()
+
+        then:
+        breaker.state == CircuitState.OPEN
+
+        when:
+        breaker.allowsCall()
+        breaker.recordSuccess()
+
+        then:
+        breaker.state == CircuitState.CLOSED
+        breaker.allowsCall()
+    }
+
+    def "Circuit breakers are disabled by default"() {
+        expect:
+        CircuitBreaker.fromEnvironment() == null
+    }
+
+    def "Circuit breakers can be enabled"() {
+        setup:
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROPERTY, 'true')
+
+        expect:
+        CircuitBreaker.fromEnvironment() != null
+
+        cleanup:
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROPERTY)
+    }
+}
@@ -0,0 +1,201 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl
+
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LogLevel
+import es.osoco.logging.adapter.LoggingAdapter
+import es.osoco.logging.adapter.printstream.PrintStreamLoggingAdapter
+import es.osoco.logging.adapter.printstream.PrintStreamLoggingConfiguration
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class CompositeLoggingSpecification
+    extends Specification {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream()
+
+    CompositeLogging logging = new CompositeLogging(
+        [ new PrintStreamLoggingAdapter(new PrintStreamLoggingConfiguration('test', new PrintStream(output, true))) ],
+        [])
+
+    def "Disabled levels don't format the message"() {
+        setup:
+        def arg = new CountingArgument()
+
+        when:
+        logging.debugf('value: {}', arg)
+
+        then:
+        arg.count == 0
+        output.size() == 0
+    }
+
+    def "Enabled levels format the message with its arguments"() {
+        when:
+        logging.infof('{} items in {}', 3, 'cart')
+
+        then:
+        output.toString().contains('3 items in cart')
+    }
+
+    def "A trailing Throwable gets logged as the error"() {
+        when:
+        logging.errorf('{} failed', 'task', new IllegalStateException('boom'))
+
+        then:
+        output.toString().contains('task failed')
+        output.toString().contains('IllegalStateException: boom')
+    }
+
+    def "Disabled levels don't call the message supplier"() {
+        setup:
+        int calls = 0
+
+        when:
+        logging.trace({ calls++; 'expensive' } as Supplier<String>)
+
+        then:
+        calls == 0
+        output.size() == 0
+    }
+
+    def "The message supplier is called once regardless of the number of adapters"() {
+        setup:
+        int calls = 0
+        def config = new PrintStreamLoggingConfiguration('other', new PrintStream(output, true))
+        logging.immutableSetPreferred(logging.preferred + new PrintStreamLoggingAdapter(config))
+
+        when:
+        logging.info('custom.category', { calls++; 'expensive' } as Supplier<String>)
+
+        then:
+        calls == 1
+        output.toString().count('[custom.category]:expensive') == 2
+    }
+
+    def "All adapters receive the same event"() {
+        setup:
+        def received = []
+        def config = new PrintStreamLoggingConfiguration('capturing', new PrintStream(output, true))
+        def capturing = new PrintStreamLoggingAdapter(config) {
+            @Override
+            protected void logEvent(LogEvent event) {
+                received << event
+            }
+        }
+        logging.immutableSetPreferred(logging.preferred + capturing + capturing)
+
+        when:
+        logging.warn('custom.category', 'once')
+
+        then:
+        received.size() == 2
+        received[0].is(received[1])
+        output.toString().contains('[custom.category]:once')
+    }
+
+    def "Each adapter's level is checked once per event"() {
+        setup:
+        def disabled = Mock(LoggingAdapter)
+        def first = Mock(LoggingAdapter)
+        def second = Mock(LoggingAdapter)
+        def composite = new CompositeLogging([ disabled, first, second ], [])
+
+        when:
+        composite.info('custom.category', 'once')
+
+        then:
+        1 * disabled.isEnabled(LogLevel.INFO, 'custom.category') >> false
+        1 * first.isEnabled(LogLevel.INFO, 'custom.category') >> true
+        1 * second.isEnabled(LogLevel.INFO, 'custom.category') >> true
+        0 * disabled.logEnabled(_)
+        1 * first.logEnabled({ it.message == 'once' })
+        1 * second.logEnabled({ it.message == 'once' })
+        0 * _.log(_)
+    }
+
+    def "Preferred adapters with an open circuit are skipped, and their events go to the fallback ones"() {
+        setup:
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROPERTY, 'true')
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_PROPERTY, '3')
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_PROPERTY, '60000')
+        int calls = 0
+        def config = new PrintStreamLoggingConfiguration('failing', new PrintStream(output, true))
+        def failing = new PrintStreamLoggingAdapter(config) {
+            @Override
+            protected void logEvent(LogEvent event) {
+                calls++
+                throw new IllegalStateException('down')
+            }
+        }
+        def composite = new CompositeLogging([ failing ], logging.preferred)
+
+        when:
+        10.times { composite.info("message $it") }
+
+        then:
+        calls == 3
+        composite.immutableGetPreferredBreakers()[0].state == CircuitState.OPEN
+        (0..<10).every { output.toString().contains("message $it") }
+
+        cleanup:
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROPERTY)
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_PROPERTY)
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_PROPERTY)
+    }
+
+    def "Events an adapter is not enabled for neither consult nor feed its circuit breaker"() {
+        setup:
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROPERTY, 'true')
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_PROPERTY, '1')
+        System.setProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_PROPERTY, '60000')
+        def config = new PrintStreamLoggingConfiguration('failing', new PrintStream(new ByteArrayOutputStream(), true))
+        def failing = new PrintStreamLoggingAdapter(config) {
+            @Override
+            protected void logEvent(LogEvent event) {
+                throw new IllegalStateException('down')
+            }
+        }
+        def healthy = logging.preferred[0]
+        healthy.setDebugEnabled('custom.category', true)
+        def composite = new CompositeLogging([ healthy, failing ], [ healthy ])
+
+        when:
+        composite.info('opens the circuit')
+        output.reset()
+        composite.debug('custom.category', 'filtered out by the failing adapter')
+
+        then:
+        composite.immutableGetPreferredBreakers()[1].state == CircuitState.OPEN
+        output.toString().count('filtered out by the failing adapter') == 1
+
+        cleanup:
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROPERTY)
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_MINIMUM_CALLS_PROPERTY)
+        System.clearProperty(CircuitBreaker.LOGGING_CIRCUIT_BREAKER_PROBE_INTERVAL_PROPERTY)
+    }
+
+    static class CountingArgument {
+        int count
+
+        @Override
+        String toString() {
+            count++
+            return 'counted'
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl
+
+import es.osoco.logging.LoggingFactory
+import es.osoco.logging.adapter.AbstractLoggingAdapter
+import es.osoco.logging.adapter.LogEvent
+import es.osoco.logging.adapter.LoggingAdapterBuilderRegistry
+import es.osoco.logging.config.LoggingConfiguration
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class FanOutCompositeLoggingSpecification
+    extends Specification {
+
+    static class RecordingLoggingAdapter extends AbstractLoggingAdapter<LoggingConfiguration> {
+        final List<String> messages = new CopyOnWriteArrayList<>()
+        final List<String> threads = new CopyOnWriteArrayList<>()
+        CountDownLatch released = new CountDownLatch(0)
+        boolean failing
+
+        RecordingLoggingAdapter() {
+            super({ "recording" } as LoggingConfiguration)
+        }
+
+        @Override
+        protected void logEvent(LogEvent event) {
+            released.await()
+            if (failing) {
+                throw new IllegalStateException("failing")
+            }
+            messages << event.message
+            threads << Thread.currentThread().name
+        }
+
+        protected void logError(String category, String msg) {}
+        protected void logError(String category, String msg, Throwable error) {}
+        protected void logWarn(String category, String msg) {}
+        protected void logWarn(String category, String msg, Throwable error) {}
+        protected void logInfo(String category, String msg) {}
+        protected void logInfo(String category, String msg, Throwable error) {}
+        protected void logDebug(String category, String msg) {}
+        protected void logDebug(String category, String msg, Throwable error) {}
+        protected void logTrace(String category, String msg) {}
+        protected void logTrace(String category, String msg, Throwable error) {}
+    }
+
+    def "A stuck adapter delays neither the others nor the caller, and each one receives the events in order"() {
+        setup:
+        def slow = new RecordingLoggingAdapter(released: new CountDownLatch(1))
+        def fast = new RecordingLoggingAdapter()
+        def logging = new FanOutCompositeLogging([ slow, fast ], [])
+        def expected = (0..<50).collect { "message $it".toString() }
+
+        when:
+        50.times { logging.info("message $it") }
+        LoggingLanes.getInstance().getLane(fast).with { lane ->
+            def deadline = System.currentTimeMillis() + 5000
+            while (!lane.idle && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5)
+            }
+        }
+
+        then:
+        fast.messages == expected
+        slow.messages.isEmpty()
+        !fast.threads.contains(Thread.currentThread().name)
+
+        when:
+        slow.released.countDown()
+        LoggingLanes.getInstance().awaitIdle(5000)
+
+        then:
+        slow.messages == expected
+    }
+
+    def "The fallback adapters receive each event once if any preferred adapter fails"() {
+        setup:
+        def failing = new RecordingLoggingAdapter(failing: true)
+        def alsoFailing = new RecordingLoggingAdapter(failing: true)
+        def working = new RecordingLoggingAdapter()
+        def fallback = new RecordingLoggingAdapter()
+
+        when:
+        new FanOutCompositeLogging([ working ], [ fallback ]).info("fine")
+        new FanOutCompositeLogging([ failing, alsoFailing, working ], [ fallback ]).info("broken")
+        LoggingLanes.getInstance().awaitIdle(5000)
+
+        then:
+        working.messages == [ "fine", "broken" ]
+        fallback.messages == [ "broken" ]
+    }
+
+    def "The factory fans out only if enabled"() {
+        setup:
+        def factory = LoggingFactory.getInstance()
+        def registry = LoggingAdapterBuilderRegistry.getInstance()
+        String[] none = []
+
+        expect:
+        !(factory.buildCompositeLogging(none, none, registry) instanceof FanOutCompositeLogging)
+
+        when:
+        System.setProperty(LoggingLanes.LOGGING_FANOUT_PROPERTY, "true")
+
+        then:
+        factory.buildCompositeLogging(none, none, registry) instanceof FanOutCompositeLogging
+
+        cleanup:
+        System.clearProperty(LoggingLanes.LOGGING_FANOUT_PROPERTY)
+    }
+}
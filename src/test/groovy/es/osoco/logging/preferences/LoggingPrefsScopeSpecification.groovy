@@ -0,0 +1,123 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.preferences
+
+import es.osoco.logging.annotations.LoggingPreferences
+import spock.lang.Specification
+
+class LoggingPrefsScopeSpecification extends Specification {
+
+    @LoggingPreferences(preferred = "outer-preferred", fallback = "outer-fallback")
+    static class Outer {
+        @LoggingPreferences(preferred = "method-preferred", fallback = "method-fallback")
+        void annotated() {
+        }
+
+        void plain() {
+        }
+    }
+
+    static class NotAnnotated {
+    }
+
+    static class ScopedLoggingPrefs extends LoggingPrefs {
+        @Override
+        protected PreferencesResolution retrieveResolution() {
+            PreferencesResolution.SCOPED
+        }
+
+        @Override
+        protected boolean retrieveDiscoverLoggingAnnotationsEnabled() {
+            false
+        }
+    }
+
+    def "Resolution values are parsed ignoring case, falling back to the default"() {
+        expect:
+        PreferencesResolution.fromValue(value, PreferencesResolution.STACK_TRACE) == expected
+
+        where:
+        value         | expected
+        "scoped"      | PreferencesResolution.SCOPED
+        "SCOPED"      | PreferencesResolution.SCOPED
+        "stack-trace" | PreferencesResolution.STACK_TRACE
+        "whatever"    | PreferencesResolution.STACK_TRACE
+        null          | PreferencesResolution.STACK_TRACE
+    }
+
+    def "Scoped preferences come from the innermost scope, and are restored when it closes"() {
+        given:
+        def prefs = new ScopedLoggingPrefs()
+
+        expect:
+        prefs.myPreferredLogging() == prefs.getDefaultPreferred()
+
+        when:
+        def outer = prefs.enter(Outer)
+
+        then:
+        prefs.myPreferredLogging() == ["outer-preferred"] as String[]
+        prefs.myFallbackLogging() == ["outer-fallback"] as String[]
+
+        when:
+        def inner = prefs.enter(Outer.getDeclaredMethod("annotated"))
+
+        then:
+        prefs.myPreferredLogging() == ["method-preferred"] as String[]
+
+        when:
+        inner.close()
+
+        then:
+        prefs.myPreferredLogging() == ["outer-preferred"] as String[]
+
+        when:
+        outer.close()
+
+        then:
+        prefs.myPreferredLogging() == prefs.getDefaultPreferred()
+        prefs.myFallbackLogging() == prefs.getDefaultFallback()
+    }
+
+    def "Methods without annotation use their class', and classes without annotation keep the enclosing scope"() {
+        given:
+        def prefs = new ScopedLoggingPrefs()
+
+        expect:
+        prefs.callWithin(Outer.getDeclaredMethod("plain"), { prefs.myPreferredLogging() }) == ["outer-preferred"] as String[]
+        prefs.callWithin(Outer, {
+            prefs.callWithin(NotAnnotated, { prefs.myFallbackLogging() })
+        }) == ["outer-fallback"] as String[]
+        prefs.myPreferredLogging() == prefs.getDefaultPreferred()
+    }
+
+    def "Scopes are per thread"() {
+        given:
+        def prefs = new ScopedLoggingPrefs()
+        String[] seen = null
+        def scope = prefs.enter(Outer)
+
+        when:
+        def thread = new Thread({ seen = prefs.myPreferredLogging() })
+        thread.start()
+        thread.join()
+
+        then:
+        seen == prefs.getDefaultPreferred()
+
+        cleanup:
+        scope.close()
+    }
+}
@@ -0,0 +1,190 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.adapter.AbstractLoggingAdapter;
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.config.LoggingConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link es.osoco.logging.adapter.LogLevel}-based dispatch of {@link CompositeLogging}
+ * with the former one, which allocated a {@link LoggingCall} per call and delegated on it for each adapter.
+ * Run it with {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath}, and then
+ * {@code java -cp target/test-classes:target/classes:$(cat target/test.classpath) org.openjdk.jmh.Main CompositeLoggingDispatchBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings("deprecation")
+public class CompositeLoggingDispatchBenchmark {
+
+    @Param({ "1", "3" })
+    public int adapters;
+
+    private CompositeLogging logging;
+
+    private LoggingCallCompositeLogging loggingCallLogging;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final List<LoggingAdapter> preferred = new ArrayList<>(adapters);
+        for (int index = 0; index < adapters; index++) {
+            preferred.add(new BlackholeLoggingAdapter(blackhole));
+        }
+        logging = new CompositeLogging(preferred, Collections.emptyList());
+        loggingCallLogging = new LoggingCallCompositeLogging(preferred);
+    }
+
+    @Benchmark
+    public void levelDispatchEnabled() {
+        logging.info("benchmark", "message");
+    }
+
+    @Benchmark
+    public void loggingCallDispatchEnabled() {
+        loggingCallLogging.info("benchmark", "message");
+    }
+
+    @Benchmark
+    public void levelDispatchDisabled() {
+        logging.debug("benchmark", "message");
+    }
+
+    @Benchmark
+    public void loggingCallDispatchDisabled() {
+        loggingCallLogging.debug("benchmark", "message");
+    }
+
+    public static void main(final String[] args)
+        throws RunnerException {
+        new Runner(new OptionsBuilder().include(CompositeLoggingDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * The dispatch {@link CompositeLogging} used before, kept as reference.
+     */
+    static final class LoggingCallCompositeLogging {
+
+        private final List<LoggingAdapter> preferred;
+
+        LoggingCallCompositeLogging(final List<LoggingAdapter> preferred) {
+            this.preferred = preferred;
+        }
+
+        void info(final String category, final String msg) {
+            log(category, msg, new LoggingInfoCall());
+        }
+
+        void debug(final String category, final String msg) {
+            log(category, msg, new LoggingDebugCall());
+        }
+
+        private void log(final String category, final String msg, final LoggingCall loggingCallable) {
+            for (final LoggingAdapter adapter : preferred) {
+                try {
+                    loggingCallable.log(adapter, category, msg);
+                } catch (final Throwable error) {
+                }
+            }
+        }
+    }
+
+    /**
+     * An adapter consuming the messages into a {@link Blackhole}.
+     */
+    static final class BlackholeLoggingAdapter
+        extends AbstractLoggingAdapter<LoggingConfiguration> {
+
+        private final Blackhole blackhole;
+
+        BlackholeLoggingAdapter(final Blackhole blackhole) {
+            super(() -> "benchmark");
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        protected void logError(final String category, final String msg) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logError(final String category, final String msg, final Throwable error) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logWarn(final String category, final String msg) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logWarn(final String category, final String msg, final Throwable error) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logInfo(final String category, final String msg) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logInfo(final String category, final String msg, final Throwable error) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logDebug(final String category, final String msg) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logDebug(final String category, final String msg, final Throwable error) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logTrace(final String category, final String msg) {
+            blackhole.consume(msg);
+        }
+
+        @Override
+        protected void logTrace(final String category, final String msg, final Throwable error) {
+            blackhole.consume(msg);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public License
+  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package es.osoco.logging.impl;
+
+import es.osoco.logging.adapter.LoggingAdapter;
+import es.osoco.logging.adapter.LoggingLevelSwitches;
+import es.osoco.logging.impl.CompositeLoggingDispatchBenchmark.BlackholeLoggingAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures disabled level checks with and without {@link LoggingLevelSwitches}.
+ * Run it with {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath}, and then
+ * {@code java -cp target/test-classes:target/classes:$(cat target/test.classpath) org.openjdk.jmh.Main LoggingLevelSwitchesBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingLevelSwitchesBenchmark {
+
+    private CompositeLogging logging;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final List<LoggingAdapter> preferred = new ArrayList<>(3);
+        for (int index = 0; index < 3; index++) {
+            preferred.add(new BlackholeLoggingAdapter(blackhole));
+        }
+        logging = new CompositeLogging(preferred, Collections.emptyList());
+    }
+
+    @Benchmark
+    public boolean isDebugEnabled() {
+        return logging.isDebugEnabled();
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        logging.debug("benchmark", "message");
+    }
+
+    public static void main(final String[] args)
+        throws RunnerException {
+        for (final String switches : new String[] { "false", "true" }) {
+            new Runner(
+                new OptionsBuilder()
+                    .include(LoggingLevelSwitchesBenchmark.class.getSimpleName())
+                    .jvmArgsAppend("-D" + LoggingLevelSwitches.LOGGING_LEVEL_SWITCHES_PROPERTY + "=" + switches)
+                    .build())
+                .run();
+        }
+    }
+}